@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmark;
+
+import java.io.StringWriter;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.Aura;
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.service.CachingService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.system.MasterDefRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes the definitions (app.js) and styles (app.css) of a large app, as AuraResourceServlet does: from the cached
+ * output, and built again with the output caches dropped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AppResourceBenchmark {
+
+    @Param({ "markup://auradocs:docs" })
+    public String app;
+
+    private Set<DefDescriptor<?>> dependencies;
+
+    /**
+     * Drops the cached output before each call, so that it is built again.
+     */
+    @State(Scope.Thread)
+    public static class Uncached {
+        @Setup(Level.Invocation)
+        public void dropOutput() {
+            CachingService cachingService = Aura.getCachingService();
+            cachingService.getStringsCache().invalidateAll();
+            cachingService.getResourcePayloadCache().invalidateAll();
+            cachingService.getDefinitionJsonCache().invalidateAll();
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        DefDescriptor<ApplicationDef> appDescriptor = Aura.getDefinitionService().getDefDescriptor(app,
+                ApplicationDef.class);
+        AuraContext context = Aura.getContextService().startContext(Mode.PROD, Format.JS,
+                Authentication.AUTHENTICATED, appDescriptor);
+        MasterDefRegistry mdr = context.getDefRegistry();
+        String uid = mdr.getUid(null, appDescriptor);
+        context.addLoaded(appDescriptor, uid);
+        dependencies = mdr.getDependencies(uid);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Aura.getContextService().endContext();
+    }
+
+    private int writeDefinitions() throws Exception {
+        StringWriter out = new StringWriter(1024 * 1024);
+        Aura.getServerService().writeDefinitions(dependencies, out);
+        return out.getBuffer().length();
+    }
+
+    private int writeAppCss() throws Exception {
+        StringWriter out = new StringWriter(256 * 1024);
+        Aura.getServerService().writeAppCss(dependencies, out);
+        return out.getBuffer().length();
+    }
+
+    @Benchmark
+    public int writeDefinitionsCached() throws Exception {
+        return writeDefinitions();
+    }
+
+    @Benchmark
+    @BenchmarkMode(org.openjdk.jmh.annotations.Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 10)
+    public int writeDefinitionsUncached(Uncached uncached) throws Exception {
+        return writeDefinitions();
+    }
+
+    @Benchmark
+    public int writeAppCssCached() throws Exception {
+        return writeAppCss();
+    }
+
+    @Benchmark
+    @BenchmarkMode(org.openjdk.jmh.annotations.Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 10)
+    public int writeAppCssUncached(Uncached uncached) throws Exception {
+        return writeAppCss();
+    }
+}
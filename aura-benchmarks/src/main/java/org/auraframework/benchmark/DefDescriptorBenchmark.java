@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.auraframework.Aura;
+import org.auraframework.cache.Cache;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.ControllerDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DescriptorKey;
+import org.auraframework.def.Definition;
+import org.auraframework.impl.cache.CacheImpl;
+import org.auraframework.impl.cache.DescriptorInternCache;
+import org.auraframework.impl.system.DefDescriptorImpl;
+import org.auraframework.impl.system.QualifiedNameParser;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looks up and parses descriptor names, as descriptor creation does during JSON deserialization and compilation,
+ * comparing the descriptor intern table and name parser with the size-bounded cache and patterns they replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DefDescriptorBenchmark {
+    private static final Pattern TAG_PATTERN = Pattern
+            .compile("(?:([\\w\\*]+)://)?(?:([\\w\\-\\*]+):)?([\\w\\$\\*]+)");
+    private static final Pattern CLASS_PATTERN = Pattern
+            .compile("\\A(?:([\\w\\*]+)://)?((?:[\\w\\*]|\\.)*?)?\\.?+([\\w,$\\*]*?(?:\\[\\])?)(<[\\w.,(<[\\w.,]+>)]+>)?\\z");
+
+    private static final String[] TAG_NAMES = { "markup://aura:text", "markup://ui:button", "aura:html",
+            "markup://ui:inputText", "markup://aura:component", "markup://ui:outputDateTime" };
+    private static final String[] CLASS_NAMES = { "java://org.auraframework.components.ui.TreeNode",
+            "js://ui.button", "java://java.util.List<java.lang.String>", "css://ui.inputText",
+            "java://org.auraframework.impl.java.controller.TestController", "apex://String" };
+
+    private DescriptorKey[] keys;
+    private Cache<DescriptorKey, DefDescriptor<? extends Definition>> internTable;
+    private Cache<DescriptorKey, DefDescriptor<? extends Definition>> boundedCache;
+
+    @Setup
+    public void setUp() {
+        Aura.getContextService().startContext(Mode.PROD, Format.JSON, Authentication.AUTHENTICATED);
+        internTable = new DescriptorInternCache("defDescByNameCache", 1024 * 20);
+        // configured as the descriptor cache was before it became an intern table
+        boundedCache = new CacheImpl.Builder<DescriptorKey, DefDescriptor<? extends Definition>>()
+                .setInitialSize(512).setMaximumSize(1024 * 20).setConcurrencyLevel(20).build();
+        keys = new DescriptorKey[TAG_NAMES.length + CLASS_NAMES.length];
+        int i = 0;
+        for (String name : TAG_NAMES) {
+            keys[i++] = put(new DescriptorKey(name, ComponentDef.class));
+        }
+        for (String name : CLASS_NAMES) {
+            keys[i++] = put(new DescriptorKey(name, ControllerDef.class));
+        }
+    }
+
+    private DescriptorKey put(DescriptorKey key) {
+        @SuppressWarnings("unchecked")
+        Class<Definition> defClass = (Class<Definition>) key.getClazz();
+        DefDescriptor<Definition> descriptor = DefDescriptorImpl.getInstance(key.getName(), defClass);
+        internTable.put(key, descriptor);
+        boundedCache.put(key, descriptor);
+        return key;
+    }
+
+    @TearDown
+    public void tearDown() {
+        Aura.getContextService().endContext();
+    }
+
+    @Benchmark
+    public DefDescriptor<ComponentDef> getInstance() {
+        return DefDescriptorImpl.getInstance("markup://ui:button", ComponentDef.class);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object lookupInternTable() {
+        Object last = null;
+        for (DescriptorKey key : keys) {
+            last = internTable.getIfPresent(key);
+        }
+        return last;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object lookupBoundedCache() {
+        Object last = null;
+        for (DescriptorKey key : keys) {
+            last = boundedCache.getIfPresent(key);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public Object parseNames() {
+        Object last = null;
+        for (String name : TAG_NAMES) {
+            last = QualifiedNameParser.parseTag(name);
+        }
+        for (String name : CLASS_NAMES) {
+            last = QualifiedNameParser.parseClass(name);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public Object matchPatterns() {
+        Object last = null;
+        for (String name : TAG_NAMES) {
+            Matcher matcher = TAG_PATTERN.matcher(name);
+            last = matcher.matches() ? matcher.group(3) : null;
+        }
+        for (String name : CLASS_NAMES) {
+            Matcher matcher = CLASS_PATTERN.matcher(name);
+            last = matcher.matches() ? matcher.group(3) : null;
+        }
+        return last;
+    }
+}
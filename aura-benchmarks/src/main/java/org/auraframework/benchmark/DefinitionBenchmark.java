@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.Aura;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Gets a component definition through the master def registry: from the registry of the current request, from a new
+ * request with the shared caches filled, and with those caches dropped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DefinitionBenchmark {
+
+    @Param({ "markup://ui:button", "markup://ui:inputDateTime" })
+    public String descriptor;
+
+    private DefDescriptor<ComponentDef> componentDescriptor;
+
+    /**
+     * Drops the shared definition and dependency caches before each call.
+     */
+    @State(Scope.Thread)
+    public static class ColdCaches {
+        @Setup(Level.Invocation)
+        public void dropCaches() {
+            Aura.getCachingService().invalidateSourceRelatedCaches(null);
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        startContext();
+        componentDescriptor = Aura.getDefinitionService().getDefDescriptor(descriptor, ComponentDef.class);
+        componentDescriptor.getDef();
+    }
+
+    @TearDown
+    public void tearDown() {
+        Aura.getContextService().endContext();
+    }
+
+    private void startContext() {
+        Aura.getContextService().startContext(Mode.PROD, Format.JSON, Authentication.AUTHENTICATED);
+    }
+
+    private ComponentDef getDefInNewContext() throws Exception {
+        Aura.getContextService().endContext();
+        startContext();
+        return Aura.getDefinitionService().getDefinition(componentDescriptor);
+    }
+
+    @Benchmark
+    public ComponentDef getDefWarm() throws Exception {
+        return Aura.getDefinitionService().getDefinition(componentDescriptor);
+    }
+
+    @Benchmark
+    public ComponentDef getDefNewContext() throws Exception {
+        return getDefInNewContext();
+    }
+
+    @Benchmark
+    @BenchmarkMode(org.openjdk.jmh.annotations.Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 20)
+    public ComponentDef getDefCold(ColdCaches cold) throws Exception {
+        return getDefInNewContext();
+    }
+}
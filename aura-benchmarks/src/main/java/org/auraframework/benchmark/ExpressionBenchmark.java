@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CharStream;
+import org.antlr.runtime.CommonTokenStream;
+import org.auraframework.components.AuraComponentsFiles;
+import org.auraframework.expression.Expression;
+import org.auraframework.expression.PropertyReference;
+import org.auraframework.impl.expression.ExpressionAdapterImpl;
+import org.auraframework.impl.expression.ExpressionFactory;
+import org.auraframework.impl.expression.parser.ExpressionLexer;
+import org.auraframework.impl.expression.parser.ExpressionParser;
+import org.auraframework.instance.ValueProvider;
+import org.auraframework.system.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Builds and evaluates every expression found in the aura-components markup, as loading and rendering those components
+ * would. Needs aura.home to find the sources.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ExpressionBenchmark {
+    private static final Pattern EXPRESSION = Pattern.compile("\\{[!#](.*?)\\}", Pattern.DOTALL);
+
+    private static final ValueProvider VALUES = new ValueProvider() {
+        @Override
+        public Object getValue(PropertyReference key) {
+            return key.getLeaf();
+        }
+    };
+
+    private final Location location = new Location("benchmark", -1);
+    private final ExpressionAdapterImpl adapter = new ExpressionAdapterImpl();
+    private List<String> texts;
+    private List<Expression> expressions;
+
+    @Setup
+    public void setUp() throws Exception {
+        final Set<String> found = Sets.newLinkedHashSet();
+        Files.walkFileTree(AuraComponentsFiles.Components.asFile().toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".cmp") || name.endsWith(".app") || name.endsWith(".intf")
+                        || name.endsWith(".evt")) {
+                    Matcher matcher = EXPRESSION.matcher(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+                    while (matcher.find()) {
+                        found.add(matcher.group(1));
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        texts = Lists.newArrayListWithCapacity(found.size());
+        expressions = Lists.newArrayListWithCapacity(found.size());
+        for (String text : found) {
+            try {
+                expressions.add(adapter.buildExpression(text, location));
+                texts.add(text);
+            } catch (Exception e) {
+                // not an expression after all (e.g. javascript in a script tag)
+            }
+        }
+        if (texts.isEmpty()) {
+            throw new IllegalStateException("No expressions found under " + AuraComponentsFiles.Components.getPath());
+        }
+    }
+
+    /**
+     * Parse every expression with the grammar, as was done for each one before expressions were cached.
+     */
+    @Benchmark
+    public int parse() throws Exception {
+        int count = 0;
+        for (String text : texts) {
+            ExpressionParser parser = new ExpressionParser(new CommonTokenStream(new ExpressionLexer(
+                    new CaseInsensitiveStringStream(text))));
+            parser.setExpressionFactory(new ExpressionFactory(location));
+            if (parser.expression() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int build() throws Exception {
+        int count = 0;
+        for (String text : texts) {
+            if (adapter.buildExpression(text, location) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int evaluate() throws Exception {
+        int count = 0;
+        for (Expression expression : expressions) {
+            if (expression.evaluate(VALUES) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The same lower casing lookahead as the adapter uses.
+     */
+    private static class CaseInsensitiveStringStream extends ANTLRStringStream {
+        private CaseInsensitiveStringStream(String input) {
+            super(input);
+        }
+
+        @Override
+        public int LA(int i) {
+            if (i == 0) {
+                return 0;
+            }
+            if (i < 0) {
+                i++;
+            }
+            if ((p + i - 1) >= n) {
+                return CharStream.EOF;
+            }
+            return Character.toLowerCase(data[p + i - 1]);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.Aura;
+import org.auraframework.def.ControllerDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.impl.java.controller.JavaAction;
+import org.auraframework.impl.java.controller.JavaActionDef;
+import org.auraframework.impl.java.controller.JavaControllerDefFactory;
+import org.auraframework.system.Annotations.AuraEnabled;
+import org.auraframework.system.Annotations.Controller;
+import org.auraframework.system.Annotations.Key;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Dispatches server actions as ServerService does for each action in a request: converting the parameters sent and
+ * calling the controller method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class JavaActionBenchmark {
+
+    @Controller
+    public static class BenchmarkController {
+        @AuraEnabled
+        public static String getGreeting() {
+            return "hello";
+        }
+
+        @AuraEnabled
+        public static int add(@Key("a") Integer a, @Key("b") int b) {
+            return a + b;
+        }
+
+        @AuraEnabled
+        public static int countItems(@Key("name") String name, @Key("items") List<String> items,
+                @Key("enabled") Boolean enabled) {
+            return enabled ? name.length() + items.size() : 0;
+        }
+    }
+
+    private DefDescriptor<ControllerDef> controllerDescriptor;
+    private JavaActionDef noParams;
+    private JavaActionDef converted;
+    private JavaActionDef mixed;
+    private Map<String, Object> noValues;
+    private Map<String, Object> convertedValues;
+    private Map<String, Object> mixedValues;
+
+    @Setup
+    public void setUp() throws Exception {
+        Aura.getContextService().startContext(Mode.PROD, Format.JSON, Authentication.AUTHENTICATED);
+        controllerDescriptor = Aura.getDefinitionService().getDefDescriptor(
+                "java://" + BenchmarkController.class.getName(), ControllerDef.class);
+        Map<String, JavaActionDef> actions = JavaControllerDefFactory.createActions(BenchmarkController.class,
+                controllerDescriptor, false);
+        noParams = actions.get("getGreeting");
+        converted = actions.get("add");
+        mixed = actions.get("countItems");
+        noValues = ImmutableMap.of();
+        // numbers arrive from the client as strings or BigDecimals
+        convertedValues = ImmutableMap.<String, Object> of("a", "20", "b", "22");
+        mixedValues = ImmutableMap.<String, Object> of("name", "benchmark", "items",
+                ImmutableList.of("one", "two", "three"), "enabled", Boolean.TRUE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Aura.getContextService().endContext();
+    }
+
+    private Object run(JavaActionDef actionDef, Map<String, Object> values) {
+        JavaAction action = new JavaAction(controllerDescriptor, actionDef, null, values);
+        action.run();
+        return action.getReturnValue();
+    }
+
+    @Benchmark
+    public Object dispatchNoParams() {
+        return run(noParams, noValues);
+    }
+
+    @Benchmark
+    public Object dispatchConvertedParams() {
+        return run(converted, convertedValues);
+    }
+
+    @Benchmark
+    public Object dispatchMixedParams() {
+        return run(mixed, mixedValues);
+    }
+}
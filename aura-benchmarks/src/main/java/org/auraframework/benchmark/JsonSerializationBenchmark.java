@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmark;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.Aura;
+import org.auraframework.def.BaseComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Serializes the component definitions of whole namespaces to JSON, as writeDefinitions does for an app.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({ "markup://ui:*", "markup://aura:*" })
+    public String filter;
+
+    private List<BaseComponentDef> defs;
+
+    @Setup
+    public void setUp() throws Exception {
+        Aura.getContextService().startContext(Mode.PROD, Format.JSON, Authentication.AUTHENTICATED);
+        Set<DefDescriptor<?>> descriptors = Aura.getDefinitionService().find(
+                new DescriptorFilter(filter, "COMPONENT,APPLICATION"));
+        defs = Lists.newArrayListWithCapacity(descriptors.size());
+        for (DefDescriptor<?> descriptor : descriptors) {
+            defs.add((BaseComponentDef) descriptor.getDef());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Aura.getContextService().endContext();
+    }
+
+    @Benchmark
+    public int serializeComponentDefs() throws Exception {
+        StringBuilder sb = new StringBuilder(256 * 1024);
+        Aura.getSerializationService().writeCollection(defs, BaseComponentDef.class, sb, "JSON");
+        return sb.length();
+    }
+}
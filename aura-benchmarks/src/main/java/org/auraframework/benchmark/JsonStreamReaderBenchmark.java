@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmark;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.Aura;
+import org.auraframework.def.BaseComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.util.json.JsonStreamReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Parses JSON with JsonStreamReader: a boxcar of actions as the client posts it, and the definitions of the ui
+ * namespace as a large document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class JsonStreamReaderBenchmark {
+
+    private String message;
+    private String definitions;
+
+    @Setup
+    public void setUp() throws Exception {
+        message = ServerServiceBenchmark.createMessage(10);
+
+        Aura.getContextService().startContext(Mode.PROD, Format.JSON, Authentication.AUTHENTICATED);
+        try {
+            Set<DefDescriptor<?>> descriptors = Aura.getDefinitionService().find(
+                    new DescriptorFilter("markup://ui:*", "COMPONENT"));
+            List<BaseComponentDef> defs = Lists.newArrayListWithCapacity(descriptors.size());
+            for (DefDescriptor<?> descriptor : descriptors) {
+                defs.add((BaseComponentDef) descriptor.getDef());
+            }
+            StringBuilder sb = new StringBuilder(1024 * 1024);
+            Aura.getSerializationService().writeCollection(defs, BaseComponentDef.class, sb, "JSON");
+            definitions = sb.toString();
+        } finally {
+            Aura.getContextService().endContext();
+        }
+    }
+
+    private Object parse(String json) throws Exception {
+        JsonStreamReader reader = new JsonStreamReader(json);
+        try {
+            reader.next();
+            return reader.getValue();
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Benchmark
+    public Object parseMessage() throws Exception {
+        return parse(message);
+    }
+
+    @Benchmark
+    public Object parseDefinitions() throws Exception {
+        return parse(definitions);
+    }
+}
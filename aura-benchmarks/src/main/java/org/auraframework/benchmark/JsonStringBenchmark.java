@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmark;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.util.AuraTextUtil;
+import org.auraframework.util.date.IsoDateTimeFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the old and new ways Json writes strings and dates. The date benchmarks run on several threads, since the
+ * old formatter was shared under a lock.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class JsonStringBenchmark {
+    private static final SimpleDateFormat ISO8601FORMAT;
+    static {
+        ISO8601FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+        ISO8601FORMAT.setTimeZone(TimeZone.getTimeZone("GMT"));
+    }
+
+    private String plain;
+    private String escaped;
+    private Date date;
+    private final StringBuilder out = new StringBuilder(1024);
+
+    @Setup
+    public void setUp() {
+        plain = "markup://ui:inputText is a plain attribute description with no special characters";
+        escaped = "function(cmp, event) {\n\tvar label = \"<b>\" + cmp.get(\"v.label\") + \"</b>\";\n}";
+        date = new Date(1400000000000L);
+    }
+
+    @Benchmark
+    public int escapePlainCopying() {
+        out.setLength(0);
+        out.append(AuraTextUtil.escapeForJSONString(plain));
+        return out.length();
+    }
+
+    @Benchmark
+    public int escapePlainStreaming() throws Exception {
+        out.setLength(0);
+        AuraTextUtil.escapeForJSONString(plain, out);
+        return out.length();
+    }
+
+    @Benchmark
+    public int escapeSpecialCopying() {
+        out.setLength(0);
+        out.append(AuraTextUtil.escapeForJSONString(escaped));
+        return out.length();
+    }
+
+    @Benchmark
+    public int escapeSpecialStreaming() throws Exception {
+        out.setLength(0);
+        AuraTextUtil.escapeForJSONString(escaped, out);
+        return out.length();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int dateSynchronized() {
+        out.setLength(0);
+        synchronized (ISO8601FORMAT) {
+            out.append(ISO8601FORMAT.format(date));
+        }
+        return out.length();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int dateLockFree() throws Exception {
+        out.setLength(0);
+        IsoDateTimeFormat.formatUtc(date.getTime(), out);
+        return out.length();
+    }
+}
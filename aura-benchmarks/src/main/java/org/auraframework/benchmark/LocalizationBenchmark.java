@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmark;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.Aura;
+import org.auraframework.service.LocalizationService;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.util.date.DateConverter;
+import org.auraframework.util.date.DateServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Formats and parses numbers and dates with LocalizationService for a given locale, and parses each form of ISO-8601
+ * date that the generic converter accepts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class LocalizationBenchmark {
+
+    @Param({ "en_US", "fr_FR", "ja_JP" })
+    public String locale;
+
+    /**
+     * One of the forms of ISO-8601 date, kept apart so that the locale benchmarks don't run for each.
+     */
+    @State(Scope.Benchmark)
+    public static class IsoDate {
+        @Param({ "2013-10-21T15:30:45.123Z", "2013-10-21T15:30:45.123-07:00", "2013-10-21T15:30:45Z",
+                "2013-10-21T15:30Z", "2013-10-21" })
+        public String value;
+
+        private final DateConverter converter = DateServiceImpl.get().getGenericISO8601Converter();
+    }
+
+    private final Date date = new Date(1382369445123L);
+    private final TimeZone timeZone = TimeZone.getTimeZone("America/Los_Angeles");
+
+    private LocalizationService localizationService;
+    private Locale javaLocale;
+    private String formattedNumber;
+
+    @Setup
+    public void setUp() {
+        Aura.getContextService().startContext(Mode.PROD, Format.JSON, Authentication.AUTHENTICATED);
+        localizationService = Aura.getLocalizationService();
+        String[] parts = locale.split("_");
+        javaLocale = new Locale(parts[0], parts[1]);
+        formattedNumber = localizationService.formatNumber(1234567.891, javaLocale);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Aura.getContextService().endContext();
+    }
+
+    @Benchmark
+    public Date parseIsoDate(IsoDate isoDate) {
+        return isoDate.converter.parse(isoDate.value);
+    }
+
+    @Benchmark
+    public String formatNumber() {
+        return localizationService.formatNumber(1234567.891, javaLocale);
+    }
+
+    @Benchmark
+    public String formatPercent() {
+        return localizationService.formatPercent(0.256, javaLocale);
+    }
+
+    @Benchmark
+    public String formatCurrency() {
+        return localizationService.formatCurrency(-1234.5, javaLocale);
+    }
+
+    @Benchmark
+    public double parseDouble() throws ParseException {
+        return localizationService.parseDouble(formattedNumber, javaLocale);
+    }
+
+    @Benchmark
+    public String formatDateTime() {
+        return localizationService.formatDateTime(date, javaLocale, timeZone);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmark;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.Aura;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.system.Message;
+import org.auraframework.util.json.Json;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+/**
+ * Reads and runs a boxcar of actions as AuraServlet does for a post: parsing the message, running each action and
+ * writing the response with the context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ServerServiceBenchmark {
+
+    private static final List<Map<String, Object>> COMPONENTS = ImmutableList.<Map<String, Object>> of(
+            ImmutableMap.<String, Object> of("name", "ui:button", "attributes",
+                    ImmutableMap.of("label", "Save")),
+            ImmutableMap.<String, Object> of("name", "ui:outputText", "attributes",
+                    ImmutableMap.of("value", "Some text to show")),
+            ImmutableMap.<String, Object> of("name", "ui:inputText", "attributes",
+                    ImmutableMap.of("label", "Name", "value", "Some text to edit")));
+
+    @Param({ "1", "10" })
+    public int actions;
+
+    private String message;
+    private AuraContext context;
+
+    /**
+     * Build a message as the client sends it, with the given number of getComponent actions.
+     */
+    static String createMessage(int actions) {
+        List<Map<String, Object>> list = Lists.newArrayListWithCapacity(actions);
+        for (int i = 0; i < actions; i++) {
+            list.add(ImmutableMap.<String, Object> of(
+                    "id", (i + 1) + ";a",
+                    "descriptor", "aura://ComponentController/ACTION$getComponent",
+                    "callingDescriptor", "UNKNOWN",
+                    "params", COMPONENTS.get(i % COMPONENTS.size())));
+        }
+        return Json.serialize(ImmutableMap.of("actions", list));
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        context = Aura.getContextService().startContext(Mode.PROD, Format.JSON, Authentication.AUTHENTICATED);
+        message = createMessage(actions);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Aura.getContextService().endContext();
+    }
+
+    private Message readMessage() throws Exception {
+        return Aura.getSerializationService().read(new StringReader(message), Message.class);
+    }
+
+    @Benchmark
+    public Message read() throws Exception {
+        return readMessage();
+    }
+
+    @Benchmark
+    public int run() throws Exception {
+        StringWriter out = new StringWriter(16 * 1024);
+        Aura.getServerService().run(readMessage(), context, out, null);
+        return out.getBuffer().length();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.Aura;
+import org.auraframework.adapter.ComponentLocationAdapter;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.impl.root.parser.XMLParser;
+import org.auraframework.impl.source.file.FileSourceLoader;
+import org.auraframework.impl.source.resource.ResourceSourceLoader;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.system.Source;
+import org.auraframework.system.SourceLoader;
+import org.auraframework.util.ServiceLocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Parses the markup of every component in a namespace with XMLParser. The sources are read from the component
+ * locations directly, as the registries may hold the definitions precompiled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class XMLParserBenchmark {
+
+    @Param({ "markup://ui:*", "markup://aura:*" })
+    public String filter;
+
+    private final List<DefDescriptor<ComponentDef>> descriptors = Lists.newArrayList();
+    private final List<Source<ComponentDef>> sources = Lists.newArrayList();
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        Aura.getContextService().startContext(Mode.PROD, Format.JSON, Authentication.AUTHENTICATED);
+        DescriptorFilter matcher = new DescriptorFilter(filter, "COMPONENT");
+        for (ComponentLocationAdapter location : ServiceLocator.get().getAll(ComponentLocationAdapter.class)) {
+            SourceLoader loader;
+            if (location.getComponentSourcePackage() != null) {
+                loader = new ResourceSourceLoader(location.getComponentSourcePackage());
+            } else if (location.getComponentSourceDir() != null && location.getComponentSourceDir().isDirectory()) {
+                loader = new FileSourceLoader(location.getComponentSourceDir());
+            } else {
+                continue;
+            }
+            for (DefDescriptor<?> descriptor : loader.find(matcher)) {
+                Source<ComponentDef> source = loader.getSource((DefDescriptor<ComponentDef>) descriptor);
+                if (source != null && source.exists()) {
+                    descriptors.add((DefDescriptor<ComponentDef>) descriptor);
+                    sources.add(source);
+                }
+            }
+        }
+        if (sources.isEmpty()) {
+            throw new IllegalStateException("No component sources found for " + filter);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Aura.getContextService().endContext();
+    }
+
+    @Benchmark
+    public int parseNamespace() throws Exception {
+        XMLParser parser = XMLParser.getInstance();
+        int parsed = 0;
+        for (int i = 0; i < sources.size(); i++) {
+            if (parser.parse(descriptors.get(i), sources.get(i)) != null) {
+                parsed++;
+            }
+        }
+        return parsed;
+    }
+}
@@ -18,6 +18,7 @@ package org.auraframework.impl.expression;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.List;
 
 import org.antlr.runtime.ANTLRReaderStream;
 import org.antlr.runtime.BaseRecognizer;
@@ -31,6 +32,7 @@ import org.antlr.runtime.Token;
 import org.auraframework.adapter.ExpressionAdapter;
 import org.auraframework.ds.serviceloader.AuraServiceProvider;
 import org.auraframework.expression.Expression;
+import org.auraframework.expression.PropertyReference;
 import org.auraframework.impl.expression.parser.ExpressionLexer;
 import org.auraframework.impl.expression.parser.ExpressionParser;
 import org.auraframework.system.Location;
@@ -38,16 +40,55 @@ import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.AuraValidationException;
 import org.auraframework.throwable.quickfix.InvalidExpressionException;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+
 import aQute.bnd.annotation.component.Component;
 
 /**
  * adapter that calls our expression factory
+ *
+ * The same expressions turn up in many places, so parsed expressions are kept by their text, and each caller gets a
+ * copy (expressions are not immutable, and carry the location they were built for).
  */
 @Component (provide=AuraServiceProvider.class)
 public class ExpressionAdapterImpl implements ExpressionAdapter {
 
+    private static final Cache<String, Expression> parsed = CacheBuilder.newBuilder()
+            .maximumSize(Integer.getInteger("aura.cache.expressionCacheSize", 10000))
+            .build();
+
     @Override
     public Expression buildExpression(String s, Location l) throws AuraValidationException {
+        Expression e = parsed.getIfPresent(s);
+        if (e == null) {
+            e = parse(s, l);
+            parsed.put(s, e);
+        }
+        return copy(e, l);
+    }
+
+    /**
+     * Copy a parsed expression, at a new location.
+     */
+    private static Expression copy(Expression e, Location l) {
+        if (e instanceof FunctionCallImpl) {
+            FunctionCallImpl call = (FunctionCallImpl) e;
+            List<Expression> args = call.getArguments();
+            ImmutableList.Builder<Expression> copies = ImmutableList.builder();
+            for (Expression arg : args) {
+                copies.add(copy(arg, l));
+            }
+            return new FunctionCallImpl(call, copies.build(), l);
+        } else if (e instanceof PropertyReference) {
+            return new PropertyReferenceImpl(((PropertyReference) e).getList(), l);
+        } else {
+            return new LiteralImpl(((LiteralImpl) e).getValue(), l);
+        }
+    }
+
+    private static Expression parse(String s, Location l) throws AuraValidationException {
         ExpressionLexer lexer;
         try {
             lexer = new ExpressionLexer(new CaseInsensitiveReaderStream(new StringReader(s)));
@@ -25,8 +25,12 @@ import org.auraframework.def.TypeDef;
 import org.auraframework.expression.Expression;
 import org.auraframework.expression.ExpressionType;
 import org.auraframework.expression.FunctionCall;
+import org.auraframework.expression.Literal;
 import org.auraframework.expression.PropertyReference;
+import org.auraframework.impl.expression.functions.BinaryFunction;
 import org.auraframework.impl.expression.functions.Function;
+import org.auraframework.impl.expression.functions.TernaryFunction;
+import org.auraframework.impl.expression.functions.UnaryFunction;
 import org.auraframework.instance.ValueProvider;
 import org.auraframework.system.Location;
 import org.auraframework.throwable.quickfix.QuickFixException;
@@ -35,6 +39,9 @@ import org.auraframework.util.json.JsonSerializer.NoneSerializer;
 
 /**
  * function calling expression
+ *
+ * Functions have no side effects, so a call whose arguments are all constant is evaluated once, when it is built, and
+ * its value kept. It is still a function call in every other respect (e.g. it serializes the same way).
  */
 public class FunctionCallImpl implements FunctionCall {
 
@@ -46,10 +53,67 @@ public class FunctionCallImpl implements FunctionCall {
     private final Location l;
     private boolean byValue=false;
 
+    /** the number of arguments, if the function can be called with them directly, otherwise 0 */
+    private final int arity;
+
+    /** whether the value is known without evaluating anything */
+    private final boolean constant;
+    private final Object value;
+
     public FunctionCallImpl(Function f, List<Expression> args, Location l) {
         this.args = args;
         this.f = f;
         this.l = l;
+        this.arity = getArity(f, args.size());
+
+        boolean constant = false;
+        Object value = null;
+        if (isConstant(args)) {
+            try {
+                value = evaluateArgs(null);
+                constant = true;
+            } catch (QuickFixException | RuntimeException e) {
+                // leave it to fail the same way when it is evaluated.
+            }
+        }
+        this.constant = constant;
+        this.value = value;
+    }
+
+    /**
+     * A copy of a call, with new arguments (copies of the originals) and location.
+     */
+    FunctionCallImpl(FunctionCallImpl call, List<Expression> args, Location l) {
+        this.args = args;
+        this.f = call.f;
+        this.l = l;
+        this.arity = call.arity;
+        this.constant = call.constant;
+        this.value = call.value;
+    }
+
+    private static int getArity(Function f, int size) {
+        if ((size == 1 && f instanceof UnaryFunction) || (size == 2 && f instanceof BinaryFunction)
+                || (size == 3 && f instanceof TernaryFunction)) {
+            return size;
+        }
+        return 0;
+    }
+
+    private static boolean isConstant(List<Expression> args) {
+        for (Expression e : args) {
+            if (!(e instanceof Literal || (e instanceof FunctionCallImpl && ((FunctionCallImpl) e).constant))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether this call has the same value whatever it is evaluated against.
+     */
+    public boolean isConstant() {
+        return constant;
     }
 
     @Override
@@ -64,11 +128,32 @@ public class FunctionCallImpl implements FunctionCall {
 
     @Override
     public Object evaluate(ValueProvider vp) throws QuickFixException {
-        List<Object> list = new ArrayList<Object>(args.size());
-        for (Expression e : args) {
-            list.add(e.evaluate(vp));
+        if (constant) {
+            return value;
         }
-        return f.evaluate(list);
+        return evaluateArgs(vp);
+    }
+
+    private Object evaluateArgs(ValueProvider vp) throws QuickFixException {
+        switch (arity) {
+        case 1:
+            return ((UnaryFunction) f).evaluate(args.get(0).evaluate(vp));
+        case 2:
+            return ((BinaryFunction) f).evaluate(args.get(0).evaluate(vp), args.get(1).evaluate(vp));
+        case 3:
+            return ((TernaryFunction) f).evaluate(args.get(0).evaluate(vp), args.get(1).evaluate(vp),
+                    args.get(2).evaluate(vp));
+        default:
+            List<Object> list = new ArrayList<Object>(args.size());
+            for (Expression e : args) {
+                list.add(e.evaluate(vp));
+            }
+            return f.evaluate(list);
+        }
+    }
+
+    List<Expression> getArguments() {
+        return args;
     }
 
     @Override
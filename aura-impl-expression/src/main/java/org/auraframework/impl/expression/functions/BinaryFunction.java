@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.expression.functions;
+
+import java.util.List;
+
+/**
+ * a function of exactly two arguments, which can be called without building a list of them
+ */
+public abstract class BinaryFunction implements Function {
+    private static final long serialVersionUID = 6215037940118724873L;
+
+    @Override
+    public Object evaluate(List<Object> args) {
+        return evaluate(args.get(0), args.get(1));
+    }
+
+    public abstract Object evaluate(Object a1, Object a2);
+}
@@ -15,8 +15,6 @@
  */
 package org.auraframework.impl.expression.functions;
 
-import java.util.List;
-
 /**
  * An implementation of the boolean functions to mimic JS.
  */
@@ -53,15 +51,15 @@ public class BooleanFunctions {
      * value. This means that the return value is not really a boolean, but will evaluate as one correctly
      * if isTruthy is used. If you need a boolean, use a !!
      */
-    public static class And implements Function {
+    public static class And extends BinaryFunction {
         private static final long serialVersionUID = -6827790391366942300L;
 
         @Override
-        public Object evaluate(List<Object> args) {
-            if (!isTruthy(args.get(0))) {
-                return args.get(0);
+        public Object evaluate(Object a1, Object a2) {
+            if (!isTruthy(a1)) {
+                return a1;
             }
-            return args.get(1);
+            return a2;
         }
 
         @Override
@@ -77,15 +75,15 @@ public class BooleanFunctions {
      * value. This means that the return value is not really a boolean, but will evaluate as one correctly
      * if isTruthy is used. If you need a boolean, use a !!
      */
-    public static class Or implements Function {
+    public static class Or extends BinaryFunction {
         private static final long serialVersionUID = 5302839029031364114L;
 
         @Override
-        public Object evaluate(List<Object> args) {
-            if (isTruthy(args.get(0))) {
-                return args.get(0);
+        public Object evaluate(Object a1, Object a2) {
+            if (isTruthy(a1)) {
+                return a1;
             }
-            return args.get(1);
+            return a2;
         }
 
         @Override
@@ -99,12 +97,12 @@ public class BooleanFunctions {
      *
      * Not will always return a boolean, and evaluates using isTruthy.
      */
-    public static class Not implements Function {
+    public static class Not extends UnaryFunction {
         private static final long serialVersionUID = 2749177700513718436L;
 
         @Override
-        public Object evaluate(List<Object> args) {
-            return Boolean.valueOf(!isTruthy(args.get(0)));
+        public Object evaluate(Object arg) {
+            return Boolean.valueOf(!isTruthy(arg));
         }
 
         @Override
@@ -119,12 +117,12 @@ public class BooleanFunctions {
      * This function is very close to Java, with the only deviation being that the first
      * value is evaluated for truthiness.
      */
-    public static class Ternary implements Function {
+    public static class Ternary extends TernaryFunction {
         private static final long serialVersionUID = 7767941492912263247L;
 
         @Override
-        public Object evaluate(List<Object> args) {
-            return isTruthy(args.get(0)) ? args.get(1) : args.get(2);
+        public Object evaluate(Object a1, Object a2, Object a3) {
+            return isTruthy(a1) ? a2 : a3;
         }
 
         @Override
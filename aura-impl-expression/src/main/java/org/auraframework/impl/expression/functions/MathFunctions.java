@@ -15,8 +15,6 @@
  */
 package org.auraframework.impl.expression.functions;
 
-import java.util.List;
-
 /**
  * functions that do mathy stuff
  */
@@ -29,7 +27,7 @@ public class MathFunctions {
     public static final Function NEGATE = new Negate();
     public static final Function ABSOLUTE = new Absolute();
 
-    private static abstract class BinaryNumberFunction implements Function {
+    private static abstract class BinaryNumberFunction extends BinaryFunction {
         private static final long serialVersionUID = -1225813696832918245L;
 
         private final boolean allowString;
@@ -39,9 +37,7 @@ public class MathFunctions {
         }
 
         @Override
-        public Object evaluate(List<Object> args) {
-            Object o1 = args.get(0);
-            Object o2 = args.get(1);
+        public Object evaluate(Object o1, Object o2) {
             Number a1, a2;
 
             if (allowString && (o1 instanceof String || o2 instanceof String)
@@ -132,12 +128,12 @@ public class MathFunctions {
         }
     }
 
-    public static class Negate implements Function {
+    public static class Negate extends UnaryFunction {
         private static final long serialVersionUID = -8356257901220555636L;
 
         @Override
-        public Object evaluate(List<Object> args) {
-            Number a1 = JavascriptHelpers.convertToNumber(args.get(0));
+        public Object evaluate(Object arg) {
+            Number a1 = JavascriptHelpers.convertToNumber(arg);
 
             return Double.valueOf(-a1.doubleValue());
         }
@@ -148,12 +144,12 @@ public class MathFunctions {
         }
     }
 
-    public static class Absolute implements Function {
+    public static class Absolute extends UnaryFunction {
         private static final long serialVersionUID = 3242148581747160277L;
 
         @Override
-        public Object evaluate(List<Object> args) {
-            Number a1 = JavascriptHelpers.convertToNumber(args.get(0));
+        public Object evaluate(Object arg) {
+            Number a1 = JavascriptHelpers.convertToNumber(arg);
 
             return Double.valueOf(Math.abs(a1.doubleValue()));
         }
@@ -15,8 +15,6 @@
  */
 package org.auraframework.impl.expression.functions;
 
-import java.util.List;
-
 /**
  * functions that can have multiple different types of arguments
  */
@@ -30,13 +28,11 @@ public class MultiFunctions {
     public static final Function LESS_THAN = new LessThan();
     public static final Function LESS_THAN_OR_EQUAL = new LessThanOrEqual();
 
-    private static abstract class BinaryComparisonFunction implements Function {
+    private static abstract class BinaryComparisonFunction extends BinaryFunction {
         private static final long serialVersionUID = -1225813696832918245L;
 
         @Override
-        public Object evaluate(List<Object> args) {
-            Object o1 = args.get(0);
-            Object o2 = args.get(1);
+        public Object evaluate(Object o1, Object o2) {
             Number a1, a2;
 
             if ((o1 instanceof String || o2 instanceof String) && !(o1 instanceof Number || o2 instanceof Number)) {
@@ -57,13 +53,11 @@ public class MultiFunctions {
     /**
      * add is special because it can also be used to concatenate 2 strings
      */
-    public static class Add implements Function {
+    public static class Add extends BinaryFunction {
         private static final long serialVersionUID = -2912682621623213084L;
 
         @Override
-        public Object evaluate(List<Object> args) {
-            Object a1 = args.get(0);
-            Object a2 = args.get(1);
+        public Object evaluate(Object a1, Object a2) {
             if ((a1 instanceof Number || a1 == null)  && (a2 instanceof Number || a2 == null)) {
                 if (a1 == null) {
                     a1 = Double.valueOf(0);
@@ -84,14 +78,11 @@ public class MultiFunctions {
 
     }
 
-    public static class Equals implements Function {
+    public static class Equals extends BinaryFunction {
         private static final long serialVersionUID = 8488913551076190333L;
 
         @Override
-        public Boolean evaluate(List<Object> args) {
-            Object o1 = args.get(0);
-            Object o2 = args.get(1);
-
+        public Boolean evaluate(Object o1, Object o2) {
             if (o1 == o2) {
                 return Boolean.TRUE;
             } else if (o1 instanceof Number && o2 instanceof Number) {
@@ -108,12 +99,12 @@ public class MultiFunctions {
         }
     }
 
-    public static class NotEquals implements Function {
+    public static class NotEquals extends BinaryFunction {
         private static final long serialVersionUID = -3069271109822863820L;
 
         @Override
-        public Boolean evaluate(List<Object> args) {
-            return Boolean.valueOf(!EQUALS.evaluate(args).booleanValue());
+        public Boolean evaluate(Object o1, Object o2) {
+            return Boolean.valueOf(!EQUALS.evaluate(o1, o2).booleanValue());
         }
 
         @Override
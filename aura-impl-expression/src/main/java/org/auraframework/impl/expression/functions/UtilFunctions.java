@@ -46,12 +46,12 @@ public class UtilFunctions {
      *
      * Not will always return a boolean, and evaluates using isTruthy.
      */
-    public static class Empty implements Function {
+    public static class Empty extends UnaryFunction {
 		private static final long serialVersionUID = -8834318118368934926L;
 
 		@Override
-        public Object evaluate(List<Object> args) {
-            return Boolean.valueOf(isEmpty(args.get(0)));
+        public Object evaluate(Object arg) {
+            return Boolean.valueOf(isEmpty(arg));
         }
 
         @Override
@@ -162,6 +162,53 @@ public class ExpressionTest extends AuraImplExpressionTestCase {
         verifyEvaluateResult("5 +\r\n1\r\n!=\r\n'null'", ExpressionType.FUNCTION, null, true);
     }
 
+    /**
+     * Calls with only constant arguments are evaluated when built, but are still function calls.
+     */
+    public void testConstantFolding() throws Exception {
+        FunctionCallImpl e = (FunctionCallImpl) buildExpression("(1 + 2) * 3 == 9 ? 'nine' : 'not nine'");
+        assertTrue(e.isConstant());
+        assertEquals(ExpressionType.FUNCTION, e.getExpressionType());
+        assertEquals("nine", e.evaluate(null));
+
+        e = (FunctionCallImpl) buildExpression("(1 + 2) * i314");
+        assertFalse(e.isConstant());
+        assertTrue(((FunctionCallImpl) e.getArguments().get(0)).isConstant());
+    }
+
+    /**
+     * A constant call that fails is left to fail when evaluated.
+     */
+    public void testConstantFoldingFailure() throws Exception {
+        FunctionCallImpl e = (FunctionCallImpl) buildExpression("add(1)");
+        assertFalse(e.isConstant());
+        try {
+            e.evaluate(null);
+            fail("Expected too few arguments to fail");
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
+
+    /**
+     * Building the same text again gives a separate expression, at the new location.
+     */
+    public void testBuildExpressionCopies() throws Exception {
+        Location other = new Location("other", -1);
+        ExpressionAdapterImpl adapter = new ExpressionAdapterImpl();
+        Expression e1 = adapter.buildExpression("v.label + v.body", l);
+        Expression e2 = adapter.buildExpression("v.label + v.body", other);
+        assertNotSame(e1, e2);
+        assertSame(l, e1.getLocation());
+        assertSame(other, e2.getLocation());
+
+        e1.setByValue(true);
+        PropertyReferenceImpl ref1 = (PropertyReferenceImpl) ((FunctionCallImpl) e1).getArguments().get(0);
+        PropertyReferenceImpl ref2 = (PropertyReferenceImpl) ((FunctionCallImpl) e2).getArguments().get(0);
+        assertEquals("{#v.label}", ref1.toString(true));
+        assertEquals("{!v.label}", ref2.toString(true));
+        assertSame(other, ref2.getLocation());
+    }
+
     private void verifyEvaluateResult(String expression, ExpressionType type, ValueProvider vp, Object result)
             throws Exception {
         Expression e = buildExpression(expression);
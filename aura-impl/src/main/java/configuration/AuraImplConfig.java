@@ -17,6 +17,7 @@ package configuration;
 
 import org.auraframework.Aura;
 import org.auraframework.adapter.BeanAdapter;
+import org.auraframework.adapter.CacheAdapter;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.ContextAdapter;
 import org.auraframework.adapter.DefinitionParserAdapter;
@@ -79,6 +80,8 @@ import org.auraframework.impl.adapter.format.json.MessageJSONFormatAdapter;
 import org.auraframework.impl.adapter.format.json.TestSuiteDefJSONFormatAdapter;
 import org.auraframework.impl.adapter.format.json.ThrowableJSONFormatAdapter;
 import org.auraframework.impl.adapter.format.svg.SVGFormatAdapter;
+import org.auraframework.impl.cache.FrequencyCacheAdapterImpl;
+import org.auraframework.impl.cache.GuavaCacheAdapterImpl;
 import org.auraframework.impl.clientlibrary.ClientLibraryServiceImpl;
 import org.auraframework.impl.context.AuraContextServiceImpl;
 import org.auraframework.impl.context.AuraPrefixDefaultsProviderImpl;
@@ -201,6 +204,16 @@ public class AuraImplConfig {
         return new CachingServiceImpl();
     }
 
+    @Impl
+    public static CacheAdapter guavaCacheAdapter() {
+        return new GuavaCacheAdapterImpl();
+    }
+
+    @Impl
+    public static CacheAdapter frequencyCacheAdapter() {
+        return new FrequencyCacheAdapterImpl();
+    }
+
     @Impl
     @PrimaryImpl
     public static DefinitionService definitionService() {
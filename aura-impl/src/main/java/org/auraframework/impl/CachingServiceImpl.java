@@ -15,30 +15,52 @@
  */
 package org.auraframework.impl;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
 
 import org.apache.log4j.Logger;
 import org.auraframework.Aura;
+import org.auraframework.adapter.CacheAdapter;
+import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.builder.CacheBuilder;
 import org.auraframework.cache.Cache;
+import org.auraframework.cache.Weigher;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.Definition;
+import org.auraframework.def.DescriptorFilter;
 import org.auraframework.ds.serviceloader.AuraServiceProvider;
+import org.auraframework.impl.admin.ValueStats;
 import org.auraframework.impl.cache.CacheImpl;
+import org.auraframework.impl.cache.DescriptorInternCache;
+import org.auraframework.impl.cache.GuavaCacheAdapterImpl;
+import org.auraframework.impl.cache.PayloadStore;
 import org.auraframework.service.CachingService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.system.DependencyEntry;
+import org.auraframework.system.ResourcePayload;
+import org.auraframework.system.SourceChange;
 import org.auraframework.system.SourceListener;
+import org.auraframework.util.ServiceLocator;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import aQute.bnd.annotation.component.Component;
 
@@ -59,14 +81,95 @@ public class CachingServiceImpl implements CachingService {
     /** Default size of string caches, in number of entries */
     private final static int STRING_CACHE_SIZE = 100;
 
+    /** Default size of resource payload caches, in number of entries */
+    private final static int PAYLOAD_CACHE_SIZE = 100;
+
+    /** Default bound on resource payload caches, in bytes */
+    private final static long PAYLOAD_CACHE_WEIGHT = 32L * 1024 * 1024;
+
+    /** System property giving the directory for stored payloads, unset or empty for none */
+    private final static String PAYLOAD_STORE_DIR_PROPERTY = "aura.cache.payloadStoreDir";
+
+    /** Default time a stored payload is kept after it was last used, in milliseconds */
+    private final static long PAYLOAD_STORE_MAX_AGE = TimeUnit.DAYS.toMillis(7);
+
+    /** Default bound on the payload store, in bytes */
+    private final static long PAYLOAD_STORE_WEIGHT = 512L * 1024 * 1024;
+
     /** Default size of client lib caches, in number of entries */
     private final static int CLIENT_LIB_CACHE_SIZE = 30;
 
+    /** Default size of the definition JSON cache, in number of entries */
+    private final static int DEFINITION_JSON_CACHE_SIZE = 4 * 1024;
+
+    /** Default size of the template shell cache, in number of entries */
+    private final static int TEMPLATE_SHELL_CACHE_SIZE = 256;
+
+    /** System property choosing the cache provider for caches not configured individually */
+    private final static String DEFAULT_PROVIDER_PROPERTY = "aura.cache.defaultProvider";
+
+    /** Weighs string entries by their approximate size in bytes */
+    private final static Weigher<String, String> STRING_WEIGHER = new Weigher<String, String>() {
+        @Override
+        public int weigh(String key, String value) {
+            return 2 * (key.length() + value.length());
+        }
+    };
+
+    /** Weighs resource payloads by the bytes they hold */
+    private final static Weigher<String, ResourcePayload> PAYLOAD_WEIGHER = new Weigher<String, ResourcePayload>() {
+        @Override
+        public int weigh(String key, ResourcePayload value) {
+            return 2 * key.length() + value.getWeight();
+        }
+    };
+
+    /**
+     * Past this many changed descriptors in a batch, dropping everything is cheaper than finding each one's dependents.
+     */
+    private final static int INVALIDATE_ALL_THRESHOLD = 500;
+
+    /** The number of changes applied together */
+    private final static ValueStats SOURCE_CHANGE_BATCH_SIZE = ValueStats.register("sourceChangeBatchSize");
+
+    /** The time waiting for the write lock to apply source changes, in milliseconds */
+    private final static ValueStats SOURCE_CHANGE_LOCK_WAIT = ValueStats.register("sourceChangeLockWait");
+
+    /** The time the write lock is held to apply source changes, in milliseconds */
+    private final static ValueStats SOURCE_CHANGE_LOCK_HOLD = ValueStats.register("sourceChangeLockHold");
+
     private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
     private final WriteLock wLock = rwLock.writeLock();
 
+    /** Available cache providers, by provider name */
+    private final Map<String, CacheAdapter> cacheAdapters = Maps.newHashMap();
+
     @Override
     public <K, T> CacheBuilder<K, T> getCacheBuilder() {
+        return getProviderCacheBuilder(System.getProperty(DEFAULT_PROVIDER_PROPERTY));
+    }
+
+    @Override
+    public <K, T> CacheBuilder<K, T> getCacheBuilder(String name) {
+        String provider = System.getProperty("aura.cache." + name + "Provider");
+        if (provider == null) {
+            provider = System.getProperty(DEFAULT_PROVIDER_PROPERTY);
+        }
+        return this.<K, T> getProviderCacheBuilder(provider).setName(name);
+    }
+
+    /**
+     * Gets a builder from the named provider, falling back to guava caches if
+     * no provider is named or the named one does not exist.
+     */
+    private <K, T> CacheBuilder<K, T> getProviderCacheBuilder(String provider) {
+        if (provider != null && !provider.isEmpty()) {
+            CacheAdapter adapter = cacheAdapters.get(provider);
+            if (adapter != null) {
+                return adapter.getCacheBuilder();
+            }
+            logger.warn("Unknown cache provider " + provider + ", using " + GuavaCacheAdapterImpl.PROVIDER_NAME);
+        }
         return new CacheImpl.Builder<>();
     }
 
@@ -75,79 +178,130 @@ public class CachingServiceImpl implements CachingService {
     private final Cache<String, String> stringsCache;
     private final Cache<String, Set<DefDescriptor<?>>> descriptorFilterCache;
     private final Cache<String, DependencyEntry> depsCache;
+    private final Cache<String, ResourcePayload> resourcePayloadCache;
     private final Cache<String, String> clientLibraryOutputCache;
     private final Cache<String, Set<String>> clientLibraryUrlsCache;
+    private final Cache<String, String> definitionJsonCache;
+    private final Cache<String, List<String>> templateShellCache;
     private final Cache<DefDescriptor.DescriptorKey, DefDescriptor<? extends Definition>> defDescriptorByNameCache;
 
+    /** Keys in the dependency, strings and payload caches, by the descriptors they were computed from */
+    private final DependencyIndex depsIndex;
+    private final DependencyIndex stringsIndex;
+    private final DependencyIndex payloadIndex;
+
+    /** Payloads that outlive a restart, looked up when not in memory. Null if there are none */
+    private volatile PayloadStore payloadStore;
+    private volatile boolean payloadStoreInitialized = false;
+
+    /** Filters for the keys in the descriptor filter cache */
+    private final ConcurrentMap<String, DescriptorFilter> filtersByKey = new ConcurrentHashMap<>();
+
+    /**
+     * Guards the indexes against pruning while an entry is between its cache and its index. Puts share it, pruning
+     * takes it alone. It is separate from the cache lock, which callers may hold across a whole compile.
+     */
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private final AtomicInteger filterPutsSincePrune = new AtomicInteger();
+    private final int filterPruneInterval;
+
     private static final Logger logger = Logger.getLogger(CachingServiceImpl.class);
 
     public CachingServiceImpl() {
+        for (CacheAdapter adapter : ServiceLocator.get().getAll(CacheAdapter.class)) {
+            cacheAdapters.put(adapter.getProviderName(), adapter);
+        }
+
         int size = getCacheSize("aura.cache.existsCacheSize", DEFINITION_CACHE_SIZE);
-        existsCache = this.<DefDescriptor<?>, Boolean> getCacheBuilder()
+        existsCache = this.<DefDescriptor<?>, Boolean> getCacheBuilder("existsCache")
                 .setInitialSize(size)
                 .setMaximumSize(size)
                 .setRecordStats(true)
-                .setName("existsCache")
                 .setSoftValues(true).build();
 
         size = getCacheSize("aura.cache.defsCacheSize", DEFINITION_CACHE_SIZE);
         defsCache = this
-                .<DefDescriptor<?>, Optional<? extends Definition>> getCacheBuilder()
+                .<DefDescriptor<?>, Optional<? extends Definition>> getCacheBuilder("defsCache")
                 .setInitialSize(size)
                 .setMaximumSize(size)
                 .setRecordStats(true)
-                .setName("defsCache")
                 .setSoftValues(true).build();
 
         size = getCacheSize("aura.cache.stringsCacheSize", STRING_CACHE_SIZE);
-        stringsCache = this.<String, String> getCacheBuilder()
+        stringsCache = this.<String, String> getCacheBuilder("stringsCache")
+                .setInitialSize(size)
+                .setMaximumSize(size)
+                .setMaximumWeight(getCacheWeight("aura.cache.stringsCacheMaxWeight"))
+                .setWeigher(STRING_WEIGHER)
+                .setRecordStats(true)
+                .setSoftValues(true).build();
+
+        stringsIndex = new DependencyIndex(stringsCache, size);
+
+        size = getCacheSize("aura.cache.resourcePayloadCacheSize", PAYLOAD_CACHE_SIZE);
+        resourcePayloadCache = this.<String, ResourcePayload> getCacheBuilder("resourcePayloadCache")
                 .setInitialSize(size)
                 .setMaximumSize(size)
+                .setMaximumWeight(getCacheWeight("aura.cache.resourcePayloadCacheMaxWeight", PAYLOAD_CACHE_WEIGHT))
+                .setWeigher(PAYLOAD_WEIGHER)
                 .setRecordStats(true)
-                .setName("stringsCache")
                 .setSoftValues(true).build();
 
+        payloadIndex = new DependencyIndex(resourcePayloadCache, size);
+
         size = getCacheSize("aura.cache.filterCacheSize", FILTER_CACHE_SIZE);
+        filterPruneInterval = Math.max(size, 1);
         descriptorFilterCache = this
-                .<String, Set<DefDescriptor<?>>> getCacheBuilder()
+                .<String, Set<DefDescriptor<?>>> getCacheBuilder("descriptorFilterCache")
                 .setInitialSize(size)
                 .setMaximumSize(size)
                 .setRecordStats(true)
-                .setName("descriptorFilterCache")
                 .setSoftValues(true).build();
 
         size = getCacheSize("aura.cache.depsCacheSize", DEPENDENCY_CACHE_SIZE);
-        depsCache = this.<String, DependencyEntry> getCacheBuilder()
+        depsCache = this.<String, DependencyEntry> getCacheBuilder("depsCache")
                 .setInitialSize(size)
                 .setMaximumSize(size)
                 .setRecordStats(true)
-                .setName("depsCache")
                 .setSoftValues(true).build();
 
+        depsIndex = new DependencyIndex(depsCache, size);
+
         size = getCacheSize("aura.cache.clientLibraryOutputCacheSize", CLIENT_LIB_CACHE_SIZE);
-        clientLibraryOutputCache = this.<String, String> getCacheBuilder()
+        clientLibraryOutputCache = this.<String, String> getCacheBuilder("clientLibraryOutputCache")
                 .setInitialSize(size)
                 .setMaximumSize(size)
+                .setMaximumWeight(getCacheWeight("aura.cache.clientLibraryOutputCacheMaxWeight"))
+                .setWeigher(STRING_WEIGHER)
                 .setSoftValues(true)
-                .setName("clientLibraryOutputCache")
                 .setRecordStats(true).build();
 
         size = getCacheSize("aura.cache.clientLibraryUrlsCacheSize", CLIENT_LIB_CACHE_SIZE);
-        clientLibraryUrlsCache = this.<String, Set<String>> getCacheBuilder()
+        clientLibraryUrlsCache = this.<String, Set<String>> getCacheBuilder("clientLibraryUrlsCache")
                 .setInitialSize(size)
                 .setMaximumSize(size)
                  .setSoftValues(true)
-                .setName("clientLibraryUrlsCache")
                 .setRecordStats(true).build();
 
+        size = getCacheSize("aura.cache.definitionJsonCacheSize", DEFINITION_JSON_CACHE_SIZE);
+        definitionJsonCache = this.<String, String> getCacheBuilder("definitionJsonCache")
+                .setInitialSize(size)
+                .setMaximumSize(size)
+                .setMaximumWeight(getCacheWeight("aura.cache.definitionJsonCacheMaxWeight"))
+                .setWeigher(STRING_WEIGHER)
+                .setRecordStats(true)
+                .setSoftValues(true).build();
+
+        size = getCacheSize("aura.cache.templateShellCacheSize", TEMPLATE_SHELL_CACHE_SIZE);
+        templateShellCache = this.<String, List<String>> getCacheBuilder("templateShellCache")
+                .setInitialSize(16)
+                .setMaximumSize(size)
+                .setRecordStats(true)
+                .setSoftValues(true).build();
+
+        // descriptors are interned rather than cached, this bounds only those kept for good
         size = getCacheSize("aura.cache.defDescByNameCacheSize", 1024 * 20);
-        defDescriptorByNameCache =
-                this.<DefDescriptor.DescriptorKey, DefDescriptor<? extends Definition>> getCacheBuilder()
-                        .setInitialSize(512)
-                        .setMaximumSize(size)
-                        .setConcurrencyLevel(20)
-                        .setName("defDescByNameCache")
-                        .build();
+        defDescriptorByNameCache = DescriptorInternCache.register("defDescByNameCache", size);
     }
 
     @Override
@@ -175,6 +329,11 @@ public class CachingServiceImpl implements CachingService {
         return depsCache;
     }
 
+    @Override
+    public final Cache<String, ResourcePayload> getResourcePayloadCache() {
+        return resourcePayloadCache;
+    }
+
     @Override
     public final Cache<String, String> getClientLibraryOutputCache() {
         return clientLibraryOutputCache;
@@ -185,6 +344,16 @@ public class CachingServiceImpl implements CachingService {
         return clientLibraryUrlsCache;
     }
 
+    @Override
+    public final Cache<String, String> getDefinitionJsonCache() {
+        return definitionJsonCache;
+    }
+
+    @Override
+    public final Cache<String, List<String>> getTemplateShellCache() {
+        return templateShellCache;
+    }
+
     @Override
     public final Cache<DefDescriptor.DescriptorKey, DefDescriptor<? extends Definition>> getDefDescriptorByNameCache() {
         return defDescriptorByNameCache;
@@ -206,8 +375,8 @@ public class CachingServiceImpl implements CachingService {
      * lock , it will log it as an non-fatal error, as it only results in staleness.
      * 
      * @param listeners - collections of listeners to notify of source changes
-     * @param source - DefDescriptor that changed - for granular cache clear (currently not considered here, but other
-     *            listeners may make use of it)
+     * @param source - DefDescriptor that changed - for granular cache clear, only the cached values depending on it
+     *            are invalidated
      * @param event - what type of event triggered the change
      */
     @Override
@@ -215,7 +384,21 @@ public class CachingServiceImpl implements CachingService {
             Collection<WeakReference<SourceListener>> listeners,
             DefDescriptor<?> source, SourceListener.SourceMonitorEvent event,
             String filePath) {
+        notifyDependentSourceChanges(listeners, Collections.singletonList(new SourceChange(source, event, filePath)));
+    }
+
+    /**
+     * As {@link #notifyDependentSourceChange}, for a batch of changes: the lock is taken once, every listener sees
+     * each change, and then the caches are invalidated once for each descriptor that changed (or all at once, for a
+     * change without a descriptor or a large batch).
+     */
+    @Override
+    public void notifyDependentSourceChanges(
+            Collection<WeakReference<SourceListener>> listeners,
+            List<SourceChange> changes) {
         boolean haveLock = false;
+        long start = System.nanoTime();
+        long locked = 0;
 
         try {
             // We have now eliminated all known deadlocks, but for production
@@ -228,6 +411,7 @@ public class CachingServiceImpl implements CachingService {
                 logger.error("Couldn't acquire cache clear lock in a reasonable time.  Cache may be stale until next clear.");
                 return;
             }
+            locked = System.nanoTime();
 
             // successfully acquired the lock, start clearing caches
             // notify provided listeners, presumably to clear caches
@@ -235,29 +419,200 @@ public class CachingServiceImpl implements CachingService {
                 SourceListener sl = i.get();
 
                 if (sl != null) {
-                    sl.onSourceChanged(source, event, filePath);
+                    for (SourceChange change : changes) {
+                        sl.onSourceChanged(change.getDescriptor(), change.getEvent(), change.getFilePath());
+                    }
                 }
             }
             // lastly, clear MDR's static caches
-            invalidateSourceRelatedCaches(source);
-
+            Set<DefDescriptor<?>> descriptors = Sets.newLinkedHashSet();
+            for (SourceChange change : changes) {
+                if (change.getDescriptor() == null) {
+                    descriptors = null;
+                    break;
+                }
+                descriptors.add(change.getDescriptor());
+            }
+            // the JSON of a definition and the shell of a template include whatever they nest, so any change can
+            // make them stale
+            definitionJsonCache.invalidateAll();
+            templateShellCache.invalidateAll();
+            if (descriptors == null || descriptors.size() > INVALIDATE_ALL_THRESHOLD) {
+                invalidateLocked(null);
+            } else {
+                for (DefDescriptor<?> descriptor : descriptors) {
+                    invalidateLocked(descriptor);
+                }
+            }
         } catch (InterruptedException e) {
         } finally {
             if (haveLock) {
                 wLock.unlock();
+                long end = System.nanoTime();
+                SOURCE_CHANGE_BATCH_SIZE.record(changes.size());
+                SOURCE_CHANGE_LOCK_WAIT.record(TimeUnit.NANOSECONDS.toMillis(locked - start));
+                SOURCE_CHANGE_LOCK_HOLD.record(TimeUnit.NANOSECONDS.toMillis(end - locked));
+                if (changes.size() > 1) {
+                    logger.info(String.format("Applied %d source changes, holding the cache lock for %dms",
+                            changes.size(), TimeUnit.NANOSECONDS.toMillis(end - locked)));
+                }
             }
         }
     }
 
-    private void invalidateSourceRelatedCaches(DefDescriptor<?> descriptor) {
+    @Override
+    public void putDependencyEntry(String key, DependencyEntry de) {
+        Lock rLock = rwLock.readLock();
+        rLock.lock();
+        indexLock.readLock().lock();
+        try {
+            depsCache.put(key, de);
+            depsIndex.add(key, de.dependencies);
+        } finally {
+            indexLock.readLock().unlock();
+            rLock.unlock();
+        }
+        pruneIndexesIfNeeded();
+    }
 
-        depsCache.invalidateAll();
-        descriptorFilterCache.invalidateAll();
-        stringsCache.invalidateAll();
+    @Override
+    public void putDependentString(String key, DependencyEntry de, String value) {
+        Lock rLock = rwLock.readLock();
+        rLock.lock();
+        indexLock.readLock().lock();
+        try {
+            stringsCache.put(key, value);
+            stringsIndex.add(key, de.dependencies);
+        } finally {
+            indexLock.readLock().unlock();
+            rLock.unlock();
+        }
+        pruneIndexesIfNeeded();
+    }
 
+    @Override
+    public ResourcePayload getDependentPayload(String key, DependencyEntry de) {
+        ResourcePayload payload = resourcePayloadCache.getIfPresent(key);
+        if (payload == null) {
+            PayloadStore store = getPayloadStore();
+            if (store != null) {
+                payload = store.get(getStoreKey(key));
+                if (payload != null) {
+                    cacheDependentPayload(key, de, payload);
+                }
+            }
+        }
+        return payload;
+    }
+
+    @Override
+    public void putDependentPayload(String key, DependencyEntry de, ResourcePayload payload) {
+        cacheDependentPayload(key, de, payload);
+        PayloadStore store = getPayloadStore();
+        if (store != null) {
+            store.put(getStoreKey(key), payload);
+        }
+    }
+
+    private void cacheDependentPayload(String key, DependencyEntry de, ResourcePayload payload) {
+        Lock rLock = rwLock.readLock();
+        rLock.lock();
+        indexLock.readLock().lock();
+        try {
+            resourcePayloadCache.put(key, payload);
+            payloadIndex.add(key, de.dependencies);
+        } finally {
+            indexLock.readLock().unlock();
+            rLock.unlock();
+        }
+        pruneIndexesIfNeeded();
+    }
+
+    /**
+     * Gets the payload store, creating it on first use.
+     *
+     * Payloads are only stored if a directory is given, which must be private to the user running the server, since
+     * whatever is stored there is served as app JS and CSS.
+     */
+    private PayloadStore getPayloadStore() {
+        if (!payloadStoreInitialized) {
+            synchronized (this) {
+                if (!payloadStoreInitialized) {
+                    String dir = System.getProperty(PAYLOAD_STORE_DIR_PROPERTY);
+                    if (dir != null && !dir.isEmpty()) {
+                        try {
+                            payloadStore = new PayloadStore(new File(dir),
+                                    Long.getLong("aura.cache.payloadStoreMaxAge", PAYLOAD_STORE_MAX_AGE),
+                                    getCacheWeight("aura.cache.payloadStoreMaxWeight", PAYLOAD_STORE_WEIGHT));
+                        } catch (IOException ioe) {
+                            logger.warn("Unable to use payload store in " + dir, ioe);
+                        }
+                    }
+                    payloadStoreInitialized = true;
+                }
+            }
+        }
+        return payloadStore;
+    }
+
+    /**
+     * The uid in a payload key covers the sources, but not the framework that serialized them.
+     */
+    private String getStoreKey(String key) {
+        ConfigAdapter config = Aura.getConfigAdapter();
+        return String.format("%s@%d@%s@%s", config.getAuraVersion(), config.getBuildTimestamp(),
+                config.getAuraFrameworkNonce(), key);
+    }
+
+    @Override
+    public void putDescriptorFilterResults(String key, DescriptorFilter filter, Set<DefDescriptor<?>> results) {
+        Lock rLock = rwLock.readLock();
+        rLock.lock();
+        indexLock.readLock().lock();
+        try {
+            descriptorFilterCache.put(key, results);
+            filtersByKey.put(key, filter);
+        } finally {
+            indexLock.readLock().unlock();
+            rLock.unlock();
+        }
+        filterPutsSincePrune.incrementAndGet();
+        pruneIndexesIfNeeded();
+    }
+
+    @Override
+    public void invalidateSourceRelatedCaches(DefDescriptor<?> descriptor) {
+        if (rwLock.getReadHoldCount() > 0) {
+            // upgrading from the read lock would wait for ourselves
+            throw new IllegalStateException("Cannot invalidate caches while holding the read lock");
+        }
+        wLock.lock();
+        try {
+            definitionJsonCache.invalidateAll();
+            templateShellCache.invalidateAll();
+            invalidateLocked(descriptor);
+        } finally {
+            wLock.unlock();
+        }
+    }
+
+    /**
+     * Invalidate the cached values that depend on a descriptor, with the write lock held.
+     *
+     * The definition JSON cache is not touched here, the callers clear it once for each batch of changes.
+     */
+    private void invalidateLocked(DefDescriptor<?> descriptor) {
         if (descriptor == null) {
+            depsCache.invalidateAll();
+            descriptorFilterCache.invalidateAll();
+            stringsCache.invalidateAll();
+            resourcePayloadCache.invalidateAll();
             defsCache.invalidateAll();
             existsCache.invalidateAll();
+            depsIndex.clear();
+            stringsIndex.clear();
+            payloadIndex.clear();
+            filtersByKey.clear();
         } else {
             DefinitionService ds = Aura.getDefinitionService();
             DefDescriptor<ComponentDef> cdesc = ds.getDefDescriptor(descriptor,
@@ -276,16 +631,148 @@ public class CachingServiceImpl implements CachingService {
             case NAMESPACE:
                 // invalidate all DDs with the same namespace if its a namespace DD
                 invalidateScope(descriptor, true, false);
+                invalidateAllDependents();
                 break;
             case LAYOUTS:
                 invalidateScope(descriptor, true, true);
+                invalidateAllDependents();
                 break;
             case INCLUDE:
-                invalidateSourceRelatedCaches(descriptor.getBundle());
-                break;
+                invalidateLocked(descriptor.getBundle());
+                // fall through
             default:
+                // a new file in a bundle only shows up in the dependencies of the bundle's markup
+                invalidateDependents(descriptor);
+                invalidateDependents(cdesc);
+                invalidateDependents(adesc);
+            }
+        }
+    }
+
+    /**
+     * Invalidate the dependency, string, payload and filter entries computed from a descriptor.
+     */
+    private void invalidateDependents(DefDescriptor<?> descriptor) {
+        depsIndex.invalidateDependents(descriptor);
+        stringsIndex.invalidateDependents(descriptor);
+        payloadIndex.invalidateDependents(descriptor);
+
+        Iterator<Map.Entry<String, DescriptorFilter>> filters = filtersByKey.entrySet().iterator();
+        while (filters.hasNext()) {
+            Map.Entry<String, DescriptorFilter> entry = filters.next();
+            if (entry.getValue().matchDescriptor(descriptor)) {
+                descriptorFilterCache.invalidate(entry.getKey());
+                filters.remove();
+            }
+        }
+    }
+
+    /**
+     * Namespace and layout changes can affect any definition, so everything
+     * computed from definitions goes.
+     */
+    private void invalidateAllDependents() {
+        depsCache.invalidateAll();
+        descriptorFilterCache.invalidateAll();
+        stringsCache.invalidateAll();
+        resourcePayloadCache.invalidateAll();
+        depsIndex.clear();
+        stringsIndex.clear();
+        payloadIndex.clear();
+        filtersByKey.clear();
+    }
+
+    /**
+     * Drop index entries for keys that have been evicted from their caches.
+     * This takes the index lock alone, so that nothing is between its cache
+     * and its index while we compare against the cache contents, and is
+     * skipped if another thread is already pruning. It never needs the cache
+     * lock, which the caller may hold for reading.
+     */
+    private void pruneIndexesIfNeeded() {
+        if (!depsIndex.needsPrune() && !stringsIndex.needsPrune() && !payloadIndex.needsPrune()
+                && filterPutsSincePrune.get() < filterPruneInterval) {
+            return;
+        }
+        if (!indexLock.writeLock().tryLock()) {
+            return;
+        }
+        try {
+            depsIndex.prune();
+            stringsIndex.prune();
+            payloadIndex.prune();
+            filtersByKey.keySet().retainAll(descriptorFilterCache.getKeySet());
+            filterPutsSincePrune.set(0);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * An index from each descriptor to the keys of the cache entries computed
+     * from it.
+     *
+     * Keys are not removed when their entries are evicted, instead the index
+     * is pruned against the cache after as many puts as the cache holds. A
+     * stale key only costs a needless invalidation.
+     */
+    private static class DependencyIndex {
+        private final ConcurrentMap<DefDescriptor<?>, Set<String>> keysByDescriptor = new ConcurrentHashMap<>();
+        private final AtomicInteger putsSincePrune = new AtomicInteger();
+        private final Cache<String, ?> cache;
+        private final int pruneInterval;
+
+        private DependencyIndex(Cache<String, ?> cache, int pruneInterval) {
+            this.cache = cache;
+            this.pruneInterval = Math.max(pruneInterval, 1);
+        }
+
+        private void add(String key, Collection<DefDescriptor<?>> descriptors) {
+            if (descriptors == null) {
+                return;
+            }
+            for (DefDescriptor<?> descriptor : descriptors) {
+                Set<String> keys = keysByDescriptor.get(descriptor);
+                if (keys == null) {
+                    Set<String> newKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+                    keys = keysByDescriptor.putIfAbsent(descriptor, newKeys);
+                    if (keys == null) {
+                        keys = newKeys;
+                    }
+                }
+                keys.add(key);
+            }
+            putsSincePrune.incrementAndGet();
+        }
+
+        private void invalidateDependents(DefDescriptor<?> descriptor) {
+            Set<String> keys = keysByDescriptor.remove(descriptor);
+            if (keys != null) {
+                cache.invalidate(keys);
             }
         }
+
+        private boolean needsPrune() {
+            return putsSincePrune.get() >= pruneInterval;
+        }
+
+        private void prune() {
+            Set<String> live = cache.getKeySet();
+            Iterator<Set<String>> iterator = keysByDescriptor.values().iterator();
+            while (iterator.hasNext()) {
+                Set<String> keys = iterator.next();
+                keys.retainAll(live);
+                if (keys.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+            putsSincePrune.set(0);
+        }
+
+        private void clear() {
+            keysByDescriptor.clear();
+            putsSincePrune.set(0);
+        }
     }
 
     private void invalidateScope(DefDescriptor<?> descriptor, boolean clearNamespace, boolean clearName) {
@@ -328,4 +815,28 @@ public class CachingServiceImpl implements CachingService {
         }
         return defaultSize;
     }
+
+    /**
+     * Computes a maximum weight, in approximate bytes, for a given cache from
+     * a system property. Caches without one (zero) are bounded by size.
+     */
+    private long getCacheWeight(String propName) {
+        return getCacheWeight(propName, 0);
+    }
+
+    /**
+     * Computes a maximum weight, in approximate bytes, for a given cache. The
+     * default can be overridden with a system property.
+     */
+    private long getCacheWeight(String propName, long defaultWeight) {
+        String prop = System.getProperty(propName);
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                return Long.parseLong(prop);
+            } catch (NumberFormatException e) {
+                // ne'ermind, use the default
+            }
+        }
+        return defaultWeight;
+    }
 }
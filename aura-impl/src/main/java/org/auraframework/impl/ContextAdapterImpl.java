@@ -73,6 +73,32 @@ public class ContextAdapterImpl implements ContextAdapter {
         return context;
     }
 
+    @Override
+    public AuraContext buildWorkerContext(AuraContext original) {
+        AuraContext context = new AuraContextImpl(original.getMode(),
+                ((MasterDefRegistryImpl)original.getDefRegistry()).buildWorkerRegistry(),
+                original.getDefaultPrefixes(), original.getFormat(), original.getAccess(),
+                original.getJsonSerializationContext(), original.getGlobalProviders(),
+                original.getIsDebugToolEnabled());
+        context.setApplicationDescriptor(original.getApplicationDescriptor());
+        context.setLoadingApplicationDescriptor(original.getLoadingApplicationDescriptor());
+        context.setClient(original.getClient());
+        context.setContextPath(original.getContextPath());
+        context.setNum(original.getNum());
+        context.setRequestedLocales(original.getRequestedLocales());
+        context.setFrameworkUID(original.getFrameworkUID());
+        context.setClientLoaded(original.getClientLoaded());
+        for (Map.Entry<DefDescriptor<?>, String> entry : original.getLoaded().entrySet()) {
+            context.addLoaded(entry.getKey(), entry.getValue());
+        }
+        return context;
+    }
+
+    @Override
+    public void establish(AuraContext context) {
+        currentContext.set(context);
+    }
+
     protected AuraContext buildSystemContext(AuraContext original) {
         return new AuraContextImpl(original.getMode(),
                 new MasterDefRegistryImpl((MasterDefRegistryImpl)original.getDefRegistry()),
@@ -16,6 +16,7 @@
 package org.auraframework.impl;
 
 import java.lang.ref.WeakReference;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -35,6 +36,7 @@ import org.auraframework.service.DefinitionService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Authentication;
 import org.auraframework.system.MasterDefRegistry;
+import org.auraframework.system.SourceChange;
 import org.auraframework.system.SourceListener;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.ClientOutOfSyncException;
@@ -279,12 +281,22 @@ public class DefinitionServiceImpl implements DefinitionService {
 
     @Override
     public void onSourceChanged(DefDescriptor<?> source, SourceListener.SourceMonitorEvent event, String filePath) {
+        pruneListeners();
+        Aura.getCachingService().notifyDependentSourceChange(listeners, source, event, filePath);
+    }
+
+    @Override
+    public void onSourceChanges(List<SourceChange> changes) {
+        pruneListeners();
+        Aura.getCachingService().notifyDependentSourceChanges(listeners, changes);
+    }
+
+    private void pruneListeners() {
         for (WeakReference<SourceListener> i : listeners) {
             if (i.get() == null) {
                 listeners.remove(i);
             }
         }
-        Aura.getCachingService().notifyDependentSourceChange(listeners, source, event, filePath);
     }
 
     @Override
@@ -29,6 +29,8 @@ import org.auraframework.util.AuraLocale;
 import org.auraframework.util.date.DateService;
 import org.auraframework.util.date.DateServiceImpl;
 import org.auraframework.util.number.AuraNumberFormat;
+import org.auraframework.util.number.NumberFormats;
+import org.auraframework.util.number.NumberFormats.Style;
 
 import com.ibm.icu.text.DateFormat;
 import com.ibm.icu.text.DecimalFormat;
@@ -252,7 +254,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormats.get(Style.NUMBER, locale);
         return nf.format(number);
     }
 
@@ -261,7 +263,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormats.get(Style.NUMBER, locale);
         return nf.format(number);
     }
 
@@ -270,7 +272,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormats.get(Style.NUMBER, locale);
         return nf.format(number);
     }
 
@@ -306,7 +308,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormats.copy(Style.NUMBER, locale);
         nf.setMinimumFractionDigits(minFractionDigits);
         nf.setMaximumFractionDigits(maxFractionDigits);
         return nf.format(number);
@@ -327,7 +329,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getPercentInstance(locale);
+        NumberFormat nf = NumberFormats.get(Style.PERCENT, locale);
         return nf.format(percent);
     }
 
@@ -336,7 +338,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getPercentInstance(locale);
+        NumberFormat nf = NumberFormats.copy(Style.PERCENT, locale);
         nf.setMinimumFractionDigits(minFractionDigits);
         nf.setMaximumFractionDigits(maxFractionDigits);
         return nf.format(percent);
@@ -357,7 +359,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
+        DecimalFormat df = (DecimalFormat) NumberFormats.get(Style.CURRENCY, locale);
         return df.format(currency);
     }
 
@@ -375,7 +377,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (currency == null) {
             currency = Currency.getInstance(locale);
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
+        DecimalFormat df = (DecimalFormat) NumberFormats.copy(Style.CURRENCY, locale);
         // setCurrency will set fraction digits based on locale so that statement needs to happen before if we
         // want to set fraction digits ourselves
         df.setCurrency(currency);
@@ -399,8 +401,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
-        df.setParseBigDecimal(true);
+        DecimalFormat df = (DecimalFormat) NumberFormats.get(Style.CURRENCY, locale);
         return df.format(currency);
     }
 
@@ -418,7 +419,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (currency == null) {
             currency = Currency.getInstance(locale);
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
+        DecimalFormat df = (DecimalFormat) NumberFormats.copy(Style.CURRENCY, locale);
         df.setParseBigDecimal(true);
         df.setCurrency(currency);
         df.setMinimumFractionDigits(minFractionDigits);
@@ -629,7 +630,8 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getInstance(locale);
+        NumberFormat nf = NumberFormats.get(Style.NUMBER, locale);
+        setParseBigDecimal(nf, false);
         return AuraNumberFormat.parseStrict(number, nf).intValue();
     }
 
@@ -641,7 +643,8 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getInstance(locale);
+        NumberFormat nf = NumberFormats.get(Style.NUMBER, locale);
+        setParseBigDecimal(nf, false);
         return AuraNumberFormat.parseStrict(number, nf).longValue();
     }
 
@@ -653,7 +656,8 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getInstance(locale);
+        NumberFormat nf = NumberFormats.get(Style.NUMBER, locale);
+        setParseBigDecimal(nf, false);
         return AuraNumberFormat.parseStrict(number, nf).floatValue();
     }
 
@@ -665,7 +669,8 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getInstance(locale);
+        NumberFormat nf = NumberFormats.get(Style.NUMBER, locale);
+        setParseBigDecimal(nf, false);
         return AuraNumberFormat.parseStrict(number, nf).doubleValue();
     }
 
@@ -682,7 +687,8 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getPercentInstance(locale);
+        NumberFormat nf = NumberFormats.get(Style.PERCENT, locale);
+        setParseBigDecimal(nf, false);
         return AuraNumberFormat.parseStrict(percent, nf).doubleValue();
     }
 
@@ -699,7 +705,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getCurrencyLocale();
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
+        DecimalFormat df = (DecimalFormat) NumberFormats.get(Style.CURRENCY, locale);
         df.setParseBigDecimal(true);
         // TODO: use parseStrict when ICU4J is updated >= 51.2
         return ((com.ibm.icu.math.BigDecimal) AuraNumberFormat.parse(currency, df, false)).toBigDecimal();
@@ -723,7 +729,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormats.get(Style.NUMBER, locale);
         return nf.format(number);
     }
 
@@ -735,7 +741,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormats.copy(Style.NUMBER, locale);
         nf.setMinimumFractionDigits(minFractionDigits);
         nf.setMaximumFractionDigits(maxFractionDigits);
         return nf.format(number);
@@ -759,7 +765,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getInstance(locale);
+        DecimalFormat df = (DecimalFormat) NumberFormats.get(Style.NUMBER, locale);
         df.setParseBigDecimal(true);
         // icu BigDecimal to java BigDecimal
         if (strict) {
@@ -781,7 +787,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormats.get(Style.NUMBER, locale);
         return nf.format(number);
     }
 
@@ -794,10 +800,18 @@ public class LocalizationServiceImpl implements LocalizationService {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
 
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormats.copy(Style.NUMBER, locale);
         nf.setMinimumFractionDigits(minFractionDigits);
         nf.setMaximumFractionDigits(maxFractionDigits);
         return nf.format(number);
     }
 
+    /**
+     * The formats are shared within a thread, so parses that want doubles and longs clear what another parse set.
+     */
+    private static void setParseBigDecimal(NumberFormat nf, boolean parseBigDecimal) {
+        if (nf instanceof DecimalFormat) {
+            ((DecimalFormat) nf).setParseBigDecimal(parseBigDecimal);
+        }
+    }
 }
@@ -22,6 +22,8 @@ import org.auraframework.ds.serviceloader.AuraServiceProvider;
 import org.auraframework.service.LoggingService;
 import org.auraframework.system.LoggingContext;
 import org.auraframework.system.LoggingContext.KeyValueLogger;
+import org.auraframework.system.RequestCounter;
+import org.auraframework.system.RequestTimer;
 
 import aQute.bnd.annotation.component.Component;
 
@@ -37,8 +39,8 @@ public class LoggingServiceImpl implements LoggingService {
     @Override
     public LoggingService establish() {
         AuraImpl.getLoggingAdapter().establish();
-        startTimer(LoggingService.TIMER_TOTAL);
-        startTimer(LoggingService.TIMER_AURA);
+        startTimer(RequestTimer.TOTAL);
+        startTimer(RequestTimer.AURA);
         return this;
     }
 
@@ -55,6 +57,14 @@ public class LoggingServiceImpl implements LoggingService {
         }
     }
 
+    @Override
+    public void startTimer(RequestTimer timer) {
+        LoggingContext lc = getLoggingContext();
+        if (lc != null) {
+            lc.startTimer(timer);
+        }
+    }
+
     @Override
     public void startAction(String actionName) {
         LoggingContext lc = getLoggingContext();
@@ -62,6 +72,14 @@ public class LoggingServiceImpl implements LoggingService {
             lc.startAction(actionName);
         }
     }
+
+    @Override
+    public void startAction(String actionName, String descriptor) {
+        LoggingContext lc = getLoggingContext();
+        if (lc != null) {
+            lc.startAction(actionName, descriptor);
+        }
+    }
     
     @Override
     public void stopAction(String actionName) {
@@ -79,6 +97,14 @@ public class LoggingServiceImpl implements LoggingService {
         }
     }
 
+    @Override
+    public void stopTimer(RequestTimer timer) {
+        LoggingContext lc = getLoggingContext();
+        if (lc != null) {
+            lc.stopTimer(timer);
+        }
+    }
+
     @Override
     public long getTime(String name) {
         LoggingContext lc = getLoggingContext();
@@ -113,6 +139,14 @@ public class LoggingServiceImpl implements LoggingService {
         }
     }
 
+    @Override
+    public void incrementNum(RequestCounter counter) {
+        LoggingContext lc = getLoggingContext();
+        if (lc != null) {
+            lc.incrementNum(counter);
+        }
+    }
+
     @Override
     public void incrementNumBy(String key, Long num) {
         if (num == null) {
@@ -156,8 +190,8 @@ public class LoggingServiceImpl implements LoggingService {
     public void flush() {
         LoggingContext lc = getLoggingContext();
         if (lc != null) {
-            stopTimer(LoggingService.TIMER_AURA);
-            stopTimer(LoggingService.TIMER_TOTAL);
+            stopTimer(RequestTimer.AURA);
+            stopTimer(RequestTimer.TOTAL);
             lc.logRequestValues();
         }
     }
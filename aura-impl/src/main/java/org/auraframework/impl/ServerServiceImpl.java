@@ -15,16 +15,31 @@
  */
 package org.auraframework.impl;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.auraframework.Aura;
+import org.auraframework.adapter.ContextAdapter;
 import org.auraframework.css.ThemeList;
+import org.auraframework.def.ActionDef;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.ControllerDef;
 import org.auraframework.def.DefDescriptor;
@@ -45,10 +60,16 @@ import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.system.LoggingContext.KeyValueLogger;
 import org.auraframework.system.MasterDefRegistry;
 import org.auraframework.system.Message;
+import org.auraframework.system.RequestTimer;
+import org.auraframework.system.ResourcePayload;
 import org.auraframework.throwable.AuraExecutionException;
+import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.IOUtil;
+import org.auraframework.util.Utf8OutputStreamWriter;
 import org.auraframework.util.javascript.JavascriptProcessingError;
 import org.auraframework.util.javascript.JavascriptWriter;
+import org.auraframework.util.javascript.Literal;
 import org.auraframework.util.json.Json;
 
 import com.google.common.base.Optional;
@@ -61,6 +82,18 @@ public class ServerServiceImpl implements ServerService {
 
     private static final long serialVersionUID = -2779745160285710414L;
 
+    /**
+     * System property choosing how the actions in a request are run, either "serial" (the default) or "parallel". In
+     * parallel mode, actions marked as independent are run on a shared pool at the same time as the others, and their
+     * results are still written in the order they were sent.
+     */
+    private final static String ACTION_MODE_PROPERTY = "aura.action.mode";
+
+    /** System property bounding the number of threads running actions, by default one per processor */
+    private final static String ACTION_THREADS_PROPERTY = "aura.action.threads";
+
+    private static volatile ExecutorService actionPool;
+
     @Override
     public void run(Message message, AuraContext context, Writer out, Map<?, ?> extras) throws IOException {
         LoggingService loggingService = Aura.getLoggingService();
@@ -69,6 +102,7 @@ public class ServerServiceImpl implements ServerService {
         }
         List<Action> actions = message.getActions();
         Json json = Json.createJsonStream(out, context.getJsonSerializationContext());
+        Utf8OutputStreamWriter stream = (out instanceof Utf8OutputStreamWriter) ? (Utf8OutputStreamWriter) out : null;
         try {
             json.writeMapBegin();
             if (extras != null && extras.size() > 0) {
@@ -78,11 +112,11 @@ public class ServerServiceImpl implements ServerService {
             }
             json.writeMapKey("actions");
             json.writeArrayBegin();
-            run(actions, json);
+            run(actions, json, stream);
             json.writeArrayEnd();
 
-            loggingService.startTimer(LoggingService.TIMER_SERIALIZATION);
-            loggingService.startTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+            loggingService.startTimer(RequestTimer.SERIALIZATION);
+            loggingService.startTimer(RequestTimer.SERIALIZATION_AURA);
             try {
                 json.writeMapEntry("context", context);
                 List<Event> clientEvents = Aura.getContextService().getCurrentContext().getClientEvents();
@@ -91,63 +125,346 @@ public class ServerServiceImpl implements ServerService {
                 }
                 json.writeMapEnd();
             } finally {
-                loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION_AURA);
-                loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION);
+                loggingService.stopTimer(RequestTimer.SERIALIZATION_AURA);
+                loggingService.stopTimer(RequestTimer.SERIALIZATION);
             }
         } finally {
             json.close();
         }
     }
 
-    private void run(List<Action> actions, Json json) throws IOException {
+    private void run(List<Action> actions, Json json, Utf8OutputStreamWriter stream) throws IOException {
         LoggingService loggingService = Aura.getLoggingService();
         AuraContext context = Aura.getContextService().getCurrentContext();
-        for (Action action : actions) {
-            StringBuffer actionAndParams = new StringBuffer(action.getDescriptor().getQualifiedName());
-            KeyValueLogger logger = loggingService.getKeyValueLogger(actionAndParams);
-            if (logger != null) {
-                action.logParams(logger);
+        Map<Action, IndependentAction> independent = startIndependentActions(actions, context);
+        try {
+            for (Action action : actions) {
+                String actionName = action.getDescriptor().getQualifiedName();
+                StringBuffer actionAndParams = new StringBuffer(actionName);
+                KeyValueLogger logger = loggingService.getKeyValueLogger(actionAndParams);
+                if (logger != null) {
+                    action.logParams(logger);
+                }
+                String aap = actionAndParams.toString();
+                IndependentAction task = independent.get(action);
+                boolean runHere = task == null || task.claim();
+                if (runHere) {
+                    loggingService.startAction(aap, actionName);
+                } else {
+                    // the pool records the latency of the action, here we would only time the wait for it.
+                    loggingService.startAction(aap);
+                }
+                try {
+                    //
+                    // We clear out action centric references here.
+                    //
+                    json.clearReferences();
+                    if (runHere) {
+                        runAction(action, context);
+                    } else {
+                        task.finish(context);
+                    }
+                } finally {
+                    loggingService.stopAction(aap);
+                }
+                loggingService.startTimer(RequestTimer.SERIALIZATION);
+                loggingService.startTimer(RequestTimer.SERIALIZATION_AURA);
+                try {
+                    writeAction(action, json, stream);
+                } finally {
+                    loggingService.stopTimer(RequestTimer.SERIALIZATION_AURA);
+                    loggingService.stopTimer(RequestTimer.SERIALIZATION);
+                }
+
+                List<Action> additionalActions = action.getActions();
+
+                // Recursively process any additional actions created by the
+                // action
+                if (additionalActions != null && !additionalActions.isEmpty()) {
+                    run(additionalActions, json, stream);
+                }
             }
-            String aap = actionAndParams.toString();
-            loggingService.startAction(aap);
-            Action oldAction = context.setCurrentAction(action);
-            try {
-                //
-                // We clear out action centric references here.
-                //
-                json.clearReferences();
-                // DCHASMAN TODO Look into a common base for Action
-                // implementations that we can move the call to
-                // context.setCurrentAction() into!
-                action.run();
-            } catch (AuraExecutionException x) {
-                Aura.getExceptionAdapter().handleException(x, action);
-            } finally {
-                context.setCurrentAction(oldAction);
-                loggingService.stopAction(aap);
+        } finally {
+            for (IndependentAction task : independent.values()) {
+                task.cancel();
+            }
+        }
+    }
+
+    /**
+     * Run an action with the given context, which must be current.
+     */
+    private static void runAction(Action action, AuraContext context) {
+        Action oldAction = context.setCurrentAction(action);
+        try {
+            // DCHASMAN TODO Look into a common base for Action
+            // implementations that we can move the call to
+            // context.setCurrentAction() into!
+            action.run();
+        } catch (AuraExecutionException x) {
+            Aura.getExceptionAdapter().handleException(x, action);
+        } finally {
+            context.setCurrentAction(oldAction);
+        }
+    }
+
+    /**
+     * Start running the independent actions in a list on the action pool, if parallel execution is turned on.
+     * 
+     * Each action gets its own copy of the context, built here on the request thread. Any action that has not been
+     * started by the time the request thread gets to it is run there as usual, so the request never waits on the
+     * pool's queue.
+     * 
+     * @return the started actions, which may be empty.
+     */
+    private Map<Action, IndependentAction> startIndependentActions(List<Action> actions, AuraContext context) {
+        if (actions.size() < 2) {
+            return Collections.emptyMap();
+        }
+        ExecutorService pool = getActionPool();
+        if (pool == null) {
+            return Collections.emptyMap();
+        }
+        Map<Action, IndependentAction> started = null;
+        MasterDefRegistry mdr = context.getDefRegistry();
+        // the first action is run straight away on the request thread, so there is no point in handing it off.
+        for (Action action : actions.subList(1, actions.size())) {
+            if (isIndependent(action, mdr)) {
+                if (started == null) {
+                    started = new IdentityHashMap<>();
+                }
+                IndependentAction task = new IndependentAction(action,
+                        AuraImpl.getContextAdapter().buildWorkerContext(context));
+                task.start(pool);
+                started.put(action, task);
+            }
+        }
+        if (started == null) {
+            return Collections.emptyMap();
+        }
+        return started;
+    }
+
+    private boolean isIndependent(Action action, MasterDefRegistry mdr) {
+        try {
+            ActionDef def = mdr.getDef(action.getDescriptor());
+            return def != null && def.isIndependent();
+        } catch (QuickFixException qfe) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the pool, or null if actions are run serially.
+     */
+    private static ExecutorService getActionPool() {
+        if (!"parallel".equalsIgnoreCase(System.getProperty(ACTION_MODE_PROPERTY))) {
+            return null;
+        }
+        ExecutorService pool = actionPool;
+        if (pool == null) {
+            synchronized (ServerServiceImpl.class) {
+                pool = actionPool;
+                if (pool == null) {
+                    int threads = Runtime.getRuntime().availableProcessors();
+                    String prop = System.getProperty(ACTION_THREADS_PROPERTY);
+                    if (prop != null && !prop.isEmpty()) {
+                        try {
+                            threads = Math.max(Integer.parseInt(prop), 1);
+                        } catch (NumberFormatException e) {
+                            // ne'ermind, use the default
+                        }
+                    }
+                    pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                        private final AtomicInteger count = new AtomicInteger();
+
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "aura-action-" + count.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                    actionPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * An independent action handed to the action pool.
+     * 
+     * Whichever of the pool and the request thread claims the action first runs it. If the pool does, the request
+     * thread waits for it and then takes the application events it fired. The pool runs it with its own logging
+     * context, which is flushed when the action is done, as a request's would be.
+     */
+    private static class IndependentAction implements Callable<Void> {
+        private final Action action;
+        private final AuraContext workerContext;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private Future<Void> future;
+
+        public IndependentAction(Action action, AuraContext workerContext) {
+            this.action = action;
+            this.workerContext = workerContext;
+        }
+
+        public void start(ExecutorService pool) {
+            future = pool.submit(this);
+        }
+
+        public boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        public void cancel() {
+            if (claim()) {
+                future.cancel(false);
             }
-            loggingService.startTimer(LoggingService.TIMER_SERIALIZATION);
-            loggingService.startTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+        }
+
+        @Override
+        public Void call() {
+            if (!claim()) {
+                return null;
+            }
+            LoggingService loggingService = Aura.getLoggingService();
+            ContextAdapter contextAdapter = AuraImpl.getContextAdapter();
+            loggingService.establish();
             try {
-                json.writeArrayEntry(action);
+                contextAdapter.establish(workerContext);
+                String actionName = action.getDescriptor().getQualifiedName();
+                loggingService.startAction(actionName, actionName);
+                try {
+                    runAction(action, workerContext);
+                } finally {
+                    loggingService.stopAction(actionName);
+                    try {
+                        loggingService.flush();
+                    } finally {
+                        contextAdapter.release();
+                    }
+                }
             } finally {
-                loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION_AURA);
-                loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION);
+                loggingService.release();
             }
+            return null;
+        }
 
-            List<Action> additionalActions = action.getActions();
-
-            // Recursively process any additional actions created by the
-            // action
-            if (additionalActions != null && !additionalActions.isEmpty()) {
-                run(additionalActions, json);
+        /**
+         * Wait for the pool to finish the action, and return its events to the request's context.
+         */
+        public void finish(AuraContext context) {
+            try {
+                future.get();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new AuraRuntimeException(ie);
+            } catch (ExecutionException ee) {
+                Throwable cause = ee.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new AuraRuntimeException(cause);
             }
+            try {
+                for (Event event : workerContext.getClientEvents()) {
+                    context.addClientApplicationEvent(event);
+                }
+            } catch (Exception e) {
+                // can't happen, the events were checked when the action fired them.
+                throw new AuraRuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Write an action into the actions array.
+     * 
+     * When streaming, the action is held back as a pending segment until it is completely serialized, and then
+     * flushed, so the client gets each action as it finishes. If serialization fails part way through, the partial
+     * output is dropped and replaced by an error entry for the action, which keeps the response parseable.
+     */
+    private void writeAction(Action action, Json json, Utf8OutputStreamWriter stream) throws IOException {
+        if (stream == null) {
+            json.writeArrayEntry(action);
+            return;
+        }
+        json.mark();
+        stream.mark();
+        try {
+            json.writeArrayEntry(action);
+        } catch (RuntimeException e) {
+            stream.reset();
+            json.reset();
+            Throwable mapped = Aura.getExceptionAdapter().handleException(e, action);
+            json.writeComma();
+            json.writeIndent();
+            json.writeMapBegin();
+            json.writeMapEntry("id", action.getId());
+            json.writeMapEntry("state", Action.State.ERROR);
+            json.writeMapEntry("returnValue", Literal.NULL);
+            json.writeMapEntry("error", Collections.singletonList(mapped));
+            json.writeMapEnd();
         }
+        stream.commit();
+        stream.flush();
     }
 
     @Override
     public void writeAppCss(Set<DefDescriptor<?>> dependencies, Writer out) throws IOException, QuickFixException {
         AuraContext context = Aura.getContextService().getCurrentContext();
+        DefDescriptor<?> appDesc = context.getLoadingApplicationDescriptor();
+        final String uid = context.getUid(appDesc);
+        final String key = getAppCssKey(context, uid);
+        context.setPreloading(true);
+
+        String cached = context.getDefRegistry().getCachedString(uid, appDesc, key);
+
+        if (cached == null) {
+            cached = buildAppCss(dependencies).toString();
+            context.getDefRegistry().putCachedString(uid, appDesc, key, cached);
+        }
+        if (out != null) {
+            out.append(cached);
+        }
+    }
+
+    @Override
+    public ResourcePayload getAppCssPayload(Set<DefDescriptor<?>> dependencies) throws IOException,
+            QuickFixException {
+        AuraContext context = Aura.getContextService().getCurrentContext();
+        DefDescriptor<?> appDesc = context.getLoadingApplicationDescriptor();
+        final String uid = context.getUid(appDesc);
+        final String key = getAppCssKey(context, uid);
+        context.setPreloading(true);
+
+        MasterDefRegistry mdr = context.getDefRegistry();
+        ResourcePayload payload = mdr.getCachedPayload(uid, appDesc, key);
+        if (payload == null) {
+            if (!mdr.canCachePayload(uid, appDesc)) {
+                // encoding and compressing on every request costs more than it saves, let the caller write it.
+                return null;
+            }
+            CharSequence css = mdr.getCachedString(uid, appDesc, key);
+            if (css == null) {
+                css = buildAppCss(dependencies);
+            }
+            payload = ResourcePayload.encode(css);
+            mdr.putCachedPayload(uid, appDesc, key, payload);
+        }
+        return payload;
+    }
+
+    /**
+     * Build the cache key for the app CSS. The CSS is kept for each set of theme values, including dynamic ones, so
+     * the style defs are only parsed again for values that have not been seen before.
+     */
+    private String getAppCssKey(AuraContext context, String uid) {
         Mode mode = context.getMode();
 
         // build cache key
@@ -164,8 +481,6 @@ public class ServerServiceImpl implements ServerService {
         keyBuilder.append(minify ? "MIN:" : "DEV:");
 
         // app uid
-        DefDescriptor<?> appDesc = context.getLoadingApplicationDescriptor();
-        final String uid = context.getUid(appDesc);
         keyBuilder.append(uid);
 
         // themes uid (themes specified directly to the context (not on the app) need to be considered)
@@ -175,32 +490,23 @@ public class ServerServiceImpl implements ServerService {
             keyBuilder.append(":").append(themesUid.get());
         }
 
-        // 2) TODONM: If a theme uses a map-provider it will affect the css key too. Current idea is to cache a
-        // "pre-themed"
-        // version of the CSS (but still ordered and concatenated). Until this is addressed map-providers shouldn't be
-        // used. Another idea is to defer cache to fileforce, etc... once a map-provider is involved. (actually right
-        // now
-        // we are skipping the cache, but when we stop doing that then this needs to be addressed
-
-        final String key = keyBuilder.toString();
-        context.setPreloading(true);
-
-        String cached = context.getDefRegistry().getCachedString(uid, appDesc, key);
-        boolean skipCache = themeList.hasDynamicVars(); // for now, skip caching css with dynamic var overrides
+        // dynamic var values (themes with a map-provider), so the css is kept for each set of values
+        Optional<String> dynamicVarsUid = themeList.getActiveDynamicVarsUid();
+        if (dynamicVarsUid.isPresent()) {
+            keyBuilder.append(":").append(dynamicVarsUid.get());
+        }
 
-        if (cached == null || skipCache) {
-            Collection<StyleDef> orderedStyleDefs = filterAndLoad(StyleDef.class, dependencies, null);
-            StringBuffer sb = new StringBuffer();
-            Aura.getSerializationService().writeCollection(orderedStyleDefs, StyleDef.class, sb, "CSS");
-            cached = sb.toString();
+        return keyBuilder.toString();
+    }
 
-            if (!skipCache) {
-                context.getDefRegistry().putCachedString(uid, appDesc, key, cached);
-            }
-        }
-        if (out != null) {
-            out.append(cached);
-        }
+    /**
+     * Serialize the style definitions for the app, in order.
+     */
+    private StringBuilder buildAppCss(Set<DefDescriptor<?>> dependencies) throws IOException, QuickFixException {
+        Collection<StyleDef> orderedStyleDefs = filterAndLoad(StyleDef.class, dependencies, null);
+        StringBuilder sb = new StringBuilder();
+        Aura.getSerializationService().writeCollection(orderedStyleDefs, StyleDef.class, sb, "CSS");
+        return sb;
     }
 
     @Override
@@ -233,7 +539,7 @@ public class ServerServiceImpl implements ServerService {
         String cached = context.getDefRegistry().getCachedString(uid, svg, key);
 
         if (cached == null) {
-            StringBuffer sb = new StringBuffer();
+            StringBuilder sb = new StringBuilder();
             Aura.getSerializationService().write(svgDef, null, SVGDef.class, sb, Format.SVG.name());
             cached = sb.toString();
             context.getDefRegistry().putCachedString(uid, svg, key, cached);
@@ -246,79 +552,27 @@ public class ServerServiceImpl implements ServerService {
             throws IOException, QuickFixException {
         AuraContext context = Aura.getContextService().getCurrentContext();
 
-        Mode mode = context.getMode();
-        final boolean minify = !mode.prettyPrint();
-        final String mKey = minify ? "MIN:" : "DEV:";
-        //
-        // create a temp buffer in case anything bad happens while we're processing this.
-        // don't want to end up with a half a JS init function
-        //
-        // TODO: get rid of this buffering by adding functionality to Json.serialize that will help us
-        // make sure serialized JS is valid, non-error-producing syntax if an exception happens in the
-        // middle of serialization.
-        //
-
+        final boolean minify = !context.getMode().prettyPrint();
         context.setPreloading(true);
         DefDescriptor<?> applicationDescriptor = context.getLoadingApplicationDescriptor();
         final String uid = context.getUid(applicationDescriptor);
-        final String key = "JS:" + mKey + uid;
-        String cached = context.getDefRegistry().getCachedString(uid, applicationDescriptor, key);
+        final String key = getDefinitionsKey(minify, uid);
+        MasterDefRegistry mdr = context.getDefRegistry();
+        String cached = mdr.getCachedString(uid, applicationDescriptor, key);
 
         if (cached == null) {
-
-            StringBuilder sb = new StringBuilder();
-
-            sb.append("$A.clientService.initDefs({");
-
-            // append component definitions
-            sb.append("componentDefs:");
-            Collection<BaseComponentDef> defs = filterAndLoad(BaseComponentDef.class, dependencies, null);
-            Aura.getSerializationService().writeCollection(defs, BaseComponentDef.class, sb, "JSON");
-            sb.append(",");
-
-            // append event definitions
-            sb.append("eventDefs:");
-            Collection<EventDef> events = filterAndLoad(EventDef.class, dependencies, null);
-            Aura.getSerializationService().writeCollection(events, EventDef.class, sb, "JSON");
-            sb.append(",");
-
-            // append library definitions
-            sb.append("libraryDefs:");
-            Collection<LibraryDef> libraries = filterAndLoad(LibraryDef.class, dependencies, null);
-            Aura.getSerializationService().writeCollection(libraries, LibraryDef.class, sb, "JSON");
-            sb.append(",");
-
-            //
-            // append controller definitions
-            // Dunno how this got to be this way. The code in the Format adaptor was twisted and stupid,
-            // as it walked the namespaces looking up the same descriptor, with a string.format that had
-            // the namespace but did not use it. This ends up just getting a single controller.
-            //
-            sb.append("controllerDefs:");
-            Collection<ControllerDef> controllers = filterAndLoad(ControllerDef.class, dependencies, ACF);
-            Aura.getSerializationService().writeCollection(controllers, ControllerDef.class, sb, "JSON");
-
-            sb.append("});");
-
-            cached = sb.toString();
-            // only use closure compiler in prod mode, due to compile cost
-            if (minify) {
-                StringWriter sw = new StringWriter();
-                List<JavascriptProcessingError> errors = JavascriptWriter.CLOSURE_SIMPLE.compress(cached, sw, key);
-                if (errors == null || errors.isEmpty()) {
-                    // For now, just use the non-compressed version if we can't get
-                    // the compression to work.
-                    cached = sw.toString();
-                } else {
-                    // if unable to compress, add error comments to the end.
-                    // ONLY if not production instance
-                    if (!Aura.getConfigAdapter().isProduction()) {
-                        sb.append(commentedJavascriptErrors(errors));
-                    }
-                    cached = sb.toString();
+            // the encoded copy may have been kept (or stored by an earlier run), which saves compressing again.
+            // Decode it straight to the writer rather than keeping a second, decoded copy in the string cache.
+            ResourcePayload payload = mdr.getCachedPayload(uid, applicationDescriptor, key);
+            if (payload != null) {
+                if (out != null) {
+                    IOUtil.copyStream(new InputStreamReader(new ByteArrayInputStream(payload.getBytes()),
+                            StandardCharsets.UTF_8), out);
                 }
+                return;
             }
-            context.getDefRegistry().putCachedString(uid, applicationDescriptor, key, cached);
+            cached = buildDefinitions(dependencies, minify, key);
+            mdr.putCachedString(uid, applicationDescriptor, key, cached);
         }
 
         if (out != null) {
@@ -326,6 +580,104 @@ public class ServerServiceImpl implements ServerService {
         }
     }
 
+    @Override
+    public ResourcePayload getDefinitionsPayload(Set<DefDescriptor<?>> dependencies) throws IOException,
+            QuickFixException {
+        AuraContext context = Aura.getContextService().getCurrentContext();
+
+        final boolean minify = !context.getMode().prettyPrint();
+        context.setPreloading(true);
+        DefDescriptor<?> applicationDescriptor = context.getLoadingApplicationDescriptor();
+        final String uid = context.getUid(applicationDescriptor);
+        final String key = getDefinitionsKey(minify, uid);
+
+        MasterDefRegistry mdr = context.getDefRegistry();
+        ResourcePayload payload = mdr.getCachedPayload(uid, applicationDescriptor, key);
+        if (payload == null) {
+            if (!mdr.canCachePayload(uid, applicationDescriptor)) {
+                // encoding and compressing on every request costs more than it saves, let the caller write it.
+                return null;
+            }
+            String js = mdr.getCachedString(uid, applicationDescriptor, key);
+            if (js == null) {
+                js = buildDefinitions(dependencies, minify, key);
+            }
+            payload = ResourcePayload.encode(js);
+            mdr.putCachedPayload(uid, applicationDescriptor, key, payload);
+        }
+        return payload;
+    }
+
+    private String getDefinitionsKey(boolean minify, String uid) {
+        return "JS:" + (minify ? "MIN:" : "DEV:") + uid;
+    }
+
+    /**
+     * Serialize the complete set of definitions for an app in JS, compressing it when minified.
+     *
+     * The whole thing is built in a temp buffer in case anything bad happens while we're processing it. We don't
+     * want to end up with half a JS init function.
+     *
+     * TODO: get rid of this buffering by adding functionality to Json.serialize that will help us make sure
+     * serialized JS is valid, non-error-producing syntax if an exception happens in the middle of serialization.
+     */
+    private String buildDefinitions(Set<DefDescriptor<?>> dependencies, boolean minify, String key)
+            throws IOException, QuickFixException {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("$A.clientService.initDefs({");
+
+        // append component definitions
+        sb.append("componentDefs:");
+        Collection<BaseComponentDef> defs = filterAndLoad(BaseComponentDef.class, dependencies, null);
+        Aura.getSerializationService().writeCollection(defs, BaseComponentDef.class, sb, "JSON");
+        sb.append(",");
+
+        // append event definitions
+        sb.append("eventDefs:");
+        Collection<EventDef> events = filterAndLoad(EventDef.class, dependencies, null);
+        Aura.getSerializationService().writeCollection(events, EventDef.class, sb, "JSON");
+        sb.append(",");
+
+        // append library definitions
+        sb.append("libraryDefs:");
+        Collection<LibraryDef> libraries = filterAndLoad(LibraryDef.class, dependencies, null);
+        Aura.getSerializationService().writeCollection(libraries, LibraryDef.class, sb, "JSON");
+        sb.append(",");
+
+        //
+        // append controller definitions
+        // Dunno how this got to be this way. The code in the Format adaptor was twisted and stupid,
+        // as it walked the namespaces looking up the same descriptor, with a string.format that had
+        // the namespace but did not use it. This ends up just getting a single controller.
+        //
+        sb.append("controllerDefs:");
+        Collection<ControllerDef> controllers = filterAndLoad(ControllerDef.class, dependencies, ACF);
+        Aura.getSerializationService().writeCollection(controllers, ControllerDef.class, sb, "JSON");
+
+        sb.append("});");
+
+        String cached = sb.toString();
+        // only use closure compiler in prod mode, due to compile cost
+        if (minify) {
+            StringWriter sw = new StringWriter();
+            List<JavascriptProcessingError> errors = JavascriptWriter.CLOSURE_SIMPLE.compress(cached, sw, key);
+            if (errors == null || errors.isEmpty()) {
+                // For now, just use the non-compressed version if we can't get
+                // the compression to work.
+                cached = sw.toString();
+            } else {
+                // if unable to compress, add error comments to the end.
+                // ONLY if not production instance
+                if (!Aura.getConfigAdapter().isProduction()) {
+                    sb.append(commentedJavascriptErrors(errors));
+                }
+                cached = sb.toString();
+            }
+        }
+        return cached;
+    }
+
     @Override
     public void writeComponents(Set<DefDescriptor<?>> dependencies, Writer out)
             throws IOException, QuickFixException {
@@ -17,6 +17,7 @@ package org.auraframework.impl.adapter.format.html;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -40,6 +41,7 @@ import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.javascript.Literal;
 import org.auraframework.util.json.Json;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
@@ -48,6 +50,12 @@ import com.google.common.collect.Maps;
 @ThreadSafe
 public abstract class BaseComponentDefHTMLFormatAdapter<T extends BaseComponentDef> extends HTMLFormatAdapter<T> {
 
+    /**
+     * The template attributes that are written into the shell of the page on each request.
+     */
+    private static final Set<String> SLOTS = ImmutableSet.of("manifest", "auraStyleTags", "auraInlineStyle",
+            "auraBaseScriptTags", "auraNamespacesScriptTags", "auraInit");
+
     @Override
     public void write(Object value, Map<String, Object> componentAttributes, Appendable out) throws IOException {
         try {
@@ -85,6 +93,9 @@ public abstract class BaseComponentDefHTMLFormatAdapter<T extends BaseComponentD
                 attributes.put("bodyClass", "");
                 attributes.put("defaultBodyClass", "");
                 attributes.put("autoInitialize", "false");
+
+                Component template = instanceService.getInstance(templateDef.getDescriptor(), attributes);
+                renderingService.render(template, out);
             } else {
                 if (ManifestUtil.isManifestEnabled()) {
                     attributes.put("manifest", ManifestUtil.getManifestUrl());
@@ -118,9 +129,9 @@ public abstract class BaseComponentDefHTMLFormatAdapter<T extends BaseComponentD
                 auraInit.put("context", new Literal(contextWriter.toString()));
 
                 attributes.put("auraInit", Json.serialize(auraInit));
+
+                TemplateShell.render(def, templateDef, attributes, SLOTS, out);
             }
-            Component template = instanceService.getInstance(templateDef.getDescriptor(), attributes);
-            renderingService.render(template, out);
         } catch (QuickFixException e) {
             throw new AuraRuntimeException(e);
         }
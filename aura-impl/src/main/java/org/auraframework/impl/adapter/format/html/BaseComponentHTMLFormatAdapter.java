@@ -17,6 +17,7 @@ package org.auraframework.impl.adapter.format.html;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -41,6 +42,7 @@ import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.javascript.Literal;
 import org.auraframework.util.json.Json;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
@@ -50,6 +52,12 @@ import com.google.common.collect.Maps;
 @aQute.bnd.annotation.component.Component (provide=AuraServiceProvider.class)
 public abstract class BaseComponentHTMLFormatAdapter<T extends BaseComponent<?, ?>> extends HTMLFormatAdapter<T> {
 
+    /**
+     * The template attributes that are written into the shell of the page on each request.
+     */
+    private static final Set<String> SLOTS = ImmutableSet.of("auraStyleTags", "auraInlineStyle", "auraScriptTags",
+            "auraInitSync");
+
     @Override
     public void write(Object value, Map<String, Object> componentAttributes, Appendable out) throws IOException {
         try {
@@ -116,8 +124,7 @@ public abstract class BaseComponentHTMLFormatAdapter<T extends BaseComponent<?,
 
                 attributes.put("auraInitSync", Json.serialize(auraInit));
 
-                Component template = instanceService.getInstance(templateDef.getDescriptor(), attributes);
-                renderingService.render(template, out);
+                TemplateShell.render(def, templateDef, attributes, SLOTS, out);
             }
         } catch (QuickFixException e) {
             throw new AuraRuntimeException(e);
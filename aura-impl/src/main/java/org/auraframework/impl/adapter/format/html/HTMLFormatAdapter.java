@@ -29,9 +29,11 @@ public abstract class HTMLFormatAdapter<T> extends BaseFormatAdapter<T> {
 
     protected static final String name = "HTML";
 
-    private static final String HTML_STYLE = "        <link href=\"%s\" rel=\"stylesheet\" type=\"text/css\"/>\n";
-    private static final String HTML_SCRIPT = "       <script src=\"%s\" ></script>\n";
-    private static final String HTML_LAZY_SCRIPT = "       <script data-src=\"%s\" ></script>\n";
+    private static final String HTML_STYLE_START = "        <link href=\"";
+    private static final String HTML_STYLE_END = "\" rel=\"stylesheet\" type=\"text/css\"/>\n";
+    private static final String HTML_SCRIPT_START = "       <script src=\"";
+    private static final String HTML_LAZY_SCRIPT_START = "       <script data-src=\"";
+    private static final String HTML_SCRIPT_END = "\" ></script>\n";
 
     @Override
     public String getFormatName() {
@@ -41,7 +43,7 @@ public abstract class HTMLFormatAdapter<T> extends BaseFormatAdapter<T> {
     protected void writeHtmlStyles(List<String> styles, Appendable out) throws IOException {
         if (styles != null) {
             for (String style : styles) {
-                out.append(String.format(HTML_STYLE, style));
+                out.append(HTML_STYLE_START).append(style).append(HTML_STYLE_END);
             }
         }
     }
@@ -53,7 +55,7 @@ public abstract class HTMLFormatAdapter<T> extends BaseFormatAdapter<T> {
     protected void writeHtmlScripts(List<String> scripts, boolean lazy, Appendable out) throws IOException {
         if (scripts != null) {
             for (String script : scripts) {
-                out.append(String.format(lazy ? HTML_LAZY_SCRIPT : HTML_SCRIPT, script));
+                out.append(lazy ? HTML_LAZY_SCRIPT_START : HTML_SCRIPT_START).append(script).append(HTML_SCRIPT_END);
             }
         }
     }
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.adapter.format.html;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.auraframework.Aura;
+import org.auraframework.cache.Cache;
+import org.auraframework.css.ThemeList;
+import org.auraframework.def.BaseComponentDef;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.instance.Component;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.MasterDefRegistry;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * The output of a template with the values of some string attributes (the slots) left out, as the text between them.
+ * A page is written from the shell by appending the text and the slot values in turn, rather than instantiating and
+ * rendering the template again.
+ *
+ * The shell is built by rendering the template once with a marker in place of each slot value. String attributes are
+ * rendered as they are, so a marker shows up wherever its value would. An attribute that the template does more with
+ * than write out (e.g. compares with something) must not be made a slot.
+ */
+final class TemplateShell {
+
+    /** The server renderers and providers of aura:component, aura:html, aura:if and the like. */
+    private static final Set<String> FRAMEWORK_CODE = ImmutableSet.of(
+            "java://org.auraframework.renderer.ComponentRenderer",
+            "java://org.auraframework.renderer.ExpressionRenderer",
+            "java://org.auraframework.renderer.HtmlRenderer",
+            "java://org.auraframework.renderer.TextRenderer",
+            "java://org.auraframework.components.aura.ProvidedBodyRenderer",
+            "java://org.auraframework.impl.root.component.IfProvider",
+            "java://org.auraframework.impl.root.component.IterationProvider");
+
+    /** The text of the page alternating with the attribute written between, starting and ending with text. */
+    private final List<String> parts;
+
+    private TemplateShell(List<String> parts) {
+        this.parts = parts;
+    }
+
+    /**
+     * Render the template for a component or application, from a shell if possible.
+     *
+     * @param def the component or application on the page.
+     * @param templateDef the template of the page.
+     * @param attributes the attributes for the template.
+     * @param slots the attributes that change from one page to the next.
+     * @param out the output.
+     */
+    static void render(BaseComponentDef def, ComponentDef templateDef, Map<String, Object> attributes,
+            Set<String> slots, Appendable out) throws IOException, QuickFixException {
+        String key = getKey(def, templateDef, attributes, slots);
+        if (key == null) {
+            renderTemplate(templateDef.getDescriptor(), attributes, out);
+            return;
+        }
+        Cache<String, List<String>> cache = Aura.getCachingService().getTemplateShellCache();
+        List<String> parts = cache.getIfPresent(key);
+        TemplateShell shell;
+        if (parts == null) {
+            shell = compile(templateDef.getDescriptor(), attributes, slots);
+            cache.put(key, shell.parts);
+        } else {
+            shell = new TemplateShell(parts);
+        }
+        shell.write(attributes, out);
+    }
+
+    /**
+     * Build the key for the shell of a page, from the definitions, the context, the attributes that are not slots and
+     * which slots are set.
+     *
+     * @return the key, or null if the page must be rendered in full.
+     */
+    static String getKey(BaseComponentDef def, ComponentDef templateDef, Map<String, Object> attributes,
+            Set<String> slots) throws QuickFixException {
+        AuraContext context = Aura.getContextService().getCurrentContext();
+        MasterDefRegistry registry = context.getDefRegistry();
+        DefDescriptor<ComponentDef> templateDesc = templateDef.getDescriptor();
+        String uid = registry.getUid(null, templateDesc);
+        if (uid == null || !isStatic(registry.getDependencies(uid))) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(256);
+        key.append(def.getDescriptor().getDefType()).append('@').append(def.getDescriptor().getQualifiedName());
+        key.append('@').append(templateDesc.getQualifiedName());
+        key.append('@').append(uid);
+        key.append('@').append(context.getMode());
+        key.append('@').append(context.getClient().getType());
+        key.append('@').append(context.getContextPath());
+        key.append('@').append(context.getRequestedLocales());
+        ThemeList themes = context.getThemeList();
+        key.append('@').append(themes.getThemeDescriptorsUid().or(""));
+        key.append('@').append(themes.getActiveDynamicVarsUid().or(""));
+        for (Map.Entry<String, Object> entry : new TreeMap<>(attributes).entrySet()) {
+            Object value = entry.getValue();
+            if (value != null && !(value instanceof String)) {
+                return null;
+            }
+            String name = entry.getKey();
+            key.append('@').append(name);
+            if (isSlot(name, value, slots)) {
+                if (((String) value).startsWith("/auraFW")) {
+                    // html attributes with framework urls get the context path added.
+                    return null;
+                }
+                key.append('*');
+            } else {
+                key.append('=').append(value);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Whether a template renders the same given the same attributes, judged by what it and everything it nests depend
+     * on. A model could give something different each time, as could a provider or a renderer run on the server,
+     * except for those of the framework's own components, which work from the attributes alone.
+     */
+    private static boolean isStatic(Set<DefDescriptor<?>> dependencies) {
+        if (dependencies == null) {
+            return false;
+        }
+        for (DefDescriptor<?> dependency : dependencies) {
+            switch (dependency.getDefType()) {
+            case MODEL:
+                return false;
+            case PROVIDER:
+            case RENDERER:
+                if (!DefDescriptor.JAVASCRIPT_PREFIX.equals(dependency.getPrefix())
+                        && !FRAMEWORK_CODE.contains(dependency.getQualifiedName())) {
+                    return false;
+                }
+                break;
+            default:
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Empty values are left in the shell, as a template may test for them.
+     */
+    private static boolean isSlot(String name, Object value, Set<String> slots) {
+        return value != null && !((String) value).isEmpty() && slots.contains(name);
+    }
+
+    /**
+     * Build the shell by rendering the template with markers for the slot values.
+     */
+    static TemplateShell compile(DefDescriptor<ComponentDef> templateDesc, Map<String, Object> attributes,
+            Set<String> slots) throws IOException, QuickFixException {
+        // hex digits never include the 'x' that ends the marker and the index
+        String marker = "auraSlot" + Long.toHexString(ThreadLocalRandom.current().nextLong()) + "x";
+        Map<String, Object> marked = Maps.newHashMap(attributes);
+        List<String> names = Lists.newArrayList();
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            if (isSlot(entry.getKey(), entry.getValue(), slots)) {
+                marked.put(entry.getKey(), marker + names.size() + "x");
+                names.add(entry.getKey());
+            }
+        }
+        StringBuilder page = new StringBuilder(16 * 1024);
+        renderTemplate(templateDesc, marked, page);
+
+        List<String> parts = Lists.newArrayList();
+        int start = 0;
+        int at;
+        while ((at = page.indexOf(marker, start)) >= 0) {
+            int index = at + marker.length();
+            int end = page.indexOf("x", index);
+            parts.add(page.substring(start, at));
+            parts.add(names.get(Integer.parseInt(page.substring(index, end))));
+            start = end + 1;
+        }
+        parts.add(page.substring(start));
+        return new TemplateShell(ImmutableList.copyOf(parts));
+    }
+
+    /**
+     * Write the page with the given slot values.
+     */
+    void write(Map<String, Object> attributes, Appendable out) throws IOException {
+        int last = parts.size() - 1;
+        for (int i = 0; i < last; i += 2) {
+            out.append(parts.get(i));
+            out.append((String) attributes.get(parts.get(i + 1)));
+        }
+        out.append(parts.get(last));
+    }
+
+    private static void renderTemplate(DefDescriptor<ComponentDef> templateDesc, Map<String, Object> attributes,
+            Appendable out) throws IOException, QuickFixException {
+        Component template = Aura.getInstanceService().getInstance(templateDesc, attributes);
+        Aura.getRenderingService().render(template, out);
+    }
+}
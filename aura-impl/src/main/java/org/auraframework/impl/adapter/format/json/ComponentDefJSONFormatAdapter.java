@@ -23,6 +23,7 @@ import javax.annotation.concurrent.ThreadSafe;
 import org.auraframework.Aura;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.ds.serviceloader.AuraServiceProvider;
+import org.auraframework.impl.util.json.DefinitionJsonWriter;
 import org.auraframework.system.AuraContext;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
@@ -44,6 +45,6 @@ public class ComponentDefJSONFormatAdapter extends JSONFormatAdapter<BaseCompone
     public void writeCollection(Collection<? extends BaseComponentDef> values, Appendable out) throws IOException,
             QuickFixException {
         AuraContext context = Aura.getContextService().getCurrentContext();
-        Json.serialize(values, out, context.getJsonSerializationContext());
+        DefinitionJsonWriter.writeArray(Json.createJsonStream(out, context.getJsonSerializationContext()), values);
     }
 }
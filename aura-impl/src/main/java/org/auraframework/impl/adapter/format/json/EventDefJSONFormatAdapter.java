@@ -23,6 +23,7 @@ import javax.annotation.concurrent.ThreadSafe;
 import org.auraframework.Aura;
 import org.auraframework.def.EventDef;
 import org.auraframework.ds.serviceloader.AuraServiceProvider;
+import org.auraframework.impl.util.json.DefinitionJsonWriter;
 import org.auraframework.system.AuraContext;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
@@ -45,7 +46,7 @@ public class EventDefJSONFormatAdapter extends JSONFormatAdapter<EventDef> {
     public void writeCollection(Collection<? extends EventDef> values, Appendable out) throws IOException,
             QuickFixException {
         AuraContext context = Aura.getContextService().getCurrentContext();
-        Json.serialize(values, out, context.getJsonSerializationContext());
+        DefinitionJsonWriter.writeArray(Json.createJsonStream(out, context.getJsonSerializationContext()), values);
     }
 
 }
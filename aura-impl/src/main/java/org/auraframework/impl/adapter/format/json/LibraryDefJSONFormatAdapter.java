@@ -21,6 +21,7 @@ import java.util.Collection;
 import org.auraframework.Aura;
 import org.auraframework.def.LibraryDef;
 import org.auraframework.ds.serviceloader.AuraServiceProvider;
+import org.auraframework.impl.util.json.DefinitionJsonWriter;
 import org.auraframework.system.AuraContext;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
@@ -39,6 +40,6 @@ public class LibraryDefJSONFormatAdapter extends JSONFormatAdapter<LibraryDef> {
     public void writeCollection(Collection<? extends LibraryDef> values, Appendable out) throws IOException,
             QuickFixException {
         AuraContext context = Aura.getContextService().getCurrentContext();
-        Json.serialize(values, out, context.getJsonSerializationContext());
+        DefinitionJsonWriter.writeArray(Json.createJsonStream(out, context.getJsonSerializationContext()), values);
     }
 }
@@ -31,7 +31,9 @@ import org.auraframework.system.AuraContext;
 import org.auraframework.system.Message;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
-import org.auraframework.util.json.JsonReader;
+import org.auraframework.util.json.JsonConstant;
+import org.auraframework.util.json.JsonStreamReader;
+import org.auraframework.util.json.JsonStreamReader.JsonParseException;
 
 import com.google.common.collect.Lists;
 
@@ -48,29 +50,61 @@ public class MessageJSONFormatAdapter extends JSONFormatAdapter<Message> {
         return Message.class;
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Read a message, pulling it from the stream a token at a time so that
+     * only the params of each action are built as a map, rather than the whole
+     * message.
+     */
     @Override
     public Message read(Reader in) throws IOException, QuickFixException {
-        Map<?, ?> message = (Map<?, ?>) new JsonReader().read(in);
-
-        List<?> actions = (List<?>) message.get("actions");
+        JsonStreamReader reader = new JsonStreamReader(in);
+        reader.setRecursiveReadEnabled(false);
         List<Action> actionList = Lists.newArrayList();
-        if (actions != null) {
-            for (Object action : actions) {
-                Map<?, ?> map = (Map<?, ?>) action;
 
-                // FIXME: ints are getting translated into BigDecimals here.
-                Map<String, Object> params = (Map<String, Object>) map.get("params");
+        if (reader.next() != JsonConstant.OBJECT_START) {
+            throw new JsonParseException("Message must be an object");
+        }
+        String key;
+        while ((key = reader.nextKey()) != null) {
+            JsonConstant token = reader.next();
+            if ("actions".equals(key) && token == JsonConstant.ARRAY_START) {
+                while ((token = reader.nextElement()) != JsonConstant.ARRAY_END) {
+                    if (token != JsonConstant.OBJECT_START) {
+                        throw new JsonParseException("Action must be an object");
+                    }
+                    actionList.add(readAction(reader));
+                }
+            } else {
+                reader.skipValue();
+            }
+        }
 
-                Action instance = (Action) Aura.getInstanceService().getInstance((String) map.get("descriptor"),
-                        ActionDef.class, params);
-                instance.setId((String) map.get("id"));
+        return new Message(actionList);
+    }
+
+    private Action readAction(JsonStreamReader reader) throws IOException, QuickFixException {
+        String descriptor = null;
+        String id = null;
+        Map<String, Object> params = null;
+        String key;
 
-                actionList.add(instance);
+        while ((key = reader.nextKey()) != null) {
+            JsonConstant token = reader.next();
+            if ("descriptor".equals(key) && token == JsonConstant.STRING) {
+                descriptor = reader.getString();
+            } else if ("id".equals(key) && token == JsonConstant.STRING) {
+                id = reader.getString();
+            } else if ("params".equals(key) && token == JsonConstant.OBJECT_START) {
+                // FIXME: ints are getting translated into BigDecimals here.
+                params = reader.getObject();
+            } else {
+                reader.skipValue();
             }
         }
 
-        return new Message(actionList);
+        Action instance = (Action) Aura.getInstanceService().getInstance(descriptor, ActionDef.class, params);
+        instance.setId(id);
+        return instance;
     }
 
     @Override
@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Set;
 
 import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
 
@@ -37,6 +38,7 @@ import org.auraframework.system.DefRegistry;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 /**
  * @since 0.0.177
@@ -117,16 +119,24 @@ public class AdminModel {
         }
 
         MBeanServer server = ManagementFactory.getPlatformMBeanServer();
-        Set<ObjectName> blah = server.queryNames(new ObjectName("aura", "name", "*"), null);
+        Set<ObjectName> blah = Sets.newTreeSet(server.queryNames(AuraMBeans.getQuery(), null));
         beanData = Lists.newArrayListWithCapacity(blah.size());
         for (ObjectName on : blah) {
             Map<String, Object> data = Maps.newHashMap();
-            data.put("name", on.getKeyProperty("name"));
-            data.put("count", server.getAttribute(on, "Count"));
-            data.put("maxValue", server.getAttribute(on, "MaxValue"));
-            data.put("minValue", server.getAttribute(on, "MinValue"));
-            data.put("mostRecentValue", server.getAttribute(on, "MostRecentValue"));
-            data.put("totalValue", server.getAttribute(on, "TotalValue"));
+            String name = on.getKeyProperty("name");
+            if (name != null && name.startsWith("\"")) {
+                name = ObjectName.unquote(name);
+            }
+            data.put("type", on.getKeyProperty("type"));
+            data.put("name", name);
+            // the beans are of several kinds, so show whatever each one has.
+            List<String> values = Lists.newArrayList();
+            for (MBeanAttributeInfo attribute : server.getMBeanInfo(on).getAttributes()) {
+                if (attribute.isReadable()) {
+                    values.add(attribute.getName() + ": " + server.getAttribute(on, attribute.getName()));
+                }
+            }
+            data.put("values", values);
             beanData.add(data);
         }
 
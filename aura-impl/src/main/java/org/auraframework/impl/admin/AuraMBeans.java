@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.admin;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Publishes the MBeans of the framework, all named aura:type=&lt;type&gt;,name=&lt;name&gt;, so that the admin page
+ * can list them with {@link #getQuery()}.
+ */
+public final class AuraMBeans {
+    private static final Logger logger = Logger.getLogger(AuraMBeans.class);
+
+    public static final String DOMAIN = "aura";
+
+    private AuraMBeans() {
+    }
+
+    /**
+     * @param type the type of the MBean, grouping related beans, e.g. "cache".
+     * @param name the name of the MBean, which is quoted, so it can be anything.
+     * @return the name to publish the bean under.
+     */
+    public static ObjectName getObjectName(String type, String name) throws MalformedObjectNameException {
+        return new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * @return a pattern matching all of our MBeans.
+     */
+    public static ObjectName getQuery() throws MalformedObjectNameException {
+        return new ObjectName(DOMAIN + ":*");
+    }
+
+    /**
+     * Publish an MBean.
+     *
+     * The bean is still usable if this fails, e.g. when it is already registered from another class loader, so a
+     * failure is only logged.
+     *
+     * @param type the type of the MBean.
+     * @param name the name of the MBean.
+     * @param bean the bean.
+     * @return true if the bean was published.
+     */
+    public static boolean register(String type, String name, Object bean) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(bean, getObjectName(type, name));
+            return true;
+        } catch (JMException jme) {
+            logger.warn("Unable to register MBean " + type + " " + name + ": " + jme.getMessage());
+            return false;
+        }
+    }
+}
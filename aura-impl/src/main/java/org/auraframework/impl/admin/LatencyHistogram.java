@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.admin;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of times, e.g. of one kind of action, that many threads can record into without locking, published as
+ * through {@link AuraMBeans} so that percentiles can be scraped.
+ *
+ * Times are counted in buckets that are an eighth of a power of two wide, so percentiles are accurate to within
+ * 12.5%.
+ */
+public class LatencyHistogram implements LatencyHistogramMBean {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** values below this each have their own bucket. */
+    private static final int LINEAR = SUB_BUCKETS * 2;
+    private static final int BUCKETS = LINEAR + (64 - SUB_BUCKET_BITS - 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Create a histogram and publish it.
+     *
+     * @param type the type of the MBean, grouping related histograms.
+     * @param name the name of the MBean.
+     * @return the histogram, which is still usable if it could not be published.
+     */
+    public static LatencyHistogram register(String type, String name) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        AuraMBeans.register(type, name, histogram);
+        return histogram;
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR) {
+            return (int) Math.max(value, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the largest value counted in a bucket.
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        long subBucket = (bucket - LINEAR) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + subBucket * width + width - 1;
+    }
+
+    public void record(long micros) {
+        counts.incrementAndGet(bucketOf(micros));
+        count.incrementAndGet();
+        total.addAndGet(micros);
+        long current = max.get();
+        while (micros > current && !max.compareAndSet(current, micros)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Get a percentile. Concurrent recording may make this slightly off, which is fine for monitoring.
+     *
+     * @param percentile the percentile, from 0 to 100.
+     * @return the highest value of the bucket the percentile falls in, but no more than the maximum recorded.
+     */
+    public long getPercentile(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max((long) Math.ceil(n * percentile / 100), 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    @Override
+    public long getCount() {
+        return count.get();
+    }
+
+    @Override
+    public long getTotalValue() {
+        return total.get();
+    }
+
+    @Override
+    public long getMaxValue() {
+        return max.get();
+    }
+
+    @Override
+    public long getMedianValue() {
+        return getPercentile(50);
+    }
+
+    @Override
+    public long getPercentile90Value() {
+        return getPercentile(90);
+    }
+
+    @Override
+    public long getPercentile99Value() {
+        return getPercentile(99);
+    }
+}
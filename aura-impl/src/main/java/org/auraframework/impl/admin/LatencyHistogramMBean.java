@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.admin;
+
+/**
+ * Management interface for {@link LatencyHistogram}. Times are in microseconds.
+ */
+public interface LatencyHistogramMBean {
+    long getCount();
+
+    long getTotalValue();
+
+    long getMaxValue();
+
+    long getMedianValue();
+
+    long getPercentile90Value();
+
+    long getPercentile99Value();
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.admin;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.auraframework.system.RequestTimer;
+
+/**
+ * The process wide latency histograms for requests: one for each action, by descriptor, and one for each
+ * {@link RequestTimer}, i.e. each phase of a request such as serialization. They are recorded into when a request's
+ * logging context logs, and published as MBeans of type "action" and "phase".
+ */
+public final class RequestHistograms {
+    /**
+     * The most actions to keep histograms for, so that a stream of made up action names can't fill the heap. Any
+     * others are recorded together.
+     */
+    private static final int MAX_ACTIONS = 1000;
+    private static final String OTHER_ACTIONS = "other";
+
+    private static final LatencyHistogram[] phases;
+    private static final ConcurrentMap<String, LatencyHistogram> actions = new ConcurrentHashMap<>();
+
+    static {
+        RequestTimer[] timers = RequestTimer.values();
+        phases = new LatencyHistogram[timers.length];
+        for (RequestTimer timer : timers) {
+            phases[timer.ordinal()] = LatencyHistogram.register("phase", timer.getName());
+        }
+    }
+
+    private RequestHistograms() {
+    }
+
+    /**
+     * @return the histogram of the time spent in a phase per request.
+     */
+    public static LatencyHistogram getPhase(RequestTimer timer) {
+        return phases[timer.ordinal()];
+    }
+
+    /**
+     * @param descriptor the qualified name of an action.
+     * @return the histogram of the time spent running the action.
+     */
+    public static LatencyHistogram getAction(String descriptor) {
+        LatencyHistogram histogram = actions.get(descriptor);
+        if (histogram == null) {
+            synchronized (actions) {
+                histogram = actions.get(descriptor);
+                if (histogram == null) {
+                    if (actions.size() >= MAX_ACTIONS && !OTHER_ACTIONS.equals(descriptor)) {
+                        return getAction(OTHER_ACTIONS);
+                    }
+                    histogram = LatencyHistogram.register("action", descriptor);
+                    actions.put(descriptor, histogram);
+                }
+            }
+        }
+        return histogram;
+    }
+
+    public static void recordPhase(RequestTimer timer, long micros) {
+        phases[timer.ordinal()].record(micros);
+    }
+
+    public static void recordAction(String descriptor, long micros) {
+        getAction(descriptor).record(micros);
+    }
+}
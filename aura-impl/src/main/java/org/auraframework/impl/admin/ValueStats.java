@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.admin;
+
+/**
+ * Running statistics for a series of values, e.g. sizes or times, published as an MBean of type "stats" through
+ * {@link AuraMBeans} so that they show on the admin page.
+ */
+public class ValueStats implements ValueStatsMBean {
+    private long count;
+    private long min;
+    private long max;
+    private long mostRecent;
+    private long total;
+
+    /**
+     * Create statistics and publish them.
+     *
+     * @param name the name of the MBean.
+     * @return the statistics, which are still usable if they could not be published.
+     */
+    public static ValueStats register(String name) {
+        ValueStats stats = new ValueStats();
+        AuraMBeans.register("stats", name, stats);
+        return stats;
+    }
+
+    public synchronized void record(long value) {
+        if (count == 0 || value < min) {
+            min = value;
+        }
+        if (count == 0 || value > max) {
+            max = value;
+        }
+        count += 1;
+        mostRecent = value;
+        total += value;
+    }
+
+    @Override
+    public synchronized long getCount() {
+        return count;
+    }
+
+    @Override
+    public synchronized long getMinValue() {
+        return min;
+    }
+
+    @Override
+    public synchronized long getMaxValue() {
+        return max;
+    }
+
+    @Override
+    public synchronized long getMostRecentValue() {
+        return mostRecent;
+    }
+
+    @Override
+    public synchronized long getTotalValue() {
+        return total;
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.log4j.Logger;
 import org.auraframework.Aura;
 import org.auraframework.adapter.LoggingAdapter;
 import org.auraframework.cache.Cache;
+import org.auraframework.cache.Weigher;
 import org.auraframework.impl.AuraImpl;
 import org.auraframework.impl.adapter.ConfigAdapterImpl;
 import org.auraframework.system.LoggingContext;
@@ -108,6 +109,25 @@ public class CacheImpl<K, T> implements Cache<K, T> {
         }
     };
 
+    /**
+     * Exposes an aura weigher to guava. Guava requires the weigher to accept
+     * the key and value types of the eventual cache, not those of its builder.
+     */
+    private static class WeigherAdapter<K, T> implements com.google.common.cache.Weigher<Object, Object> {
+
+        private final Weigher<K, T> weigher;
+
+        WeigherAdapter(Weigher<K, T> weigher) {
+            this.weigher = weigher;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public int weigh(Object key, Object value) {
+            return weigher.weigh((K) key, (T) value);
+        }
+    }
+
 	private com.google.common.cache.Cache<K, T> cache;
 
 	CacheImpl(com.google.common.cache.Cache<K, T> cache) {
@@ -120,9 +140,15 @@ public class CacheImpl<K, T> implements Cache<K, T> {
 
 		com.google.common.cache.CacheBuilder<Object, Object> cb = com.google.common.cache.CacheBuilder
 				.newBuilder().initialCapacity(builder.initialCapacity)
-				.maximumSize(builder.maximumSize)
 				.concurrencyLevel(builder.concurrencyLevel);
 
+		if (builder.weigher != null && builder.maximumWeight > 0) {
+			cb = cb.maximumWeight(builder.maximumWeight).weigher(
+					new WeigherAdapter<K, T>(builder.weigher));
+		} else {
+			cb = cb.maximumSize(builder.maximumSize);
+		}
+
 		if (builder.recordStats) {
 			cb = cb.recordStats();
 		}
@@ -203,6 +229,8 @@ public class CacheImpl<K, T> implements Cache<K, T> {
         int initialCapacity = 128;
         int concurrencyLevel = 4;
         long maximumSize = 1024;
+        long maximumWeight = 0;
+        Weigher<K, T> weigher;
         boolean recordStats = false;
         boolean softValues = true;
         boolean useSecondaryStorage = false;
@@ -224,6 +252,18 @@ public class CacheImpl<K, T> implements Cache<K, T> {
 			return this;
 		};
 
+		@Override
+		public Builder<K, T> setMaximumWeight(long maximumWeight) {
+			this.maximumWeight = maximumWeight;
+			return this;
+		}
+
+		@Override
+		public Builder<K, T> setWeigher(Weigher<K, T> weigher) {
+			this.weigher = weigher;
+			return this;
+		}
+
 		@Override
 		public Builder<K, T> setUseSecondaryStorage(boolean useSecondaryStorage) {
 			this.useSecondaryStorage = useSecondaryStorage;
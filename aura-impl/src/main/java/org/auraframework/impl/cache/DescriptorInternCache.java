@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.auraframework.Aura;
+import org.auraframework.adapter.LoggingAdapter;
+import org.auraframework.cache.Cache;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DescriptorKey;
+import org.auraframework.def.Definition;
+import org.auraframework.impl.AuraImpl;
+import org.auraframework.impl.admin.AuraMBeans;
+
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Sets;
+
+/**
+ * The table of descriptors by name, which interns descriptors rather than caching them.
+ *
+ * Descriptors in framework (privileged) namespaces are kept for good, up to a limit, as there are few of them and
+ * they are looked up constantly. Other descriptors are held weakly, so each stays interned for as long as anything
+ * uses it. Reads take no locks, unlike a cache bounded by size, which has to track every read to decide what to evict.
+ *
+ * Hits and misses are counted in striped counters, so that threads reading at once rarely share a cache line. The
+ * counts and size are logged once a day with the other cache statistics, and published as an MBean of type "cache"
+ * when built with {@link #register(String, int)}.
+ */
+public class DescriptorInternCache implements Cache<DescriptorKey, DefDescriptor<? extends Definition>>,
+        DescriptorInternCacheMBean {
+    /** Interval at which to log cache stats */
+    private static final long ONE_DAY = 1000 * 60 * 60 * 24;
+
+    private final String name;
+    private final int frameworkLimit;
+    private final ConcurrentMap<DescriptorKey, DefDescriptor<? extends Definition>> framework;
+    private final ConcurrentMap<DescriptorKey, DefDescriptor<? extends Definition>> others;
+    private final StripedCounter hits = new StripedCounter();
+    private final StripedCounter misses = new StripedCounter();
+    private final AtomicLong lastLogged = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * @param name the name of the cache, for logging.
+     * @param frameworkLimit how many descriptors to keep for good, beyond which framework descriptors are also held
+     *            weakly.
+     */
+    public DescriptorInternCache(String name, int frameworkLimit) {
+        this.name = name;
+        this.frameworkLimit = frameworkLimit;
+        this.framework = new ConcurrentHashMap<>(512, 0.75f, 16);
+        this.others = new MapMaker().concurrencyLevel(16).weakValues().makeMap();
+    }
+
+    /**
+     * Create a table and publish its statistics.
+     *
+     * @param name the name of the cache, for logging and of the MBean.
+     * @param frameworkLimit how many descriptors to keep for good.
+     * @return the table, which is still usable if it could not be published.
+     */
+    public static DescriptorInternCache register(String name, int frameworkLimit) {
+        DescriptorInternCache cache = new DescriptorInternCache(name, frameworkLimit);
+        AuraMBeans.register("cache", name, cache);
+        return cache;
+    }
+
+    /**
+     * @return whether descriptors in a namespace are kept for good.
+     */
+    protected boolean isFrameworkNamespace(String namespace) {
+        return namespace != null && Aura.getConfigAdapter().isPrivilegedNamespace(namespace);
+    }
+
+    @Override
+    public DefDescriptor<? extends Definition> getIfPresent(DescriptorKey key) {
+        DefDescriptor<? extends Definition> descriptor = framework.get(key);
+        if (descriptor == null) {
+            descriptor = others.get(key);
+        }
+        if (descriptor != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return descriptor;
+    }
+
+    @Override
+    public void put(DescriptorKey key, DefDescriptor<? extends Definition> data) {
+        logStatsIfDue();
+        if (framework.size() < frameworkLimit && isFrameworkNamespace(data.getNamespace())) {
+            framework.put(key, data);
+            others.remove(key);
+        } else {
+            others.put(key, data);
+            framework.remove(key);
+        }
+    }
+
+    @Override
+    public Set<DescriptorKey> getKeySet() {
+        return Sets.union(framework.keySet(), others.keySet());
+    }
+
+    @Override
+    public void invalidate(DescriptorKey key) {
+        framework.remove(key);
+        others.remove(key);
+    }
+
+    @Override
+    public void invalidate(Iterable<DescriptorKey> keys) {
+        for (DescriptorKey key : keys) {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        framework.clear();
+        others.clear();
+    }
+
+    @Override
+    public void invalidatePartial(String keyBeginsWith) {
+        if (keyBeginsWith == null || keyBeginsWith.length() == 0) {
+            invalidateAll();
+            return;
+        }
+        List<DescriptorKey> invalidItems = new ArrayList<>();
+        for (DescriptorKey key : getKeySet()) {
+            if (key.toString().startsWith(keyBeginsWith)) {
+                invalidItems.add(key);
+            }
+        }
+        invalidate(invalidItems);
+    }
+
+    @Override
+    public Object getPrivateUnderlyingCache() {
+        return this;
+    }
+
+    /**
+     * @return how many descriptors are kept for good.
+     */
+    @Override
+    public int getFrameworkSize() {
+        return framework.size();
+    }
+
+    /**
+     * @return how many descriptors are interned, including weakly held ones that are not yet cleared.
+     */
+    @Override
+    public long getSize() {
+        return framework.size() + others.size();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return statistics for this table, only hits and misses are recorded, since nothing is evicted.
+     */
+    public CacheStats stats() {
+        return new CacheStats(getHitCount(), getMissCount(), 0, 0, 0, 0);
+    }
+
+    /**
+     * Log the statistics once a day, as other caches do. This is only checked on a put, which follows a miss, so that
+     * reads stay cheap.
+     */
+    private void logStatsIfDue() {
+        long last = lastLogged.get();
+        long now = System.currentTimeMillis();
+        if (now < last + ONE_DAY || !lastLogged.compareAndSet(last, now)) {
+            return;
+        }
+        LoggingAdapter adapter = AuraImpl.getLoggingAdapter();
+        if (adapter != null && adapter.isEstablished()) {
+            CacheStats stats = stats();
+            adapter.getLoggingContext().logCacheInfo(name,
+                    String.format("%d descriptors kept for good, hit rate=%.3f", getFrameworkSize(), stats.hitRate()),
+                    getSize(), stats);
+        }
+    }
+
+    /**
+     * A counter spread over cache lines by thread.
+     */
+    private static class StripedCounter {
+        private static final int STRIPES = 16;
+        /** longs per stripe, so that each stripe has its own cache line */
+        private static final int PAD = 8;
+
+        private final AtomicLongArray counts = new AtomicLongArray(STRIPES * PAD);
+
+        private void increment() {
+            counts.incrementAndGet((int) (Thread.currentThread().getId() & (STRIPES - 1)) * PAD);
+        }
+
+        private long sum() {
+            long sum = 0;
+            for (int i = 0; i < STRIPES; i++) {
+                sum += counts.get(i * PAD);
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,521 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.auraframework.cache.Cache;
+import org.auraframework.cache.Weigher;
+
+import com.google.common.cache.CacheStats;
+
+/**
+ * A bounded cache using a W-TinyLFU admission and eviction policy.
+ *
+ * New entries are put in a small LRU window (1% of capacity). Entries leaving
+ * the window compete for a place in the main space against its least recently
+ * used entry, and the one with the higher estimated access frequency wins. The
+ * main space is a segmented LRU, entries read a second time while there are
+ * promoted to a protected segment (80% of the main space), so that a scan of
+ * one-off lookups cannot flush frequently used entries out of the cache.
+ *
+ * Unlike {@link CacheImpl}, values are always held strongly: the cache only
+ * evicts for size, never because of garbage collection. When a weigher is
+ * set, the cache is bounded by total weight rather than number of entries.
+ *
+ * Reads are lock free. They are recorded in a lossy buffer that is replayed
+ * against the policy under a lock, either when it fills or on the next write.
+ */
+public class FrequencyCacheImpl<K, T> implements Cache<K, T> {
+
+    /** Size of the read buffer, must be a power of two */
+    private static final int READ_BUFFER_SIZE = 128;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+
+    private static final double WINDOW_PERCENT = 0.01;
+    private static final double PROTECTED_PERCENT = 0.80;
+
+    private enum Queue {
+        WINDOW, PROBATION, PROTECTED, DEAD
+    }
+
+    private static final class Node<K, T> {
+        final K key;
+        volatile T value;
+
+        // The remaining fields are guarded by the eviction lock
+        int weight;
+        Queue queue;
+        Node<K, T> prev;
+        Node<K, T> next;
+
+        Node(K key, T value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.queue = Queue.WINDOW;
+        }
+    }
+
+    /**
+     * An intrusive doubly-linked list of nodes, least recently used first.
+     */
+    private static final class AccessOrderQueue<K, T> {
+        private Node<K, T> first;
+        private Node<K, T> last;
+
+        Node<K, T> peekFirst() {
+            return first;
+        }
+
+        Node<K, T> peekLast() {
+            return last;
+        }
+
+        void addLast(Node<K, T> node) {
+            node.prev = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+        }
+
+        void remove(Node<K, T> node) {
+            if (node.prev == null) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToLast(Node<K, T> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            first = null;
+            last = null;
+        }
+    }
+
+    private final ConcurrentHashMap<K, Node<K, T>> data;
+    private final Weigher<K, T> weigher;
+    private final long maximum;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final boolean recordStats;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    // guarded by evictionLock
+    private final FrequencySketch<K> sketch;
+    private final AccessOrderQueue<K, T> window = new AccessOrderQueue<>();
+    private final AccessOrderQueue<K, T> probation = new AccessOrderQueue<>();
+    private final AccessOrderQueue<K, T> protectedQueue = new AccessOrderQueue<>();
+    private long windowWeight;
+    private long protectedWeight;
+    private long totalWeight;
+
+    private final AtomicReferenceArray<Node<K, T>> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final AtomicInteger readCount = new AtomicInteger();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public FrequencyCacheImpl(Builder<K, T> builder) {
+        boolean weighted = builder.weigher != null && builder.maximumWeight > 0;
+
+        this.data = new ConcurrentHashMap<>(builder.initialCapacity, 0.75f, builder.concurrencyLevel);
+        this.weigher = weighted ? builder.weigher : null;
+        this.maximum = weighted ? builder.maximumWeight : builder.maximumSize;
+        this.windowMaximum = Math.max(1, (long) (maximum * WINDOW_PERCENT));
+        this.protectedMaximum = (long) ((maximum - windowMaximum) * PROTECTED_PERCENT);
+        this.recordStats = builder.recordStats;
+        // the sketch tracks keys, so it is sized by count even for weighted caches
+        this.sketch = new FrequencySketch<>(builder.maximumSize);
+    }
+
+    @Override
+    public T getIfPresent(K key) {
+        Node<K, T> node = data.get(key);
+        if (node == null) {
+            if (recordStats) {
+                missCount.incrementAndGet();
+            }
+            return null;
+        }
+        T value = node.value;
+        if (recordStats) {
+            hitCount.incrementAndGet();
+        }
+        recordRead(node);
+        return value;
+    }
+
+    @Override
+    public void put(K key, T data) {
+        int weight = weigher == null ? 1 : weigher.weigh(key, data);
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+            Node<K, T> node = this.data.get(key);
+            if (node != null) {
+                node.value = data;
+                adjustWeight(node, weight - node.weight);
+                onAccess(node);
+            } else {
+                node = new Node<>(key, data, weight);
+                this.data.put(key, node);
+                window.addLast(node);
+                windowWeight += weight;
+                totalWeight += weight;
+                sketch.increment(key);
+            }
+            evict();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public Set<K> getKeySet() {
+        return data.keySet();
+    }
+
+    @Override
+    public void invalidate(K key) {
+        evictionLock.lock();
+        try {
+            Node<K, T> node = data.remove(key);
+            if (node != null) {
+                unlink(node);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidate(Iterable<K> keys) {
+        evictionLock.lock();
+        try {
+            for (K key : keys) {
+                invalidate(key);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        evictionLock.lock();
+        try {
+            for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+                readBuffer.lazySet(i, null);
+            }
+            for (Node<K, T> node : data.values()) {
+                node.queue = Queue.DEAD;
+            }
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedQueue.clear();
+            windowWeight = 0;
+            protectedWeight = 0;
+            totalWeight = 0;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidatePartial(String keyBeginsWith) {
+        // everything is a match if the match length is zero
+        if (keyBeginsWith == null || keyBeginsWith.length() == 0) {
+            invalidateAll();
+            return;
+        }
+
+        ArrayList<K> invalidItems = new ArrayList<>();
+        for (K key : data.keySet()) {
+            if (key.toString().startsWith(keyBeginsWith)) {
+                invalidItems.add(key);
+            }
+        }
+        if (!invalidItems.isEmpty()) {
+            invalidate(invalidItems);
+        }
+    }
+
+    @Override
+    public Object getPrivateUnderlyingCache() {
+        return this;
+    }
+
+    /**
+     * @return the number of entries currently in the cache.
+     */
+    public long size() {
+        return data.size();
+    }
+
+    /**
+     * @return the total weight of the entries in the cache, which is the
+     *         number of entries if the cache has no weigher.
+     */
+    public long weightedSize() {
+        evictionLock.lock();
+        try {
+            return totalWeight;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * @return statistics for this cache, only hits, misses and evictions are
+     *         recorded, and only if the cache was built to record stats.
+     */
+    public CacheStats stats() {
+        return new CacheStats(hitCount.get(), missCount.get(), 0, 0, 0, evictionCount.get());
+    }
+
+    private void recordRead(Node<K, T> node) {
+        int index = readCount.getAndIncrement() & READ_BUFFER_MASK;
+        readBuffer.lazySet(index, node);
+        if (index == READ_BUFFER_MASK && evictionLock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    // guarded by evictionLock
+    private void drainReadBuffer() {
+        for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+            Node<K, T> node = readBuffer.getAndSet(i, null);
+            if (node != null) {
+                onAccess(node);
+            }
+        }
+    }
+
+    // guarded by evictionLock
+    private void onAccess(Node<K, T> node) {
+        switch (node.queue) {
+        case WINDOW:
+            sketch.increment(node.key);
+            window.moveToLast(node);
+            break;
+        case PROBATION:
+            sketch.increment(node.key);
+            probation.remove(node);
+            protectedQueue.addLast(node);
+            node.queue = Queue.PROTECTED;
+            protectedWeight += node.weight;
+            demoteProtected();
+            break;
+        case PROTECTED:
+            sketch.increment(node.key);
+            protectedQueue.moveToLast(node);
+            break;
+        case DEAD:
+            break;
+        }
+    }
+
+    // guarded by evictionLock
+    private void adjustWeight(Node<K, T> node, int delta) {
+        node.weight += delta;
+        totalWeight += delta;
+        if (node.queue == Queue.WINDOW) {
+            windowWeight += delta;
+        } else if (node.queue == Queue.PROTECTED) {
+            protectedWeight += delta;
+        }
+    }
+
+    // guarded by evictionLock
+    private void unlink(Node<K, T> node) {
+        switch (node.queue) {
+        case WINDOW:
+            window.remove(node);
+            windowWeight -= node.weight;
+            break;
+        case PROBATION:
+            probation.remove(node);
+            break;
+        case PROTECTED:
+            protectedQueue.remove(node);
+            protectedWeight -= node.weight;
+            break;
+        case DEAD:
+            return;
+        }
+        totalWeight -= node.weight;
+        node.queue = Queue.DEAD;
+    }
+
+    /** Move the least recently used protected entries back to probation while the segment is over size. */
+    // guarded by evictionLock
+    private void demoteProtected() {
+        while (protectedWeight > protectedMaximum) {
+            Node<K, T> node = protectedQueue.peekFirst();
+            protectedQueue.remove(node);
+            protectedWeight -= node.weight;
+            probation.addLast(node);
+            node.queue = Queue.PROBATION;
+        }
+    }
+
+    // guarded by evictionLock
+    private void evict() {
+        // Entries overflowing the window become candidates at the end of probation
+        while (windowWeight > windowMaximum) {
+            Node<K, T> node = window.peekFirst();
+            window.remove(node);
+            windowWeight -= node.weight;
+            probation.addLast(node);
+            node.queue = Queue.PROBATION;
+        }
+
+        // Each candidate competes with the probation victim, the least frequent loses
+        while (totalWeight > maximum) {
+            Node<K, T> victim = probation.peekFirst();
+            Node<K, T> candidate = probation.peekLast();
+            if (victim == null) {
+                victim = protectedQueue.peekFirst();
+                if (victim == null) {
+                    victim = window.peekFirst();
+                }
+            } else if (candidate != victim && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                victim = candidate;
+            }
+            evictEntry(victim);
+        }
+    }
+
+    // guarded by evictionLock
+    private void evictEntry(Node<K, T> node) {
+        data.remove(node.key, node);
+        unlink(node);
+        if (recordStats) {
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    public static class Builder<K, T> implements org.auraframework.builder.CacheBuilder<K, T> {
+        // builder defaults
+        int initialCapacity = 128;
+        int concurrencyLevel = 4;
+        long maximumSize = 1024;
+        long maximumWeight = 0;
+        Weigher<K, T> weigher;
+        boolean recordStats = false;
+
+        public Builder() {
+        }
+
+        @Override
+        public Builder<K, T> setInitialSize(int initialCapacity) {
+            this.initialCapacity = initialCapacity;
+            return this;
+        }
+
+        @Override
+        public Builder<K, T> setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        @Override
+        public Builder<K, T> setMaximumWeight(long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        @Override
+        public Builder<K, T> setWeigher(Weigher<K, T> weigher) {
+            this.weigher = weigher;
+            return this;
+        }
+
+        /**
+         * Ignored, entries are always kept in memory.
+         */
+        @Override
+        public Builder<K, T> setUseSecondaryStorage(boolean useSecondaryStorage) {
+            return this;
+        }
+
+        @Override
+        public Builder<K, T> setRecordStats(boolean recordStats) {
+            this.recordStats = recordStats;
+            return this;
+        }
+
+        /**
+         * Ignored, values are always strongly held so that the frequency
+         * policy, not the garbage collector, decides what is evicted.
+         */
+        @Override
+        public Builder<K, T> setSoftValues(boolean softValues) {
+            return this;
+        }
+
+        @Override
+        public Builder<K, T> setConcurrencyLevel(int concurrencyLevel) {
+            this.concurrencyLevel = concurrencyLevel;
+            return this;
+        }
+
+        /**
+         * Ignored, the name is only used for logging by other providers.
+         */
+        @Override
+        public Builder<K, T> setName(String name) {
+            return this;
+        }
+
+        @Override
+        public FrequencyCacheImpl<K, T> build() {
+            return new FrequencyCacheImpl<>(this);
+        }
+    }
+}
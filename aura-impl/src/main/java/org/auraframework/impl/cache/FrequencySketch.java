@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+/**
+ * A count-min sketch estimating how often keys have been seen recently.
+ *
+ * Each key is mapped to four 4-bit counters, all packed into a single array of
+ * longs, and its frequency is the minimum of those counters. Once the number
+ * of increments reaches ten times the expected number of entries, every
+ * counter is halved, so that keys which were popular a long time ago age out.
+ *
+ * This class is not thread-safe, callers must hold a lock.
+ */
+final class FrequencySketch<E> {
+
+    private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+            0xcbf29ce484222325L };
+
+    /** Clears the high bit of each counter after a shift, when halving */
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    /** Selects the low bit of each counter, to correct the size for truncation when halving */
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    /**
+     * @param expectedSize the number of distinct keys expected to be tracked.
+     */
+    FrequencySketch(long expectedSize) {
+        int maximum = (int) Math.min(Math.max(expectedSize, 1), 1 << 30);
+        table = new long[Math.max(Integer.highestOneBit(maximum - 1) << 1, 8)];
+        tableMask = table.length - 1;
+        sampleSize = 10 * maximum > 0 ? 10 * maximum : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return the estimated number of times the element was seen, at most 15.
+     */
+    int frequency(E e) {
+        int hash = spread(e.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increment the popularity of the element, unless it is already at the
+     * maximum count. Periodically ages every counter.
+     */
+    void increment(E e) {
+        int hash = spread(e.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /** Halve every counter. */
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (odd >>> 2);
+    }
+
+    private int indexOf(int hash, int depth) {
+        long h = (hash + SEEDS[depth]) * SEEDS[depth];
+        h += h >>> 32;
+        return ((int) h) & tableMask;
+    }
+
+    /** Guard against poor hash codes, such as those of small Integers. */
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
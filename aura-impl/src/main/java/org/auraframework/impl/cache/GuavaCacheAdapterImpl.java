@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import org.auraframework.adapter.CacheAdapter;
+import org.auraframework.builder.CacheBuilder;
+import org.auraframework.ds.serviceloader.AuraServiceProvider;
+
+import aQute.bnd.annotation.component.Component;
+
+/**
+ * Provides caches backed by guava, holding values through soft references by default.
+ */
+@Component (provide=AuraServiceProvider.class)
+public class GuavaCacheAdapterImpl implements CacheAdapter {
+
+    public static final String PROVIDER_NAME = "guava";
+
+    @Override
+    public String getProviderName() {
+        return PROVIDER_NAME;
+    }
+
+    @Override
+    public <K, T> CacheBuilder<K, T> getCacheBuilder() {
+        return new CacheImpl.Builder<>();
+    }
+}
@@ -0,0 +1,393 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.log4j.Logger;
+import org.auraframework.system.ResourcePayload;
+import org.auraframework.util.text.Hash;
+
+/**
+ * A directory of encoded resources, so that expensive outputs (closure compressed JS, app CSS) survive a restart and
+ * can be shared by nodes with the same sources.
+ *
+ * Files are named by a hash of the key, and keys must include everything the content depends on (for definitions,
+ * the dependency uid), so entries never need invalidating: a change to the sources gives a new key. Files are written
+ * to a temp file and renamed into place, so a reader only ever sees a complete file.
+ *
+ * Since stored payloads are served as app JS and CSS, the directory must be private to the user running the server
+ * (it is created that way, and refused if it is not), and every entry carries an HMAC of its key and content under a
+ * secret kept in the directory. An entry that fails the check is dropped, as are entries that have not been used for
+ * the maximum age, and the least recently used entries whenever the store grows past its maximum size.
+ */
+public class PayloadStore {
+    private static final int MAGIC = 0x41555241; // AURA
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_SIZE = 32;
+    private static final String SUFFIX = ".payload";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String SECRET_FILE = "payload.key";
+
+    /** Entries are pruned on a put at most this often */
+    private static final long PRUNE_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final Set<PosixFilePermission> OWNER_ONLY = EnumSet.of(PosixFilePermission.OWNER_READ,
+            PosixFilePermission.OWNER_WRITE, PosixFilePermission.OWNER_EXECUTE);
+    private static final Set<PosixFilePermission> GROUP_OR_OTHERS = EnumSet.of(PosixFilePermission.GROUP_READ,
+            PosixFilePermission.GROUP_WRITE, PosixFilePermission.GROUP_EXECUTE, PosixFilePermission.OTHERS_READ,
+            PosixFilePermission.OTHERS_WRITE, PosixFilePermission.OTHERS_EXECUTE);
+
+    private static final Logger logger = Logger.getLogger(PayloadStore.class);
+
+    private final Path dir;
+    private final SecretKeySpec secret;
+    private final long maxAgeMillis;
+    private final long maxBytes;
+    private final AtomicLong lastPrune = new AtomicLong();
+
+    /**
+     * Open a store, creating the directory if needed, and prune it.
+     *
+     * @param dir the directory, which must be private to the current user if it exists.
+     * @param maxAgeMillis how long an entry is kept after it was last used.
+     * @param maxBytes the size the store is pruned to.
+     * @throws IOException if the directory can't be created, or is not private.
+     */
+    public PayloadStore(File dir, long maxAgeMillis, long maxBytes) throws IOException {
+        this.dir = dir.toPath().toAbsolutePath();
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxBytes = maxBytes;
+        createPrivateDirectory(this.dir);
+        this.secret = new SecretKeySpec(loadSecret(this.dir.resolve(SECRET_FILE)), MAC_ALGORITHM);
+        prune();
+    }
+
+    /**
+     * Get a stored payload.
+     *
+     * @param key the key the payload was stored with.
+     * @return the payload, or null if there is none (or it could not be read).
+     */
+    public ResourcePayload get(String key) {
+        Path file = getFile(key);
+        try {
+            byte[] data = Files.readAllBytes(file);
+            if (data.length < HEADER_SIZE + MAC_SIZE) {
+                return corrupt(file);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return corrupt(file);
+            }
+            int length = buffer.getInt();
+            int gzipLength = buffer.getInt();
+            if (length < 0 || gzipLength < -1
+                    || HEADER_SIZE + (long) length + Math.max(gzipLength, 0) + MAC_SIZE != data.length) {
+                return corrupt(file);
+            }
+            int macOffset = data.length - MAC_SIZE;
+            byte[] mac = new byte[MAC_SIZE];
+            System.arraycopy(data, macOffset, mac, 0, MAC_SIZE);
+            if (!MessageDigest.isEqual(mac, computeMac(key, ByteBuffer.wrap(data, 0, macOffset)))) {
+                return corrupt(file);
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            byte[] gzipBytes = null;
+            if (gzipLength >= 0) {
+                gzipBytes = new byte[gzipLength];
+                buffer.get(gzipBytes);
+            }
+            touch(file);
+            return new ResourcePayload(bytes, gzipBytes);
+        } catch (NoSuchFileException nsfe) {
+            return null;
+        } catch (IOException ioe) {
+            logger.warn("Unable to read stored payload " + file, ioe);
+            return null;
+        }
+    }
+
+    /**
+     * Store a payload, replacing any stored with the same key.
+     *
+     * Failures are logged and otherwise ignored, the store is only ever an optimization.
+     *
+     * @param key the key, which must change whenever the content would.
+     * @param payload the payload to store.
+     */
+    public void put(String key, ResourcePayload payload) {
+        byte[] bytes = payload.getBytes();
+        byte[] gzipBytes = payload.getGzipBytes();
+        ByteBuffer data = ByteBuffer.allocate(HEADER_SIZE + bytes.length
+                + (gzipBytes != null ? gzipBytes.length : 0) + MAC_SIZE);
+        data.putInt(MAGIC).putInt(VERSION).putInt(bytes.length).putInt(gzipBytes != null ? gzipBytes.length : -1);
+        data.put(bytes);
+        if (gzipBytes != null) {
+            data.put(gzipBytes);
+        }
+        int macOffset = data.position();
+        data.put(computeMac(key, ByteBuffer.wrap(data.array(), 0, macOffset)));
+
+        Path file = getFile(key);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(dir, null, TEMP_SUFFIX);
+            Files.write(temp, data.array());
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException amnse) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+        } catch (IOException ioe) {
+            logger.warn("Unable to store payload " + file, ioe);
+        } finally {
+            deleteQuietly(temp);
+        }
+
+        long last = lastPrune.get();
+        if (System.currentTimeMillis() - last > PRUNE_INTERVAL_MILLIS && lastPrune.compareAndSet(last, 0)) {
+            prune();
+        }
+    }
+
+    /**
+     * Remove entries (and stray temp files) that have not been used for the maximum age, then the least recently
+     * used entries until the store is within its maximum size.
+     */
+    public void prune() {
+        long now = System.currentTimeMillis();
+        lastPrune.set(now);
+        long cutoff = now - maxAgeMillis;
+        List<Entry> entries = new ArrayList<>();
+        long total = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*{" + SUFFIX + "," + TEMP_SUFFIX + "}")) {
+            for (Path file : stream) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (NoSuchFileException nsfe) {
+                    continue;
+                }
+                long modified = attrs.lastModifiedTime().toMillis();
+                if (modified < cutoff || !attrs.isRegularFile()) {
+                    deleteQuietly(file);
+                } else if (file.getFileName().toString().endsWith(SUFFIX)) {
+                    entries.add(new Entry(file, modified, attrs.size()));
+                    total += attrs.size();
+                }
+            }
+        } catch (IOException ioe) {
+            logger.warn("Unable to prune payload store " + dir, ioe);
+            return;
+        }
+        if (total > maxBytes) {
+            Collections.sort(entries, Entry.BY_LAST_USE);
+            for (Entry entry : entries) {
+                if (total <= maxBytes) {
+                    break;
+                }
+                deleteQuietly(entry.file);
+                total -= entry.size;
+            }
+        }
+    }
+
+    private Path getFile(String key) {
+        Hash.StringBuilder builder = new Hash.StringBuilder();
+        builder.addString(key);
+        return dir.resolve(builder.build().toString() + SUFFIX);
+    }
+
+    private byte[] computeMac(String key, ByteBuffer content) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(secret);
+            mac.update(key.getBytes(StandardCharsets.UTF_8));
+            mac.update(content);
+            return mac.doFinal();
+        } catch (GeneralSecurityException gse) {
+            // can't happen, every JVM has HmacSHA256.
+            throw new IllegalStateException(gse);
+        }
+    }
+
+    private ResourcePayload corrupt(Path file) throws IOException {
+        logger.warn("Ignoring corrupt stored payload " + file);
+        Files.deleteIfExists(file);
+        return null;
+    }
+
+    /**
+     * Mark an entry as used, so that pruning keeps it.
+     */
+    private void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ioe) {
+            // ne'ermind, it may be pruned a little early.
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ioe) {
+                // ne'ermind, it will be tried again on the next prune.
+            }
+        }
+    }
+
+    /**
+     * Create the directory readable only by us, or check that an existing one is.
+     *
+     * File systems without POSIX permissions are left to their own access control, entries are still authenticated.
+     */
+    private static void createPrivateDirectory(Path dir) throws IOException {
+        boolean posix = dir.getFileSystem().supportedFileAttributeViews().contains("posix");
+        if (!Files.exists(dir, LinkOption.NOFOLLOW_LINKS)) {
+            Files.createDirectories(dir.getParent());
+            try {
+                if (posix) {
+                    Files.createDirectory(dir, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+                } else {
+                    Files.createDirectory(dir);
+                }
+            } catch (FileAlreadyExistsException faee) {
+                // someone else just made it, check it below.
+            }
+        }
+        if (!Files.isDirectory(dir, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException(dir + " is not a directory");
+        }
+        checkPrivate(dir);
+    }
+
+    /**
+     * Check that a file is owned by us, and not accessible by anyone else.
+     */
+    private static void checkPrivate(Path path) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(path, PosixFileAttributeView.class,
+                LinkOption.NOFOLLOW_LINKS);
+        if (view == null) {
+            return;
+        }
+        PosixFileAttributes attrs = view.readAttributes();
+        UserPrincipal user = path.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        if (!attrs.owner().equals(user)) {
+            throw new IOException(path + " is owned by " + attrs.owner().getName() + ", not " + user.getName());
+        }
+        if (!Collections.disjoint(attrs.permissions(), GROUP_OR_OTHERS)) {
+            throw new IOException(path + " is accessible by other users ("
+                    + PosixFilePermissions.toString(attrs.permissions()) + ")");
+        }
+    }
+
+    /**
+     * Read the secret for entry HMACs, creating it if there is none yet.
+     */
+    private static byte[] loadSecret(Path file) throws IOException {
+        if (!Files.exists(file, LinkOption.NOFOLLOW_LINKS)) {
+            byte[] secret = new byte[MAC_SIZE];
+            new SecureRandom().nextBytes(secret);
+            Path dir = file.getParent();
+            Path temp;
+            if (dir.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                FileAttribute<Set<PosixFilePermission>> ownerOnly = PosixFilePermissions.asFileAttribute(EnumSet.of(
+                        PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE));
+                temp = Files.createTempFile(dir, null, TEMP_SUFFIX, ownerOnly);
+            } else {
+                temp = Files.createTempFile(dir, null, TEMP_SUFFIX);
+            }
+            try {
+                Files.write(temp, secret);
+                // without REPLACE_EXISTING, so that if another node got there first we both use theirs.
+                Files.move(temp, file);
+            } catch (FileAlreadyExistsException faee) {
+                // use the one that is there.
+            } finally {
+                deleteQuietly(temp);
+            }
+        }
+        if (!Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException(file + " is not a file");
+        }
+        checkPrivate(file);
+        byte[] secret = Files.readAllBytes(file);
+        if (secret.length != MAC_SIZE) {
+            throw new IOException(file + " is not a payload store secret");
+        }
+        return secret;
+    }
+
+    private static class Entry {
+        private static final Comparator<Entry> BY_LAST_USE = new Comparator<Entry>() {
+            @Override
+            public int compare(Entry e1, Entry e2) {
+                return Long.compare(e1.lastUsed, e2.lastUsed);
+            }
+        };
+
+        private final Path file;
+        private final long lastUsed;
+        private final long size;
+
+        private Entry(Path file, long lastUsed, long size) {
+            this.file = file;
+            this.lastUsed = lastUsed;
+            this.size = size;
+        }
+    }
+}
@@ -44,6 +44,7 @@ import org.auraframework.def.EventDef;
 import org.auraframework.def.EventType;
 import org.auraframework.def.ThemeDef;
 import org.auraframework.impl.css.ThemeListImpl;
+import org.auraframework.impl.util.json.DefinitionJsonWriter;
 import org.auraframework.instance.Action;
 import org.auraframework.instance.BaseComponent;
 import org.auraframework.instance.Event;
@@ -111,7 +112,8 @@ public class AuraContextImpl implements AuraContext {
         private void writeDefs(Json json, String name, List<Definition> writable) throws IOException {
             if (writable.size() > 0) {
                 Collections.sort(writable, DEFSORTER);
-                json.writeMapEntry(name, writable);
+                json.writeMapKey(name);
+                DefinitionJsonWriter.writeArray(json, writable);
             }
         }
 
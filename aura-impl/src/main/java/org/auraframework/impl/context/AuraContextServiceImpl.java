@@ -31,6 +31,7 @@ import org.auraframework.def.DefDescriptor;
 import org.auraframework.ds.serviceloader.AuraServiceProvider;
 import org.auraframework.impl.AuraImpl;
 import org.auraframework.impl.system.MasterDefRegistryImpl;
+import org.auraframework.impl.system.RegistryTrie;
 import org.auraframework.impl.util.json.AuraJsonContext;
 import org.auraframework.instance.GlobalValueProvider;
 import org.auraframework.instance.ValueProviderType;
@@ -137,21 +138,60 @@ public class AuraContextServiceImpl implements ContextService {
     }
 
     private MasterDefRegistry getDefRegistry(Mode mode, Authentication access, Set<SourceLoader> loaders) {
-        return new MasterDefRegistryImpl(getRegistries(mode, access, loaders));
+        return new MasterDefRegistryImpl(getRegistryTrie(mode, access, loaders));
     }
 
-    private DefRegistry<?>[] getRegistries(Mode mode, Authentication access, Set<SourceLoader> loaders) {
-        List<DefRegistry<?>> ret = new ArrayList<DefRegistry<?>>();
+    /**
+     * The registries last handed back by the registry adapters, and the trie built over them.
+     */
+    private static class ProvidedRegistries {
+        private final List<DefRegistry<?>[]> provided;
+        private final RegistryTrie trie;
+
+        private ProvidedRegistries(List<DefRegistry<?>[]> provided, RegistryTrie trie) {
+            this.provided = provided;
+            this.trie = trie;
+        }
+
+        private boolean isFor(List<DefRegistry<?>[]> other) {
+            if (provided.size() != other.size()) {
+                return false;
+            }
+            for (int i = 0; i < provided.size(); i++) {
+                if (provided.get(i) != other.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The adapters hand back the same registries until sources change, so the trie is only rebuilt when they do.
+     */
+    private transient volatile ProvidedRegistries lastProvided;
+
+    private RegistryTrie getRegistryTrie(Mode mode, Authentication access, Set<SourceLoader> loaders) {
         Collection<RegistryAdapter> providers = AuraImpl.getRegistryAdapters();
+        List<DefRegistry<?>[]> provided = new ArrayList<>(providers.size());
         for (RegistryAdapter provider : providers) {
-            DefRegistry<?>[] registries = provider.getRegistries(mode, access, loaders);
+            provided.add(provider.getRegistries(mode, access, loaders));
+        }
+        ProvidedRegistries last = lastProvided;
+        if (last != null && last.isFor(provided)) {
+            return last.trie;
+        }
+        List<DefRegistry<?>> ret = new ArrayList<DefRegistry<?>>();
+        for (DefRegistry<?>[] registries : provided) {
             if (registries != null) {
                 for (DefRegistry<?> reg : registries) {
                     ret.add(reg);
                 }
             }
         }
-        return ret.toArray(new DefRegistry[ret.size()]);
+        RegistryTrie trie = new RegistryTrie(ret.toArray(new DefRegistry[ret.size()]));
+        lastProvided = new ProvidedRegistries(provided, trie);
+        return trie;
     }
     
     private Map<String, GlobalValueProvider> getGlobalProviders() {
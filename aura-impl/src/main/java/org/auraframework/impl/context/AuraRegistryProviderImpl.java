@@ -16,12 +16,17 @@
 package org.auraframework.impl.context;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
@@ -31,17 +36,14 @@ import org.apache.log4j.Logger;
 import org.auraframework.Aura;
 import org.auraframework.adapter.ComponentLocationAdapter;
 import org.auraframework.adapter.RegistryAdapter;
+import org.auraframework.cache.Cache;
 import org.auraframework.def.ControllerDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.Definition;
-import org.auraframework.def.HelperDef;
-import org.auraframework.def.IncludeDef;
-import org.auraframework.def.ModelDef;
-import org.auraframework.def.ProviderDef;
 import org.auraframework.def.RendererDef;
-import org.auraframework.def.ResourceDef;
-import org.auraframework.def.TestSuiteDef;
+import org.auraframework.def.RootDefinition;
+import org.auraframework.def.StyleDef;
 import org.auraframework.ds.serviceloader.AuraServiceProvider;
 import org.auraframework.impl.compound.controller.CompoundControllerDefFactory;
 import org.auraframework.impl.controller.AuraStaticControllerDefRegistry;
@@ -59,9 +61,12 @@ import org.auraframework.impl.source.file.FileSourceLoader;
 import org.auraframework.impl.source.resource.ResourceSourceLoader;
 import org.auraframework.impl.system.CacheableDefFactoryImpl;
 import org.auraframework.impl.system.CachingDefRegistryImpl;
+import org.auraframework.impl.system.LazyDefRegistryImpl;
 import org.auraframework.impl.system.NonCachingDefRegistryImpl;
 import org.auraframework.impl.system.StaticDefRegistryImpl;
+import org.auraframework.impl.system.StaticRegistryFile;
 import org.auraframework.impl.type.AuraStaticTypeDefRegistry;
+import org.auraframework.impl.util.AuraUtil;
 import org.auraframework.system.AuraContext.Authentication;
 import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.system.CacheableDefFactory;
@@ -72,9 +77,12 @@ import org.auraframework.system.SourceLoader;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.util.ServiceLocator;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
 
 import aQute.bnd.annotation.component.Component;
 
@@ -87,10 +95,62 @@ public class AuraRegistryProviderImpl implements RegistryAdapter, SourceListener
      */
     private volatile DefRegistry<?>[] registries;
 
+    private static final int REGISTRY_CACHE_SIZE = 64;
+
+    /**
+     * The registries built for each set of locations and extra loaders, so that test modes and extra loaders do not
+     * rebuild them on every request. Cleared along with {@link #registries} whenever source changes.
+     */
+    private final Cache<RegistriesKey, DefRegistry<?>[]> registryCache = Aura.getCachingService()
+            .<RegistriesKey, DefRegistry<?>[]> getCacheBuilder()
+            .setInitialSize(8)
+            .setMaximumSize(REGISTRY_CACHE_SIZE)
+            .setRecordStats(true)
+            .build();
+
+    /**
+     * Counts source changes, so that registries built across a change are not cached.
+     */
+    private volatile int generation;
+
+    private volatile ComponentLocationAdapter componentDirLocation;
+
     private static final Set<String> rootPrefixes = ImmutableSet.of(DefDescriptor.MARKUP_PREFIX);
     private static final Set<DefType> rootDefTypes = EnumSet.of(DefType.APPLICATION, DefType.COMPONENT,
             DefType.INTERFACE, DefType.EVENT, DefType.LIBRARY, DefType.LAYOUTS, DefType.NAMESPACE, DefType.THEME,
             DefType.DOCUMENTATION, DefType.INCLUDE, DefType.DESIGN, DefType.SVG);
+    private static final DefType[] javascriptDefTypes = { DefType.CONTROLLER, DefType.TESTSUITE, DefType.RENDERER,
+            DefType.HELPER, DefType.PROVIDER, DefType.MODEL, DefType.RESOURCE, DefType.INCLUDE };
+    private static final Set<DefType> styleDefTypes = EnumSet.of(DefType.STYLE, DefType.RESOURCE);
+    private static final Set<String> stylePrefixes = ImmutableSet.of(DefDescriptor.CSS_PREFIX,
+            DefDescriptor.TEMPLATE_CSS_PREFIX);
+
+    private static class RegistriesKey {
+        private final List<ComponentLocationAdapter> locations;
+        private final Set<SourceLoader> extraLoaders;
+        private final int hashCode;
+
+        private RegistriesKey(Collection<ComponentLocationAdapter> locations, Set<SourceLoader> extraLoaders) {
+            this.locations = Lists.newArrayList(locations);
+            this.extraLoaders = extraLoaders == null ? Collections.<SourceLoader> emptySet() : Sets
+                    .newHashSet(extraLoaders);
+            this.hashCode = AuraUtil.hashCode(this.locations, this.extraLoaders);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof RegistriesKey) {
+                RegistriesKey other = (RegistriesKey) obj;
+                return locations.equals(other.locations) && extraLoaders.equals(other.extraLoaders);
+            }
+            return false;
+        }
+    }
 
     private static class SourceLocationInfo {
         public final List<DefRegistry<?>> staticLocationRegistries;
@@ -127,16 +187,13 @@ public class AuraRegistryProviderImpl implements RegistryAdapter, SourceListener
     }
 
     /**
-     * Get an input stream from a file name.
+     * Map a file into memory.
      *
-     * @param path the path to open.
+     * @param file the file to map.
      */
-    private InputStream getFileInputStream(String path) {
-        File file = new File(path);
-        FileInputStream fis = null;
-
-        try {
-            fis = new FileInputStream(file);
+    private ByteBuffer mapFile(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
         } catch (Throwable t) {
             // don't die.
             // This can occur because the file is unreadable, or doesn't exist. We only
@@ -145,51 +202,59 @@ public class AuraRegistryProviderImpl implements RegistryAdapter, SourceListener
                 _log.error("Unable to open registries file", t);
             }
         }
-        return fis;
+        return null;
     }
 
-    private DefRegistry<?>[] getStaticRegistries(ComponentLocationAdapter location) {
-        InputStream ris = null;
-
+    /**
+     * Get the registries file for a location, mapped into memory if it is a file, or read if it is in a jar.
+     */
+    private ByteBuffer getRegistriesFile(ComponentLocationAdapter location) throws IOException, URISyntaxException {
         String pkg = location.getComponentSourcePackage();
         if (pkg != null) {
-            ris = location.getClass().getResourceAsStream(pkg + "/.registries");
-        } else {
-            File compSource = location.getComponentSourceDir();
-            if (compSource != null && compSource.canRead()) {
-                ris = getFileInputStream(compSource + "/.registries");
+            URL url = location.getClass().getResource(pkg + "/.registries");
+            if (url == null) {
+                return null;
+            }
+            if ("file".equals(url.getProtocol())) {
+                return mapFile(new File(url.toURI()));
+            }
+            try (InputStream in = url.openStream()) {
+                return ByteBuffer.wrap(ByteStreams.toByteArray(in));
             }
         }
-        if (ris != null) {
-            ObjectInputStream ois = null;
+        File compSource = location.getComponentSourceDir();
+        if (compSource != null && compSource.canRead()) {
+            return mapFile(new File(compSource, ".registries"));
+        }
+        return null;
+    }
 
-            try {
-                ois = new ObjectInputStream(ris);
+    private DefRegistry<?>[] getStaticRegistries(ComponentLocationAdapter location) {
+        try {
+            ByteBuffer buffer = getRegistriesFile(location);
+            if (buffer == null) {
+                return null;
+            }
+            if (StaticRegistryFile.isRegistryFile(buffer)) {
+                // Only the index is read here, definitions are read from the buffer as they are used.
+                List<DefRegistry<?>> l = StaticRegistryFile.read(buffer);
+                return l.toArray(new DefRegistry<?>[l.size()]);
+            }
+            // A registries file written before the indexed format.
+            try (ObjectInputStream ois = new ObjectInputStream(
+                    new StaticRegistryFile.ByteBufferInputStream(buffer))) {
                 Object o = ois.readObject();
                 if (o instanceof List) {
                     @SuppressWarnings("unchecked")
-                    List<DefRegistry<?>> l = (List<DefRegistry<?>>)o;
-                    return l.toArray(new DefRegistry<?> [l.size()]);
+                    List<DefRegistry<?>> l = (List<DefRegistry<?>>) o;
+                    return l.toArray(new DefRegistry<?>[l.size()]);
                 }
                 return (DefRegistry[]) ois.readObject();
-            } catch (Exception e) {
-                // Do not fail here, just act as if we don't have a registries file.
-                // You'd have to create a bad registries file...
-                _log.error("Unable to read registries file", e);
-            } finally {
-                try {
-                    ris.close();
-                } catch (IOException e) {
-                    throw new AuraRuntimeException(e);
-                }
-                if (ois != null) {
-                    try {
-                        ois.close();
-                    } catch (IOException e) {
-                        throw new AuraRuntimeException(e);
-                    }
-                }
             }
+        } catch (Exception e) {
+            // Do not fail here, just act as if we don't have a registries file.
+            // You'd have to create a bad registries file...
+            _log.error("Unable to read registries file", e);
         }
         return null;
     }
@@ -265,92 +330,134 @@ public class AuraRegistryProviderImpl implements RegistryAdapter, SourceListener
     @Override
     public DefRegistry<?>[] getRegistries(Mode mode, Authentication access, Set<SourceLoader> extraLoaders) {
         DefRegistry<?>[] ret = registries;
+        boolean isDefault = !mode.isTestMode() && (extraLoaders == null || extraLoaders.isEmpty());
 
-        if (mode.isTestMode() || ret == null || (extraLoaders != null && !extraLoaders.isEmpty())) {
-            Collection<ComponentLocationAdapter> markupLocations = getAllComponentLocationAdapters();
-            List<SourceLoader> markupLoaders = Lists.newArrayList();
-            List<SourceLoader> javaLoaders = Lists.newArrayList();
-            List<DefRegistry<?>> regBuild = Lists.newArrayList();
-
-            regBuild.add(AuraStaticTypeDefRegistry.INSTANCE);
-            regBuild.add(AuraStaticControllerDefRegistry.INSTANCE);
-            for (ComponentLocationAdapter location : markupLocations) {
-                if (location != null) {
-                    SourceLocationInfo sli = getSourceLocationInfo(location);
-                    if (!sli.isChanged() && sli.staticLocationRegistries != null) {
-                        regBuild.addAll(sli.staticLocationRegistries);
-                    } else {
-                        markupLoaders.addAll(sli.markupSourceLoaders);
-                        javaLoaders.addAll(sli.javaSourceLoaders);
+        if (ret != null && isDefault) {
+            return ret;
+        }
+        int startGeneration = generation;
+        Collection<ComponentLocationAdapter> markupLocations = getAllComponentLocationAdapters();
+        RegistriesKey key = new RegistriesKey(markupLocations, extraLoaders);
+        ret = registryCache.getIfPresent(key);
+        if (ret == null) {
+            ret = createRegistries(markupLocations, extraLoaders);
+            synchronized (this) {
+                // Registries built while sources changed may already be stale, so use them only this once.
+                if (startGeneration == generation) {
+                    registryCache.put(key, ret);
+                    if (isDefault) {
+                        registries = ret;
                     }
                 }
             }
+        }
+        return ret;
+    }
 
-            if (extraLoaders != null) {
-                markupLoaders.addAll(extraLoaders);
-                javaLoaders.addAll(extraLoaders);
+    /**
+     * Build the registries for a set of locations and extra loaders.
+     *
+     * The markup registries share a source factory, which has to list the namespaces of every loader, so they are
+     * only built, along with the source factory, the first time one of them is used.
+     */
+    private DefRegistry<?>[] createRegistries(Collection<ComponentLocationAdapter> markupLocations,
+            Set<SourceLoader> extraLoaders) {
+        final List<SourceLoader> markupLoaders = Lists.newArrayList();
+        List<SourceLoader> javaLoaders = Lists.newArrayList();
+        List<DefRegistry<?>> regBuild = Lists.newArrayList();
+
+        regBuild.add(AuraStaticTypeDefRegistry.INSTANCE);
+        regBuild.add(AuraStaticControllerDefRegistry.INSTANCE);
+        for (ComponentLocationAdapter location : markupLocations) {
+            if (location != null) {
+                SourceLocationInfo sli = getSourceLocationInfo(location);
+                if (!sli.isChanged() && sli.staticLocationRegistries != null) {
+                    regBuild.addAll(sli.staticLocationRegistries);
+                } else {
+                    markupLoaders.addAll(sli.markupSourceLoaders);
+                    javaLoaders.addAll(sli.javaSourceLoaders);
+                }
             }
+        }
 
-            if (markupLoaders.size() > 0) {
-                SourceFactory markupSourceFactory = new SourceFactory(markupLoaders);
-
-                regBuild.add(createDefRegistry(new RootDefFactory(markupSourceFactory), rootDefTypes, rootPrefixes));
-                regBuild.add(AuraRegistryProviderImpl.<ControllerDef> createJavascriptRegistry(markupSourceFactory,
-                        DefType.CONTROLLER));
-                regBuild.add(AuraRegistryProviderImpl.<TestSuiteDef> createJavascriptRegistry(markupSourceFactory,
-                        DefType.TESTSUITE));
-                regBuild.add(AuraRegistryProviderImpl.<RendererDef> createJavascriptRegistry(markupSourceFactory,
-                        DefType.RENDERER));
-                regBuild.add(AuraRegistryProviderImpl.<HelperDef> createJavascriptRegistry(markupSourceFactory,
-                        DefType.HELPER));
-                regBuild.add(AuraRegistryProviderImpl.<ProviderDef> createJavascriptRegistry(markupSourceFactory,
-                        DefType.PROVIDER));
-                regBuild.add(AuraRegistryProviderImpl.<ModelDef> createJavascriptRegistry(markupSourceFactory,
-                        DefType.MODEL));
-                regBuild.add(AuraRegistryProviderImpl.<ResourceDef> createJavascriptRegistry(markupSourceFactory,
-                        DefType.RESOURCE));
-                regBuild.add(AuraRegistryProviderImpl.<IncludeDef> createJavascriptRegistry(markupSourceFactory,
-                        DefType.INCLUDE));
-                regBuild.add(createDefRegistry(new StyleDefFactory(markupSourceFactory),
-                        Sets.newHashSet(DefType.STYLE, DefType.RESOURCE),
-                        Sets.newHashSet(DefDescriptor.CSS_PREFIX, DefDescriptor.TEMPLATE_CSS_PREFIX)));
-            }
+        if (extraLoaders != null) {
+            markupLoaders.addAll(extraLoaders);
+            javaLoaders.addAll(extraLoaders);
+        }
 
-            regBuild.add(AuraRegistryProviderImpl.<ControllerDef>createDefRegistry(new CompoundControllerDefFactory(),
-                    DefType.CONTROLLER, DefDescriptor.COMPOUND_PREFIX));
-
-            if (javaLoaders.size() > 0) {
-                regBuild.add(AuraRegistryProviderImpl.<ControllerDef>createDefRegistry(
-                        new JavaControllerDefFactory(javaLoaders), DefType.CONTROLLER, DefDescriptor.JAVA_PREFIX));
-                regBuild.add(AuraRegistryProviderImpl.<RendererDef>createDefRegistry(
-                        new JavaRendererDefFactory(javaLoaders), DefType.RENDERER, DefDescriptor.JAVA_PREFIX));
-                regBuild.add(createDefRegistry(new JavaTypeDefFactory(javaLoaders),
-                        DefType.TYPE, DefDescriptor.JAVA_PREFIX));
-                regBuild.add(createDefRegistry(new JavaModelDefFactory(javaLoaders),
-                        DefType.MODEL, DefDescriptor.JAVA_PREFIX));
-                regBuild.add(createDefRegistry(new JavaProviderDefFactory(javaLoaders), DefType.PROVIDER,
-                        DefDescriptor.JAVA_PREFIX));
-                regBuild.add(createDefRegistry(new JavaThemeDescriptorProviderDefFactory(javaLoaders),
-                        DefType.THEME_PROVIDER, DefDescriptor.JAVA_PREFIX));
-                regBuild.add(createDefRegistry(new JavaThemeMapProviderDefFactory(javaLoaders),
-                        DefType.THEME_MAP_PROVIDER, DefDescriptor.JAVA_PREFIX));
-            }
+        if (markupLoaders.size() > 0) {
+            final Supplier<SourceFactory> markupSourceFactory = Suppliers.memoize(new Supplier<SourceFactory>() {
+                @Override
+                public SourceFactory get() {
+                    return new SourceFactory(markupLoaders);
+                }
+            });
 
-            ret = regBuild.toArray(new DefRegistry<?>[regBuild.size()]);
-            if (registries == null && !mode.isTestMode()) {
-                registries = ret;
+            regBuild.add(new LazyDefRegistryImpl<>(new Supplier<DefRegistry<RootDefinition>>() {
+                @Override
+                public DefRegistry<RootDefinition> get() {
+                    return createDefRegistry(new RootDefFactory(markupSourceFactory.get()), rootDefTypes,
+                            rootPrefixes);
+                }
+            }, rootDefTypes, rootPrefixes, true));
+            for (DefType defType : javascriptDefTypes) {
+                regBuild.add(createLazyJavascriptRegistry(markupSourceFactory, defType));
             }
+            regBuild.add(new LazyDefRegistryImpl<>(new Supplier<DefRegistry<StyleDef>>() {
+                @Override
+                public DefRegistry<StyleDef> get() {
+                    return createDefRegistry(new StyleDefFactory(markupSourceFactory.get()), styleDefTypes,
+                            stylePrefixes);
+                }
+            }, styleDefTypes, stylePrefixes, true));
         }
 
-        return ret;
+        regBuild.add(AuraRegistryProviderImpl.<ControllerDef>createDefRegistry(new CompoundControllerDefFactory(),
+                DefType.CONTROLLER, DefDescriptor.COMPOUND_PREFIX));
+
+        if (javaLoaders.size() > 0) {
+            regBuild.add(AuraRegistryProviderImpl.<ControllerDef>createDefRegistry(
+                    new JavaControllerDefFactory(javaLoaders), DefType.CONTROLLER, DefDescriptor.JAVA_PREFIX));
+            regBuild.add(AuraRegistryProviderImpl.<RendererDef>createDefRegistry(
+                    new JavaRendererDefFactory(javaLoaders), DefType.RENDERER, DefDescriptor.JAVA_PREFIX));
+            regBuild.add(createDefRegistry(new JavaTypeDefFactory(javaLoaders),
+                    DefType.TYPE, DefDescriptor.JAVA_PREFIX));
+            regBuild.add(createDefRegistry(new JavaModelDefFactory(javaLoaders),
+                    DefType.MODEL, DefDescriptor.JAVA_PREFIX));
+            regBuild.add(createDefRegistry(new JavaProviderDefFactory(javaLoaders), DefType.PROVIDER,
+                    DefDescriptor.JAVA_PREFIX));
+            regBuild.add(createDefRegistry(new JavaThemeDescriptorProviderDefFactory(javaLoaders),
+                    DefType.THEME_PROVIDER, DefDescriptor.JAVA_PREFIX));
+            regBuild.add(createDefRegistry(new JavaThemeMapProviderDefFactory(javaLoaders),
+                    DefType.THEME_MAP_PROVIDER, DefDescriptor.JAVA_PREFIX));
+        }
+
+        return regBuild.toArray(new DefRegistry<?>[regBuild.size()]);
+    }
+
+    private static <T extends Definition> DefRegistry<T> createLazyJavascriptRegistry(
+            final Supplier<SourceFactory> sourceFactory, final DefType dt) {
+        return new LazyDefRegistryImpl<>(new Supplier<DefRegistry<T>>() {
+            @Override
+            public DefRegistry<T> get() {
+                return AuraRegistryProviderImpl.<T> createJavascriptRegistry(sourceFactory.get(), dt);
+            }
+        }, EnumSet.of(dt), ImmutableSet.of(DefDescriptor.JAVASCRIPT_PREFIX), true);
     }
 
     protected Collection<ComponentLocationAdapter> getAllComponentLocationAdapters() {
         Collection<ComponentLocationAdapter> ret = ServiceLocator.get().getAll(ComponentLocationAdapter.class);
         String prop = System.getProperty("aura.componentDir");
         if (prop != null) {
+            // keep the same location while the property is unchanged, so its registries are reused
+            File dir = new File(prop);
+            ComponentLocationAdapter dirLocation = componentDirLocation;
+            if (dirLocation == null || !dir.equals(dirLocation.getComponentSourceDir())) {
+                dirLocation = new ComponentLocationAdapter.Impl(dir);
+                componentDirLocation = dirLocation;
+            }
             ret = Lists.newArrayList(ret);
-            ret.add(new ComponentLocationAdapter.Impl(new File(prop)));
+            ret.add(dirLocation);
             return ret;
         } else {
             return ret;
@@ -392,7 +499,9 @@ public class AuraRegistryProviderImpl implements RegistryAdapter, SourceListener
                 } catch (IOException ioe) {
                 }
             }
+            generation++;
             registries = null;
+            registryCache.invalidateAll();
         }
     }
 }
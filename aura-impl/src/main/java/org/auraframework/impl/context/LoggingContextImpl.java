@@ -15,34 +15,120 @@
  */
 package org.auraframework.impl.context;
 
+import java.util.Arrays;
 import java.util.Map;
 
 import org.apache.log4j.Logger;
+import org.auraframework.impl.admin.RequestHistograms;
 import org.auraframework.service.LoggingService;
 import org.auraframework.system.LoggingContext;
+import org.auraframework.system.RequestCounter;
+import org.auraframework.system.RequestTimer;
 
 import com.google.common.cache.CacheStats;
 import com.google.common.collect.Maps;
 
 /**
  * LoggingContext impl.
+ *
+ * The pre-registered {@link RequestTimer}s and {@link RequestCounter}s are kept in arrays indexed by ordinal, so the
+ * common timers and counters cost no lookups or allocation. Any others are kept by name.
  */
-
 public class LoggingContextImpl implements LoggingContext {
 
     protected static final Logger logger = Logger.getLogger("LoggingContextImpl");
 
+    private static final RequestTimer[] TIMERS = RequestTimer.values();
+    private static final RequestCounter[] COUNTERS = RequestCounter.values();
+
     private final Map<String, Object> loggingValues = Maps.newHashMap();
     private final Map<String, Timer> timers = Maps.newHashMap();
     private final Map<String, Counter> counters = Maps.newHashMap();
     private final Map<String, Object> values = Maps.newHashMap();
-    
-    private final Map<String, Map<String, Long>> actionStats = Maps.newHashMap();
-    
+
+    // The pre-registered timers, with the same meaning as the fields of Timer, in nanoseconds.
+    private final boolean[] timerUsed = new boolean[TIMERS.length];
+    private final long[] timerStart = new long[TIMERS.length];
+    private final long[] timerTotal = new long[TIMERS.length];
+    private final int[] timerStartCount = new int[TIMERS.length];
+
+    // The pre-registered counters.
+    private final boolean[] counterUsed = new boolean[COUNTERS.length];
+    private final long[] counts = new long[COUNTERS.length];
+
+    private final Map<String, ActionStats> actionStats = Maps.newHashMap();
+
+    public LoggingContextImpl() {
+        Arrays.fill(timerStart, -1L);
+        Arrays.fill(timerTotal, -1L);
+    }
+
+    /**
+     * The timings of one action: how long it took, and how much the timers and counters moved while it ran.
+     *
+     * While the action runs, the arrays hold the pre-registered timers and counters as they were when it started,
+     * and after it stops, how much they moved.
+     */
+    private static class ActionStats {
+        private final String descriptor;
+        private final long[] timerTimes = new long[TIMERS.length];
+        private final long[] counterCounts = new long[COUNTERS.length];
+        private Map<String, Long> otherStats;
+        private long startTime = -1L;
+        private long totalTime = -1L;
+
+        private ActionStats(String descriptor) {
+            this.descriptor = descriptor;
+        }
+
+        private void putOther(String name, long value) {
+            if (otherStats == null) {
+                otherStats = Maps.newHashMap();
+            }
+            otherStats.put(name, value);
+        }
+
+        private Map<String, Long> toMap() {
+            Map<String, Long> stats = Maps.newHashMap();
+            if (totalTime >= 0L) {
+                stats.put(LoggingService.TIMER_ACTION, totalTime / 1000000L);
+            }
+            for (int i = 0; i < TIMERS.length; i++) {
+                if (timerTimes[i] > 0L) {
+                    stats.put(TIMERS[i].getName(), timerTimes[i]);
+                }
+            }
+            for (int i = 0; i < COUNTERS.length; i++) {
+                if (counterCounts[i] > 0L) {
+                    stats.put(COUNTERS[i].getName(), counterCounts[i]);
+                }
+            }
+            if (otherStats != null) {
+                stats.putAll(otherStats);
+            }
+            return stats;
+        }
+    }
+
     @Override
     public void startAction(String actionName) {
-        Map<String, Long> actionStatMap = Maps.newHashMap();
-        actionStats.put(actionName, actionStatMap);
+        startAction(actionName, null);
+    }
+
+    @Override
+    public void startAction(String actionName, String descriptor) {
+        ActionStats action = actionStats.get(actionName);
+        if (action == null) {
+            action = new ActionStats(descriptor);
+            actionStats.put(actionName, action);
+        } else if (action.otherStats != null) {
+            // a repeat of the action, whose time adds to that of the last run, as a restarted timer's would.
+            action.otherStats.clear();
+        }
+        for (int i = 0; i < TIMERS.length; i++) {
+            action.timerTimes[i] = getElapsed(i);
+        }
+        System.arraycopy(counts, 0, action.counterCounts, 0, counts.length);
         for (Map.Entry<String, Timer> timerEntry : timers.entrySet()) {
             Timer timer = timerEntry.getValue();
             timer.mark(actionName);
@@ -53,41 +139,75 @@ public class LoggingContextImpl implements LoggingContext {
         }
         startActionTimer(actionName);
     }
-    
+
     protected void startActionTimer(String actionName) {
-        startTimer(LoggingService.TIMER_ACTION + actionName);
+        ActionStats action = actionStats.get(actionName);
+        if (action != null) {
+            action.startTime = System.nanoTime();
+        }
     }
-    
+
     @Override
     public void stopAction(String actionName) {
-        stopActionTimer(actionName);
-        Map<String, Long> actionStatsMap = actionStats.get(actionName);
-        if (actionStatsMap != null) {
-            Timer actionTimer = timers.get(LoggingService.TIMER_ACTION + actionName);
-            if (actionTimer != null) {
-                actionStatsMap.put(LoggingService.TIMER_ACTION, actionTimer.getTime());
+        long elapsed = stopActionTimer(actionName);
+        ActionStats action = actionStats.get(actionName);
+        if (action != null) {
+            for (int i = 0; i < TIMERS.length; i++) {
+                action.timerTimes[i] = (getElapsed(i) - action.timerTimes[i]) / 1000000L;
+            }
+            for (int i = 0; i < COUNTERS.length; i++) {
+                action.counterCounts[i] = counts[i] - action.counterCounts[i];
             }
             for (Map.Entry<String, Timer> timerEntry : timers.entrySet()) {
                 Long timeSinceMark = timerEntry.getValue().getTimeSince(actionName);
                 if (timeSinceMark != null && timeSinceMark > 0L) {
-                    actionStatsMap.put(timerEntry.getKey(), timeSinceMark);
+                    action.putOther(timerEntry.getKey(), timeSinceMark);
                 }
             }
             for (Map.Entry<String, Counter> counterEntry : counters.entrySet()) {
                 Long countSinceMark = counterEntry.getValue().getCountSince(actionName);
                 if (countSinceMark != null && countSinceMark > 0L) {
-                    actionStatsMap.put(counterEntry.getKey(), countSinceMark);
+                    action.putOther(counterEntry.getKey(), countSinceMark);
                 }
             }
+            if (action.descriptor != null && elapsed >= 0L) {
+                RequestHistograms.recordAction(action.descriptor, elapsed / 1000L);
+            }
         }
     }
-    
-    protected void stopActionTimer(String actionName) {
-        stopTimer(LoggingService.TIMER_ACTION + actionName);
+
+    /**
+     * @return the nanoseconds the action took this time, or -1 if it wasn't started.
+     */
+    protected long stopActionTimer(String actionName) {
+        ActionStats action = actionStats.get(actionName);
+        if (action == null || action.startTime < 0L) {
+            return -1L;
+        }
+        long elapsed = System.nanoTime() - action.startTime;
+        action.totalTime = Math.max(action.totalTime, 0L) + elapsed;
+        action.startTime = -1L;
+        return elapsed;
+    }
+
+    /**
+     * @return the nanoseconds a pre-registered timer has run so far, including any current run, or 0 if it never has.
+     */
+    private long getElapsed(int i) {
+        long elapsed = Math.max(timerTotal[i], 0L);
+        if (timerStart[i] >= 0L) {
+            elapsed += System.nanoTime() - timerStart[i];
+        }
+        return elapsed;
     }
 
     @Override
     public void startTimer(String name) {
+        RequestTimer timer = RequestTimer.forName(name);
+        if (timer != null) {
+            startTimer(timer);
+            return;
+        }
         Timer t = timers.get(name);
         if (t == null) {
             t = new Timer(name);
@@ -96,16 +216,48 @@ public class LoggingContextImpl implements LoggingContext {
         t.start();
     }
 
+    @Override
+    public void startTimer(RequestTimer timer) {
+        int i = timer.ordinal();
+        timerUsed[i] = true;
+        timerStartCount[i]++;
+        if (timerStart[i] < 0L) {
+            timerStart[i] = System.nanoTime();
+        }
+    }
+
     @Override
     public void stopTimer(String name) {
+        RequestTimer timer = RequestTimer.forName(name);
+        if (timer != null) {
+            stopTimer(timer);
+            return;
+        }
         Timer t = timers.get(name);
         if (t != null) {
             t.stop();
         }
     }
 
+    @Override
+    public void stopTimer(RequestTimer timer) {
+        int i = timer.ordinal();
+        if (!timerUsed[i]) {
+            return;
+        }
+        timerStartCount[i]--;
+        if (timerStartCount[i] == 0 && timerStart[i] >= 0L) {
+            timerTotal[i] = Math.max(timerTotal[i], 0L) + System.nanoTime() - timerStart[i];
+            timerStart[i] = -1L;
+        }
+    }
+
     @Override
     public long getTime(String name) {
+        RequestTimer timer = RequestTimer.forName(name);
+        if (timer != null) {
+            return getTime(timer);
+        }
         Timer t = timers.get(name);
         if (t != null) {
             return t.getTime();
@@ -113,8 +265,20 @@ public class LoggingContextImpl implements LoggingContext {
         return -1;
     }
 
+    @Override
+    public long getTime(RequestTimer timer) {
+        long total = timerTotal[timer.ordinal()];
+        return (total > 0L) ? (total / 1000000L) : total;
+    }
+
     @Override
     public void resetTimer(String name) {
+        RequestTimer timer = RequestTimer.forName(name);
+        if (timer != null) {
+            timerStart[timer.ordinal()] = -1L;
+            timerTotal[timer.ordinal()] = -1L;
+            return;
+        }
         Timer t = timers.get(name);
         if (t != null) {
             t.reset();
@@ -123,6 +287,10 @@ public class LoggingContextImpl implements LoggingContext {
 
     @Override
     public long getNum(String key) {
+        RequestCounter counter = RequestCounter.forName(key);
+        if (counter != null) {
+            return getNum(counter);
+        }
         Counter result = counters.get(key);
         if (result == null) {
             return -1;
@@ -130,13 +298,29 @@ public class LoggingContextImpl implements LoggingContext {
         return result.get();
     }
 
+    @Override
+    public long getNum(RequestCounter counter) {
+        int i = counter.ordinal();
+        return counterUsed[i] ? counts[i] : -1;
+    }
+
     @Override
     public void incrementNum(String key) {
         incrementNumBy(key, 1);
     }
 
+    @Override
+    public void incrementNum(RequestCounter counter) {
+        incrementNumBy(counter, 1);
+    }
+
     @Override
     public void incrementNumBy(String key, long num) {
+        RequestCounter counter = RequestCounter.forName(key);
+        if (counter != null) {
+            incrementNumBy(counter, num);
+            return;
+        }
         Counter origNum = this.counters.get(key);
         if (origNum == null) {
             counters.put(key, new Counter(num));
@@ -145,8 +329,21 @@ public class LoggingContextImpl implements LoggingContext {
         }
     }
 
+    @Override
+    public void incrementNumBy(RequestCounter counter, long num) {
+        int i = counter.ordinal();
+        counterUsed[i] = true;
+        counts[i] += num;
+    }
+
     @Override
     public void setNum(String key, long num) {
+        RequestCounter requestCounter = RequestCounter.forName(key);
+        if (requestCounter != null) {
+            counterUsed[requestCounter.ordinal()] = true;
+            counts[requestCounter.ordinal()] = num;
+            return;
+        }
         Counter counter = counters.get(key);
         if (counter == null) {
             counters.put(key, new Counter(num));
@@ -170,6 +367,23 @@ public class LoggingContextImpl implements LoggingContext {
      */
     @Override
     public void logRequestValues() {
+        for (int i = 0; i < TIMERS.length; i++) {
+            if (timerUsed[i]) {
+                loggingValues.put(TIMERS[i].getName(), getTime(TIMERS[i]));
+                if (timerTotal[i] >= 0L) {
+                    RequestHistograms.recordPhase(TIMERS[i], timerTotal[i] / 1000L);
+                }
+            }
+        }
+        for (int i = 0; i < COUNTERS.length; i++) {
+            if (counterUsed[i]) {
+                loggingValues.put(COUNTERS[i].getName(), counts[i]);
+            }
+        }
+        for (Map.Entry<String, ActionStats> entry : actionStats.entrySet()) {
+            long total = entry.getValue().totalTime;
+            loggingValues.put(LoggingService.TIMER_ACTION + entry.getKey(), (total > 0L) ? (total / 1000000L) : total);
+        }
         for (Map.Entry<String, Timer> entry : timers.entrySet()) {
             loggingValues.put(entry.getKey(), entry.getValue().getTime());
         }
@@ -194,9 +408,9 @@ public class LoggingContextImpl implements LoggingContext {
     }
     
     protected void logActions(Map<String, Object> valueMap) {
-        for (Map.Entry<String, Map<String, Long>> actionStat : actionStats.entrySet()) {
+        for (Map.Entry<String, ActionStats> actionStat : actionStats.entrySet()) {
             String actionName = actionStat.getKey();
-            Map<String, Long> actionMap = actionStat.getValue();
+            Map<String, Long> actionMap = actionStat.getValue().toMap();
             logAction(actionName, actionMap, valueMap);
         }
     }
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.auraframework.css.MutableThemeList;
 import org.auraframework.def.DefDescriptor;
@@ -142,7 +143,8 @@ public final class ThemeListImpl implements MutableThemeList {
             return Optional.absent();
         }
 
-        Map<String, String> activeDynamicVars = activeDynamicVars();
+        // sorted, so that the same vars always give the same hash
+        Map<String, String> activeDynamicVars = new TreeMap<>(activeDynamicVars());
 
         Hash.StringBuilder builder = new Hash.StringBuilder();
         for (Entry<String, String> entry : activeDynamicVars.entrySet()) {
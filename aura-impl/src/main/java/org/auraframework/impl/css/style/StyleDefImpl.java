@@ -93,6 +93,11 @@ public class StyleDefImpl extends DefinitionImpl<StyleDef> implements StyleDef {
         return getCode(ImmutableList.<Plugin>of());
     }
 
+    /**
+     * Get the runtime code, parsed again on each call. Nothing is kept per def: contextual plugins (e.g. the duplicate
+     * font-face check) work across all the defs of an app, so the output of one def can't be reused on its own. The
+     * CSS of a whole app is cached instead, see {@link org.auraframework.impl.ServerServiceImpl#writeAppCss}.
+     */
     @Override
     public String getCode(List<Plugin> plugins) {
         try {
@@ -27,6 +27,8 @@ import org.auraframework.def.ValueDef;
 import org.auraframework.instance.AbstractActionImpl;
 import org.auraframework.service.LoggingService;
 import org.auraframework.system.Location;
+import org.auraframework.system.RequestCounter;
+import org.auraframework.system.RequestTimer;
 import org.auraframework.throwable.AuraExecutionException;
 import org.auraframework.throwable.AuraHandledException;
 import org.auraframework.throwable.AuraUnhandledException;
@@ -58,13 +60,13 @@ public class JavaAction extends AbstractActionImpl<JavaActionDef> {
     }
 
     private Object[] getArgs() {
-        Class<?>[] javaParams = actionDef.getJavaParams();
-        Object[] args = new Object[javaParams.length];
-        int i = 0;
-        for (ValueDef valueDef : actionDef.getParameters()) {
+        JavaParamConverter[] converters = actionDef.getParamConverters();
+        Object[] args = new Object[actionDef.getJavaParams().length];
+        for (int i = 0; i < converters.length; i++) {
+            ValueDef valueDef = converters[i].getValueDef();
             Object param = paramValues.get(valueDef.getName());
             try {
-                param = valueDef.getType().valueOf(param);
+                param = converters[i].convert(param);
             } catch (QuickFixException qfe) {
                 //
                 // This means that we have a broken definition.
@@ -84,7 +86,7 @@ public class JavaAction extends AbstractActionImpl<JavaActionDef> {
                         false);
                 return null;
             }
-            args[i++] = param;
+            args[i] = param;
         }
         return args;
     }
@@ -129,11 +131,11 @@ public class JavaAction extends AbstractActionImpl<JavaActionDef> {
         }
 
         LoggingService loggingService = Aura.getLoggingService();
-        loggingService.stopTimer(LoggingService.TIMER_AURA);
-        loggingService.startTimer("java");
+        loggingService.stopTimer(RequestTimer.AURA);
+        loggingService.startTimer(RequestTimer.JAVA);
         try {
-            loggingService.incrementNum("JavaCallCount");
-            this.returnValue = this.actionDef.getMethod().invoke(bean, args);
+            loggingService.incrementNum(RequestCounter.JAVA_CALL_COUNT);
+            this.returnValue = this.actionDef.invoke(bean, args);
             this.state = State.SUCCESS;
         } catch (InvocationTargetException e) {
             // something bad happened in the body of the action itself
@@ -148,8 +150,8 @@ public class JavaAction extends AbstractActionImpl<JavaActionDef> {
             //
             addException(e, State.ERROR, true, false);
         } finally {
-            loggingService.stopTimer("java");
-            loggingService.startTimer(LoggingService.TIMER_AURA);
+            loggingService.stopTimer(RequestTimer.JAVA);
+            loggingService.startTimer(RequestTimer.AURA);
         }
     }
 
@@ -16,7 +16,12 @@
 package org.auraframework.impl.java.controller;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.List;
 
 import org.auraframework.def.ActionDef;
@@ -27,11 +32,14 @@ import org.auraframework.impl.system.DefinitionImpl;
 import org.auraframework.impl.util.AuraUtil;
 import org.auraframework.util.json.Json;
 
+import com.google.common.primitives.Primitives;
+
 /**
  * action in java, aka static method.
  */
 public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDef {
     private static final long serialVersionUID = -9179014361802437154L;
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
     private final DefDescriptor<TypeDef> returnTypeDescriptor;
     private final List<ValueDef> params;
     private final List<String> loggableParams;
@@ -39,6 +47,13 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
     private final Method method;
     private final boolean background;
     private final boolean caboose;
+    private final boolean independent;
+    private final JavaParamConverter[] paramConverters;
+    private final Class<?>[] argTypes;
+    private final Class<?>[] argClasses;
+    private final boolean isStatic;
+    private final MethodHandle invoker;
+    private final IllegalAccessException invokerFailure;
 
     protected JavaActionDef(Builder builder) {
         super(builder);
@@ -49,6 +64,37 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         this.method = builder.method;
         this.background = builder.background;
         this.caboose = builder.caboose;
+        this.independent = builder.independent;
+
+        this.paramConverters = new JavaParamConverter[this.params.size()];
+        for (int i = 0; i < paramConverters.length; i++) {
+            paramConverters[i] = new JavaParamConverter(this.params.get(i));
+        }
+        MethodHandle invoker = null;
+        IllegalAccessException invokerFailure = null;
+        if (method != null) {
+            this.argTypes = method.getParameterTypes();
+            this.argClasses = new Class<?>[argTypes.length];
+            for (int i = 0; i < argTypes.length; i++) {
+                argClasses[i] = Primitives.wrap(argTypes[i]);
+            }
+            this.isStatic = Modifier.isStatic(method.getModifiers());
+            try {
+                invoker = MethodHandles.publicLookup().unreflect(method);
+                if (isStatic) {
+                    invoker = MethodHandles.dropArguments(invoker, 0, Object.class);
+                }
+                invoker = invoker.asSpreader(Object[].class, argTypes.length).asType(INVOKER_TYPE);
+            } catch (IllegalAccessException iae) {
+                invokerFailure = iae;
+            }
+        } else {
+            this.argTypes = null;
+            this.argClasses = null;
+            this.isStatic = false;
+        }
+        this.invoker = invoker;
+        this.invokerFailure = invokerFailure;
     }
 
     @Override
@@ -70,6 +116,52 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         return this.javaParams;
     }
 
+    /**
+     * Gets the converters for the parameters, in order.
+     */
+    JavaParamConverter[] getParamConverters() {
+        return paramConverters;
+    }
+
+    /**
+     * Invokes the method, as {@link Method#invoke(Object, Object...)} would, but through a method handle built
+     * when this definition was.
+     *
+     * @param bean the controller bean, ignored if the method is static.
+     * @param args the arguments.
+     * @return the value returned by the method, or null if it is void.
+     * @throws IllegalAccessException if the method is not accessible.
+     * @throws IllegalArgumentException if the arguments do not match the parameters.
+     * @throws InvocationTargetException if the method throws.
+     */
+    Object invoke(Object bean, Object[] args) throws IllegalAccessException, InvocationTargetException {
+        if (invokerFailure != null) {
+            throw invokerFailure;
+        }
+        if (!isStatic) {
+            if (bean == null) {
+                throw new NullPointerException();
+            }
+            if (!method.getDeclaringClass().isInstance(bean)) {
+                throw new IllegalArgumentException("object is not an instance of declaring class");
+            }
+        }
+        if (args.length != argClasses.length) {
+            throw new IllegalArgumentException("wrong number of arguments");
+        }
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg == null ? argTypes[i].isPrimitive() : !argClasses[i].isInstance(arg)) {
+                throw new IllegalArgumentException("argument type mismatch");
+            }
+        }
+        try {
+            return (Object) invoker.invokeExact(bean, args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
     /**
      * Gets the method for this instance.
      * 
@@ -92,6 +184,11 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
     	return caboose;
     }
 
+    @Override
+    public boolean isIndependent() {
+        return independent;
+    }
+
     @Override
     public void serialize(Json json) throws IOException {
         json.writeMapBegin();
@@ -118,6 +215,7 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         private Method method;
         private boolean background = false;
         private boolean caboose = false;
+        private boolean independent = false;
 
         @Override
         public JavaActionDef build() {
@@ -171,5 +269,9 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
 	public void setCaboose(boolean caboose) {
 	    this.caboose = caboose;
 	}
+
+	public void setIndependent(boolean independent) {
+	    this.independent = independent;
+	}
     }
 }
@@ -38,6 +38,7 @@ import org.auraframework.system.Annotations.AuraEnabled;
 import org.auraframework.system.Annotations.BackgroundAction;
 import org.auraframework.system.Annotations.CabooseAction;
 import org.auraframework.system.Annotations.Controller;
+import org.auraframework.system.Annotations.IndependentAction;
 import org.auraframework.system.Annotations.Key;
 import org.auraframework.system.DefFactory;
 import org.auraframework.system.Location;
@@ -173,6 +174,7 @@ public class JavaControllerDefFactory extends BaseJavaDefFactory<ControllerDef>
         
     	actionBuilder.setBackground(method.isAnnotationPresent(BackgroundAction.class));
     	actionBuilder.setCaboose(method.isAnnotationPresent(CabooseAction.class));
+    	actionBuilder.setIndependent(method.isAnnotationPresent(IndependentAction.class));
         
         return actionBuilder.build();
     }
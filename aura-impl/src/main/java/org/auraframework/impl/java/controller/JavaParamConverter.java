@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.controller;
+
+import org.auraframework.def.TypeDef;
+import org.auraframework.def.ValueDef;
+import org.auraframework.impl.java.type.JavaTypeDef;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+/**
+ * Converts the values sent for an action parameter to the type of the parameter.
+ *
+ * The type is looked up the first time a value is converted, and the conversion is kept for the class of the last
+ * value sent, which for a given parameter is nearly always the same, so most values are converted without any
+ * lookups.
+ */
+final class JavaParamConverter {
+    private final ValueDef valueDef;
+    private volatile TypeDef type;
+    private volatile Resolved resolved;
+
+    private static final class Resolved {
+        private final Class<?> from;
+        private final JavaTypeDef.Conversion conversion;
+
+        private Resolved(Class<?> from, JavaTypeDef.Conversion conversion) {
+            this.from = from;
+            this.conversion = conversion;
+        }
+    }
+
+    JavaParamConverter(ValueDef valueDef) {
+        this.valueDef = valueDef;
+    }
+
+    ValueDef getValueDef() {
+        return valueDef;
+    }
+
+    /**
+     * Convert a value, as {@link TypeDef#valueOf(Object)} on the type of the parameter would.
+     *
+     * @param value the value sent.
+     * @return the converted value.
+     * @throws QuickFixException if the type of the parameter is broken.
+     */
+    Object convert(Object value) throws QuickFixException {
+        TypeDef type = this.type;
+        if (type == null) {
+            type = valueDef.getType();
+            this.type = type;
+        }
+        if (value == null || !(type instanceof JavaTypeDef)) {
+            return type.valueOf(value);
+        }
+        Class<?> from = value.getClass();
+        Resolved resolved = this.resolved;
+        if (resolved == null || resolved.from != from) {
+            resolved = new Resolved(from, ((JavaTypeDef) type).getConversion(from));
+            this.resolved = resolved;
+        }
+        return resolved.conversion.convert(value);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.model;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.auraframework.util.AuraTextUtil;
+
+/**
+ * A getter for a property of a java object, resolved once into a {@link MethodHandle}.
+ *
+ * Accessors are kept for each class, by property name (including properties that the class does not have) and by
+ * getter method, so reading a property does no reflective lookup or name building after the first time.
+ */
+public final class JavaAccessor {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<ClassAccessors> accessors = new ClassValue<ClassAccessors>() {
+        @Override
+        protected ClassAccessors computeValue(Class<?> type) {
+            return new ClassAccessors();
+        }
+    };
+
+    private static final class ClassAccessors {
+        private final ConcurrentMap<String, JavaAccessor> byProperty = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Method, JavaAccessor> byMethod = new ConcurrentHashMap<>();
+    }
+
+    private final MethodHandle handle;
+    private final Exception failure;
+
+    private JavaAccessor(MethodHandle handle, Exception failure) {
+        this.handle = handle;
+        this.failure = failure;
+    }
+
+    /**
+     * Get the accessor for a property, i.e. its "get" method, or failing that its "is" method.
+     *
+     * @param type the class of the objects to read.
+     * @param property the name of the property.
+     * @return the accessor, which may not be {@link #isPresent()}.
+     */
+    public static JavaAccessor get(Class<?> type, String property) {
+        ConcurrentMap<String, JavaAccessor> byProperty = accessors.get(type).byProperty;
+        JavaAccessor accessor = byProperty.get(property);
+        if (accessor == null) {
+            accessor = resolve(type, property);
+            byProperty.put(property, accessor);
+        }
+        return accessor;
+    }
+
+    /**
+     * Get the accessor for a getter method.
+     *
+     * @param getter the method, which must take no arguments.
+     * @return the accessor, which may not be {@link #isPresent()} if the method is not accessible.
+     */
+    public static JavaAccessor get(Method getter) {
+        ConcurrentMap<Method, JavaAccessor> byMethod = accessors.get(getter.getDeclaringClass()).byMethod;
+        JavaAccessor accessor = byMethod.get(getter);
+        if (accessor == null) {
+            accessor = unreflect(getter);
+            byMethod.put(getter, accessor);
+        }
+        return accessor;
+    }
+
+    private static JavaAccessor resolve(Class<?> type, String property) {
+        String name = AuraTextUtil.initCap(property);
+        Method getter;
+        try {
+            getter = type.getMethod("get" + name);
+        } catch (NoSuchMethodException e) {
+            try {
+                getter = type.getMethod("is" + name);
+            } catch (NoSuchMethodException nme) {
+                return new JavaAccessor(null, e);
+            }
+        }
+        return unreflect(getter);
+    }
+
+    private static JavaAccessor unreflect(Method getter) {
+        try {
+            return new JavaAccessor(MethodHandles.publicLookup().unreflect(getter).asType(GETTER_TYPE), null);
+        } catch (IllegalAccessException iae) {
+            return new JavaAccessor(null, iae);
+        }
+    }
+
+    /**
+     * @return whether there is a getter that can be called.
+     */
+    public boolean isPresent() {
+        return handle != null;
+    }
+
+    /**
+     * @return why there is no getter, a {@link NoSuchMethodException} or an {@link IllegalAccessException}.
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    /**
+     * Read the property.
+     *
+     * @param target the object to read from.
+     * @return the value.
+     * @throws Throwable whatever the getter throws, as is.
+     */
+    public Object invoke(Object target) throws Throwable {
+        return (Object) handle.invokeExact(target);
+    }
+}
@@ -16,8 +16,6 @@
 package org.auraframework.impl.java.model;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
 
@@ -31,10 +29,11 @@ import org.auraframework.instance.InstanceStack;
 import org.auraframework.instance.Model;
 import org.auraframework.instance.ValueProvider;
 import org.auraframework.service.LoggingService;
+import org.auraframework.system.RequestCounter;
+import org.auraframework.system.RequestTimer;
 import org.auraframework.throwable.AuraExecutionException;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
-import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.json.Json;
 
 /**
@@ -87,9 +86,9 @@ public class JavaModel implements Model {
     public void serialize(Json json) throws IOException {
         json.writeMapBegin();
         LoggingService loggingService = Aura.getLoggingService();
-        loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION_AURA);
-        loggingService.stopTimer(LoggingService.TIMER_AURA);
-        loggingService.startTimer("java");
+        loggingService.stopTimer(RequestTimer.SERIALIZATION_AURA);
+        loggingService.stopTimer(RequestTimer.AURA);
+        loggingService.startTimer(RequestTimer.JAVA);
         try {
             for (JavaValueDef member : this.modelDef.getAllMembers()) {
                 Object value = member.getValueFrom(bean);
@@ -105,9 +104,9 @@ public class JavaModel implements Model {
                 json.writeMapEntry(member.getName(), value, typeName);
             }
         } finally {
-            loggingService.stopTimer("java");
-            loggingService.startTimer(LoggingService.TIMER_AURA);
-            loggingService.startTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+            loggingService.stopTimer(RequestTimer.JAVA);
+            loggingService.startTimer(RequestTimer.AURA);
+            loggingService.startTimer(RequestTimer.SERIALIZATION_AURA);
         }
         json.writeMapEnd();
     }
@@ -135,8 +134,8 @@ public class JavaModel implements Model {
      */
     public static Object getValue(Object root, PropertyReference key, ModelDef def) throws QuickFixException {
         LoggingService loggingService = Aura.getLoggingService();
-        loggingService.stopTimer(LoggingService.TIMER_AURA);
-        loggingService.startTimer("java");
+        loggingService.stopTimer(RequestTimer.AURA);
+        loggingService.startTimer(RequestTimer.JAVA);
         Object ret = null;
         try {
             String part = key.getRoot();
@@ -161,24 +160,16 @@ public class JavaModel implements Model {
                     ret = ((List<?>) root).get(i);
                 }
             } else {
-                Method meth = null;
-                try {
-                    meth = root.getClass().getMethod("get" + AuraTextUtil.initCap(part));
-                } catch (NoSuchMethodException e) {
-                    try {
-                        meth = root.getClass().getMethod("is" + AuraTextUtil.initCap(part));
-                    } catch (NoSuchMethodException nme) {
-                        throw makeException("no such property: " + part, e, def);
-                    }
+                JavaAccessor accessor = JavaAccessor.get(root.getClass(), part);
+                if (!accessor.isPresent()) {
+                    throw makeException("no such property: " + part, accessor.getFailure(), def);
                 }
                 try {
-                    ret = meth.invoke(root);
-                } catch (IllegalAccessException iae) {
-                    throw makeException("no such property: " + part, iae, def);
-                } catch (InvocationTargetException ite) {
-                    throw makeException(ite.getCause().getMessage(), ite.getCause(), def);
+                    ret = accessor.invoke(root);
+                } catch (Throwable t) {
+                    throw makeException(t.getMessage(), t, def);
                 }
-                loggingService.incrementNum("JavaCallCount");
+                loggingService.incrementNum(RequestCounter.JAVA_CALL_COUNT);
             }
             ValueProvider vp;
             if (def != null) {
@@ -195,8 +186,8 @@ public class JavaModel implements Model {
         } catch (Exception e) {
             throw makeException(e.getMessage(), e, def);
         } finally {
-            loggingService.stopTimer("java");
-            loggingService.startTimer(LoggingService.TIMER_AURA);
+            loggingService.stopTimer(RequestTimer.JAVA);
+            loggingService.startTimer(RequestTimer.AURA);
         }
 
         return ret;
@@ -16,7 +16,6 @@
 package org.auraframework.impl.java.model;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import org.auraframework.Aura;
@@ -26,6 +25,7 @@ import org.auraframework.def.ValueDef;
 import org.auraframework.impl.system.DefinitionImpl;
 import org.auraframework.service.LoggingService;
 import org.auraframework.system.Location;
+import org.auraframework.system.RequestCounter;
 import org.auraframework.throwable.AuraExecutionException;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
@@ -41,6 +41,7 @@ public class JavaValueDef extends DefinitionImpl<ValueDef> implements ValueDef {
     private final String name;
     private final DefDescriptor<TypeDef> typeDescriptor;
     private final Method getter;
+    private transient volatile JavaAccessor accessor;
 
     public JavaValueDef(String name, DefDescriptor<TypeDef> typeDescriptor, Location location) {
         super(null, location, null);
@@ -78,16 +79,23 @@ public class JavaValueDef extends DefinitionImpl<ValueDef> implements ValueDef {
      * thing exists in its apex counterpart.
      */
     public Object getValueFrom(Object obj) {
+        JavaAccessor accessor = this.accessor;
+        if (accessor == null) {
+            accessor = JavaAccessor.get(getter);
+            this.accessor = accessor;
+        }
+        if (!accessor.isPresent()) {
+            throw new AuraRuntimeException(accessor.getFailure());
+        }
+        LoggingService loggingService = Aura.getLoggingService();
+        loggingService.incrementNum(RequestCounter.JAVA_CALL_COUNT);
+        if (!getter.getDeclaringClass().isInstance(obj)) {
+            throw new AuraRuntimeException(new IllegalArgumentException("object is not an instance of declaring class"));
+        }
         try {
-            LoggingService loggingService = Aura.getLoggingService();
-            loggingService.incrementNum("JavaCallCount");
-            return getter.invoke(obj);
-        } catch (IllegalArgumentException e) {
-            throw new AuraRuntimeException(e);
-        } catch (IllegalAccessException e) {
-            throw new AuraRuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new AuraExecutionException(e.getCause().getMessage(), this.location, e.getCause());
+            return accessor.invoke(obj);
+        } catch (Throwable t) {
+            throw new AuraExecutionException(t.getMessage(), this.location, t);
         }
     }
 
@@ -32,6 +32,8 @@ import org.auraframework.impl.system.DefinitionImpl;
 import org.auraframework.impl.util.AuraUtil;
 import org.auraframework.instance.ComponentConfig;
 import org.auraframework.service.LoggingService;
+import org.auraframework.system.RequestCounter;
+import org.auraframework.system.RequestTimer;
 import org.auraframework.throwable.AuraExceptionUtil;
 import org.auraframework.throwable.quickfix.InvalidDefinitionException;
 import org.auraframework.throwable.quickfix.QuickFixException;
@@ -96,22 +98,22 @@ public class JavaProviderDefImpl extends DefinitionImpl<JavaProviderDef> impleme
     public ComponentConfig provide(DefDescriptor<? extends RootDefinition> intfDescriptor) throws QuickFixException {
         ComponentConfig config = null;
         LoggingService loggingService = Aura.getLoggingService();
-        loggingService.stopTimer(LoggingService.TIMER_AURA);
-        loggingService.startTimer("java");
+        loggingService.stopTimer(RequestTimer.AURA);
+        loggingService.startTimer(RequestTimer.JAVA);
         try {
             if (configProvider != null) {
                 config = getBean(configProvider).provide();
-                loggingService.incrementNum("JavaCallCount");
+                loggingService.incrementNum(RequestCounter.JAVA_CALL_COUNT);
             } else if (descriptorProvider != null) {
                 config = new ComponentConfig();
                 config.setDescriptor(getBean(descriptorProvider).provide());
-                loggingService.incrementNum("JavaCallCount");
+                loggingService.incrementNum(RequestCounter.JAVA_CALL_COUNT);
             }
         } catch (Exception e) {
             throw AuraExceptionUtil.wrapExecutionException(e, this.location);
         } finally {
-            loggingService.stopTimer("java");
-            loggingService.startTimer(LoggingService.TIMER_AURA);
+            loggingService.stopTimer(RequestTimer.JAVA);
+            loggingService.startTimer(RequestTimer.AURA);
         }
 
         return config;
@@ -121,17 +123,17 @@ public class JavaProviderDefImpl extends DefinitionImpl<JavaProviderDef> impleme
     public ComponentConfig provide(ComponentDefRefBuilder ref) throws QuickFixException {
         ComponentConfig config = null;
         LoggingService loggingService = Aura.getLoggingService();
-        loggingService.stopTimer(LoggingService.TIMER_AURA);
-        loggingService.startTimer("java");
+        loggingService.stopTimer(RequestTimer.AURA);
+        loggingService.startTimer(RequestTimer.JAVA);
 
         try {
             config = getBean(staticConfigProvider).provide(ref);
-            loggingService.incrementNum("JavaCallCount");
+            loggingService.incrementNum(RequestCounter.JAVA_CALL_COUNT);
         } catch (Exception e) {
             throw AuraExceptionUtil.wrapExecutionException(e, this.location);
         } finally {
-            loggingService.stopTimer("java");
-            loggingService.startTimer(LoggingService.TIMER_AURA);
+            loggingService.stopTimer(RequestTimer.JAVA);
+            loggingService.startTimer(RequestTimer.AURA);
         }
 
         return config;
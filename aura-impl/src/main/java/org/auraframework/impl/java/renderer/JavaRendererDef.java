@@ -25,6 +25,8 @@ import org.auraframework.impl.system.DefinitionImpl;
 import org.auraframework.impl.util.AuraUtil;
 import org.auraframework.instance.BaseComponent;
 import org.auraframework.service.LoggingService;
+import org.auraframework.system.RequestCounter;
+import org.auraframework.system.RequestTimer;
 import org.auraframework.throwable.AuraExceptionUtil;
 import org.auraframework.throwable.quickfix.InvalidDefinitionException;
 import org.auraframework.throwable.quickfix.QuickFixException;
@@ -68,16 +70,16 @@ public class JavaRendererDef extends DefinitionImpl<RendererDef> implements Rend
     @Override
     public void render(BaseComponent<?, ?> component, Appendable out) throws IOException, QuickFixException {
         LoggingService loggingService = Aura.getLoggingService();
-        loggingService.stopTimer(LoggingService.TIMER_AURA);
-        loggingService.startTimer("java");
+        loggingService.stopTimer(RequestTimer.AURA);
+        loggingService.startTimer(RequestTimer.JAVA);
         try {
             renderer.render(component, out);
-            loggingService.incrementNum("JavaCallCount");
+            loggingService.incrementNum(RequestCounter.JAVA_CALL_COUNT);
         } catch (Exception e) {
             throw AuraExceptionUtil.wrapExecutionException(e, this.location);
         } finally {
-            loggingService.stopTimer("java");
-            loggingService.startTimer(LoggingService.TIMER_AURA);
+            loggingService.stopTimer(RequestTimer.JAVA);
+            loggingService.startTimer(RequestTimer.AURA);
         }
     }
 
@@ -227,7 +227,7 @@ public class JavaLocalizedTypeUtil {
      * 'of' types.
      */
     @SuppressWarnings("unchecked")
-    private static <F, T> LocalizedConverter<F, T> getConverter(Class<F> from, Class<T> to, String of) {
+    public static <F, T> LocalizedConverter<F, T> getConverter(Class<F> from, Class<T> to, String of) {
         JavaLocalizedTypeUtil typeUtil = get();
         if (of == null) {
             Map<String, LocalizedConverter<?, ?>> map = typeUtil.converters.get(from.getName());
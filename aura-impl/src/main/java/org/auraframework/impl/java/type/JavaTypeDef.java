@@ -23,6 +23,7 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Set;
 
+import org.auraframework.Aura;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.TypeDef;
 import org.auraframework.impl.system.DefDescriptorImpl;
@@ -30,7 +31,10 @@ import org.auraframework.impl.system.DefinitionImpl;
 import org.auraframework.instance.BaseComponent;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
+import org.auraframework.util.type.Converter;
+import org.auraframework.util.type.MultiConverter;
 import org.auraframework.util.type.TypeUtil;
+import org.auraframework.util.type.TypeUtil.ConversionException;
 
 /**
  */
@@ -104,6 +108,80 @@ public class JavaTypeDef extends DefinitionImpl<TypeDef> implements TypeDef {
         return JavaLocalizedTypeUtil.convertNoTrim(value, clazz);
     }
 
+    /**
+     * A conversion of values of one class to this type.
+     */
+    public interface Conversion {
+        Object convert(Object value);
+    }
+
+    private static final Conversion IDENTITY = new Conversion() {
+        @Override
+        public Object convert(Object value) {
+            return value;
+        }
+    };
+
+    /**
+     * Get the conversion that {@link #valueOf(Object)} uses for non-null values of a class, with its converter
+     * already looked up.
+     *
+     * @param from the class of the values.
+     * @return the conversion, which throws a {@link ConversionException} if there is no converter.
+     */
+    @SuppressWarnings("unchecked")
+    public Conversion getConversion(Class<?> from) {
+        Class<Object> fromClass = (Class<Object>) from;
+        String of = null;
+        Converter<Object, ?> converter;
+        if (hasCollectionConverters()) {
+            of = simpleParamName;
+            converter = TypeUtil.getConverter(fromClass, clazz, of);
+        } else {
+            if (clazz.isAssignableFrom(from)) {
+                return IDENTITY;
+            }
+            final LocalizedConverter<Object, ?> localized = JavaLocalizedTypeUtil.getConverter(fromClass, clazz, null);
+            if (localized != null) {
+                return new Conversion() {
+                    @Override
+                    public Object convert(Object value) {
+                        return localized.convert(value, Aura.getLocalizationAdapter().getAuraLocale());
+                    }
+                };
+            }
+            converter = TypeUtil.getConverter(fromClass, clazz, null);
+            if (converter == null) {
+                final MultiConverter<?> multiConverter = TypeUtil.getMultiConverter(from, clazz);
+                if (multiConverter != null) {
+                    return new Conversion() {
+                        @Override
+                        public Object convert(Object value) {
+                            return ((MultiConverter<Object>) multiConverter).convert(clazz, value);
+                        }
+                    };
+                }
+            }
+        }
+        if (converter == null) {
+            final String message = String.format("No Converter or MultiConverter found for %s to %s<%s>", from,
+                    clazz, of);
+            return new Conversion() {
+                @Override
+                public Object convert(Object value) {
+                    throw new ConversionException(message);
+                }
+            };
+        }
+        final Converter<Object, ?> found = converter;
+        return new Conversion() {
+            @Override
+            public Object convert(Object value) {
+                return found.convert(value);
+            }
+        };
+    }
+
     @Override
     public Object wrap(Object o) {
         return new JavaValueProvider(o);
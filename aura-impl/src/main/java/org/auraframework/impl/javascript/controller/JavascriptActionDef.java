@@ -89,4 +89,9 @@ public class JavascriptActionDef extends DefinitionImpl<ActionDef> implements Ac
     public List<String> getLoggableParams() {
         return Collections.emptyList();
     }
+
+    @Override
+    public boolean isIndependent() {
+        return false;
+    }
 }
@@ -29,6 +29,7 @@ import org.auraframework.impl.java.model.JavaModel;
 import org.auraframework.instance.InstanceStack;
 import org.auraframework.instance.Model;
 import org.auraframework.service.LoggingService;
+import org.auraframework.system.RequestTimer;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
@@ -103,16 +104,16 @@ public class JavascriptModel implements Model {
     @Override
     public void serialize(Json json) throws IOException {
         LoggingService loggingService = Aura.getLoggingService();
-        loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION_AURA);
-        loggingService.stopTimer(LoggingService.TIMER_AURA);
-        loggingService.startTimer("javascript");
+        loggingService.stopTimer(RequestTimer.SERIALIZATION_AURA);
+        loggingService.stopTimer(RequestTimer.AURA);
+        loggingService.startTimer(RequestTimer.JAVASCRIPT);
 
         try {
             json.writeMap(bean);
         } finally {
-            loggingService.stopTimer("javascript");
-            loggingService.startTimer(LoggingService.TIMER_AURA);
-            loggingService.startTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+            loggingService.stopTimer(RequestTimer.JAVASCRIPT);
+            loggingService.startTimer(RequestTimer.AURA);
+            loggingService.startTimer(RequestTimer.SERIALIZATION_AURA);
         }
     }
 
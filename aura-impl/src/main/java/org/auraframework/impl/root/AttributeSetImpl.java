@@ -57,17 +57,28 @@ import org.auraframework.util.json.Json;
 import org.auraframework.util.json.Json.Serialization;
 import org.auraframework.util.json.Json.Serialization.ReferenceType;
 
+import com.google.common.base.Predicates;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
 
 /**
+ * The attributes of an instance, kept in an array in the order of the {@link AttributeSetPlan} of its definition.
  */
 @Serialization(referenceType = ReferenceType.IDENTITY)
 public class AttributeSetImpl implements AttributeSet {
-    private static final Location SUPER_PASSTHROUGH = AuraUtil.getExternalLocation("super component attribute passthrough");
+    private static final Location SUPER_PASSTHROUGH = AttributeSetPlan.SUPER_PASSTHROUGH;
 
     private DefDescriptor<? extends RootDefinition> rootDefDescriptor;
-    private final Map<DefDescriptor<AttributeDef>, Attribute> attributes = Maps.newHashMap();
-    private final Map<DefDescriptor<EventHandlerDef>, EventHandler> events = Maps.newHashMap();
+    private AttributeSetPlan plan;
+    private Attribute[] attributes;
+    private int size;
+
+    /**
+     * Attributes that are not on the root definition, left from a definition that it replaced. Usually null.
+     */
+    private Map<DefDescriptor<AttributeDef>, Attribute> extraAttributes;
+
+    private Map<DefDescriptor<EventHandlerDef>, EventHandler> events;
     private final BaseComponent<?, ?> valueProvider;
     private final Instance<?> parent;
     private boolean trackDirty = false;
@@ -77,12 +88,34 @@ public class AttributeSetImpl implements AttributeSet {
         this.rootDefDescriptor = componentDefDescriptor;
         this.valueProvider = valueProvider;
         this.parent = parent;
+        this.plan = AttributeSetPlan.get(componentDefDescriptor.getDef());
+        this.attributes = new Attribute[plan.size()];
         setDefaults();
     }
 
     @Override
     public void setRootDefDescriptor(DefDescriptor<? extends RootDefinition> descriptor) throws QuickFixException {
+        AttributeSetPlan newPlan = AttributeSetPlan.get(descriptor.getDef());
+        Attribute[] newAttributes = new Attribute[newPlan.size()];
+        Map<DefDescriptor<AttributeDef>, Attribute> newExtras = null;
+        int newSize = 0;
+        for (Attribute attribute : this) {
+            int index = newPlan.indexOf(attribute.getDescriptor());
+            if (index >= 0) {
+                newAttributes[index] = attribute;
+            } else {
+                if (newExtras == null) {
+                    newExtras = Maps.newLinkedHashMap();
+                }
+                newExtras.put(attribute.getDescriptor(), attribute);
+            }
+            newSize++;
+        }
         rootDefDescriptor = descriptor;
+        plan = newPlan;
+        attributes = newAttributes;
+        extraAttributes = newExtras;
+        size = newSize;
         setDefaults();
     }
 
@@ -92,37 +125,36 @@ public class AttributeSetImpl implements AttributeSet {
     }
 
     private void setDefaults() throws QuickFixException {
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = rootDefDescriptor.getDef().getAttributeDefs();
-
-        for (Map.Entry<DefDescriptor<AttributeDef>, AttributeDef> attr : attrs.entrySet()) {
-            AttributeDefRef ref = attr.getValue().getDefaultValue();
-            if (ref != null && !attributes.containsKey(attr.getKey())) {
-                set(ref);
+        for (int index : plan.getDefaults()) {
+            if (attributes[index] == null) {
+                set(index, plan.getDefaultValue(index));
             }
         }
     }
 
     private void set(EventHandler eventHandler) {
+        if (events == null) {
+            events = Maps.newHashMap();
+        }
         events.put(eventHandler.getDescriptor(), eventHandler);
     }
 
-    private void set(Attribute attribute) {
+    private void set(int index, Attribute attribute) {
         if (trackDirty) {
             attribute.markDirty();
         }
-        attributes.put(attribute.getDescriptor(), attribute);
+        if (attributes[index] == null) {
+            size++;
+        }
+        attributes[index] = attribute;
     }
 
     private void set(AttributeDefRef attributeDefRef) throws QuickFixException {
-        RootDefinition def = rootDefDescriptor.getDef();
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attributeDefs = def.getAttributeDefs();
-
-        AttributeDef attributeDef = attributeDefs.get(attributeDefRef.getDescriptor());
+        int index = plan.indexOf(attributeDefRef.getDescriptor());
         // setAndValidateAttribute should be merged with creating the
         // AttributeImpl here
-        AttributeImpl attribute;
-
-        if (attributeDef == null) {
+        if (index < 0) {
+            RootDefinition def = rootDefDescriptor.getDef();
             Map<String, RegisterEventDef> events = def.getRegisterEventDefs();
             if (events.containsKey(attributeDefRef.getDescriptor().getName())) {
                 EventHandlerImpl eh = new EventHandlerImpl(attributeDefRef.getDescriptor().getName());
@@ -139,9 +171,13 @@ public class AttributeSetImpl implements AttributeSet {
                 // FIXME: where are we?
                 throw new AttributeNotFoundException(rootDefDescriptor, attributeDefRef.getName(), SUPER_PASSTHROUGH);
             }
-        } else {
-            attribute = new AttributeImpl(attributeDef.getDescriptor());
         }
+        set(index, attributeDefRef);
+    }
+
+    private void set(int index, AttributeDefRef attributeDefRef) throws QuickFixException {
+        AttributeDef attributeDef = plan.getAttributeDef(index);
+        AttributeImpl attribute = new AttributeImpl(attributeDef.getDescriptor());
 
         Object value = attributeDefRef.getValue();
         InstanceStack iStack = Aura.getContextService().getCurrentContext().getInstanceStack();
@@ -152,7 +188,7 @@ public class AttributeSetImpl implements AttributeSet {
         iStack.clearParent(parent);
         attribute.setValue(value);
 
-        set(attribute);
+        set(index, attribute);
     }
 
     @Override
@@ -164,28 +200,30 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public void set(Collection<AttributeDefRef> facetDefRefs, AttributeSet attributeSet) throws QuickFixException {
-        RootDefinition rootDef = rootDefDescriptor.getDef();
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = rootDef.getAttributeDefs();
-        Map<DefDescriptor<?>, Object> lookup = Maps.newHashMap();
+        Object[] lookup = new Object[plan.size()];
 
         for (Attribute attribute : attributeSet) {
-            lookup.put(DefDescriptorImpl.getInstance(attribute.getName(), AttributeDef.class), attribute);
+            int index = plan.indexOf(attribute.getDescriptor());
+            if (index >= 0) {
+                lookup[index] = attribute;
+            }
         }
 
         for (AttributeDefRef attributeDefRef : facetDefRefs) {
-            lookup.put(attributeDefRef.getDescriptor(), attributeDefRef);
+            int index = plan.indexOf(attributeDefRef.getDescriptor());
+            if (index >= 0) {
+                lookup[index] = attributeDefRef;
+            }
         }
 
-        for (DefDescriptor<AttributeDef> desc : attrs.keySet()) {
-            Object val = lookup.get(desc);
-            if (val != null) {
-                if (val instanceof Attribute) {
-                    Attribute attribute = (Attribute) val;
-                    setExpression(attribute.getDescriptor(), new PropertyReferenceImpl("v." + attribute.getName(),
-                            SUPER_PASSTHROUGH));
-                } else if (val instanceof AttributeDefRef) {
-                    set((AttributeDefRef) val);
-                }
+        for (int index = 0; index < lookup.length; index++) {
+            Object val = lookup[index];
+            if (val instanceof Attribute) {
+                AttributeImpl att = new AttributeImpl(plan.getAttributeDef(index).getDescriptor());
+                att.setValue(plan.getPassthrough(index));
+                set(index, att);
+            } else if (val instanceof AttributeDefRef) {
+                set(index, (AttributeDefRef) val);
             }
         }
     }
@@ -193,12 +231,11 @@ public class AttributeSetImpl implements AttributeSet {
     @Override
     public void set(Map<String, Object> attributeMap) throws QuickFixException {
         if (attributeMap != null) {
-            RootDefinition rootDef = rootDefDescriptor.getDef();
-            Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = rootDef.getAttributeDefs();
             for (Map.Entry<String, Object> entry : attributeMap.entrySet()) {
                 DefDescriptor<AttributeDef> desc = DefDescriptorImpl.getInstance(entry.getKey(), AttributeDef.class);
-                if (attrs.containsKey(desc)) {
-                    setExpression(desc, entry.getValue());
+                int index = plan.indexOf(desc);
+                if (index >= 0) {
+                    setExpression(index, entry.getValue());
                 }
             }
         }
@@ -232,21 +269,24 @@ public class AttributeSetImpl implements AttributeSet {
     public Object getExpression(String name) {
         DefDescriptor<AttributeDef> desc = DefDescriptorImpl.getInstance(name, AttributeDef.class);
 
-        Attribute at = attributes.get(desc);
+        Attribute at = getAttribute(desc);
         if (at != null) {
             return at.getValue();
         }
         return null;
     }
 
-    private void setExpression(DefDescriptor<AttributeDef> desc, Object value) throws QuickFixException {
-        RootDefinition rd = rootDefDescriptor.getDef();
-        AttributeDef ad = rd.getAttributeDefs().get(desc);
-        if (ad == null) {
-            // this location isn't even close to right...
-            throw new InvalidDefinitionException(String.format("Attribute %s not defined on %s", desc.getName(),
-                    rootDefDescriptor.getName()), rd.getLocation());
+    private Attribute getAttribute(DefDescriptor<AttributeDef> desc) {
+        int index = plan.indexOf(desc);
+        if (index >= 0) {
+            return attributes[index];
         }
+        return extraAttributes == null ? null : extraAttributes.get(desc);
+    }
+
+    private void setExpression(int index, Object value) throws QuickFixException {
+        AttributeDef ad = plan.getAttributeDef(index);
+        DefDescriptor<AttributeDef> desc = ad.getDescriptor();
 
         AttributeImpl att = new AttributeImpl(desc);
         if (value instanceof Expression) {
@@ -256,11 +296,11 @@ public class AttributeSetImpl implements AttributeSet {
 
             iStack.markParent(parent);
             iStack.setAttributeName(desc.toString());
-            att.setValue(rootDefDescriptor.getDef().getAttributeDef(att.getName()).getTypeDef().initialize(value, null));
+            att.setValue(ad.getTypeDef().initialize(value, null));
             iStack.clearAttributeName(desc.toString());
             iStack.clearParent(parent);
         }
-        set(att);
+        set(index, att);
     }
 
     @Override
@@ -274,7 +314,7 @@ public class AttributeSetImpl implements AttributeSet {
         if (value instanceof ValueProvider && stem != null) {
             value = ((ValueProvider) value).getValue(stem);
         } else if (stem != null) {
-            AttributeDef attributeDef = rootDefDescriptor.getDef().getAttributeDef(expr.getRoot());
+            AttributeDef attributeDef = getAttributeDef(expr.getRoot());
             value = attributeDef.getTypeDef().wrap(value);
             if (value instanceof ValueProvider) {
                 value = ((ValueProvider) value).getValue(stem);
@@ -291,15 +331,15 @@ public class AttributeSetImpl implements AttributeSet {
         try {
             json.writeMapBegin();
             json.writeMapEntry("valueProvider", valueProvider);
-            if (!attributes.isEmpty()) {
-                RootDefinition def = rootDefDescriptor.getDef();
+            if (size > 0) {
                 json.writeMapKey("values");
                 json.writeMapBegin();
 
-                for (Attribute attribute : attributes.values()) {
+                for (Attribute attribute : this) {
                     String name = attribute.getName();
-                    AttributeDef attributeDef = def.getAttributeDef(name);
+                    AttributeDef attributeDef = getAttributeDef(name);
                     if (attributeDef == null) {
+                        RootDefinition def = rootDefDescriptor.getDef();
                         throw new AttributeNotFoundException(rootDefDescriptor, name, def.getLocation());
                     }
 
@@ -315,7 +355,7 @@ public class AttributeSetImpl implements AttributeSet {
                 json.writeMapEnd();
             }
 
-            if (!events.isEmpty()) {
+            if (events != null && !events.isEmpty()) {
                 json.writeMapEntry("events", events);
             }
 
@@ -327,7 +367,7 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public int size() {
-        return attributes.size();
+        return size;
     }
 
     /**
@@ -340,12 +380,16 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public Iterator<Attribute> iterator() {
-        return attributes.values().iterator();
+        Iterator<Attribute> set = Iterators.filter(Iterators.forArray(attributes), Predicates.notNull());
+        if (extraAttributes == null) {
+            return set;
+        }
+        return Iterators.concat(set, extraAttributes.values().iterator());
     }
 
     @Override
     public boolean isEmpty() {
-        return attributes.isEmpty() && events.isEmpty();
+        return size == 0 && (events == null || events.isEmpty());
     }
 
     @Override
@@ -364,18 +408,22 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public Set<AttributeDef> getMissingAttributes() throws QuickFixException {
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = rootDefDescriptor.getDef().getAttributeDefs();
         Set<AttributeDef> missingAttributes = null;
-        for (Map.Entry<DefDescriptor<AttributeDef>, AttributeDef> attr : attrs.entrySet()) {
-            if (attr.getValue().isRequired() && !attributes.containsKey(attr.getKey())) {
+        for (int index : plan.getRequired()) {
+            if (attributes[index] == null) {
                 if (missingAttributes == null) {
-                    missingAttributes = new HashSet<AttributeDef>(attrs.entrySet().size());
+                    missingAttributes = new HashSet<AttributeDef>(plan.size());
                 }
 
-                missingAttributes.add(attr.getValue());
+                missingAttributes.add(plan.getAttributeDef(index));
             }
         }
 
         return missingAttributes;
     }
+
+    private AttributeDef getAttributeDef(String name) {
+        int index = plan.indexOf(DefDescriptorImpl.getInstance(name, AttributeDef.class));
+        return index < 0 ? null : plan.getAttributeDef(index);
+    }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.root;
+
+import java.util.Map;
+
+import org.auraframework.def.AttributeDef;
+import org.auraframework.def.AttributeDefRef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.RootDefinition;
+import org.auraframework.expression.PropertyReference;
+import org.auraframework.impl.expression.PropertyReferenceImpl;
+import org.auraframework.impl.util.AuraUtil;
+import org.auraframework.system.Location;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+import com.google.common.collect.Maps;
+
+/**
+ * The attributes of a root definition, numbered in the order of {@link RootDefinition#getAttributeDefs()}, with what
+ * an {@link AttributeSetImpl} needs to fill in for each new instance: the defaults, the required attributes and the
+ * references that pass attribute values to a super component.
+ *
+ * Building this walks the attributes of the definition, its supers and its interfaces, so it is kept on the
+ * definition and shared by all of its instances.
+ */
+public final class AttributeSetPlan {
+    static final Location SUPER_PASSTHROUGH = AuraUtil
+            .getExternalLocation("super component attribute passthrough");
+
+    private final Map<DefDescriptor<AttributeDef>, AttributeDef> attributeDefMap;
+    private final Map<DefDescriptor<AttributeDef>, Integer> indexes;
+    private final AttributeDef[] attributeDefs;
+    private final PropertyReference[] passthroughs;
+    private final int[] defaults;
+    private final int[] required;
+
+    AttributeSetPlan(RootDefinition def) throws QuickFixException {
+        attributeDefMap = def.getAttributeDefs();
+        int size = attributeDefMap.size();
+        indexes = Maps.newHashMapWithExpectedSize(size);
+        attributeDefs = new AttributeDef[size];
+        passthroughs = new PropertyReference[size];
+        int[] defaultList = new int[size];
+        int[] requiredList = new int[size];
+        int defaultCount = 0;
+        int requiredCount = 0;
+        int index = 0;
+        for (Map.Entry<DefDescriptor<AttributeDef>, AttributeDef> entry : attributeDefMap.entrySet()) {
+            AttributeDef attributeDef = entry.getValue();
+            indexes.put(entry.getKey(), index);
+            attributeDefs[index] = attributeDef;
+            passthroughs[index] = new PropertyReferenceImpl("v." + attributeDef.getName(), SUPER_PASSTHROUGH);
+            if (attributeDef.getDefaultValue() != null) {
+                defaultList[defaultCount++] = index;
+            }
+            if (attributeDef.isRequired()) {
+                requiredList[requiredCount++] = index;
+            }
+            index++;
+        }
+        defaults = copyOf(defaultList, defaultCount);
+        required = copyOf(requiredList, requiredCount);
+    }
+
+    private static int[] copyOf(int[] list, int count) {
+        int[] copy = new int[count];
+        System.arraycopy(list, 0, copy, 0, count);
+        return copy;
+    }
+
+    /**
+     * @return the number of attributes.
+     */
+    public int size() {
+        return attributeDefs.length;
+    }
+
+    /**
+     * @return the index of an attribute, or -1 if the definition does not have it.
+     */
+    public int indexOf(DefDescriptor<AttributeDef> descriptor) {
+        Integer index = indexes.get(descriptor);
+        return index == null ? -1 : index.intValue();
+    }
+
+    /**
+     * @return the attribute at an index.
+     */
+    public AttributeDef getAttributeDef(int index) {
+        return attributeDefs[index];
+    }
+
+    /**
+     * @return the attribute definitions, as the definition gave them.
+     */
+    public Map<DefDescriptor<AttributeDef>, AttributeDef> getAttributeDefs() {
+        return attributeDefMap;
+    }
+
+    /**
+     * @return the default value of the attribute at an index.
+     */
+    public AttributeDefRef getDefaultValue(int index) {
+        return attributeDefs[index].getDefaultValue();
+    }
+
+    /**
+     * @return a reference to the attribute at an index on the extending component.
+     */
+    public PropertyReference getPassthrough(int index) {
+        return passthroughs[index];
+    }
+
+    /**
+     * @return the indexes of the attributes with a default value.
+     */
+    int[] getDefaults() {
+        return defaults;
+    }
+
+    /**
+     * @return the indexes of the required attributes.
+     */
+    int[] getRequired() {
+        return required;
+    }
+
+    /**
+     * Get the plan for a definition, from the definition if it keeps one.
+     */
+    public static AttributeSetPlan get(RootDefinition def) throws QuickFixException {
+        if (def instanceof RootDefinitionImpl) {
+            return ((RootDefinitionImpl<?>) def).getAttributeSetPlan();
+        }
+        return new AttributeSetPlan(def);
+    }
+}
@@ -49,6 +49,7 @@ public abstract class RootDefinitionImpl<T extends RootDefinition> extends Defin
     protected final DefDescriptor<DocumentationDef> documentationDescriptor;
     private final int hashCode;
     private final SupportLevel support;
+    private transient volatile AttributeSetPlan attributeSetPlan;
     
     protected RootDefinitionImpl(Builder<T> builder) {
         super(builder);
@@ -114,6 +115,18 @@ public abstract class RootDefinitionImpl<T extends RootDefinition> extends Defin
         return getAttributeDefs().get(DefDescriptorImpl.getInstance(name, AttributeDef.class));
     }
 
+    /**
+     * Get the numbered attributes that instances are built from, which are worked out on first use.
+     */
+    AttributeSetPlan getAttributeSetPlan() throws QuickFixException {
+        AttributeSetPlan plan = attributeSetPlan;
+        if (plan == null) {
+            plan = new AttributeSetPlan(this);
+            attributeSetPlan = plan;
+        }
+        return plan;
+    }
+
     public abstract static class Builder<T extends RootDefinition> extends DefinitionImpl.BuilderImpl<T> implements
             RootDefinitionBuilder<T> {
 
@@ -52,6 +52,8 @@ import org.auraframework.instance.AuraValueProviderType;
 import org.auraframework.service.LoggingService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.MasterDefRegistry;
+import org.auraframework.system.RequestCounter;
+import org.auraframework.system.RequestTimer;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.DefinitionNotFoundException;
 import org.auraframework.throwable.quickfix.MissingRequiredAttributeException;
@@ -75,12 +77,12 @@ public abstract class BaseComponentImpl<D extends BaseComponentDef, I extends Ba
     public BaseComponentImpl(DefDescriptor<D> descriptor, Map<String, Object> attributes) throws QuickFixException {
         this(descriptor, null, (Map<String, Object>) null, null, null);
         LoggingService loggingService = Aura.getLoggingService();
-        loggingService.startTimer(LoggingService.TIMER_COMPONENT_CREATION);
+        loggingService.startTimer(RequestTimer.COMPONENT_CREATION);
         try {
             this.attributeSet.set(attributes);
             finishInit();
         } finally {
-            loggingService.stopTimer(LoggingService.TIMER_COMPONENT_CREATION);
+            loggingService.stopTimer(RequestTimer.COMPONENT_CREATION);
         }
         Aura.getContextService().getCurrentContext().getInstanceStack().popInstance(this);
     }
@@ -89,12 +91,12 @@ public abstract class BaseComponentImpl<D extends BaseComponentDef, I extends Ba
     public <T extends D> BaseComponentImpl(T def, Map<String, Object> attributes) throws QuickFixException {
         this((DefDescriptor<D>) def.getDescriptor(), null, (Map<String, Object>) null, null, def);
         LoggingService loggingService = Aura.getLoggingService();
-        loggingService.startTimer(LoggingService.TIMER_COMPONENT_CREATION);
+        loggingService.startTimer(RequestTimer.COMPONENT_CREATION);
         try {
             this.attributeSet.set(attributes);
             finishInit();
         } finally {
-            loggingService.stopTimer(LoggingService.TIMER_COMPONENT_CREATION);
+            loggingService.stopTimer(RequestTimer.COMPONENT_CREATION);
         }
         Aura.getContextService().getCurrentContext().getInstanceStack().popInstance(this);
     }
@@ -109,12 +111,12 @@ public abstract class BaseComponentImpl<D extends BaseComponentDef, I extends Ba
             BaseComponent<?, ?> attributeValueProvider, String localId) throws QuickFixException {
         this(descriptor, attributeValueProvider, null, null, null);
         LoggingService loggingService = Aura.getLoggingService();
-        loggingService.startTimer(LoggingService.TIMER_COMPONENT_CREATION);
+        loggingService.startTimer(RequestTimer.COMPONENT_CREATION);
         try {
             this.attributeSet.set(attributeDefRefs);
             finishInit();
         } finally {
-            loggingService.stopTimer(LoggingService.TIMER_COMPONENT_CREATION);
+            loggingService.stopTimer(RequestTimer.COMPONENT_CREATION);
         }
         Aura.getContextService().getCurrentContext().getInstanceStack().popInstance(this);
         this.localId = localId;
@@ -129,13 +131,13 @@ public abstract class BaseComponentImpl<D extends BaseComponentDef, I extends Ba
             I concreteComponent) throws QuickFixException {
         this(descriptor, attributeValueProvider, null, extender, null);
         LoggingService loggingService = Aura.getLoggingService();
-        loggingService.startTimer(LoggingService.TIMER_COMPONENT_CREATION);
+        loggingService.startTimer(RequestTimer.COMPONENT_CREATION);
         try {
             this.concreteComponent = concreteComponent;
             attributeSet.set(extender.getDescriptor().getDef().getFacets(), extender.getAttributes());
             finishInit();
         } finally {
-            loggingService.stopTimer(LoggingService.TIMER_COMPONENT_CREATION);
+            loggingService.stopTimer(RequestTimer.COMPONENT_CREATION);
         }
         Aura.getContextService().getCurrentContext().getInstanceStack().popInstance(this);
     }
@@ -195,7 +197,7 @@ public abstract class BaseComponentImpl<D extends BaseComponentDef, I extends Ba
         }
 
         LoggingService loggingService = Aura.getLoggingService();
-        loggingService.startTimer(LoggingService.TIMER_COMPONENT_CREATION);
+        loggingService.startTimer(RequestTimer.COMPONENT_CREATION);
         try {
             this.globalId = getNextGlobalId();
 
@@ -218,9 +220,9 @@ public abstract class BaseComponentImpl<D extends BaseComponentDef, I extends Ba
                 }
             }
 
-            loggingService.incrementNum(LoggingService.CMP_COUNT);
+            loggingService.incrementNum(RequestCounter.CMP_COUNT);
         } finally {
-            loggingService.stopTimer(LoggingService.TIMER_COMPONENT_CREATION);
+            loggingService.stopTimer(RequestTimer.COMPONENT_CREATION);
         }
     }
 
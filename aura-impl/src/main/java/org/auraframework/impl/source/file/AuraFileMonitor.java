@@ -32,11 +32,14 @@ import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.Logger;
 import org.auraframework.util.FileChangeEvent;
@@ -45,12 +48,21 @@ import org.auraframework.util.FileListener;
 /**
  * File monitor allowing to ability to add watched directory. Used to update files and clear caches on source changes
  * during development
+ *
+ * Changes are collected until none have arrived for a short while, and then delivered together, so that touching many
+ * files at once (e.g. a checkout) is applied in a single pass rather than file by file.
  */
 public final class AuraFileMonitor implements Runnable {
 
     private final static Logger LOG;
     private static AuraFileMonitor singletonMonitor;
 
+    // how long to wait for more changes before delivering those seen so far, so that e.g. a checkout is one batch
+    private final static long DEBOUNCE_MILLIS = 200;
+
+    // the longest that changes are held back while more keep arriving
+    private final static long MAX_BATCH_MILLIS = 2000;
+
     // keep track of directories monitored
     private final Set<String> monitoredDirs;
 
@@ -63,6 +75,9 @@ public final class AuraFileMonitor implements Runnable {
     private boolean terminateThread;
     private final FileListener listener;
 
+    // changes waiting to be delivered, in the order first seen. Only used by the watch thread.
+    private final Map<Path, FileChangeEvent.Type> pending = new LinkedHashMap<>();
+
     static {
         LOG = Logger.getLogger(AuraFileMonitor.class);
         singletonMonitor = new AuraFileMonitor(new FileSourceListener());
@@ -100,8 +115,12 @@ public final class AuraFileMonitor implements Runnable {
 
     /**
      * Register the given directory, and all its sub-directories, with the WatchService.
+     *
+     * @param start the directory to register.
+     * @param created true if the directory is new, in which case any files already in it are signaled as created,
+     *            since they may have been written before it was watched.
      */
-    private void registerAll(final Path start) throws IOException {
+    private void registerAll(final Path start, final boolean created) throws IOException {
         // register directory and sub-directories
         Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
             @Override
@@ -111,23 +130,70 @@ public final class AuraFileMonitor implements Runnable {
                 register(dir);
                 return FileVisitResult.CONTINUE;
             }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (created && !attrs.isDirectory()) {
+                    addPending(file, FileChangeEvent.Type.CREATED);
+                }
+                return FileVisitResult.CONTINUE;
+            }
         });
     }
 
+    /**
+     * Add a change to those waiting to be delivered. A change to a file that was created in the same batch is still
+     * a creation, otherwise the latest change wins.
+     */
+    private void addPending(Path file, FileChangeEvent.Type type) {
+        if (type == FileChangeEvent.Type.CHANGED && pending.get(file) == FileChangeEvent.Type.CREATED) {
+            return;
+        }
+        pending.put(file, type);
+    }
+
+    /**
+     * Deliver the pending changes to the listener as one batch.
+     */
+    private void deliverPending() {
+        List<FileChangeEvent> events = new ArrayList<>(pending.size());
+        for (Map.Entry<Path, FileChangeEvent.Type> entry : pending.entrySet()) {
+            events.add(new FileChangeEvent(entry.getKey(), entry.getValue()));
+        }
+        pending.clear();
+        try {
+            listener.filesChanged(events);
+        } catch (Exception ex) {
+            LOG.info("Unable to signal source change due to exception: " + ex.getMessage());
+        }
+    }
+
     @Override
     public void run() {
+        long batchStart = 0;
+
         // loop forever, waiting on monitor for watchService, unless isTerminateThread
         for (;;) {
 
-            // wait for watchService to become signaled
+            // wait for watchService to become signaled, or, with changes pending, for a quiet moment to deliver them
             WatchKey key;
             try {
-                key = watchService.take();
+                if (pending.isEmpty()) {
+                    key = watchService.take();
+                    batchStart = System.currentTimeMillis();
+                } else {
+                    long wait = Math.min(DEBOUNCE_MILLIS, batchStart + MAX_BATCH_MILLIS - System.currentTimeMillis());
+                    key = wait > 0 ? watchService.poll(wait, TimeUnit.MILLISECONDS) : null;
+                }
                 if (isTerminateThread()) {
-                    return;
+                    break;
                 }
             } catch (InterruptedException x) {
-                return;
+                break;
+            }
+            if (key == null) {
+                deliverPending();
+                continue;
             }
 
             Path dir = monitoredKeys.get(key);
@@ -158,26 +224,22 @@ public final class AuraFileMonitor implements Runnable {
                 // isDir is true is file exists and is directory
                 boolean isDir = Files.isDirectory(child, NOFOLLOW_LINKS);
 
-                // signal appropriate handlers
+                // collect the change, to signal it with the rest of the batch
                 if (!isDir) {
-                    try {
-                        if (kind == ENTRY_CREATE) {
-                            listener.fileCreated(new FileChangeEvent(child));
-                        }
-                        else if (kind == ENTRY_MODIFY) {
-                            listener.fileChanged(new FileChangeEvent(child));
-                        }
-                        else if (kind == ENTRY_DELETE) {
-                            listener.fileDeleted(new FileChangeEvent(child));
-                        }
-                    } catch (Exception ex) {
-                        LOG.info("Unable to signal source change due to exception: " + ex.getMessage());
+                    if (kind == ENTRY_CREATE) {
+                        addPending(child, FileChangeEvent.Type.CREATED);
+                    }
+                    else if (kind == ENTRY_MODIFY) {
+                        addPending(child, FileChangeEvent.Type.CHANGED);
+                    }
+                    else if (kind == ENTRY_DELETE) {
+                        addPending(child, FileChangeEvent.Type.DELETED);
                     }
                 }
                 // recursively add any new directories created
                 else if (kind == ENTRY_CREATE) {
                     try {
-                        registerAll(child);
+                        registerAll(child, true);
                     } catch (IOException x) {
                         // if we can't monitor it for some reason, it is not an error
                     }
@@ -196,6 +258,11 @@ public final class AuraFileMonitor implements Runnable {
                 }
             }
         }
+
+        // changes already seen are not lost just because we stop looking for more.
+        if (!pending.isEmpty()) {
+            deliverPending();
+        }
     }
 
     private boolean isStarted() {
@@ -218,7 +285,7 @@ public final class AuraFileMonitor implements Runnable {
         }
 
         try {
-            singletonMonitor.registerAll(dir);
+            singletonMonitor.registerAll(dir, false);
             LOG.info("Monitoring directory " + dirPath);
         } catch (Exception ex) {
             LOG.info("Unable to monitor directory " + dirPath + " due to exception: " + ex.getMessage());
@@ -41,6 +41,8 @@ public class FileSource<D extends Definition> extends Source<D> {
     private final File file;
     private final long lastModified;
     private final String url;
+    private volatile boolean missing;
+    private final transient FileSourceLoader loader;
 
     public FileSource(DefDescriptor<D> descriptor, File file, Format format) {
         this(descriptor, getFilePath(file), file, format);
@@ -50,12 +52,29 @@ public class FileSource<D extends Definition> extends Source<D> {
         super(descriptor, systemId, format);
         this.file = file;
         this.url = "file://" + file.getAbsolutePath();
+        this.missing = false;
+        this.loader = null;
 
         // Ensure that lastModified doesn't change after construction of this
         // Source.
         this.lastModified = file.lastModified();
     }
 
+    /**
+     * Create a source for a file that is known not to exist, in which case neither this nor {@link #exists()} asks
+     * the file system until the file is written through this source, which then adds it to the loader.
+     *
+     * @param loader the loader to tell when the file is written.
+     */
+    FileSource(DefDescriptor<D> descriptor, String systemId, File file, Format format, FileSourceLoader loader) {
+        super(descriptor, systemId, format);
+        this.file = file;
+        this.url = "file://" + file.getAbsolutePath();
+        this.missing = true;
+        this.lastModified = 0;
+        this.loader = loader;
+    }
+
     @Override
     public long getLastModified() {
         return lastModified;
@@ -81,6 +100,7 @@ public class FileSource<D extends Definition> extends Source<D> {
             } else if (!file.canWrite()) {
                 Aura.getSourceControlAdapter().checkout(file);
             }
+            written();
             return new FileWriter(file);
         } catch (Exception e) {
             throw new AuraRuntimeException(e);
@@ -125,7 +145,7 @@ public class FileSource<D extends Definition> extends Source<D> {
      */
     @Override
     public boolean exists() {
-        return file.exists();
+        return !missing && file.exists();
     }
 
     @Override
@@ -134,6 +154,20 @@ public class FileSource<D extends Definition> extends Source<D> {
             return Aura.getSourceControlAdapter().writeIfDifferent(new StringBuilder(newContents), file);
         } catch (IOException e) {
             throw new AuraRuntimeException(e);
+        } finally {
+            written();
+        }
+    }
+
+    /**
+     * Once the file has been written through us, it exists for us and for our loader.
+     */
+    private void written() {
+        if (missing) {
+            missing = false;
+            if (loader != null && file.exists()) {
+                loader.addFile(file);
+            }
         }
     }
 }
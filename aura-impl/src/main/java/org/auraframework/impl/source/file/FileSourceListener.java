@@ -17,6 +17,7 @@ package org.auraframework.impl.source.file;
 
 import java.nio.file.Path;
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.log4j.Logger;
@@ -26,11 +27,14 @@ import org.auraframework.def.IncludeDef;
 import org.auraframework.def.LibraryDef;
 import org.auraframework.impl.system.DefDescriptorImpl;
 import org.auraframework.impl.source.DescriptorFileMapper;
+import org.auraframework.system.SourceChange;
 import org.auraframework.system.SourceListener;
 import org.auraframework.system.SourceListener.SourceMonitorEvent;
 import org.auraframework.util.FileChangeEvent;
 import org.auraframework.util.FileListener;
 
+import com.google.common.collect.Lists;
+
 /**
  * Used by {@link FileSourceLoader} to monitor and notify when file has changed. When a file does change, it notifies
  * its listener to clear cache of specific descriptor.
@@ -39,6 +43,13 @@ public class FileSourceListener extends DescriptorFileMapper implements FileList
 
     private static final Logger LOG = Logger.getLogger(FileSourceListener.class);
 
+    private static final Map<FileChangeEvent.Type, SourceMonitorEvent> EVENTS = new EnumMap<>(FileChangeEvent.Type.class);
+    static {
+        EVENTS.put(FileChangeEvent.Type.CREATED, SourceMonitorEvent.CREATED);
+        EVENTS.put(FileChangeEvent.Type.DELETED, SourceMonitorEvent.DELETED);
+        EVENTS.put(FileChangeEvent.Type.CHANGED, SourceMonitorEvent.CHANGED);
+    }
+
     @Override
     public void fileCreated(FileChangeEvent event) throws Exception {
         notifySourceChanges(event, SourceMonitorEvent.CREATED);
@@ -54,11 +65,28 @@ public class FileSourceListener extends DescriptorFileMapper implements FileList
         notifySourceChanges(event, SourceMonitorEvent.CHANGED);
     }
 
+    @Override
+    public void filesChanged(List<FileChangeEvent> events) throws Exception {
+        List<SourceChange> changes = Lists.newArrayListWithCapacity(events.size());
+        for (FileChangeEvent event : events) {
+            String filePath = event.getPath().toString();
+            SourceMonitorEvent smEvent = EVENTS.get(event.getType());
+            LOG.debug("File " + filePath + " changed due to: " + smEvent);
+            changes.add(new SourceChange(getDescriptor(filePath), smEvent, filePath));
+        }
+        LOG.info(changes.size() + " files changed");
+        onSourceChanges(changes);
+    }
+
     public void onSourceChanged(DefDescriptor<?> defDescriptor, SourceListener.SourceMonitorEvent smEvent,
             String filePath) {
         Aura.getDefinitionService().onSourceChanged(defDescriptor, smEvent, filePath);
     }
 
+    public void onSourceChanges(List<SourceChange> changes) {
+        Aura.getDefinitionService().onSourceChanges(changes);
+    }
+
     private void notifySourceChanges(FileChangeEvent event, SourceListener.SourceMonitorEvent smEvent) {
         Path path = event.getPath();
         String filePath = path.toString();
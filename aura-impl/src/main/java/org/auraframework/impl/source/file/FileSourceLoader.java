@@ -19,38 +19,50 @@ import java.io.File;
 import java.io.FileFilter;
 import java.io.FilenameFilter;
 import java.io.IOException;
-
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.auraframework.Aura;
-
 import org.auraframework.def.DefDescriptor;
-
 import org.auraframework.def.DefDescriptor.DefType;
-
 import org.auraframework.def.Definition;
 import org.auraframework.def.DescriptorFilter;
 import org.auraframework.impl.source.BaseSourceLoader;
 import org.auraframework.system.PrivilegedNamespaceSourceLoader;
 import org.auraframework.system.SourceListener;
 import org.auraframework.throwable.AuraRuntimeException;
-import org.auraframework.util.IOUtil;
+import org.auraframework.util.AuraTextUtil;
+
+import com.google.common.collect.Lists;
 
 /**
+ * A source loader for a directory of namespaces.
+ *
+ * Rather than asking the file system on every lookup, the loader keeps an index of every file under the base,
+ * built with a single walk the first time it is needed, and kept current from the changes reported by the
+ * {@link AuraFileMonitor}. Lookups are case insensitive, as they were when they went to the file system. A change
+ * notification without a descriptor or a path drops the index, so that it is rebuilt from the disk.
  */
 public class FileSourceLoader extends BaseSourceLoader implements PrivilegedNamespaceSourceLoader, SourceListener {
 
     protected final File base;
     protected final int baseLen;
     private Set<String> namespaces;
-
-    private static final FileFilter directoryFilter = new FileFilter() {
-        @Override
-        public boolean accept(File file) {
-            return file.isDirectory();
-        }
-    };
+    private volatile FileIndex index;
 
     public FileSourceLoader(File base) {
         super();
@@ -66,44 +78,33 @@ public class FileSourceLoader extends BaseSourceLoader implements PrivilegedName
         }
         this.baseLen = base.getPath().length();
 
-        // add the namespace root to the file monitor
+        // add the namespace root to the file monitor, by the same path that change notifications are checked against.
         Aura.getDefinitionService().subscribeToChangeNotification(this);
-        AuraFileMonitor.addDirectory(base.getPath());
-    }
-
-    private boolean isFilePresent(File file) {
-        // addresses MacOSx issue: file.exists() is case insensitive
-        try {
-            if (file.exists()) {
-                File cFile = file.getCanonicalFile();
-                if (cFile != null && cFile.exists() && cFile.getName().equals(file.getName())) {
-                    return true;
-                }
-            }
-        } catch (IOException e) {
-            return false;
-        }
-        return false;
+        AuraFileMonitor.addDirectory(this.base.getPath());
     }
 
     @Override
     public <D extends Definition> FileSource<D> getSource(DefDescriptor<D> descriptor) {
 
         String filename = getPath(descriptor);
+        IndexEntry entry = getIndex().get(filename);
 
-        File file = new File(base, filename);
-
-        if (!isFilePresent(file)) {
-            file = caseInsensitiveLookup(file);
-            if (file.exists()) {
-                descriptor = updateDescriptorName(descriptor, file.getParentFile().getParentFile().getName(),
-                        file.getName());
+        if (entry == null) {
+            File file = new File(base, filename);
+            if (!file.exists()) {
+                // it does not exist (yet), the source tells us if it is written.
+                return new FileSource<>(descriptor, filename, file, getFormat(descriptor), this);
             }
+            // written behind our back, and not (yet) seen by the file monitor, which may not be running at all.
+            addFile(file);
+            entry = getIndex().get(filename);
         }
-
-        String id = (file.exists()) ? FileSource.getFilePath(file) : filename;
-
-        return new FileSource<>(descriptor, id, file, getFormat(descriptor));
+        if (!entry.path.equals(FileIndex.normalize(filename))) {
+            File file = entry.file;
+            descriptor = updateDescriptorName(descriptor, file.getParentFile().getParentFile().getName(),
+                    file.getName());
+        }
+        return new FileSource<>(descriptor, entry.getCanonicalPath(), entry.file, getFormat(descriptor));
     }
 
     /**
@@ -116,13 +117,7 @@ public class FileSourceLoader extends BaseSourceLoader implements PrivilegedName
     public Set<String> getNamespaces() {
         synchronized(this) {
             if (namespaces == null) {
-                namespaces = new HashSet<>();
-                for (File dir : base.listFiles(directoryFilter)) {
-                    File[] files = IOUtil.listFiles(dir, true, true);
-                    if (files != null && files.length > 0) {
-                        namespaces.add(dir.getName());
-                    }
-                }
+                namespaces = getIndex().getNamespaces();
             }
             return namespaces;
         }
@@ -131,20 +126,24 @@ public class FileSourceLoader extends BaseSourceLoader implements PrivilegedName
     @Override
     public Set<DefDescriptor<?>> find(DescriptorFilter matcher) {
         Set<DefDescriptor<?>> ret = new HashSet<>();
-        AnyTypeFilter af = new AnyTypeFilter(ret, matcher);
+        FileIndex index = getIndex();
+        Collection<IndexEntry> entries;
         if (matcher.getNamespaceMatch().isConstant() && matcher.getNameMatch().isConstant()) {
-            String ns = matcher.getNamespaceMatch().toString();
-            String name = matcher.getNameMatch().toString();
-            af.setNamespace(ns);
-            findFiles(new File(new File(base, ns), name), null, af);
+            entries = index.getEntries(matcher.getNamespaceMatch().toString(), matcher.getNameMatch().toString());
         } else {
+            entries = Lists.newArrayList();
             for (String ns : getNamespaces()) {
                 if (matcher.matchNamespace(ns)) {
-                    af.setNamespace(ns);
-                    findFiles(new File(base, ns), null, af);
+                    entries.addAll(index.getEntries(ns));
                 }
             }
         }
+        for (IndexEntry entry : entries) {
+            DefDescriptor<?> dd = entry.getDescriptor();
+            if (dd != null && matcher.matchDescriptor(dd)) {
+                ret.add(dd);
+            }
+        }
         return ret;
     }
 
@@ -152,12 +151,44 @@ public class FileSourceLoader extends BaseSourceLoader implements PrivilegedName
     public <T extends Definition> Set<DefDescriptor<T>> find(Class<T> primaryInterface, String prefix, String namespace) {
         Set<DefDescriptor<T>> ret = new HashSet<>();
         DefType defType = DefType.getDefType(primaryInterface);
-        OneTypeFilter<T> otf = new OneTypeFilter<>(ret, defType);
-        findFiles(new File(base, namespace), null, otf);
-        //System.out.println("PI="+primaryInterface.getName()+", prefix="+prefix+", ns = "+namespace+", RET="+ret);
+        for (IndexEntry entry : getIndex().getEntries(namespace)) {
+            DefDescriptor<?> dd = entry.getDescriptor();
+            if (dd != null && dd.getDefType() == defType) {
+                @SuppressWarnings("unchecked")
+                DefDescriptor<T> ddt = (DefDescriptor<T>)dd;
+                ret.add(ddt);
+            }
+        }
         return ret;
     }
 
+    private FileIndex getIndex() {
+        FileIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = new FileIndex(base);
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Add a file the file monitor has not told us about, e.g. one written through one of our sources.
+     */
+    void addFile(File file) {
+        synchronized (this) {
+            // An index that is yet to be built will find it on disk.
+            if (index != null) {
+                index.add(file.toPath());
+            }
+            namespaces = null;
+        }
+    }
+
     /**
      * Find the set of files that match the filter.
      *
@@ -204,46 +235,6 @@ public class FileSourceLoader extends BaseSourceLoader implements PrivilegedName
         return file;
     }
 
-    /**
-     * This is a twisted filter that actually does the work as it progresses.
-     *
-     * We need to do this because we don't know a-priory what the types are, and rather than redo all of that work, we
-     * can simply do what we need to here.
-     */
-    protected static class OneTypeFilter<T extends Definition> implements FileFilter {
-        private final Set<DefDescriptor<T>> dset;
-        private final DefType dt;
-
-        /**
-         * The constructor.
-         *
-         * @param dset the set of descriptors to be filled.
-         * @param dm the matcher to check the descriptors.
-         */
-        public OneTypeFilter(Set<DefDescriptor<T>> dset, DefType dt) {
-            this.dt = dt;
-            this.dset = dset;
-        }
-
-        @Override
-        public boolean accept(File file) {
-            if (file.isDirectory()) {
-                return true;
-            }
-            DefDescriptor<?> dd = getDescriptor(file.getPath());
-            if (dd != null && dd.getDefType() == dt) {
-                @SuppressWarnings("unchecked")
-                DefDescriptor<T> ddt = (DefDescriptor<T>)dd;
-                dset.add(ddt);
-            }
-            // We don't need to accept this, as we've already either included or
-            // excluded the
-            // descriptor above.
-            return false;
-        }
-    }
-
-
     /**
      * This is a twisted filter that actually does the work as it progresses.
      *
@@ -311,6 +302,225 @@ public class FileSourceLoader extends BaseSourceLoader implements PrivilegedName
 
     }
 
+    /**
+     * A file in the index.
+     */
+    private static final class IndexEntry {
+        private final File file;
+
+        /** The path relative to the base, with '/' separators, as it is on disk. */
+        private final String path;
+
+        private volatile String canonicalPath;
+        private volatile DefDescriptor<?> descriptor;
+        private volatile boolean descriptorResolved;
+
+        private IndexEntry(File file, String path) {
+            this.file = file;
+            this.path = path;
+        }
+
+        private String getCanonicalPath() {
+            String result = canonicalPath;
+            if (result == null) {
+                result = FileSource.getFilePath(file);
+                canonicalPath = result;
+            }
+            return result;
+        }
+
+        /**
+         * @return the descriptor of the file, or null if it isn't a definition.
+         */
+        private DefDescriptor<?> getDescriptor() {
+            if (!descriptorResolved) {
+                descriptor = FileSourceLoader.getDescriptor(file.getPath());
+                descriptorResolved = true;
+            }
+            return descriptor;
+        }
+    }
+
+    /**
+     * The files in a namespace, by the lower cased name of their bundle directory.
+     */
+    private static final class NamespaceEntry {
+        private final String name;
+        private final ConcurrentMap<String, ConcurrentMap<String, IndexEntry>> bundles = new ConcurrentHashMap<>();
+
+        private NamespaceEntry(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * The index of every file under a base directory, by lower cased path and by namespace and bundle.
+     *
+     * Reads need no lock, changes are made by one thread at a time (under the loader's lock).
+     */
+    private static final class FileIndex {
+        private final Path base;
+        private final ConcurrentMap<String, IndexEntry> files = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, NamespaceEntry> namespaces = new ConcurrentHashMap<>();
+
+        private FileIndex(File base) {
+            this.base = base.toPath();
+            try {
+                Files.walkFileTree(this.base, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                        new SimpleFileVisitor<Path>() {
+                            @Override
+                            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                                if (!attrs.isDirectory()) {
+                                    add(file);
+                                }
+                                return FileVisitResult.CONTINUE;
+                            }
+
+                            @Override
+                            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                                // unreadable (or a link loop), so as good as not there.
+                                return FileVisitResult.CONTINUE;
+                            }
+                        });
+            } catch (IOException ioe) {
+                throw new AuraRuntimeException(String.format("IOException indexing base directory %s", base), ioe);
+            }
+        }
+
+        private static String normalize(String path) {
+            return File.separatorChar == '/' ? path : path.replace(File.separatorChar, '/');
+        }
+
+        private static String getKey(String path) {
+            return normalize(path).toLowerCase();
+        }
+
+        private IndexEntry get(String path) {
+            return files.get(getKey(path));
+        }
+
+        private Collection<IndexEntry> getEntries(String namespace) {
+            NamespaceEntry ns = namespaces.get(namespace.toLowerCase());
+            if (ns == null) {
+                return Collections.emptyList();
+            }
+            List<IndexEntry> entries = Lists.newArrayList();
+            for (Map<String, IndexEntry> bundle : ns.bundles.values()) {
+                entries.addAll(bundle.values());
+            }
+            return entries;
+        }
+
+        private Collection<IndexEntry> getEntries(String namespace, String name) {
+            NamespaceEntry ns = namespaces.get(namespace.toLowerCase());
+            Map<String, IndexEntry> bundle = ns != null ? ns.bundles.get(name.toLowerCase()) : null;
+            if (bundle == null) {
+                return Collections.emptyList();
+            }
+            return Lists.newArrayList(bundle.values());
+        }
+
+        private Set<String> getNamespaces() {
+            Set<String> names = new HashSet<>();
+            for (NamespaceEntry ns : namespaces.values()) {
+                if (!ns.bundles.isEmpty()) {
+                    names.add(ns.name);
+                }
+            }
+            return names;
+        }
+
+        /**
+         * @return the path relative to the base, or null if it is not under it.
+         */
+        private Path relativize(Path file) {
+            if (!file.startsWith(base) || file.equals(base)) {
+                return null;
+            }
+            return base.relativize(file);
+        }
+
+        private void add(Path file) {
+            Path relative = relativize(file);
+            if (relative == null) {
+                return;
+            }
+            String path = normalize(relative.toString());
+            String key = path.toLowerCase();
+            if (files.containsKey(key)) {
+                return;
+            }
+            IndexEntry entry = new IndexEntry(file.toFile(), path);
+            files.put(key, entry);
+
+            int count = relative.getNameCount();
+            if (count > 1) {
+                String nsName = relative.getName(0).toString();
+                NamespaceEntry ns = namespaces.get(nsName.toLowerCase());
+                if (ns == null) {
+                    ns = new NamespaceEntry(nsName);
+                    namespaces.put(nsName.toLowerCase(), ns);
+                }
+                String bundleKey = count > 2 ? relative.getName(1).toString().toLowerCase() : "";
+                ConcurrentMap<String, IndexEntry> bundle = ns.bundles.get(bundleKey);
+                if (bundle == null) {
+                    bundle = new ConcurrentHashMap<>();
+                    ns.bundles.put(bundleKey, bundle);
+                }
+                bundle.put(key, entry);
+            }
+        }
+
+        /**
+         * Remove a file, or everything under a directory.
+         */
+        private void remove(Path file) {
+            Path relative = relativize(file);
+            if (relative == null) {
+                return;
+            }
+            String key = getKey(relative.toString());
+            if (files.containsKey(key)) {
+                removeEntry(key);
+            } else {
+                // not a file we know, it may have been a directory.
+                String prefix = key + '/';
+                Iterator<String> keys = files.keySet().iterator();
+                while (keys.hasNext()) {
+                    String candidate = keys.next();
+                    if (candidate.startsWith(prefix)) {
+                        removeEntry(candidate);
+                    }
+                }
+            }
+        }
+
+        private void removeEntry(String key) {
+            IndexEntry entry = files.remove(key);
+            if (entry == null) {
+                return;
+            }
+            List<String> names = AuraTextUtil.splitSimple("/", key);
+            if (names.size() > 1) {
+                NamespaceEntry ns = namespaces.get(names.get(0));
+                if (ns == null) {
+                    return;
+                }
+                String bundleKey = names.size() > 2 ? names.get(1) : "";
+                Map<String, IndexEntry> bundle = ns.bundles.get(bundleKey);
+                if (bundle != null) {
+                    bundle.remove(key);
+                    if (bundle.isEmpty()) {
+                        ns.bundles.remove(bundleKey);
+                        if (ns.bundles.isEmpty()) {
+                            namespaces.remove(names.get(0));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     public boolean isPrivilegedNamespace(String namespace) {
         // All file based namespaces are considered system by default
@@ -324,12 +534,31 @@ public class FileSourceLoader extends BaseSourceLoader implements PrivilegedName
 
     @Override
     public void onSourceChanged(DefDescriptor<?> source, SourceMonitorEvent event, String filePath) {
-        // rip out namespace cache if need be.
-        // Note that this is a little more aggressive than it has to be, but, well, it does only do it
-        // for creation/deletion. There is a race condition whereby this will cause odd failures if files
-        // are added/removed while something is running. caveat emptor
-        if (filePath != null && filePath.startsWith(base.getPath()) && event != SourceMonitorEvent.CHANGED) {
-            synchronized (this) {
+        if (filePath == null) {
+            if (source == null) {
+                // everything may have changed, so start over from the disk.
+                synchronized (this) {
+                    index = null;
+                    namespaces = null;
+                }
+            }
+            return;
+        }
+        if (!filePath.startsWith(base.getPath())) {
+            return;
+        }
+        synchronized (this) {
+            // An index that is yet to be built will see the change when it is.
+            if (index != null) {
+                Path path = new File(filePath).toPath();
+                if (event == SourceMonitorEvent.DELETED) {
+                    index.remove(path);
+                } else {
+                    // a change to a file we don't know means we missed its creation.
+                    index.add(path);
+                }
+            }
+            if (event != SourceMonitorEvent.CHANGED) {
                 namespaces = null;
             }
         }
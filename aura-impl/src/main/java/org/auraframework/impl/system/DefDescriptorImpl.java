@@ -16,8 +16,6 @@
 package org.auraframework.impl.system;
 
 import java.io.IOException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.auraframework.Aura;
 import org.auraframework.cache.Cache;
@@ -28,6 +26,8 @@ import org.auraframework.impl.type.AuraStaticTypeDefRegistry;
 import org.auraframework.impl.util.AuraUtil;
 import org.auraframework.service.CachingService;
 import org.auraframework.service.LoggingService;
+import org.auraframework.system.RequestCounter;
+import org.auraframework.system.RequestTimer;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.AuraTextUtil;
@@ -50,19 +50,6 @@ public class DefDescriptorImpl<T extends Definition> implements DefDescriptor<T>
 
     private static CachingService cSrv = Aura.getCachingService();
 
-    /**
-     * Pattern for tag descriptors : foo:bar Group 0 = QName = foo:bar Group 1 = prefix Group 2 = namespace = foo Group
-     * 3 = name = bar prefix = null
-     */
-    private static final Pattern TAG_PATTERN = Pattern.compile("(?:([\\w\\*]+)://)?(?:([\\w\\-\\*]+):)?([\\w\\$\\*]+)");
-
-    /**
-     * Pattern for class descriptors: java://foo.bar.baz Group 0 = QName = java://foo.bar.baz Group 1 = prefix = java
-     * Group 2 = namespace = foo.bar Group 3 = name = baz
-     */
-    private static final Pattern CLASS_PATTERN = Pattern
-            .compile("\\A(?:([\\w\\*]+)://)?((?:[\\w\\*]|\\.)*?)?\\.?+([\\w,$\\*]*?(?:\\[\\])?)(<[\\w.,(<[\\w.,]+>)]+>)?\\z");
-
     private static String buildQualifiedName(String prefix, String namespace, String name) {
         if (namespace == null) {
             return String.format("%s://%s", prefix, name);
@@ -82,7 +69,7 @@ public class DefDescriptorImpl<T extends Definition> implements DefDescriptor<T>
     protected DefDescriptorImpl(DefDescriptor<?> associate, Class<T> defClass, String newPrefix) {
         LoggingService loggingService = Aura.getLoggingService();
 
-        loggingService.startTimer(LoggingService.TIMER_DEF_DESCRIPTOR_CREATION);
+        loggingService.startTimer(RequestTimer.DEF_DESCRIPTOR_CREATION);
         try {
             this.bundle = null;
             this.defType = DefType.getDefType(defClass);
@@ -95,15 +82,15 @@ public class DefDescriptorImpl<T extends Definition> implements DefDescriptor<T>
             this.nameParameters = pos >= 0 ? name.substring(pos).replaceAll("\\s", "") : null;
             this.hashCode = createHashCode();
         } finally {
-            loggingService.stopTimer(LoggingService.TIMER_DEF_DESCRIPTOR_CREATION);
+            loggingService.stopTimer(RequestTimer.DEF_DESCRIPTOR_CREATION);
         }
-        loggingService.incrementNum(LoggingService.DEF_DESCRIPTOR_COUNT);
+        loggingService.incrementNum(RequestCounter.DEF_DESCRIPTOR_COUNT);
     }
 
     private DefDescriptorImpl(String qualifiedName, Class<T> defClass, DefDescriptor<?> bundle) {
         this.bundle = bundle;
         LoggingService loggingService = Aura.getLoggingService();
-        loggingService.startTimer(LoggingService.TIMER_DEF_DESCRIPTOR_CREATION);
+        loggingService.startTimer(RequestTimer.DEF_DESCRIPTOR_CREATION);
         try {
             this.defType = DefType.getDefType(defClass);
             if (AuraTextUtil.isNullEmptyOrWhitespace(qualifiedName)) {
@@ -128,19 +115,19 @@ public class DefDescriptorImpl<T extends Definition> implements DefDescriptor<T>
             case THEME_PROVIDER:
             case THEME_MAP_PROVIDER:
             case INCLUDE:
-                Matcher matcher = CLASS_PATTERN.matcher(qualifiedName);
-                if (matcher.matches()) {
-                    prefix = matcher.group(1);
-                    namespace = matcher.group(2);
+                QualifiedNameParser.ParsedName parsed = QualifiedNameParser.parseClass(qualifiedName);
+                if (parsed != null) {
+                    prefix = parsed.getPrefix();
+                    namespace = parsed.getNamespace();
                     if (namespace.isEmpty()) {
                         namespace = null;
                     }
-                    name = matcher.group(3);
-                    if (matcher.group(4) != null) {
+                    name = parsed.getName();
+                    if (parsed.getParameters() != null) {
                         // combine name with <generic params> if available
-                        name += matcher.group(4);
+                        name += parsed.getParameters();
                         if (defType == org.auraframework.def.DefDescriptor.DefType.TYPE) {
-                            nameParameters = matcher.group(4);
+                            nameParameters = parsed.getParameters();
                         }
                     }
                 } else {
@@ -179,14 +166,14 @@ public class DefDescriptorImpl<T extends Definition> implements DefDescriptor<T>
             case THEME:
             case DESIGN:
             case SVG:
-                Matcher tagMatcher = TAG_PATTERN.matcher(qualifiedName);
-                if (tagMatcher.matches()) {
-                    prefix = tagMatcher.group(1);
+                QualifiedNameParser.ParsedName parsedTag = QualifiedNameParser.parseTag(qualifiedName);
+                if (parsedTag != null) {
+                    prefix = parsedTag.getPrefix();
                     if (prefix == null) {
                         prefix = MARKUP_PREFIX;
                     }
-                    namespace = tagMatcher.group(2);
-                    name = tagMatcher.group(3);
+                    namespace = parsedTag.getNamespace();
+                    name = parsedTag.getName();
                     if (AuraTextUtil.isNullEmptyOrWhitespace(name)) {
                         name = namespace;
                         namespace = null;
@@ -218,9 +205,9 @@ public class DefDescriptorImpl<T extends Definition> implements DefDescriptor<T>
             this.hashCode = createHashCode();
             this.nameParameters = nameParameters;
         } finally {
-            loggingService.stopTimer(LoggingService.TIMER_DEF_DESCRIPTOR_CREATION);
+            loggingService.stopTimer(RequestTimer.DEF_DESCRIPTOR_CREATION);
         }
-        loggingService.incrementNum(LoggingService.DEF_DESCRIPTOR_COUNT);
+        loggingService.incrementNum(RequestCounter.DEF_DESCRIPTOR_COUNT);
     }
 
     protected DefDescriptorImpl(String qualifiedName, Class<T> defClass) {
@@ -370,6 +357,17 @@ public class DefDescriptorImpl<T extends Definition> implements DefDescriptor<T>
         return result;
     }
 
+    /**
+     * Replace a deserialized descriptor with the interned one, so that descriptors read from a registries file (where
+     * each definition is read on its own) are shared like any other, rather than copied into each definition.
+     */
+    protected Object readResolve() {
+        if (getClass() != DefDescriptorImpl.class) {
+            return this;
+        }
+        return getInstance(qualifiedName, defType.getPrimaryInterface(), bundle);
+    }
+
     /**
      * FIXME: this method is ambiguous about wanting a qualified, simple, or descriptor name.
      * 
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.util.Set;
+
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.Definition;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.system.DefRegistry;
+import org.auraframework.system.Source;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+import com.google.common.base.Supplier;
+
+/**
+ * A registry that creates the registry it delegates to the first time it is used.
+ *
+ * The def types and prefixes are known up front, so the registry can be put in a {@link RegistryTrie} without
+ * building its factory, and registries that a request never looks in are never built.
+ */
+public class LazyDefRegistryImpl<T extends Definition> extends DefRegistryImpl<T> {
+    private static final long serialVersionUID = -2817153460125913307L;
+    private final transient Supplier<? extends DefRegistry<T>> supplier;
+    private final boolean cacheable;
+    private transient volatile DefRegistry<T> registry;
+
+    /**
+     * @param supplier creates the registry, once.
+     * @param defTypes the def types of the registry.
+     * @param prefixes the prefixes of the registry.
+     * @param cacheable whether the registry will be cacheable.
+     */
+    public LazyDefRegistryImpl(Supplier<? extends DefRegistry<T>> supplier, Set<DefType> defTypes,
+            Set<String> prefixes, boolean cacheable) {
+        super(defTypes, prefixes, null);
+        this.supplier = supplier;
+        this.cacheable = cacheable;
+    }
+
+    /**
+     * @return whether the registry has been created.
+     */
+    public boolean isCreated() {
+        return registry != null;
+    }
+
+    private DefRegistry<T> getRegistry() {
+        DefRegistry<T> current = registry;
+        if (current == null) {
+            synchronized (this) {
+                current = registry;
+                if (current == null) {
+                    current = supplier.get();
+                    registry = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public T getDef(DefDescriptor<T> descriptor) throws QuickFixException {
+        return getRegistry().getDef(descriptor);
+    }
+
+    @Override
+    public boolean hasFind() {
+        return getRegistry().hasFind();
+    }
+
+    @Override
+    public Set<DefDescriptor<T>> find(DefDescriptor<T> matcher) {
+        return getRegistry().find(matcher);
+    }
+
+    @Override
+    public Set<DefDescriptor<?>> find(DescriptorFilter matcher) {
+        return getRegistry().find(matcher);
+    }
+
+    @Override
+    public void save(T def) {
+        getRegistry().save(def);
+    }
+
+    @Override
+    public boolean exists(DefDescriptor<T> descriptor) {
+        return getRegistry().exists(descriptor);
+    }
+
+    @Override
+    public Source<T> getSource(DefDescriptor<T> descriptor) {
+        return getRegistry().getSource(descriptor);
+    }
+
+    @Override
+    public void clear() {
+        DefRegistry<T> current = registry;
+        if (current != null) {
+            current.clear();
+        }
+    }
+
+    @Override
+    public boolean isCacheable() {
+        return cacheable;
+    }
+}
@@ -20,6 +20,17 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 
 import org.apache.log4j.Logger;
@@ -36,20 +47,30 @@ import org.auraframework.def.DefinitionAccess;
 import org.auraframework.def.DescriptorFilter;
 import org.auraframework.def.RequiredVersionDef;
 import org.auraframework.def.RootDefinition;
+import org.auraframework.impl.AuraImpl;
+import org.auraframework.impl.admin.ValueStats;
+import org.auraframework.instance.GlobalValueProvider;
 import org.auraframework.instance.Versionable;
 import org.auraframework.service.CachingService;
 import org.auraframework.service.LoggingService;
 import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.system.DefRegistry;
 import org.auraframework.system.DependencyEntry;
 import org.auraframework.system.Location;
 import org.auraframework.system.MasterDefRegistry;
+import org.auraframework.system.RequestCounter;
+import org.auraframework.system.RequestTimer;
+import org.auraframework.system.ResourcePayload;
 import org.auraframework.system.Source;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.NoAccessException;
 import org.auraframework.throwable.quickfix.DefinitionNotFoundException;
 import org.auraframework.throwable.quickfix.InvalidReferenceException;
 import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.json.JsonSerializationContext;
 import org.auraframework.util.text.GlobMatcher;
 import org.auraframework.util.text.Hash;
 
@@ -96,9 +117,77 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
             );
     private final static int ACCESS_CHECK_CACHE_SIZE = 4096;
 
+    /**
+     * System property choosing how definitions are compiled, either "serial" (the default) or "parallel". In parallel
+     * mode the sources of a definition's dependencies are parsed ahead of the compile on a shared pool.
+     */
+    private final static String COMPILE_MODE_PROPERTY = "aura.compile.mode";
+
+    /** System property bounding the number of threads parsing in parallel, by default one per processor */
+    private final static String COMPILE_THREADS_PROPERTY = "aura.compile.threads";
+
+    /**
+     * System property bounding how long a compile waits for a concurrent compile of the same descriptor before
+     * compiling it itself, in milliseconds.
+     */
+    private final static String COMPILE_WAIT_PROPERTY = "aura.compile.waitMillis";
+
+    private final static long DEFAULT_COMPILE_WAIT_MILLIS = 30000;
+
+    private static volatile ForkJoinPool compilePool;
+
+    /**
+     * Compiles in progress, by the global key of the descriptor being compiled.
+     * 
+     * Concurrent compiles of the same cacheable descriptor wait for the first one, and then build from the dependency
+     * entry that it cached rather than compiling all of the same definitions again.
+     */
+    private static final ConcurrentMap<String, CountDownLatch> compilesInFlight = new ConcurrentHashMap<>();
+
+    /**
+     * The time that compiles which reused a concurrent compile of the same descriptor waited for it, in milliseconds.
+     * Its count is the number of such compiles.
+     */
+    private static final ValueStats COALESCED_COMPILE_WAIT = ValueStats.register("coalescedCompileWait");
+
+    /**
+     * The lock for registries used by prefetch workers, which share no caches and so have nothing to guard. Taking the
+     * cache lock from a worker could deadlock behind a waiting writer, as the compile holds the read lock while it
+     * waits for the worker.
+     */
+    private final static Lock NO_LOCK = new Lock() {
+        @Override
+        public void lock() {
+        }
+
+        @Override
+        public void lockInterruptibly() {
+        }
+
+        @Override
+        public boolean tryLock() {
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) {
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    };
+
     private final Lock rLock;
     private final Lock wLock;
 
+    private final CachingService cachingService;
     private final Cache<DefDescriptor<?>, Boolean> existsCache;
     private final Cache<DefDescriptor<?>, Optional<? extends Definition>> defsCache;
     private final Cache<String, DependencyEntry> depsCache;
@@ -132,13 +221,30 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
 
     private final MasterDefRegistryImpl original;
 
+    /** The pool for parallel compiles, or null to compile serially */
+    private final ForkJoinPool parallelCompilePool;
+
+    /** How long to wait for a concurrent compile of the same descriptor */
+    private final long compileWaitMillis;
+
+    /** True if this registry parses for a prefetch worker, and so must not touch the shared caches or their lock */
+    private final boolean isolated;
+
     private MasterDefRegistryImpl(RegistryTrie delegate, MasterDefRegistryImpl original) {
+        this(delegate, original, false);
+    }
+
+    private MasterDefRegistryImpl(RegistryTrie delegate, MasterDefRegistryImpl original, boolean isolated) {
         CachingService acs = Aura.getCachingService();
 
         this.delegateRegistries = delegate;
         this.original = original;
-        this.rLock = acs.getReadLock();
-        this.wLock = acs.getWriteLock();
+        this.isolated = isolated;
+        this.parallelCompilePool = isolated ? null : getCompilePool();
+        this.compileWaitMillis = getCompileWaitMillis();
+        this.cachingService = acs;
+        this.rLock = isolated ? NO_LOCK : acs.getReadLock();
+        this.wLock = isolated ? NO_LOCK : acs.getWriteLock();
         this.existsCache = acs.getExistsCache();
         this.defsCache = acs.getDefsCache();
         this.depsCache = acs.getDepsCache();
@@ -180,6 +286,27 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
         this(new RegistryTrie(registries), null);
     }
 
+    /**
+     * Build a master def registry over a trie of registries, which can be shared by many master def registries.
+     * 
+     * @param registries the registries to use in the mdr.
+     */
+    public MasterDefRegistryImpl(@NonNull RegistryTrie registries) {
+        this(registries, null);
+    }
+
+    /**
+     * Build a registry over the same registries as this one, for use on another thread while this one is in use.
+     * 
+     * Unlike a registry built with {@link #MasterDefRegistryImpl(MasterDefRegistryImpl)}, nothing local to this
+     * registry is shared, so the two can be used concurrently.
+     * 
+     * @return a new registry.
+     */
+    public MasterDefRegistryImpl buildWorkerRegistry() {
+        return new MasterDefRegistryImpl(delegateRegistries, null);
+    }
+
     private boolean isOkForDependencyCaching(DefDescriptor<?> descriptor) {
         // if compound, OK as these tests are also conducted on the compound's target
         if (descriptor.getPrefix().equals("compound")) {
@@ -223,7 +350,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
                         registryResults = descriptorFilterCache.getIfPresent(cacheKey);
                         if (registryResults == null) {
                             registryResults = reg.find(matcher);
-                            descriptorFilterCache.put(cacheKey, registryResults);
+                            cachingService.putDescriptorFilterResults(cacheKey, matcher, registryResults);
                         }
                     } else {
                         registryResults = reg.find(matcher);
@@ -433,6 +560,9 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
         /** Is this def's dependencies cacheable? */
         public boolean shouldCacheDependencies;
 
+        /** Parses sources ahead of the compile, null when compiling serially. */
+        public Prefetcher prefetcher;
+
         public CompileContext(DefDescriptor<? extends Definition> topLevel, List<ClientLibraryDef> clientLibs) {
             this.clientLibs = clientLibs;
             this.topLevel = topLevel;
@@ -459,6 +589,201 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
         }
     }
 
+    /**
+     * Parses the sources of the definitions needed by a compile ahead of time, on the compile pool.
+     * 
+     * Each task parses a single definition on a worker thread, with its own context and an isolated registry, which
+     * reads sources but shares no caches and takes no locks. Everything else stays on the compile thread: it queues
+     * the dependencies of each definition it takes, and still calls validateDefinition() and validateReferences() in
+     * its own order, taking a parsed definition in place of asking the registry for it. This keeps the compile
+     * guarantees, as nothing parsed here is valid or visible outside of the compile. A parse that fails is simply done
+     * again by the compile, which then reports the problem.
+     * 
+     * A definition is either parsed by a worker or claimed by the compile before a worker starts on it, so the compile
+     * never waits on a parse that is not already running. Since workers share nothing with the compile, it does not
+     * wait for them when it is done.
+     */
+    private class Prefetcher {
+        private final ConcurrentMap<DefDescriptor<?>, Boolean> seen = new ConcurrentHashMap<>();
+        private final ConcurrentMap<DefDescriptor<?>, PrefetchTask> tasks = new ConcurrentHashMap<>();
+        private volatile boolean cancelled = false;
+
+        // the parts of the compiling context needed to set up contexts for the workers.
+        private final Mode mode;
+        private final Format format;
+        private final Authentication access;
+        private final Map<DefType, String> defaultPrefixes;
+        private final JsonSerializationContext jsonContext;
+        private final Map<String, GlobalValueProvider> globalProviders;
+        private final DefDescriptor<? extends BaseComponentDef> appDesc;
+
+        /**
+         * @param context the context of the compile.
+         */
+        public Prefetcher(AuraContext context) {
+            this.mode = context.getMode();
+            this.format = context.getFormat();
+            this.access = context.getAccess();
+            this.defaultPrefixes = context.getDefaultPrefixes();
+            this.jsonContext = context.getJsonSerializationContext();
+            this.globalProviders = context.getGlobalProviders();
+            this.appDesc = context.getApplicationDescriptor();
+        }
+
+        /**
+         * Queue a parse of a definition, unless we have already seen it, or the compile will find it in the cache.
+         * 
+         * This is only called on the compile thread.
+         */
+        public void prefetch(DefDescriptor<?> descriptor) {
+            if (cancelled || seen.putIfAbsent(descriptor, Boolean.TRUE) != null) {
+                return;
+            }
+            DefRegistry<?> registry = getRegistryFor(descriptor);
+            if (registry == null || registry.isStatic()
+                    || (registry.isCacheable() && shouldCache(descriptor)
+                            && defsCache.getKeySet().contains(descriptor))) {
+                return;
+            }
+            PrefetchTask task = new PrefetchTask(descriptor);
+            tasks.put(descriptor, task);
+            parallelCompilePool.execute(task);
+        }
+
+        /**
+         * Queue parses of the dependencies of a definition the compile has taken.
+         */
+        public void prefetchDependencies(Set<DefDescriptor<?>> dependencies) {
+            for (DefDescriptor<?> dependency : dependencies) {
+                prefetch(dependency);
+            }
+        }
+
+        /**
+         * Take the parsed definition for a descriptor.
+         * 
+         * If no worker has started on it yet, the caller gets to parse it instead, otherwise we wait for the worker.
+         * 
+         * @return the parsed definition, or null if the caller should parse it.
+         */
+        public <D extends Definition> D take(DefDescriptor<D> descriptor) {
+            PrefetchTask task = tasks.remove(descriptor);
+            if (task == null || task.claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            @SuppressWarnings("unchecked")
+            D def = (D) task.join();
+            return def;
+        }
+
+        /**
+         * Stop parsing, the compile is done.
+         * 
+         * Parses that have not started are dropped, and those that have are abandoned, as their results are only
+         * visible through {@link #take(DefDescriptor)}.
+         */
+        public void cancel() {
+            cancelled = true;
+            for (PrefetchTask task : tasks.values()) {
+                task.cancel(false);
+            }
+            tasks.clear();
+        }
+
+        private <D extends Definition> D parse(DefDescriptor<D> descriptor) throws QuickFixException {
+            DefRegistry<D> registry = getRegistryFor(descriptor);
+            if (registry == null) {
+                return null;
+            }
+            AuraImpl.getContextAdapter().establish(mode, new MasterDefRegistryImpl(delegateRegistries, null, true),
+                    defaultPrefixes, format, access, jsonContext, globalProviders, appDesc);
+            try {
+                return registry.getDef(descriptor);
+            } finally {
+                AuraImpl.getContextAdapter().release();
+            }
+        }
+
+        private class PrefetchTask extends RecursiveTask<Definition> {
+            private static final long serialVersionUID = 1L;
+            private final DefDescriptor<?> descriptor;
+            private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+            private PrefetchTask(DefDescriptor<?> descriptor) {
+                this.descriptor = descriptor;
+            }
+
+            @Override
+            protected Definition compute() {
+                if (cancelled || !claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return parse(descriptor);
+                } catch (QuickFixException | RuntimeException e) {
+                    // the compile parses it again, and reports the problem properly.
+                    return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the pool for parallel compiles.
+     * 
+     * @return the pool, or null if we compile serially.
+     */
+    private static ForkJoinPool getCompilePool() {
+        if (!"parallel".equalsIgnoreCase(System.getProperty(COMPILE_MODE_PROPERTY))) {
+            return null;
+        }
+        ForkJoinPool pool = compilePool;
+        if (pool == null) {
+            synchronized (MasterDefRegistryImpl.class) {
+                pool = compilePool;
+                if (pool == null) {
+                    int threads = Runtime.getRuntime().availableProcessors();
+                    String prop = System.getProperty(COMPILE_THREADS_PROPERTY);
+                    if (prop != null && !prop.isEmpty()) {
+                        try {
+                            threads = Math.max(Integer.parseInt(prop), 1);
+                        } catch (NumberFormatException e) {
+                            // ne'ermind, use the default
+                        }
+                    }
+                    pool = new ForkJoinPool(threads, new ForkJoinWorkerThreadFactory() {
+                        private final AtomicInteger count = new AtomicInteger();
+
+                        @Override
+                        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory
+                                    .newThread(pool);
+                            thread.setName("aura-compile-" + count.incrementAndGet());
+                            return thread;
+                        }
+                    }, null, true);
+                    compilePool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Get how long a compile should wait for a concurrent compile of the same descriptor.
+     */
+    private static long getCompileWaitMillis() {
+        String prop = System.getProperty(COMPILE_WAIT_PROPERTY);
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                return Math.max(Long.parseLong(prop), 0);
+            } catch (NumberFormatException e) {
+                // ne'ermind, use the default
+            }
+        }
+        return DEFAULT_COMPILE_WAIT_MILLIS;
+    }
+
     /**
      * Check to see if we have a def locally.
      */
@@ -563,14 +888,19 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
         // In this case, we make sure that the initial validation is called, and put
         // the def in the 'built' set.
         //
-        compiling.def = registry.getDef(compiling.descriptor);
+        if (currentCC.prefetcher != null) {
+            compiling.def = currentCC.prefetcher.take(compiling.descriptor);
+        }
+        if (compiling.def == null) {
+            compiling.def = registry.getDef(compiling.descriptor);
+        }
         if (compiling.def == null) {
             return false;
         }
         @SuppressWarnings("unchecked")
         DefDescriptor<D> canonical = (DefDescriptor<D>) compiling.def.getDescriptor();
         compiling.descriptor = canonical;
-        currentCC.loggingService.incrementNum(LoggingService.DEF_COUNT);
+        currentCC.loggingService.incrementNum(RequestCounter.DEF_COUNT);
         context.pushCallingDescriptor(canonical);
         try {
             compiling.def.validateDefinition();
@@ -593,7 +923,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
     private <D extends Definition> D getHelper(@NonNull DefDescriptor<D> descriptor,
             @NonNull CompileContext cc, @NonNull Set<DefDescriptor<?>> stack,
             @CheckForNull Definition parent) throws QuickFixException {
-        currentCC.loggingService.incrementNum(LoggingService.DEF_VISIT_COUNT);
+        currentCC.loggingService.incrementNum(RequestCounter.DEF_VISIT_COUNT);
         if (stack.contains(descriptor)) {
             // System.out.println("cycle at "+stack+" "+descriptor);
             return null;
@@ -635,6 +965,10 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
 
             Set<DefDescriptor<?>> newDeps = Sets.newHashSet();
             cd.def.appendDependencies(newDeps);
+            if (cc.prefetcher != null) {
+                // parse the siblings while we compile the first of them.
+                cc.prefetcher.prefetchDependencies(newDeps);
+            }
 
             for (DefDescriptor<?> dep : newDeps) {
                 getHelper(dep, cc, stack, cd.def);
@@ -741,7 +1075,11 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
         }
         currentCC = cc;
         if (!nested) {
-            currentCC.loggingService.startTimer(LoggingService.TIMER_DEFINITION_CREATION);
+            currentCC.loggingService.startTimer(RequestTimer.DEFINITION_CREATION);
+            if (canPrefetch()) {
+                currentCC.prefetcher = new Prefetcher(currentCC.context);
+                currentCC.prefetcher.prefetch(descriptor);
+            }
         }
         try {
             Set<DefDescriptor<?>> stack = Sets.newLinkedHashSet();
@@ -773,7 +1111,10 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
             return def;
         } finally {
             if (!nested) {
-                currentCC.loggingService.stopTimer(LoggingService.TIMER_DEFINITION_CREATION);
+                if (currentCC.prefetcher != null) {
+                    currentCC.prefetcher.cancel();
+                }
+                currentCC.loggingService.stopTimer(RequestTimer.DEFINITION_CREATION);
                 currentCC = null;
             }
         }
@@ -787,6 +1128,9 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
      * 
      * Please look at {@link #localDependencies} if you are mucking in here.
      * 
+     * If another thread is already compiling the same cacheable descriptor, we wait for it and build from its entry
+     * instead of compiling, see {@link #compilesInFlight}. If it takes too long, we compile it ourselves.
+     * 
      * Side Effects:
      * <ul>
      * <li>All definitions that were encountered during the compile will be put in the local def cache, even if a QFE is
@@ -803,13 +1147,82 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
     @CheckForNull
     protected <T extends Definition> DependencyEntry compileDE(@NonNull DefDescriptor<T> descriptor)
             throws QuickFixException {
-        // See localDependencies commentcurrentCC
-        String key = makeLocalKey(descriptor);
-
         if (currentCC != null) {
             throw new AuraRuntimeException("Ugh, nested compileDE/buildDE on " + currentCC.topLevel
                     + " trying to build " + descriptor);
         }
+        if (!shouldCache(descriptor)) {
+            // nothing is shared, so there is nothing to wait for.
+            return compileDEInFlight(descriptor);
+        }
+
+        String flightKey = makeNonUidGlobalKey(descriptor);
+        CountDownLatch flight = new CountDownLatch(1);
+        CountDownLatch inFlight = compilesInFlight.putIfAbsent(flightKey, flight);
+
+        if (inFlight == null) {
+            try {
+                return compileDEInFlight(descriptor);
+            } finally {
+                compilesInFlight.remove(flightKey, flight);
+                flight.countDown();
+            }
+        }
+        DependencyEntry de = awaitCompileDE(inFlight, descriptor);
+        if (de != null) {
+            return de;
+        }
+        return compileDEInFlight(descriptor);
+    }
+
+    /**
+     * Wait for another thread's compile of a descriptor, and build from the dependency entry that it cached.
+     * 
+     * We only wait for a while, as we hold the read lock, and a compile that hangs would otherwise hold up every
+     * request for the descriptor, and any writer behind them.
+     * 
+     * @param inFlight the latch released when the other compile finishes.
+     * @param descriptor the descriptor being compiled.
+     * @return the dependency entry, or null if we must compile it ourselves.
+     */
+    private DependencyEntry awaitCompileDE(@NonNull CountDownLatch inFlight, @NonNull DefDescriptor<?> descriptor) {
+        long start = System.currentTimeMillis();
+        try {
+            if (!inFlight.await(compileWaitMillis, TimeUnit.MILLISECONDS)) {
+                logger.warn("Gave up waiting " + compileWaitMillis + "ms for a concurrent compile of " + descriptor);
+                return null;
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+
+        //
+        // The other compile may have failed, or had dependencies that could not be cached,
+        // in which case there is nothing to share.
+        //
+        DependencyEntry de = getDE(null, descriptor);
+        if (de == null || de.qfe != null) {
+            return null;
+        }
+        try {
+            buildDE(de, descriptor);
+        } catch (QuickFixException qfe) {
+            // something changed under us, start over.
+            return null;
+        }
+        COALESCED_COMPILE_WAIT.record(System.currentTimeMillis() - start);
+        Aura.getLoggingService().incrementNum(RequestCounter.COALESCED_COMPILE_COUNT);
+        return de;
+    }
+
+    /**
+     * Compile a dependency entry, once we know that nobody else is compiling it.
+     */
+    private <T extends Definition> DependencyEntry compileDEInFlight(@NonNull DefDescriptor<T> descriptor)
+            throws QuickFixException {
+        // See localDependencies comment
+        String key = makeLocalKey(descriptor);
 
         try {
             List<ClientLibraryDef> clientLibs = Lists.newArrayList();
@@ -867,11 +1280,11 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
             de = new DependencyEntry(uid, Collections.unmodifiableSet(deps), clientLibs);
             if (shouldCache(descriptor)) {
                 // put UID-qualified descriptor key for dependency
-                depsCache.put(makeGlobalKey(de.uid, descriptor), de);
+                cachingService.putDependencyEntry(makeGlobalKey(de.uid, descriptor), de);
 
                 // put unqualified descriptor key for dependency
                 if (cc.shouldCacheDependencies) {
-                    depsCache.put(makeNonUidGlobalKey(descriptor), de);
+                    cachingService.putDependencyEntry(makeNonUidGlobalKey(descriptor), de);
                 }
             }
             // See localDependencies comment
@@ -971,6 +1384,15 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
         currentCC.compiled.put(descriptor, compiling);
     }
 
+    /**
+     * Can we parse ahead of the current compile?
+     * 
+     * Local defs are not visible to the workers, so if we have any we compile serially.
+     */
+    private boolean canPrefetch() {
+        return parallelCompilePool != null && original == null && localDescs == null;
+    }
+
     /**
      * Build a DE 'in place' with no tree traversal.
      */
@@ -986,6 +1408,13 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
             for (DefDescriptor<?> dd : de.dependencies) {
                 validateHelper(dd);
             }
+            if (canPrefetch()) {
+                // we already know everything we need.
+                currentCC.prefetcher = new Prefetcher(currentCC.context);
+                for (DefDescriptor<?> dd : currentCC.compiled.keySet()) {
+                    currentCC.prefetcher.prefetch(dd);
+                }
+            }
             for (CompilingDef<?> compiling : currentCC.compiled.values()) {
                 if (compiling.def == null && !fillCompilingDef(compiling, currentCC.context)) {
                     throw new DefinitionNotFoundException(descriptor);
@@ -993,6 +1422,9 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
             }
             finishValidation();
         } finally {
+            if (currentCC.prefetcher != null) {
+                currentCC.prefetcher.cancel();
+            }
             currentCC = null;
         }
     }
@@ -1378,10 +1810,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
         }
         localDependencies.clear();
         if (shouldCache(descriptor)) {
-            depsCache.invalidateAll();
-            defsCache.invalidateAll();
-            existsCache.invalidateAll();
-            descriptorFilterCache.invalidateAll();
+            cachingService.invalidateSourceRelatedCaches(descriptor);
         }
         return false;
     }
@@ -1408,7 +1837,35 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
             DependencyEntry de = localDependencies.get(uid);
 
             if (de != null) {
-                stringsCache.put(getKey(de, descriptor, key), value);
+                cachingService.putDependentString(getKey(de, descriptor, key), de, value);
+            }
+        }
+    }
+
+    @Override
+    public ResourcePayload getCachedPayload(String uid, DefDescriptor<?> descriptor, String key) {
+        if (shouldCache(descriptor)) {
+            DependencyEntry de = localDependencies.get(uid);
+
+            if (de != null) {
+                return cachingService.getDependentPayload(getKey(de, descriptor, key), de);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean canCachePayload(String uid, DefDescriptor<?> descriptor) {
+        return shouldCache(descriptor) && localDependencies.get(uid) != null;
+    }
+
+    @Override
+    public void putCachedPayload(String uid, DefDescriptor<?> descriptor, String key, ResourcePayload payload) {
+        if (shouldCache(descriptor)) {
+            DependencyEntry de = localDependencies.get(uid);
+
+            if (de != null) {
+                cachingService.putDependentPayload(getKey(de, descriptor, key), de, payload);
             }
         }
     }
@@ -1517,6 +1974,9 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
      * Return true if the namespace supports cacheing
      */
     private boolean shouldCache(String prefix, String namespace) {
+        if (isolated) {
+            return false;
+        }
         boolean cacheable = false;
         if (namespace == null) {
             if (prefix == null) {
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+/**
+ * Splits qualified descriptor names into their parts without regular expressions.
+ *
+ * Tag names are {@code [prefix://][namespace:]name}, as for components and events. Class names are
+ * {@code [prefix://][namespace.]name[<parameters>]}, as for controllers, models and types, where the namespace is
+ * everything up to the last dot. Each parse accepts exactly the names that the patterns formerly used by
+ * {@link DefDescriptorImpl} matched, and splits them the same way.
+ */
+public final class QualifiedNameParser {
+    private static final String PREFIX_SEPARATOR = "://";
+
+    /**
+     * The parts of a qualified name.
+     */
+    public static final class ParsedName {
+        private final String prefix;
+        private final String namespace;
+        private final String name;
+        private final String parameters;
+
+        private ParsedName(String prefix, String namespace, String name, String parameters) {
+            this.prefix = prefix;
+            this.namespace = namespace;
+            this.name = name;
+            this.parameters = parameters;
+        }
+
+        /**
+         * @return the prefix, or null if there was none.
+         */
+        public String getPrefix() {
+            return prefix;
+        }
+
+        /**
+         * @return the namespace, or null if there was none. For a class name with no namespace this is empty.
+         */
+        public String getNamespace() {
+            return namespace;
+        }
+
+        /**
+         * @return the name, without any parameters.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the parameters of a class name, including the angle brackets, or null if there were none.
+         */
+        public String getParameters() {
+            return parameters;
+        }
+    }
+
+    private QualifiedNameParser() {
+    }
+
+    /**
+     * Parse a tag name, {@code [prefix://][namespace:]name}.
+     *
+     * @param qualifiedName the name to parse.
+     * @return the parts, or null if the name is not valid.
+     */
+    public static ParsedName parseTag(String qualifiedName) {
+        int start = 0;
+        String prefix = null;
+        int prefixEnd = qualifiedName.indexOf(PREFIX_SEPARATOR);
+        if (prefixEnd >= 0) {
+            if (!isPrefix(qualifiedName, 0, prefixEnd)) {
+                return null;
+            }
+            prefix = qualifiedName.substring(0, prefixEnd);
+            start = prefixEnd + PREFIX_SEPARATOR.length();
+        }
+        String namespace = null;
+        int colon = qualifiedName.indexOf(':', start);
+        if (colon >= 0) {
+            for (int i = start; i < colon; i++) {
+                char c = qualifiedName.charAt(i);
+                if (!isWordOrStar(c) && c != '-') {
+                    return null;
+                }
+            }
+            if (colon == start) {
+                return null;
+            }
+            namespace = qualifiedName.substring(start, colon);
+            start = colon + 1;
+        }
+        int end = qualifiedName.length();
+        if (start == end) {
+            return null;
+        }
+        for (int i = start; i < end; i++) {
+            char c = qualifiedName.charAt(i);
+            if (!isWordOrStar(c) && c != '$') {
+                return null;
+            }
+        }
+        return new ParsedName(prefix, namespace, qualifiedName.substring(start), null);
+    }
+
+    /**
+     * Parse a class name, {@code [prefix://][namespace.]name[<parameters>]}.
+     *
+     * @param qualifiedName the name to parse.
+     * @return the parts, or null if the name is not valid.
+     */
+    public static ParsedName parseClass(String qualifiedName) {
+        int start = 0;
+        String prefix = null;
+        int prefixEnd = qualifiedName.indexOf(PREFIX_SEPARATOR);
+        if (prefixEnd >= 0) {
+            if (!isPrefix(qualifiedName, 0, prefixEnd)) {
+                return null;
+            }
+            prefix = qualifiedName.substring(0, prefixEnd);
+            start = prefixEnd + PREFIX_SEPARATOR.length();
+        }
+
+        int end = qualifiedName.length();
+        String parameters = null;
+        int open = qualifiedName.indexOf('<', start);
+        if (open >= 0) {
+            // the parameters run to the end: <, then at least one of word characters . , ( < + > ), then >
+            if (end - open < 3 || qualifiedName.charAt(end - 1) != '>') {
+                return null;
+            }
+            for (int i = open + 1; i < end - 1; i++) {
+                char c = qualifiedName.charAt(i);
+                if (!isWord(c) && c != '.' && c != ',' && c != '(' && c != ')' && c != '<' && c != '>' && c != '+') {
+                    return null;
+                }
+            }
+            parameters = qualifiedName.substring(open);
+            end = open;
+        }
+
+        // the namespace is everything before the last dot, which is dropped
+        int dot = qualifiedName.lastIndexOf('.', end - 1);
+        String namespace;
+        int nameStart;
+        if (dot >= start) {
+            for (int i = start; i < dot; i++) {
+                char c = qualifiedName.charAt(i);
+                if (!isWordOrStar(c) && c != '.') {
+                    return null;
+                }
+            }
+            namespace = qualifiedName.substring(start, dot);
+            nameStart = dot + 1;
+        } else {
+            namespace = "";
+            nameStart = start;
+        }
+
+        // the name may end with [] for an array
+        int nameEnd = end;
+        if (nameEnd - nameStart >= 2 && qualifiedName.charAt(nameEnd - 2) == '['
+                && qualifiedName.charAt(nameEnd - 1) == ']') {
+            nameEnd -= 2;
+        }
+        for (int i = nameStart; i < nameEnd; i++) {
+            char c = qualifiedName.charAt(i);
+            if (!isWordOrStar(c) && c != ',' && c != '$') {
+                return null;
+            }
+        }
+        return new ParsedName(prefix, namespace, qualifiedName.substring(nameStart, end), parameters);
+    }
+
+    private static boolean isPrefix(String s, int start, int end) {
+        if (start == end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!isWordOrStar(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWord(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isWordOrStar(char c) {
+        return isWord(c) || c == '*';
+    }
+}
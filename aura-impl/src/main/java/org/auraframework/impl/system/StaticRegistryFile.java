@@ -0,0 +1,414 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.CRC32;
+
+import org.apache.log4j.Logger;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.Definition;
+import org.auraframework.system.SubDefDescriptor;
+import org.auraframework.system.DefRegistry;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * The file format for precompiled static registries.
+ *
+ * The file is a header and an index of every registry and descriptor, followed by each definition serialized on its
+ * own:
+ *
+ * <pre>
+ * int MAGIC, int VERSION, int length of the definitions, int CRC32 of the definitions, int registry count
+ * for each registry:
+ *     def types, prefixes and namespaces, each as an int count and that many strings
+ *     int definition count
+ *     for each definition: descriptor, int offset from the end of the index, int length
+ * the definitions
+ * </pre>
+ *
+ * A descriptor is a byte kind, then for a plain descriptor its qualified name, def type and optional bundle
+ * descriptor, or for a sub-definition its parent descriptor, name and def type.
+ *
+ * Only the index is read up front. The file can be memory mapped, and each definition is deserialized the first time
+ * it is asked for, so namespaces that are rarely used cost little at startup and in the heap. The whole file is still
+ * checked when it is read, so that a truncated or corrupt file is rejected at startup rather than failing a request. A
+ * definition that still can't be read (e.g. its class has changed) is logged and treated as missing. The descriptors
+ * in a definition are interned as it is read (see {@link DefDescriptorImpl#readResolve()}), so definitions share them
+ * even though each is serialized on its own.
+ */
+public final class StaticRegistryFile {
+    public static final int MAGIC = 0x41555241; // "AURA"
+    public static final int VERSION = 2;
+
+    private static final byte DESCRIPTOR = 0;
+    private static final byte SUB_DESCRIPTOR = 1;
+
+    private static final Logger logger = Logger.getLogger(StaticRegistryFile.class);
+
+    private StaticRegistryFile() {
+    }
+
+    /**
+     * Write registries.
+     *
+     * @param registries the registries to write.
+     * @param out where to write them, which is not closed.
+     */
+    public static void write(List<? extends StaticDefRegistryImpl<?>> registries, OutputStream out) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(index);
+
+        indexOut.writeInt(registries.size());
+        for (StaticDefRegistryImpl<?> registry : registries) {
+            writeStrings(indexOut, registry.getDefTypes());
+            writeStrings(indexOut, registry.getPrefixes());
+            writeStrings(indexOut, registry.getNamespaces());
+            indexOut.writeInt(registry.defs.size());
+            for (Map.Entry<? extends DefDescriptor<?>, ? extends Definition> entry : registry.defs.entrySet()) {
+                int offset = data.size();
+                ObjectOutputStream defOut = new ObjectOutputStream(data);
+                defOut.writeObject(entry.getValue());
+                defOut.close();
+                writeDescriptor(indexOut, entry.getKey());
+                indexOut.writeInt(offset);
+                indexOut.writeInt(data.size() - offset);
+            }
+        }
+        indexOut.flush();
+        byte[] dataBytes = data.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(dataBytes);
+        DataOutputStream headerOut = new DataOutputStream(out);
+        headerOut.writeInt(MAGIC);
+        headerOut.writeInt(VERSION);
+        headerOut.writeInt(dataBytes.length);
+        headerOut.writeInt((int) crc.getValue());
+        headerOut.flush();
+        index.writeTo(out);
+        out.write(dataBytes);
+        out.flush();
+    }
+
+    /**
+     * @return whether the buffer starts with a registries file in this format, of any version.
+     */
+    public static boolean isRegistryFile(ByteBuffer buffer) {
+        return buffer.remaining() >= 4 && buffer.getInt(buffer.position()) == MAGIC;
+    }
+
+    /**
+     * Read registries. Only the index is read, the definitions are read from the buffer as they are needed, so it
+     * must not be changed afterwards.
+     *
+     * @param buffer the file, from its current position.
+     * @return the registries.
+     * @throws IOException if the file is not in this format or version, or is corrupt.
+     */
+    public static List<DefRegistry<?>> read(ByteBuffer buffer) throws IOException {
+        ByteBuffer indexBuffer = buffer.duplicate();
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(indexBuffer));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a registries file");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported registries file version " + version);
+        }
+        int dataLength = in.readInt();
+        int dataCrc = in.readInt();
+        int count = readCount(in);
+        List<LazyDefs<Definition>> allDefs = Lists.newArrayListWithCapacity(count);
+        List<DefRegistry<?>> registries = Lists.newArrayListWithCapacity(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                Set<DefType> defTypes = Sets.newHashSet();
+                for (String defType : readStrings(in)) {
+                    defTypes.add(DefType.valueOf(defType));
+                }
+                Set<String> prefixes = Sets.newHashSet(readStrings(in));
+                Set<String> namespaces = Sets.newHashSet(readStrings(in));
+                int size = readCount(in);
+                LazyDefs<Definition> defs = new LazyDefs<>(size);
+                for (int j = 0; j < size; j++) {
+                    @SuppressWarnings("unchecked")
+                    DefDescriptor<Definition> descriptor = (DefDescriptor<Definition>) readDescriptor(in);
+                    int offset = in.readInt();
+                    int length = in.readInt();
+                    if (offset < 0 || length <= 0 || (long) offset + length > dataLength) {
+                        throw new IOException("Corrupt registries file, " + descriptor + " is outside the file");
+                    }
+                    defs.add(descriptor, offset, length);
+                }
+                allDefs.add(defs);
+                registries.add(new StaticDefRegistryImpl<>(defTypes, prefixes, namespaces, defs));
+            }
+        } catch (RuntimeException e) {
+            // a def type or descriptor that can't be.
+            throw new IOException("Corrupt registries file index", e);
+        }
+        ByteBuffer data = indexBuffer.slice();
+        if (data.remaining() != dataLength) {
+            throw new IOException(String.format("Corrupt registries file, %d bytes of definitions instead of %d",
+                    data.remaining(), dataLength));
+        }
+        if (computeCrc(data.duplicate()) != dataCrc) {
+            throw new IOException("Corrupt registries file, definitions do not match their checksum");
+        }
+        for (LazyDefs<Definition> defs : allDefs) {
+            defs.setData(data);
+        }
+        return registries;
+    }
+
+    private static int computeCrc(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[64 * 1024];
+        while (buffer.hasRemaining()) {
+            int n = Math.min(chunk.length, buffer.remaining());
+            buffer.get(chunk, 0, n);
+            crc.update(chunk, 0, n);
+        }
+        return (int) crc.getValue();
+    }
+
+    private static void writeStrings(DataOutputStream out, Set<?> values) throws IOException {
+        out.writeInt(values.size());
+        for (Object value : values) {
+            out.writeUTF(value.toString());
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = readCount(in);
+        List<String> values = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    /**
+     * Read a count, which can't be more than the bytes left, since every item takes at least one.
+     */
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > in.available()) {
+            throw new IOException("Corrupt registries file, bad count " + count);
+        }
+        return count;
+    }
+
+    private static void writeDescriptor(DataOutputStream out, DefDescriptor<?> descriptor) throws IOException {
+        if (descriptor instanceof SubDefDescriptor) {
+            out.writeByte(SUB_DESCRIPTOR);
+            writeDescriptor(out, ((SubDefDescriptor<?, ?>) descriptor).getParentDescriptor());
+            out.writeUTF(descriptor.getName());
+        } else {
+            out.writeByte(DESCRIPTOR);
+            out.writeUTF(descriptor.getQualifiedName());
+            out.writeBoolean(descriptor.getBundle() != null);
+            if (descriptor.getBundle() != null) {
+                writeDescriptor(out, descriptor.getBundle());
+            }
+        }
+        out.writeUTF(descriptor.getDefType().name());
+    }
+
+    private static DefDescriptor<?> readDescriptor(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        if (kind == SUB_DESCRIPTOR) {
+            DefDescriptor<?> parent = readDescriptor(in);
+            String name = in.readUTF();
+            DefType defType = DefType.valueOf(in.readUTF());
+            return SubDefDescriptorImpl.getInstance(name, parent, defType.getPrimaryInterface());
+        } else if (kind == DESCRIPTOR) {
+            String qualifiedName = in.readUTF();
+            DefDescriptor<?> bundle = in.readBoolean() ? readDescriptor(in) : null;
+            DefType defType = DefType.valueOf(in.readUTF());
+            return DefDescriptorImpl.getInstance(qualifiedName, defType.getPrimaryInterface(), bundle);
+        }
+        throw new IOException("Unknown descriptor kind " + kind);
+    }
+
+    /**
+     * The definitions of a registry, deserialized from the file on first use.
+     */
+    private static class LazyDefs<T extends Definition> extends AbstractMap<DefDescriptor<T>, T> {
+        /** Kept for a definition that could not be read, so that it is only tried (and logged) once */
+        private static final Object UNREADABLE = new Object();
+
+        private final Map<DefDescriptor<T>, Integer> index;
+        private final int[] offsets;
+        private final int[] lengths;
+        private final AtomicReferenceArray<Object> defs;
+        private ByteBuffer data;
+
+        private LazyDefs(int size) {
+            this.index = Maps.newHashMapWithExpectedSize(size);
+            this.offsets = new int[size];
+            this.lengths = new int[size];
+            this.defs = new AtomicReferenceArray<>(size);
+        }
+
+        private void add(DefDescriptor<T> descriptor, int offset, int length) {
+            int i = index.size();
+            index.put(descriptor, i);
+            offsets[i] = offset;
+            lengths[i] = length;
+        }
+
+        private void setData(ByteBuffer data) {
+            this.data = data;
+        }
+
+        @Override
+        public T get(Object key) {
+            Integer i = index.get(key);
+            if (i == null) {
+                return null;
+            }
+            Object def = defs.get(i);
+            if (def == null) {
+                defs.compareAndSet(i, null, readDef(key, i));
+                def = defs.get(i);
+            }
+            if (def == UNREADABLE) {
+                return null;
+            }
+            @SuppressWarnings("unchecked")
+            T result = (T) def;
+            return result;
+        }
+
+        /**
+         * @return the definition, or UNREADABLE if it could not be deserialized.
+         */
+        private Object readDef(Object key, int i) {
+            ByteBuffer buffer = data.duplicate();
+            buffer.position(offsets[i]);
+            buffer.limit(offsets[i] + lengths[i]);
+            try (ObjectInputStream in = new ObjectInputStream(new ByteBufferInputStream(buffer))) {
+                return in.readObject();
+            } catch (Exception e) {
+                logger.error("Unable to read " + key + " from registries file, treating it as missing", e);
+                return UNREADABLE;
+            }
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return index.containsKey(key);
+        }
+
+        @Override
+        public Set<DefDescriptor<T>> keySet() {
+            return Collections.unmodifiableSet(index.keySet());
+        }
+
+        @Override
+        public int size() {
+            return index.size();
+        }
+
+        @Override
+        public Set<Map.Entry<DefDescriptor<T>, T>> entrySet() {
+            return new AbstractSet<Map.Entry<DefDescriptor<T>, T>>() {
+                @Override
+                public Iterator<Map.Entry<DefDescriptor<T>, T>> iterator() {
+                    final Iterator<DefDescriptor<T>> keys = index.keySet().iterator();
+                    return new Iterator<Map.Entry<DefDescriptor<T>, T>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return keys.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<DefDescriptor<T>, T> next() {
+                            DefDescriptor<T> key = keys.next();
+                            return new SimpleImmutableEntry<>(key, get(key));
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return index.size();
+                }
+            };
+        }
+    }
+
+    /**
+     * Reads the remaining bytes of a buffer.
+     */
+    public static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        public ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
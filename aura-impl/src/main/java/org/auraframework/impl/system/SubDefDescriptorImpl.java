@@ -23,6 +23,8 @@ import org.auraframework.Aura;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.Definition;
 import org.auraframework.service.LoggingService;
+import org.auraframework.system.RequestCounter;
+import org.auraframework.system.RequestTimer;
 import org.auraframework.system.SubDefDescriptor;
 import org.auraframework.throwable.AuraError;
 import org.auraframework.throwable.AuraRuntimeException;
@@ -55,7 +57,7 @@ public class SubDefDescriptorImpl<T extends Definition, P extends Definition> im
             throw new AuraRuntimeException("Sub definition name cannot be null");
         }
         LoggingService loggingService = Aura.getLoggingService();
-        loggingService.startTimer(LoggingService.TIMER_DEF_DESCRIPTOR_CREATION);
+        loggingService.startTimer(RequestTimer.DEF_DESCRIPTOR_CREATION);
         try {
             this.parentDescriptor = parentDescriptor;
             this.name = subName;
@@ -66,9 +68,9 @@ public class SubDefDescriptorImpl<T extends Definition, P extends Definition> im
                     name);
             this.hashCode = this.qualifiedName.toLowerCase().hashCode();
         } finally {
-            loggingService.stopTimer(LoggingService.TIMER_DEF_DESCRIPTOR_CREATION);
+            loggingService.stopTimer(RequestTimer.DEF_DESCRIPTOR_CREATION);
         }
-        loggingService.incrementNum(LoggingService.DEF_DESCRIPTOR_COUNT);
+        loggingService.incrementNum(RequestCounter.DEF_DESCRIPTOR_COUNT);
     }
 
     @Override
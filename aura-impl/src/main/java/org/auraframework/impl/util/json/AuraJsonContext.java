@@ -17,7 +17,6 @@ package org.auraframework.impl.util.json;
 
 import java.util.Collection;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import org.auraframework.adapter.JsonSerializerAdapter;
@@ -28,6 +27,7 @@ import org.auraframework.util.json.JsonSerializable;
 import org.auraframework.util.json.JsonSerializer;
 import org.auraframework.util.json.JsonSerializers;
 
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
 
@@ -36,7 +36,9 @@ import com.google.common.collect.ImmutableMap.Builder;
  */
 public class AuraJsonContext extends ClassMapJsonSerializationContext {
     private static final Map<String, JsonSerializer<?>> mappyFasty;
-    private static final ConcurrentMap<String, JsonSerializer<?>> cache = new ConcurrentHashMap<String, JsonSerializer<?>>();
+    /** Held by weak keys, so that the classes of a discarded class loader can still be collected */
+    private static final ConcurrentMap<Class<?>, JsonSerializer<?>> cache = CacheBuilder.newBuilder().weakKeys()
+            .<Class<?>, JsonSerializer<?>> build().asMap();
     private static final Map<Class<?>, JsonSerializer<?>> mappySlowly;
 
     static {
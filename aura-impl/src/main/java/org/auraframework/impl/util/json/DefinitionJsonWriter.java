@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.util.json;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import org.auraframework.Aura;
+import org.auraframework.cache.Cache;
+import org.auraframework.css.ThemeList;
+import org.auraframework.def.BaseComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.Definition;
+import org.auraframework.def.EventDef;
+import org.auraframework.def.LibraryDef;
+import org.auraframework.def.StyleDef;
+import org.auraframework.system.AuraContext;
+import org.auraframework.throwable.AuraUnhandledException;
+import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.json.Json;
+
+/**
+ * Writes component, event and library definitions for the client, reusing the JSON written for a definition the last
+ * time it was sent in the same circumstances.
+ *
+ * The JSON of each definition is written on its own, without reference ids, so that it can be copied into any
+ * output. A definition nested in several others (e.g. a super component that the client does not have) is written in
+ * full each time rather than by reference, which the client handles as it only registers a definition once.
+ */
+public final class DefinitionJsonWriter {
+
+    private DefinitionJsonWriter() {
+    }
+
+    /**
+     * Write the definitions as a JSON array.
+     *
+     * @param json the output.
+     * @param defs the definitions to write.
+     * @throws IOException if the output fails.
+     */
+    public static void writeArray(Json json, Collection<? extends Definition> defs) throws IOException {
+        AuraContext context = Aura.getContextService().getCurrentContext();
+        Cache<String, String> cache = Aura.getCachingService().getDefinitionJsonCache();
+        boolean keep = !json.getSerializationContext().format();
+        String styleState = keep && !context.isPreloading() ? getStyleState(context) : null;
+        json.writeArrayBegin();
+        for (Definition def : defs) {
+            String key = keep ? getKey(context, def, styleState) : null;
+            if (key == null) {
+                json.writeArrayEntry(def);
+            } else {
+                String fragment = cache.getIfPresent(key);
+                if (fragment == null) {
+                    fragment = Json.serialize(def, AuraJsonContext.createContext(context.getMode(), false));
+                    cache.put(key, fragment);
+                }
+                json.writeComma();
+                json.writeIndent();
+                json.writeLiteral(fragment);
+            }
+        }
+        json.writeArrayEnd();
+    }
+
+    /**
+     * Build the key for the JSON of a definition, from everything on the context that it depends on.
+     *
+     * @param styleState the state that style code depends on, from {@link #getStyleState(AuraContext)}.
+     * @return the key, or null if the JSON should not be kept.
+     */
+    static String getKey(AuraContext context, Definition def, String styleState) {
+        DefDescriptor<?> descriptor = def.getDescriptor();
+        String ownHash = def.getOwnHash();
+        if (ownHash == null || context.isPreloaded(descriptor)
+                || !(def instanceof BaseComponentDef || def instanceof EventDef || def instanceof LibraryDef)) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(128);
+        key.append(descriptor.getDefType()).append('@').append(descriptor.getQualifiedName());
+        key.append('@').append(ownHash);
+        key.append('@').append(context.getMode());
+        if (context.isPreloading()) {
+            // nothing is left out for being preloaded, and styles are sent separately
+            key.append("@preloading");
+        } else if (def instanceof BaseComponentDef) {
+            key.append('@').append(styleState).append('@');
+            try {
+                appendPreloaded(key, context, (BaseComponentDef) def);
+            } catch (QuickFixException qfe) {
+                throw new AuraUnhandledException("unhandled exception", qfe);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Build the part of the key for the style code that components include when not preloading, which depends on the
+     * client, the context path and the themes.
+     */
+    static String getStyleState(AuraContext context) {
+        ThemeList themes = context.getThemeList();
+        StringBuilder state = new StringBuilder(64);
+        state.append(context.getClient().getType());
+        state.append('@').append(context.getContextPath());
+        state.append('@').append(themes.getThemeDescriptorsUid().or(""));
+        state.append('@').append(themes.getActiveDynamicVarsUid().or(""));
+        return state.toString();
+    }
+
+    /**
+     * Mark which of the styles and super components that a component writes are preloaded, as those are written
+     * without their code (see BaseComponentDefImpl and StyleDefImpl).
+     */
+    private static void appendPreloaded(StringBuilder key, AuraContext context, BaseComponentDef def)
+            throws QuickFixException {
+        BaseComponentDef current = def;
+        while (current != null) {
+            DefDescriptor<StyleDef> style = current.getStyleDescriptor();
+            key.append(style != null && context.isPreloaded(style) ? 'p' : 's');
+            DefDescriptor<? extends BaseComponentDef> superDescriptor = current.getExtendsDescriptor();
+            if (superDescriptor == null) {
+                current = null;
+            } else if (context.isPreloaded(superDescriptor)) {
+                key.append('P');
+                current = null;
+            } else {
+                key.append('S');
+                current = superDescriptor.getDef();
+            }
+        }
+    }
+}
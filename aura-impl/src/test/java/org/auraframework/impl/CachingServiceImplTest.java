@@ -31,15 +31,22 @@ import org.apache.log4j.WriterAppender;
 import org.apache.log4j.spi.LoggingEvent;
 import org.auraframework.cache.Cache;
 import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.ClientLibraryDef;
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.Definition;
+import org.auraframework.def.DescriptorFilter;
 import org.auraframework.def.HelperDef;
 import org.auraframework.def.StyleDef;
+import org.auraframework.impl.cache.CacheImpl;
+import org.auraframework.impl.cache.FrequencyCacheAdapterImpl;
+import org.auraframework.impl.cache.FrequencyCacheImpl;
 import org.auraframework.impl.system.DefDescriptorImpl;
 import org.auraframework.service.CachingService;
 import org.auraframework.system.DependencyEntry;
+import org.auraframework.system.ResourcePayload;
+import org.auraframework.system.SourceChange;
 import org.auraframework.system.SourceListener;
 import org.auraframework.system.SourceListener.SourceMonitorEvent;
 import org.mockito.Mockito;
@@ -118,6 +125,31 @@ public class CachingServiceImplTest extends AuraImplTestCase {
 		}
 	}
 
+	public void testGetCacheBuilder_UsesProviderConfiguredForName() {
+		String property = "aura.cache.stringsCacheProvider";
+		System.setProperty(property, FrequencyCacheAdapterImpl.PROVIDER_NAME);
+		try {
+			CachingServiceImpl service = new CachingServiceImpl();
+			assertTrue("Configured cache should use the named provider",
+					service.getStringsCache() instanceof FrequencyCacheImpl);
+			assertTrue("Other caches should use the default provider",
+					service.getDefsCache() instanceof CacheImpl);
+		} finally {
+			System.clearProperty(property);
+		}
+	}
+
+	public void testGetCacheBuilder_UnknownProviderUsesDefault() {
+		String property = "aura.cache.stringsCacheProvider";
+		System.setProperty(property, "noSuchProvider");
+		try {
+			CachingServiceImpl service = new CachingServiceImpl();
+			assertTrue(service.getStringsCache() instanceof CacheImpl);
+		} finally {
+			System.clearProperty(property);
+		}
+	}
+
 	public void testNotifyDependentSourceChange_NotifiesListeners() {
 		DefDescriptor<?> source = DefDescriptorImpl.getInstance(
 				getAuraTestingUtil().getNonce("some:descriptor"),
@@ -362,4 +394,177 @@ public class CachingServiceImplTest extends AuraImplTestCase {
 					}
 				}, keys);
 	}
+
+	private DependencyEntry createDependencyEntry(DefDescriptor<?>... dependencies) {
+		Set<DefDescriptor<? extends Definition>> deps = Sets.newHashSet();
+		Collections.addAll(deps, dependencies);
+		return new DependencyEntry(getAuraTestingUtil().getNonce("uid"),
+				deps, Collections.<ClientLibraryDef> emptyList());
+	}
+
+	public void testNotifyDependentSourceChange_InvalidatesOnlyDependentDependencies() {
+		DefDescriptor<?> source = DefDescriptorImpl.getInstance(
+				getAuraTestingUtil().getNonce("markup://some:source"),
+				ComponentDef.class);
+		DefDescriptor<?> other = DefDescriptorImpl.getInstance(
+				getAuraTestingUtil().getNonce("markup://some:other"),
+				ComponentDef.class);
+
+		CachingServiceImpl service = new CachingServiceImpl();
+		service.putDependencyEntry("dependent", createDependencyEntry(source, other));
+		service.putDependencyEntry("independent", createDependencyEntry(other));
+
+		service.notifyDependentSourceChange(
+				Collections.<WeakReference<SourceListener>> emptySet(), source,
+				SourceMonitorEvent.CHANGED, null);
+
+		assertNull(service.getDepsCache().getIfPresent("dependent"));
+		assertNotNull(service.getDepsCache().getIfPresent("independent"));
+	}
+
+	public void testNotifyDependentSourceChange_InvalidatesOnlyDependentStrings() {
+		DefDescriptor<?> source = DefDescriptorImpl.getInstance(
+				getAuraTestingUtil().getNonce("js://some.source"),
+				HelperDef.class);
+		DefDescriptor<?> other = DefDescriptorImpl.getInstance(
+				getAuraTestingUtil().getNonce("markup://some:other"),
+				ComponentDef.class);
+
+		CachingServiceImpl service = new CachingServiceImpl();
+		service.putDependentString("dependent", createDependencyEntry(source, other), "value");
+		service.putDependentString("independent", createDependencyEntry(other), "value");
+
+		service.notifyDependentSourceChange(
+				Collections.<WeakReference<SourceListener>> emptySet(), source,
+				SourceMonitorEvent.CHANGED, null);
+
+		assertNull(service.getStringsCache().getIfPresent("dependent"));
+		assertEquals("value", service.getStringsCache().getIfPresent("independent"));
+	}
+
+	public void testNotifyDependentSourceChange_InvalidatesOnlyDependentPayloads() {
+		DefDescriptor<?> source = DefDescriptorImpl.getInstance(
+				getAuraTestingUtil().getNonce("js://some.source"),
+				HelperDef.class);
+		DefDescriptor<?> other = DefDescriptorImpl.getInstance(
+				getAuraTestingUtil().getNonce("markup://some:other"),
+				ComponentDef.class);
+
+		CachingServiceImpl service = new CachingServiceImpl();
+		ResourcePayload payload = ResourcePayload.encode("value");
+		service.putDependentPayload("dependent", createDependencyEntry(source, other), payload);
+		service.putDependentPayload("independent", createDependencyEntry(other), payload);
+
+		service.notifyDependentSourceChange(
+				Collections.<WeakReference<SourceListener>> emptySet(), source,
+				SourceMonitorEvent.CHANGED, null);
+
+		assertNull(service.getResourcePayloadCache().getIfPresent("dependent"));
+		assertSame(payload, service.getResourcePayloadCache().getIfPresent("independent"));
+	}
+
+	public void testNotifyDependentSourceChanges_InvalidatesDefinitionJsonForBatch() {
+		DefDescriptor<?> source = DefDescriptorImpl.getInstance(
+				getAuraTestingUtil().getNonce("markup://some:source"),
+				ComponentDef.class);
+		DefDescriptor<?> other = DefDescriptorImpl.getInstance(
+				getAuraTestingUtil().getNonce("markup://some:other"),
+				ComponentDef.class);
+		DefDescriptor<?> independent = DefDescriptorImpl.getInstance(
+				getAuraTestingUtil().getNonce("markup://some:independent"),
+				ComponentDef.class);
+
+		CachingServiceImpl service = new CachingServiceImpl();
+		service.getDefinitionJsonCache().put("json", "{}");
+		service.putDependencyEntry("independent", createDependencyEntry(independent));
+
+		service.notifyDependentSourceChanges(
+				Collections.<WeakReference<SourceListener>> emptySet(),
+				Lists.newArrayList(
+						new SourceChange(source, SourceMonitorEvent.CHANGED, null),
+						new SourceChange(other, SourceMonitorEvent.CHANGED, null)));
+
+		assertNull(service.getDefinitionJsonCache().getIfPresent("json"));
+		assertNotNull(service.getDepsCache().getIfPresent("independent"));
+	}
+
+	/**
+	 * A new file in a bundle is not a dependency of anything yet, but the
+	 * bundle's markup is.
+	 */
+	public void testNotifyDependentSourceChange_InvalidatesDependenciesOfBundleMarkup() {
+		DefDescriptor<?> cmp = DefDescriptorImpl.getInstance(
+				getAuraTestingUtil().getNonce("markup://some:bundle"),
+				ComponentDef.class);
+		DefDescriptor<?> source = DefDescriptorImpl.getAssociateDescriptor(cmp,
+				StyleDef.class, DefDescriptor.CSS_PREFIX);
+
+		CachingServiceImpl service = new CachingServiceImpl();
+		service.putDependencyEntry("dependent", createDependencyEntry(cmp));
+
+		service.notifyDependentSourceChange(
+				Collections.<WeakReference<SourceListener>> emptySet(), source,
+				SourceMonitorEvent.CREATED, null);
+
+		assertNull(service.getDepsCache().getIfPresent("dependent"));
+	}
+
+	public void testNotifyDependentSourceChange_InvalidatesOnlyMatchingDescriptorFilters() {
+		DefDescriptor<?> source = DefDescriptorImpl.getInstance(
+				"markup://matchingns:source", ComponentDef.class);
+		Set<DefDescriptor<?>> results = Collections.emptySet();
+
+		CachingServiceImpl service = new CachingServiceImpl();
+		service.putDescriptorFilterResults("matching",
+				new DescriptorFilter("markup://matchingns:*", "COMPONENT"), results);
+		service.putDescriptorFilterResults("otherNamespace",
+				new DescriptorFilter("markup://otherns:*", "COMPONENT"), results);
+		service.putDescriptorFilterResults("otherType",
+				new DescriptorFilter("markup://matchingns:*", "APPLICATION"), results);
+
+		service.notifyDependentSourceChange(
+				Collections.<WeakReference<SourceListener>> emptySet(), source,
+				SourceMonitorEvent.CREATED, null);
+
+		assertNull(service.getDescriptorFilterCache().getIfPresent("matching"));
+		assertNotNull(service.getDescriptorFilterCache().getIfPresent("otherNamespace"));
+		assertNotNull(service.getDescriptorFilterCache().getIfPresent("otherType"));
+	}
+
+	public void testInvalidateSourceRelatedCaches_WaitsForWriteLock() throws Exception {
+		final CachingServiceImpl service = new CachingServiceImpl();
+		service.putDependencyEntry("dependent", createDependencyEntry());
+		Lock lock = service.getReadLock();
+		Thread invalidator = new Thread() {
+			@Override
+			public void run() {
+				service.invalidateSourceRelatedCaches(null);
+			}
+		};
+		lock.lock();
+		try {
+			invalidator.start();
+			invalidator.join(200);
+			assertTrue("Invalidation should wait for the read lock to be released", invalidator.isAlive());
+			assertNotNull(service.getDepsCache().getIfPresent("dependent"));
+		} finally {
+			lock.unlock();
+		}
+		invalidator.join(10000);
+		assertFalse(invalidator.isAlive());
+		assertNull(service.getDepsCache().getIfPresent("dependent"));
+	}
+
+	public void testInvalidateSourceRelatedCaches_FailsUnderReadLock() {
+		CachingServiceImpl service = new CachingServiceImpl();
+		Lock lock = service.getReadLock();
+		lock.lock();
+		try {
+			service.invalidateSourceRelatedCaches(null);
+			fail("Expected an IllegalStateException when invalidating under the read lock");
+		} catch (IllegalStateException expected) {
+		} finally {
+			lock.unlock();
+		}
+	}
 }
@@ -24,6 +24,7 @@ import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.Definition;
 import org.auraframework.def.DescriptorFilter;
 import org.auraframework.system.MasterDefRegistry;
+import org.auraframework.system.ResourcePayload;
 import org.auraframework.system.Source;
 import org.auraframework.throwable.ClientOutOfSyncException;
 import org.auraframework.throwable.quickfix.QuickFixException;
@@ -125,6 +126,20 @@ public class FakeRegistry implements MasterDefRegistry {
     public void putCachedString(String uid, DefDescriptor<?> descriptor, String key, String value) {
     }
 
+    @Override
+    public ResourcePayload getCachedPayload(String uid, DefDescriptor<?> descriptor, String key) {
+        return null;
+    }
+
+    @Override
+    public boolean canCachePayload(String uid, DefDescriptor<?> descriptor) {
+        return false;
+    }
+
+    @Override
+    public void putCachedPayload(String uid, DefDescriptor<?> descriptor, String key, ResourcePayload payload) {
+    }
+
     @Override
     public List<ClientLibraryDef> getClientLibraries(String uid) {
         return null;
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.adapter.format.html;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.auraframework.Aura;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.impl.AuraImplTestCase;
+import org.auraframework.instance.Component;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+public class TemplateShellTest extends AuraImplTestCase {
+
+    private static final Set<String> SLOTS = ImmutableSet.of("manifest", "styles", "init");
+
+    public TemplateShellTest(String name) {
+        super(name, false);
+    }
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        Aura.getContextService().startContext(Mode.PROD, Format.HTML, Authentication.AUTHENTICATED);
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        Aura.getContextService().endContext();
+        super.tearDown();
+    }
+
+    private ComponentDef createTemplate() throws Exception {
+        return addSourceAutoCleanup(ComponentDef.class,
+                "<aura:component isTemplate='true'>"
+                        + "<aura:attribute name='manifest' type='String'/>"
+                        + "<aura:attribute name='styles' type='String'/>"
+                        + "<aura:attribute name='init' type='String'/>"
+                        + "<aura:attribute name='title' type='String'/>"
+                        + "<html manifest='{!v.manifest}'><head><title>{!v.title}</title>{!v.styles}</head>"
+                        + "<body><script>init({!v.init});</script><script>again({!v.init});</script></body></html>"
+                        + "</aura:component>").getDef();
+    }
+
+    private ComponentDef createTemplateWith(String nestedAttributes) throws Exception {
+        DefDescriptor<ComponentDef> nested = addSourceAutoCleanup(ComponentDef.class,
+                String.format("<aura:component %s>nested</aura:component>", nestedAttributes));
+        return addSourceAutoCleanup(ComponentDef.class,
+                String.format("<aura:component isTemplate='true'>"
+                        + "<aura:attribute name='manifest' type='String'/>"
+                        + "<aura:attribute name='styles' type='String'/>"
+                        + "<aura:attribute name='init' type='String'/>"
+                        + "<aura:attribute name='title' type='String'/>"
+                        + "<html><head>{!v.styles}</head><body><%s/></body></html>"
+                        + "</aura:component>", nested.getDescriptorName())).getDef();
+    }
+
+    private Map<String, Object> attributes(String manifest, String styles, String init) {
+        Map<String, Object> attributes = Maps.newHashMap();
+        attributes.put("manifest", manifest);
+        attributes.put("styles", styles);
+        attributes.put("init", init);
+        attributes.put("title", "Shell");
+        return attributes;
+    }
+
+    private String render(ComponentDef templateDef, Map<String, Object> attributes) throws Exception {
+        Component template = Aura.getInstanceService().getInstance(templateDef.getDescriptor(), attributes);
+        StringBuilder out = new StringBuilder();
+        Aura.getRenderingService().render(template, out);
+        return out.toString();
+    }
+
+    private String renderFromShell(ComponentDef templateDef, Map<String, Object> attributes) throws Exception {
+        StringBuilder out = new StringBuilder();
+        TemplateShell.render(templateDef, templateDef, attributes, SLOTS, out);
+        return out.toString();
+    }
+
+    public void testWriteMatchesRender() throws Exception {
+        ComponentDef templateDef = createTemplate();
+        Map<String, Object> first = attributes("/l/first/app.manifest", "<link href='a.css'/>", "{\"token\":\"a\"}");
+        Map<String, Object> second = attributes("/l/second/app.manifest", "<link href='b.css'/>", "{\"token\":\"b\"}");
+
+        TemplateShell shell = TemplateShell.compile(templateDef.getDescriptor(), first, SLOTS);
+        StringBuilder out = new StringBuilder();
+        shell.write(second, out);
+        assertEquals(render(templateDef, second), out.toString());
+    }
+
+    public void testRenderReusesShell() throws Exception {
+        ComponentDef templateDef = createTemplate();
+        Map<String, Object> first = attributes("/l/first/app.manifest", "<link href='a.css'/>", "{\"token\":\"a\"}");
+        Map<String, Object> second = attributes("/l/second/app.manifest", "<link href='b.css'/>", "{\"token\":\"b\"}");
+
+        assertEquals(TemplateShell.getKey(templateDef, templateDef, first, SLOTS),
+                TemplateShell.getKey(templateDef, templateDef, second, SLOTS));
+        assertEquals(render(templateDef, first), renderFromShell(templateDef, first));
+        assertEquals(render(templateDef, second), renderFromShell(templateDef, second));
+    }
+
+    public void testUnsetSlotIsLeftOut() throws Exception {
+        ComponentDef templateDef = createTemplate();
+        Map<String, Object> withManifest = attributes("/l/app.manifest", "<link/>", "{}");
+        Map<String, Object> withoutManifest = attributes(null, "<link/>", "{}");
+
+        assertFalse(TemplateShell.getKey(templateDef, templateDef, withManifest, SLOTS).equals(
+                TemplateShell.getKey(templateDef, templateDef, withoutManifest, SLOTS)));
+        String page = renderFromShell(templateDef, withoutManifest);
+        assertEquals(render(templateDef, withoutManifest), page);
+        assertFalse(page.contains("manifest="));
+    }
+
+    public void testKeyHoldsOtherAttributes() throws Exception {
+        ComponentDef templateDef = createTemplate();
+        Map<String, Object> attributes = attributes("/l/app.manifest", "<link/>", "{}");
+        String key = TemplateShell.getKey(templateDef, templateDef, attributes, SLOTS);
+
+        attributes.put("title", "Other");
+        assertFalse(key.equals(TemplateShell.getKey(templateDef, templateDef, attributes, SLOTS)));
+        assertEquals(render(templateDef, attributes), renderFromShell(templateDef, attributes));
+    }
+
+    public void testNoKeyForFrameworkUrl() throws Exception {
+        ComponentDef templateDef = createTemplate();
+        Map<String, Object> attributes = attributes("/auraFW/app.manifest", "<link/>", "{}");
+
+        assertNull(TemplateShell.getKey(templateDef, templateDef, attributes, SLOTS));
+    }
+
+    public void testNoKeyForNonStringAttribute() throws Exception {
+        ComponentDef templateDef = createTemplate();
+        Map<String, Object> attributes = attributes("/l/app.manifest", "<link/>", "{}");
+        attributes.put("body", ImmutableSet.of());
+
+        assertNull(TemplateShell.getKey(templateDef, templateDef, attributes, SLOTS));
+    }
+
+    public void testKeyForNestedPlainComponent() throws Exception {
+        ComponentDef templateDef = createTemplateWith("");
+        Map<String, Object> attributes = attributes("/l/app.manifest", "<link/>", "{}");
+
+        assertNotNull(TemplateShell.getKey(templateDef, templateDef, attributes, SLOTS));
+    }
+
+    public void testNoKeyForNestedModel() throws Exception {
+        ComponentDef templateDef = createTemplateWith("model='java://org.auraframework.impl.java.model.TestModel'");
+        Map<String, Object> attributes = attributes("/l/app.manifest", "<link/>", "{}");
+
+        assertNull(TemplateShell.getKey(templateDef, templateDef, attributes, SLOTS));
+    }
+
+    public void testNoKeyForNestedServerRenderer() throws Exception {
+        ComponentDef templateDef = createTemplateWith(
+                "renderer='java://org.auraframework.impl.renderer.sampleJavaRenderers.TestSimpleRenderer'");
+        Map<String, Object> attributes = attributes("/l/app.manifest", "<link/>", "{}");
+
+        assertNull(TemplateShell.getKey(templateDef, templateDef, attributes, SLOTS));
+    }
+}
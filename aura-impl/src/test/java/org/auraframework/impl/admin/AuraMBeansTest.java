@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.admin;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.auraframework.test.UnitTestCase;
+
+public class AuraMBeansTest extends UnitTestCase {
+
+    public void testRegisterIsListed() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        String name = getName() + ":" + System.nanoTime();
+        ObjectName objectName = AuraMBeans.getObjectName("stats", name);
+        try {
+            assertTrue(AuraMBeans.register("stats", name, new ValueStats()));
+            assertTrue(server.queryNames(AuraMBeans.getQuery(), null).contains(objectName));
+            assertEquals(name, ObjectName.unquote(objectName.getKeyProperty("name")));
+            assertEquals(0L, server.getAttribute(objectName, "Count"));
+        } finally {
+            server.unregisterMBean(objectName);
+        }
+    }
+
+    public void testRegisterTwiceFails() throws Exception {
+        String name = getName() + ":" + System.nanoTime();
+        try {
+            assertTrue(AuraMBeans.register("stats", name, new ValueStats()));
+            assertFalse(AuraMBeans.register("stats", name, new ValueStats()));
+        } finally {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(AuraMBeans.getObjectName("stats", name));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DescriptorKey;
+import org.auraframework.def.Definition;
+import org.auraframework.test.UnitTestCase;
+import org.mockito.Mockito;
+
+import com.google.common.collect.ImmutableSet;
+
+public class DescriptorInternCacheTest extends UnitTestCase {
+
+    private static DescriptorInternCache buildCache(int frameworkLimit) {
+        return new DescriptorInternCache("test", frameworkLimit) {
+            @Override
+            protected boolean isFrameworkNamespace(String namespace) {
+                return "aura".equals(namespace);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DefDescriptor<? extends Definition> descriptor(String namespace) {
+        DefDescriptor<ComponentDef> descriptor = Mockito.mock(DefDescriptor.class);
+        Mockito.when(descriptor.getNamespace()).thenReturn(namespace);
+        return descriptor;
+    }
+
+    private static DescriptorKey key(String name) {
+        return new DescriptorKey(name, ComponentDef.class);
+    }
+
+    public void testFrameworkDescriptorKept() {
+        DescriptorInternCache cache = buildCache(10);
+        DefDescriptor<? extends Definition> text = descriptor("aura");
+        cache.put(key("aura:text"), text);
+        assertSame(text, cache.getIfPresent(key("aura:text")));
+        assertEquals(1, cache.getFrameworkSize());
+    }
+
+    public void testOtherDescriptorInterned() {
+        DescriptorInternCache cache = buildCache(10);
+        DefDescriptor<? extends Definition> cmp = descriptor("test");
+        cache.put(key("test:cmp"), cmp);
+        assertSame(cmp, cache.getIfPresent(key("test:cmp")));
+        assertEquals(0, cache.getFrameworkSize());
+    }
+
+    public void testFrameworkLimit() {
+        DescriptorInternCache cache = buildCache(1);
+        DefDescriptor<? extends Definition> text = descriptor("aura");
+        DefDescriptor<? extends Definition> html = descriptor("aura");
+        cache.put(key("aura:text"), text);
+        cache.put(key("aura:html"), html);
+        assertEquals(1, cache.getFrameworkSize());
+        assertSame(text, cache.getIfPresent(key("aura:text")));
+        assertSame(html, cache.getIfPresent(key("aura:html")));
+    }
+
+    public void testPutReplacesAcrossTables() {
+        DescriptorInternCache cache = buildCache(10);
+        DefDescriptor<? extends Definition> framework = descriptor("aura");
+        DefDescriptor<? extends Definition> other = descriptor("test");
+        cache.put(key("cmp"), framework);
+        cache.put(key("cmp"), other);
+        assertSame(other, cache.getIfPresent(key("cmp")));
+        assertEquals(0, cache.getFrameworkSize());
+    }
+
+    public void testGetKeySet() {
+        DescriptorInternCache cache = buildCache(10);
+        DefDescriptor<? extends Definition> text = descriptor("aura");
+        DefDescriptor<? extends Definition> cmp = descriptor("test");
+        cache.put(key("aura:text"), text);
+        cache.put(key("test:cmp"), cmp);
+        assertEquals(ImmutableSet.of(key("aura:text"), key("test:cmp")), cache.getKeySet());
+    }
+
+    public void testInvalidate() {
+        DescriptorInternCache cache = buildCache(10);
+        DefDescriptor<? extends Definition> text = descriptor("aura");
+        DefDescriptor<? extends Definition> cmp = descriptor("test");
+        cache.put(key("aura:text"), text);
+        cache.put(key("test:cmp"), cmp);
+        cache.invalidate(key("aura:text"));
+        assertNull(cache.getIfPresent(key("aura:text")));
+        assertSame(cmp, cache.getIfPresent(key("test:cmp")));
+        cache.invalidateAll();
+        assertNull(cache.getIfPresent(key("test:cmp")));
+        assertTrue(cache.getKeySet().isEmpty());
+    }
+
+    public void testStats() {
+        DescriptorInternCache cache = buildCache(10);
+        DefDescriptor<? extends Definition> text = descriptor("aura");
+        DefDescriptor<? extends Definition> cmp = descriptor("test");
+        assertNull(cache.getIfPresent(key("aura:text")));
+        cache.put(key("aura:text"), text);
+        cache.put(key("test:cmp"), cmp);
+        cache.getIfPresent(key("aura:text"));
+        cache.getIfPresent(key("test:cmp"));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getSize());
+        assertEquals(2, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import java.util.Arrays;
+
+import org.auraframework.cache.Weigher;
+import org.auraframework.test.UnitTestCase;
+
+public class FrequencyCacheImplTest extends UnitTestCase {
+
+	private FrequencyCacheImpl<String, String> buildCache(long maximumSize) {
+		return new FrequencyCacheImpl.Builder<String, String>()
+				.setMaximumSize(maximumSize).setRecordStats(true).build();
+	}
+
+	public void testGetIfPresent() {
+		FrequencyCacheImpl<String, String> cache = buildCache(10);
+		assertNull(cache.getIfPresent("key"));
+		cache.put("key", "value");
+		assertEquals("value", cache.getIfPresent("key"));
+		assertEquals(1, cache.stats().hitCount());
+		assertEquals(1, cache.stats().missCount());
+	}
+
+	public void testPutReplacesValue() {
+		FrequencyCacheImpl<String, String> cache = buildCache(10);
+		cache.put("key", "value");
+		cache.put("key", "other");
+		assertEquals("other", cache.getIfPresent("key"));
+		assertEquals(1, cache.size());
+	}
+
+	public void testInvalidateKey() {
+		FrequencyCacheImpl<String, String> cache = buildCache(10);
+		cache.put("key", "value");
+		cache.put("otherKey", "value");
+		cache.invalidate("key");
+		assertNull(cache.getIfPresent("key"));
+		assertEquals("value", cache.getIfPresent("otherKey"));
+		assertEquals(1, cache.weightedSize());
+	}
+
+	public void testInvalidateKeys() {
+		FrequencyCacheImpl<String, String> cache = buildCache(10);
+		cache.put("a", "value");
+		cache.put("b", "value");
+		cache.put("c", "value");
+		cache.invalidate(Arrays.asList("a", "c"));
+		assertEquals(1, cache.size());
+		assertEquals("value", cache.getIfPresent("b"));
+	}
+
+	public void testInvalidateAll() {
+		FrequencyCacheImpl<String, String> cache = buildCache(10);
+		cache.put("a", "value");
+		cache.put("b", "value");
+		cache.invalidateAll();
+		assertTrue(cache.getKeySet().isEmpty());
+		assertEquals(0, cache.weightedSize());
+	}
+
+	public void testInvalidatePartial() {
+		FrequencyCacheImpl<String, String> cache = buildCache(10);
+		cache.put("someKey", "value");
+		cache.put("someOtherKey", "value");
+		cache.put("unmatchedKey", "value");
+		cache.invalidatePartial("some");
+		assertEquals(1, cache.size());
+		assertEquals("value", cache.getIfPresent("unmatchedKey"));
+	}
+
+	public void testInvalidatePartial_EmptyString() {
+		FrequencyCacheImpl<String, String> cache = buildCache(10);
+		cache.put("someKey", "value");
+		cache.invalidatePartial("");
+		assertEquals(0, cache.size());
+	}
+
+	public void testEvictsForSize() {
+		FrequencyCacheImpl<String, String> cache = buildCache(100);
+		for (int i = 0; i < 1000; i++) {
+			cache.put("key" + i, "value");
+		}
+		assertEquals(100, cache.size());
+		assertEquals(900, cache.stats().evictionCount());
+	}
+
+	/**
+	 * A scan of keys seen only once should not displace keys that are read
+	 * frequently.
+	 */
+	public void testFrequentEntriesSurviveScan() {
+		FrequencyCacheImpl<String, String> cache = buildCache(100);
+		for (int i = 0; i < 50; i++) {
+			cache.put("hot" + i, "value");
+		}
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < 50; i++) {
+				assertNotNull(cache.getIfPresent("hot" + i));
+			}
+		}
+		for (int i = 0; i < 10000; i++) {
+			cache.put("scan" + i, "value");
+		}
+		int survivors = 0;
+		for (int i = 0; i < 50; i++) {
+			if (cache.getIfPresent("hot" + i) != null) {
+				survivors++;
+			}
+		}
+		// an LRU cache would have none left
+		assertTrue("Only " + survivors + " frequent entries survived", survivors >= 45);
+	}
+
+	public void testEvictsForWeight() {
+		FrequencyCacheImpl<String, String> cache = new FrequencyCacheImpl.Builder<String, String>()
+				.setMaximumWeight(100).setWeigher(new Weigher<String, String>() {
+					@Override
+					public int weigh(String key, String value) {
+						return value.length();
+					}
+				}).build();
+		for (int i = 0; i < 20; i++) {
+			cache.put("key" + i, "0123456789");
+		}
+		assertEquals(10, cache.size());
+		assertEquals(100, cache.weightedSize());
+
+		cache.put("big", "0123456789012345678901234567890123456789");
+		assertTrue(cache.weightedSize() <= 100);
+	}
+}
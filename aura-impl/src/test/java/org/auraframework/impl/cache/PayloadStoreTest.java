@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.system.ResourcePayload;
+import org.auraframework.test.UnitTestCase;
+import org.auraframework.util.IOUtil;
+
+public class PayloadStoreTest extends UnitTestCase {
+    private File dir;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        dir = Files.createTempDirectory("payloadStore").toFile();
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        IOUtil.delete(dir);
+        super.tearDown();
+    }
+
+    private PayloadStore newStore() throws IOException {
+        return new PayloadStore(dir, TimeUnit.DAYS.toMillis(1), Long.MAX_VALUE);
+    }
+
+    private File[] listPayloads() {
+        return dir.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File parent, String name) {
+                return name.endsWith(".payload");
+            }
+        });
+    }
+
+    private ResourcePayload buildPayload() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append("$A.clientService.initDefs({componentDefs:[").append(i).append("]});");
+        }
+        return ResourcePayload.encode(sb);
+    }
+
+    public void testGetMissing() throws IOException {
+        PayloadStore store = newStore();
+        assertNull(store.get("JS:MIN:uid"));
+    }
+
+    public void testPutGetRoundTrip() throws IOException {
+        ResourcePayload payload = buildPayload();
+        newStore().put("JS:MIN:uid", payload);
+
+        // a new store over the same directory, as after a restart
+        ResourcePayload stored = newStore().get("JS:MIN:uid");
+        assertNotNull(stored);
+        assertTrue(Arrays.equals(payload.getBytes(), stored.getBytes()));
+        assertTrue(Arrays.equals(payload.getGzipBytes(), stored.getGzipBytes()));
+        assertNull(newStore().get("JS:MIN:otheruid"));
+    }
+
+    public void testPutGetWithoutGzip() throws IOException {
+        PayloadStore store = newStore();
+        store.put("CSS:key", ResourcePayload.encode("a"));
+
+        ResourcePayload stored = store.get("CSS:key");
+        assertNotNull(stored);
+        assertTrue(Arrays.equals(new byte[] { 'a' }, stored.getBytes()));
+        assertNull(stored.getGzipBytes());
+    }
+
+    public void testPutReplaces() throws IOException {
+        PayloadStore store = newStore();
+        store.put("CSS:key", ResourcePayload.encode("a"));
+        store.put("CSS:key", ResourcePayload.encode("b"));
+
+        assertTrue(Arrays.equals(new byte[] { 'b' }, store.get("CSS:key").getBytes()));
+        assertEquals(1, listPayloads().length);
+    }
+
+    public void testCorruptFileIgnored() throws IOException {
+        PayloadStore store = newStore();
+        store.put("CSS:key", buildPayload());
+        File[] files = listPayloads();
+        assertEquals(1, files.length);
+        Files.write(files[0].toPath(), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17 });
+
+        assertNull(store.get("CSS:key"));
+        assertFalse("Corrupt file should be removed", files[0].exists());
+    }
+
+    public void testTamperedFileIgnored() throws IOException {
+        PayloadStore store = newStore();
+        store.put("JS:MIN:uid", buildPayload());
+        File[] files = listPayloads();
+        assertEquals(1, files.length);
+
+        // a well formed entry, but not written by the store.
+        byte[] data = Files.readAllBytes(files[0].toPath());
+        data[16] ^= 1;
+        Files.write(files[0].toPath(), data);
+
+        assertNull(store.get("JS:MIN:uid"));
+        assertFalse("Tampered file should be removed", files[0].exists());
+    }
+
+    public void testEntryOnlyValidForItsKey() throws IOException {
+        PayloadStore store = newStore();
+        store.put("CSS:key", ResourcePayload.encode("a"));
+        store.put("CSS:other", ResourcePayload.encode("b"));
+        File[] files = listPayloads();
+        assertEquals(2, files.length);
+
+        // swapping the files must not serve one key's content for the other.
+        Files.move(files[0].toPath(), files[1].toPath(), StandardCopyOption.REPLACE_EXISTING);
+        assertNull(store.get("CSS:key"));
+        assertNull(store.get("CSS:other"));
+    }
+
+    public void testDirectoryCreatedPrivate() throws IOException {
+        if (!supportsPosix()) {
+            return;
+        }
+        File sub = new File(dir, "store");
+        new PayloadStore(sub, TimeUnit.DAYS.toMillis(1), Long.MAX_VALUE);
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(sub.toPath())));
+        assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(new File(sub,
+                "payload.key").toPath())));
+    }
+
+    public void testSharedDirectoryRefused() throws IOException {
+        if (!supportsPosix()) {
+            return;
+        }
+        Files.setPosixFilePermissions(dir.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"));
+        try {
+            newStore();
+            fail("A directory other users can write should be refused");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("accessible by other users"));
+        }
+    }
+
+    public void testPruneRemovesUnused() throws IOException {
+        PayloadStore store = newStore();
+        store.put("CSS:old", ResourcePayload.encode("a"));
+        store.put("CSS:new", ResourcePayload.encode("b"));
+        long old = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2);
+        for (File file : listPayloads()) {
+            Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(old));
+        }
+        // reading an entry marks it as used.
+        assertNotNull(store.get("CSS:new"));
+
+        store.prune();
+        assertEquals(1, listPayloads().length);
+        assertNull(store.get("CSS:old"));
+        assertNotNull(store.get("CSS:new"));
+    }
+
+    public void testPruneToMaxSize() throws IOException {
+        newStore().put("JS:MIN:first", buildPayload());
+        long size = listPayloads()[0].length();
+        Files.setLastModifiedTime(listPayloads()[0].toPath(),
+                FileTime.fromMillis(System.currentTimeMillis() - 60000));
+
+        PayloadStore store = new PayloadStore(dir, TimeUnit.DAYS.toMillis(1), size);
+        store.put("JS:MIN:second", buildPayload());
+        store.prune();
+        assertEquals(1, listPayloads().length);
+        assertNull(store.get("JS:MIN:first"));
+        assertNotNull(store.get("JS:MIN:second"));
+    }
+
+    private boolean supportsPosix() {
+        return dir.toPath().getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+}
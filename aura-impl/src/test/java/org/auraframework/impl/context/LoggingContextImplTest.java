@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.context;
+
+import org.auraframework.impl.admin.RequestHistograms;
+import org.auraframework.service.LoggingService;
+import org.auraframework.system.RequestCounter;
+import org.auraframework.system.RequestTimer;
+import org.auraframework.test.UnitTestCase;
+
+public class LoggingContextImplTest extends UnitTestCase {
+
+    public void testTimerByNameAndId() {
+        LoggingContextImpl lc = new LoggingContextImpl();
+        assertEquals(-1, lc.getTime(RequestTimer.JAVA));
+
+        lc.startTimer("java");
+        assertEquals("Running timer has a totalTime", -1, lc.getTime(RequestTimer.JAVA));
+        lc.stopTimer(RequestTimer.JAVA);
+        assertTrue("Completed timer has no totalTime", lc.getTime("java") >= 0);
+
+        lc.resetTimer("java");
+        assertEquals("Reset timer has a totalTime", -1, lc.getTime(RequestTimer.JAVA));
+    }
+
+    public void testTimerNesting() {
+        LoggingContextImpl lc = new LoggingContextImpl();
+        lc.startTimer(RequestTimer.AURA);
+        lc.startTimer(RequestTimer.AURA);
+        lc.stopTimer(RequestTimer.AURA);
+        assertEquals("Nested running timer has a totalTime", -1, lc.getTime(RequestTimer.AURA));
+        lc.stopTimer(RequestTimer.AURA);
+        assertTrue("Completed timer has no totalTime", lc.getTime(RequestTimer.AURA) >= 0);
+    }
+
+    public void testStopUnstartedTimer() {
+        LoggingContextImpl lc = new LoggingContextImpl();
+        lc.stopTimer(RequestTimer.SERIALIZATION);
+        lc.startTimer(RequestTimer.SERIALIZATION);
+        lc.stopTimer(RequestTimer.SERIALIZATION);
+        assertTrue("Completed timer has no totalTime", lc.getTime(RequestTimer.SERIALIZATION) >= 0);
+    }
+
+    public void testCounterByNameAndId() {
+        LoggingContextImpl lc = new LoggingContextImpl();
+        assertEquals(-1, lc.getNum(RequestCounter.JAVA_CALL_COUNT));
+
+        lc.incrementNum(RequestCounter.JAVA_CALL_COUNT);
+        lc.incrementNum("JavaCallCount");
+        lc.incrementNumBy(RequestCounter.JAVA_CALL_COUNT, 3);
+        assertEquals(5, lc.getNum("JavaCallCount"));
+
+        lc.setNum(LoggingService.DEF_COUNT, 7);
+        assertEquals(7, lc.getNum(RequestCounter.DEF_COUNT));
+    }
+
+    public void testOtherNamesKept() {
+        LoggingContextImpl lc = new LoggingContextImpl();
+        lc.incrementNumBy("custom", 2);
+        assertEquals(2, lc.getNum("custom"));
+        lc.startTimer("custom");
+        lc.stopTimer("custom");
+        assertTrue(lc.getTime("custom") >= 0);
+    }
+
+    public void testActionRecordedInHistogram() {
+        String descriptor = "java://test.LoggingContextImplTest/ACTION$testAction" + getName();
+        long before = RequestHistograms.getAction(descriptor).getCount();
+
+        LoggingContextImpl lc = new LoggingContextImpl();
+        lc.startAction(descriptor + "{param,1}", descriptor);
+        lc.incrementNum(RequestCounter.JAVA_CALL_COUNT);
+        lc.stopAction(descriptor + "{param,1}");
+
+        assertEquals(before + 1, RequestHistograms.getAction(descriptor).getCount());
+    }
+
+    public void testPhaseRecordedInHistogram() {
+        long before = RequestHistograms.getPhase(RequestTimer.DESERIALIZATION).getCount();
+
+        LoggingContextImpl lc = new LoggingContextImpl();
+        lc.startTimer(RequestTimer.DESERIALIZATION);
+        lc.stopTimer(RequestTimer.DESERIALIZATION);
+        lc.logRequestValues();
+
+        assertEquals(before + 1, RequestHistograms.getPhase(RequestTimer.DESERIALIZATION).getCount());
+    }
+}
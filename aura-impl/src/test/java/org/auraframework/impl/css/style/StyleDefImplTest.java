@@ -23,6 +23,9 @@ import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.StyleDef;
 import org.auraframework.def.ThemeDef;
 import org.auraframework.impl.css.StyleTestCase;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.throwable.quickfix.ThemeValueNotFoundException;
 import org.auraframework.util.AuraTextUtil;
@@ -144,6 +147,21 @@ public class StyleDefImplTest extends StyleTestCase {
         assertTrue(varNames.contains("margin2"));
     }
 
+    /**
+     * The runtime code follows the theme values, even for the same def.
+     */
+    public void testGetCodeFollowsThemeValues() throws Exception {
+        DefDescriptor<ThemeDef> theme = addNsTheme(theme().var("color", "red"));
+        DefDescriptor<StyleDef> style = addStyleDef(".THIS {color: theme(color) }");
+        StyleDef def = style.getDef();
+        assertTrue(def.getCode().contains("red"));
+
+        updateStringSource(theme, theme().var("color", "blue").toString());
+        Aura.getContextService().endContext();
+        Aura.getContextService().startContext(Mode.UTEST, Format.JSON, Authentication.AUTHENTICATED);
+        assertTrue(def.getCode().contains("blue"));
+    }
+
     @SuppressWarnings("unchecked")
     private void verifyStyleDefSerialization(DefDescriptor<StyleDef> styleDesc, Boolean expectCode) throws Exception {
         String serialized = Json.serialize(styleDesc.getDef());
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.controller;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.impl.AuraImpl;
+import org.auraframework.system.Annotations.AuraEnabled;
+import org.auraframework.system.Annotations.Controller;
+import org.auraframework.system.Annotations.IndependentAction;
+import org.auraframework.system.Annotations.Key;
+
+@Controller
+public class IndependentActionTestController {
+
+    private static volatile CountDownLatch independentRuns = new CountDownLatch(0);
+
+    /**
+     * Expect a number of independent actions to run, see {@link #getThreadNameAfterIndependentRuns()}.
+     */
+    public static void expectIndependentRuns(int count) {
+        independentRuns = new CountDownLatch(count);
+    }
+
+    /**
+     * Return the name of the thread we ran on.
+     */
+    @AuraEnabled
+    public static String getThreadName() {
+        return Thread.currentThread().getName();
+    }
+
+    /**
+     * Wait for the expected independent actions to run, then return the name of the thread we ran on.
+     */
+    @AuraEnabled
+    public static String getThreadNameAfterIndependentRuns() throws InterruptedException {
+        if (!independentRuns.await(30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Independent actions did not run");
+        }
+        return Thread.currentThread().getName();
+    }
+
+    /**
+     * Return the name of the thread we ran on, which must have a logging context.
+     */
+    @AuraEnabled
+    @IndependentAction
+    public static String getThreadNameIndependently() {
+        if (!AuraImpl.getLoggingAdapter().isEstablished()) {
+            throw new IllegalStateException("No logging context on " + Thread.currentThread().getName());
+        }
+        independentRuns.countDown();
+        return Thread.currentThread().getName();
+    }
+
+    /**
+     * Take a while to run, then return the name of the thread we ran on.
+     */
+    @AuraEnabled
+    @IndependentAction
+    public static String sleepIndependently(@Key("millis") Integer millis) throws InterruptedException {
+        Thread.sleep(millis.intValue());
+        independentRuns.countDown();
+        return Thread.currentThread().getName();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.controller;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
+
+import org.auraframework.def.ValueDef;
+import org.auraframework.test.UnitTestCase;
+
+/**
+ * Checks that {@link JavaActionDef#invoke(Object, Object[])} behaves as {@link java.lang.reflect.Method#invoke}.
+ */
+public class JavaActionDefInvokeTest extends UnitTestCase {
+    public static class Actions {
+        public static String join(String a, int b) {
+            return a + b;
+        }
+
+        public String greet(String name) {
+            return "hello " + name;
+        }
+
+        public static void fail(String message) {
+            throw new IllegalStateException(message);
+        }
+
+        public static void ignore(String message) {
+        }
+    }
+
+    private static JavaActionDef getActionDef(String name, Class<?>... params) throws Exception {
+        JavaActionDef.Builder builder = new JavaActionDef.Builder();
+        builder.setParams(Collections.<ValueDef> emptyList());
+        builder.setMethod(Actions.class.getMethod(name, params));
+        return builder.build();
+    }
+
+    public void testStatic() throws Exception {
+        JavaActionDef def = getActionDef("join", String.class, int.class);
+        assertEquals("a1", def.invoke(null, new Object[] { "a", 1 }));
+        // the bean is ignored for a static action.
+        assertEquals("b2", def.invoke(new Object(), new Object[] { "b", 2 }));
+    }
+
+    public void testInstance() throws Exception {
+        JavaActionDef def = getActionDef("greet", String.class);
+        assertEquals("hello world", def.invoke(new Actions(), new Object[] { "world" }));
+    }
+
+    public void testInstanceWithoutBean() throws Exception {
+        JavaActionDef def = getActionDef("greet", String.class);
+        try {
+            def.invoke(null, new Object[] { "world" });
+            fail("Expected a NullPointerException");
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    public void testInstanceOfWrongClass() throws Exception {
+        JavaActionDef def = getActionDef("greet", String.class);
+        try {
+            def.invoke(new Object(), new Object[] { "world" });
+            fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testWrongArgCount() throws Exception {
+        JavaActionDef def = getActionDef("join", String.class, int.class);
+        try {
+            def.invoke(null, new Object[] { "a" });
+            fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("wrong number of arguments", expected.getMessage());
+        }
+    }
+
+    public void testWrongArgType() throws Exception {
+        JavaActionDef def = getActionDef("join", String.class, int.class);
+        try {
+            def.invoke(null, new Object[] { "a", "1" });
+            fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("argument type mismatch", expected.getMessage());
+        }
+    }
+
+    public void testNullToPrimitive() throws Exception {
+        JavaActionDef def = getActionDef("join", String.class, int.class);
+        try {
+            def.invoke(null, new Object[] { "a", null });
+            fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("argument type mismatch", expected.getMessage());
+        }
+        // null is fine for an object.
+        assertEquals("null3", def.invoke(null, new Object[] { null, 3 }));
+    }
+
+    public void testActionThrows() throws Exception {
+        JavaActionDef def = getActionDef("fail", String.class);
+        try {
+            def.invoke(null, new Object[] { "broken" });
+            fail("Expected an InvocationTargetException");
+        } catch (InvocationTargetException expected) {
+            Throwable cause = expected.getCause();
+            assertTrue(cause instanceof IllegalStateException);
+            assertEquals("broken", cause.getMessage());
+        }
+    }
+
+    public void testVoidReturnsNull() throws Exception {
+        assertNull(getActionDef("ignore", String.class).invoke(null, new Object[] { "x" }));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.controller;
+
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.TypeDef;
+import org.auraframework.def.ValueDef;
+import org.auraframework.impl.java.type.JavaTypeDef;
+import org.auraframework.test.UnitTestCase;
+import org.auraframework.util.type.TypeUtil.ConversionException;
+import org.mockito.Mockito;
+
+public class JavaParamConverterTest extends UnitTestCase {
+
+    @SuppressWarnings("unchecked")
+    private static JavaTypeDef getType(Class<?> clazz) {
+        DefDescriptor<TypeDef> descriptor = Mockito.mock(DefDescriptor.class);
+        JavaTypeDef.Builder builder = new JavaTypeDef.Builder();
+        builder.setDescriptor(descriptor);
+        builder.setTypeClass(clazz);
+        return builder.build();
+    }
+
+    private static ValueDef getValueDef(TypeDef type) throws Exception {
+        ValueDef valueDef = Mockito.mock(ValueDef.class);
+        Mockito.when(valueDef.getType()).thenReturn(type);
+        return valueDef;
+    }
+
+    /**
+     * The conversion kept for one class must not be used for values of another.
+     */
+    public void testConvertAfterClassChanges() throws Exception {
+        ValueDef valueDef = getValueDef(getType(Boolean.class));
+        JavaParamConverter converter = new JavaParamConverter(valueDef);
+
+        assertEquals(Boolean.TRUE, converter.convert("true"));
+        assertEquals(Boolean.FALSE, converter.convert(Boolean.FALSE));
+        assertEquals(Boolean.TRUE, converter.convert("true"));
+        Mockito.verify(valueDef, Mockito.times(1)).getType();
+    }
+
+    public void testConvertNull() throws Exception {
+        JavaParamConverter converter = new JavaParamConverter(getValueDef(getType(Boolean.class)));
+        assertNull(converter.convert(null));
+        assertEquals(Boolean.FALSE, converter.convert("false"));
+    }
+
+    public void testConvertWithoutConverter() throws Exception {
+        JavaParamConverter converter = new JavaParamConverter(getValueDef(getType(Boolean.class)));
+        try {
+            converter.convert(new Object());
+            fail("Expected a ConversionException");
+        } catch (ConversionException expected) {
+        }
+        assertEquals(Boolean.TRUE, converter.convert("true"));
+    }
+
+    public void testConvertWithoutJavaType() throws Exception {
+        TypeDef type = Mockito.mock(TypeDef.class);
+        Mockito.when(type.valueOf("x")).thenReturn("converted");
+        JavaParamConverter converter = new JavaParamConverter(getValueDef(type));
+        assertEquals("converted", converter.convert("x"));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.model;
+
+import org.auraframework.test.UnitTestCase;
+
+public class JavaAccessorTest extends UnitTestCase {
+    public static class Bean {
+        public String getName() {
+            return "bean";
+        }
+
+        public boolean isReady() {
+            return true;
+        }
+
+        public int getCount() {
+            return 3;
+        }
+
+        public String getBroken() {
+            throw new IllegalStateException("broken getter");
+        }
+    }
+
+    private static class Hidden {
+        @SuppressWarnings("unused")
+        public String getName() {
+            return "hidden";
+        }
+    }
+
+    public void testGetter() throws Throwable {
+        JavaAccessor accessor = JavaAccessor.get(Bean.class, "name");
+        assertTrue(accessor.isPresent());
+        assertEquals("bean", accessor.invoke(new Bean()));
+    }
+
+    public void testIsGetter() throws Throwable {
+        JavaAccessor accessor = JavaAccessor.get(Bean.class, "ready");
+        assertTrue(accessor.isPresent());
+        assertEquals(Boolean.TRUE, accessor.invoke(new Bean()));
+    }
+
+    public void testPrimitiveBoxed() throws Throwable {
+        assertEquals(Integer.valueOf(3), JavaAccessor.get(Bean.class, "count").invoke(new Bean()));
+    }
+
+    public void testAccessorCached() {
+        assertSame(JavaAccessor.get(Bean.class, "name"), JavaAccessor.get(Bean.class, "name"));
+    }
+
+    public void testMissingPropertyCached() {
+        JavaAccessor accessor = JavaAccessor.get(Bean.class, "missing");
+        assertFalse(accessor.isPresent());
+        assertTrue(accessor.getFailure() instanceof NoSuchMethodException);
+        assertSame(accessor, JavaAccessor.get(Bean.class, "missing"));
+    }
+
+    public void testInaccessibleClass() {
+        JavaAccessor accessor = JavaAccessor.get(Hidden.class, "name");
+        assertFalse(accessor.isPresent());
+        assertTrue(accessor.getFailure() instanceof IllegalAccessException);
+    }
+
+    public void testGetterExceptionPropagates() throws Throwable {
+        JavaAccessor accessor = JavaAccessor.get(Bean.class, "broken");
+        try {
+            accessor.invoke(new Bean());
+            fail("Expected the getter's exception");
+        } catch (IllegalStateException expected) {
+            assertEquals("broken getter", expected.getMessage());
+        }
+    }
+
+    public void testMethodAccessorCached() throws Throwable {
+        JavaAccessor accessor = JavaAccessor.get(Bean.class.getMethod("getName"));
+        assertTrue(accessor.isPresent());
+        assertSame(accessor, JavaAccessor.get(Bean.class.getMethod("getName")));
+        assertEquals("bean", accessor.invoke(new Bean()));
+    }
+}
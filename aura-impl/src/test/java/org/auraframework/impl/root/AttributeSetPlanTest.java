@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.root;
+
+import java.util.List;
+import java.util.Map;
+
+import org.auraframework.Aura;
+import org.auraframework.def.AttributeDef;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.expression.PropertyReference;
+import org.auraframework.impl.AuraImplTestCase;
+import org.auraframework.impl.system.DefDescriptorImpl;
+import org.auraframework.instance.Attribute;
+import org.auraframework.instance.AttributeSet;
+import org.auraframework.instance.Component;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+public class AttributeSetPlanTest extends AuraImplTestCase {
+    public AttributeSetPlanTest(String name) {
+        super(name);
+    }
+
+    private ComponentDef createComponent() throws Exception {
+        return addSourceAutoCleanup(ComponentDef.class,
+                "<aura:component>"
+                        + "<aura:attribute name='first' type='String' default='one'/>"
+                        + "<aura:attribute name='second' type='String' required='true'/>"
+                        + "<aura:attribute name='third' type='Integer'/>"
+                        + "</aura:component>").getDef();
+    }
+
+    public void testIndexesFollowAttributeDefs() throws Exception {
+        ComponentDef def = createComponent();
+        AttributeSetPlan plan = AttributeSetPlan.get(def);
+        Map<DefDescriptor<AttributeDef>, AttributeDef> attributeDefs = def.getAttributeDefs();
+
+        assertEquals(attributeDefs.size(), plan.size());
+        int index = 0;
+        for (Map.Entry<DefDescriptor<AttributeDef>, AttributeDef> entry : attributeDefs.entrySet()) {
+            assertEquals(index, plan.indexOf(entry.getKey()));
+            assertEquals(entry.getValue(), plan.getAttributeDef(index));
+            index++;
+        }
+        assertEquals(-1, plan.indexOf(DefDescriptorImpl.getInstance("missing", AttributeDef.class)));
+    }
+
+    public void testDefaultsAndRequired() throws Exception {
+        AttributeSetPlan plan = AttributeSetPlan.get(createComponent());
+        List<String> defaults = Lists.newArrayList();
+        for (int index : plan.getDefaults()) {
+            defaults.add(plan.getAttributeDef(index).getName());
+        }
+        List<String> required = Lists.newArrayList();
+        for (int index : plan.getRequired()) {
+            required.add(plan.getAttributeDef(index).getName());
+        }
+
+        assertTrue(defaults.contains("first"));
+        assertFalse(defaults.contains("second"));
+        assertEquals(Lists.newArrayList("second"), required);
+    }
+
+    public void testPassthroughReferencesAttribute() throws Exception {
+        AttributeSetPlan plan = AttributeSetPlan.get(createComponent());
+        int index = plan.indexOf(DefDescriptorImpl.getInstance("third", AttributeDef.class));
+        PropertyReference passthrough = plan.getPassthrough(index);
+
+        assertEquals("v.third", passthrough.toString());
+        assertSame(passthrough, plan.getPassthrough(index));
+    }
+
+    public void testPlanIsKeptOnDefinition() throws Exception {
+        ComponentDef def = createComponent();
+
+        assertSame(AttributeSetPlan.get(def), AttributeSetPlan.get(def));
+    }
+
+    public void testInstanceFillsAttributes() throws Exception {
+        ComponentDef def = createComponent();
+        Component cmp = Aura.getInstanceService().getInstance(def, ImmutableMap.<String, Object> of(
+                "second", "two"));
+        AttributeSet attributes = cmp.getAttributes();
+
+        assertEquals("one", attributes.getValue("first"));
+        assertEquals("two", attributes.getValue("second"));
+        assertNull(attributes.getValue("third"));
+        assertNull(attributes.getMissingAttributes());
+
+        List<String> names = Lists.newArrayList();
+        for (Attribute attribute : attributes) {
+            names.add(attribute.getName());
+        }
+        assertEquals(attributes.size(), names.size());
+        assertTrue(names.contains("first"));
+        assertTrue(names.contains("second"));
+        assertFalse(names.contains("third"));
+    }
+}
@@ -16,19 +16,25 @@
 package org.auraframework.impl.source.file;
 
 import java.nio.file.FileSystems;
+import java.util.List;
 
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.system.SourceChange;
 import org.auraframework.system.SourceListener;
 import org.auraframework.test.UnitTestCase;
 import org.auraframework.util.FileChangeEvent;
+
+import com.google.common.collect.ImmutableList;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -41,6 +47,9 @@ public class FileSourceListenerTest extends UnitTestCase {
     @Captor
     private ArgumentCaptor<DefDescriptor<?>> defDescriptorCaptor;
 
+    @Captor
+    private ArgumentCaptor<List<SourceChange>> changesCaptor;
+
     private FileSourceListener listener = new FileSourceListener();
 
     @Mock
@@ -108,6 +117,33 @@ public class FileSourceListenerTest extends UnitTestCase {
         assertNull(defDescriptorCaptor.getValue());
     }
 
+    /**
+     * A batch of file changes is passed on as one batch of source changes, in order.
+     */
+    public void testFilesChanged() throws Exception {
+        doNothing().when(listener).onSourceChanges(anyListOf(SourceChange.class));
+
+        listener.filesChanged(ImmutableList.of(
+                new FileChangeEvent(FileSystems.getDefault().getPath("/some/awesome/ui/inputSearch/inputSearch.cmp"),
+                        FileChangeEvent.Type.CHANGED),
+                new FileChangeEvent(FileSystems.getDefault().getPath("/some/awesome/ui/focus/focus.evt"),
+                        FileChangeEvent.Type.CREATED),
+                new FileChangeEvent(FileSystems.getDefault().getPath("/some/awesome/ui/inputSearch/inputSearchModel.java"),
+                        FileChangeEvent.Type.DELETED)));
+        verify(listener, times(1)).onSourceChanges(changesCaptor.capture());
+
+        List<SourceChange> changes = changesCaptor.getValue();
+        assertEquals(3, changes.size());
+        assertEquals("markup://ui:inputSearch", changes.get(0).getDescriptor().getQualifiedName());
+        assertEquals(DefDescriptor.DefType.COMPONENT, changes.get(0).getDescriptor().getDefType());
+        assertEquals(SourceListener.SourceMonitorEvent.CHANGED, changes.get(0).getEvent());
+        assertEquals("markup://ui:focus", changes.get(1).getDescriptor().getQualifiedName());
+        assertEquals(SourceListener.SourceMonitorEvent.CREATED, changes.get(1).getEvent());
+        assertNull(changes.get(2).getDescriptor());
+        assertEquals(SourceListener.SourceMonitorEvent.DELETED, changes.get(2).getEvent());
+        assertTrue(changes.get(2).getFilePath().endsWith("inputSearchModel.java"));
+    }
+
     public void testSourceChangedApplication() throws Exception {
         assertSourceChangedCalled("markup", "appCache", "withpreload", DefDescriptor.DefType.APPLICATION,
                 "/some/awesome/appCache/withpreload/withpreload.app");
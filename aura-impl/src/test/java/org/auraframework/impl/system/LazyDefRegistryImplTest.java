@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.util.EnumSet;
+
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.system.DefRegistry;
+import org.auraframework.test.UnitTestCase;
+import org.mockito.Mockito;
+
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableSet;
+
+public class LazyDefRegistryImplTest extends UnitTestCase {
+    private static class CountingSupplier implements Supplier<DefRegistry<ComponentDef>> {
+        private final DefRegistry<ComponentDef> registry;
+        private int count;
+
+        @SuppressWarnings("unchecked")
+        private CountingSupplier() {
+            registry = Mockito.mock(DefRegistry.class);
+        }
+
+        @Override
+        public DefRegistry<ComponentDef> get() {
+            count++;
+            return registry;
+        }
+    }
+
+    private LazyDefRegistryImpl<ComponentDef> createRegistry(CountingSupplier supplier) {
+        return new LazyDefRegistryImpl<>(supplier, EnumSet.of(DefType.COMPONENT), ImmutableSet.of("markup"), true);
+    }
+
+    public void testNotCreatedForMetadata() {
+        CountingSupplier supplier = new CountingSupplier();
+        LazyDefRegistryImpl<ComponentDef> registry = createRegistry(supplier);
+
+        assertEquals(EnumSet.of(DefType.COMPONENT), registry.getDefTypes());
+        assertEquals(ImmutableSet.of("markup"), registry.getPrefixes());
+        assertEquals(ImmutableSet.of("*"), registry.getNamespaces());
+        assertTrue(registry.isCacheable());
+        assertFalse(registry.isStatic());
+        registry.clear();
+        assertFalse(registry.isCreated());
+        assertEquals(0, supplier.count);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testCreatedOnceOnFirstUse() throws Exception {
+        CountingSupplier supplier = new CountingSupplier();
+        LazyDefRegistryImpl<ComponentDef> registry = createRegistry(supplier);
+        DefDescriptor<ComponentDef> descriptor = Mockito.mock(DefDescriptor.class);
+        ComponentDef def = Mockito.mock(ComponentDef.class);
+        Mockito.when(supplier.registry.getDef(descriptor)).thenReturn(def);
+        Mockito.when(supplier.registry.exists(descriptor)).thenReturn(true);
+
+        assertSame(def, registry.getDef(descriptor));
+        assertTrue(registry.exists(descriptor));
+        assertTrue(registry.isCreated());
+        assertEquals(1, supplier.count);
+    }
+
+    public void testClearAfterCreation() throws Exception {
+        CountingSupplier supplier = new CountingSupplier();
+        LazyDefRegistryImpl<ComponentDef> registry = createRegistry(supplier);
+        registry.hasFind();
+        registry.clear();
+        Mockito.verify(supplier.registry).clear();
+    }
+}
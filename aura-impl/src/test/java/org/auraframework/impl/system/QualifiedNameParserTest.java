@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.auraframework.impl.system.QualifiedNameParser.ParsedName;
+import org.auraframework.test.UnitTestCase;
+
+public class QualifiedNameParserTest extends UnitTestCase {
+    /**
+     * The patterns the parser replaced, which it must agree with.
+     */
+    private static final Pattern TAG_PATTERN = Pattern
+            .compile("(?:([\\w\\*]+)://)?(?:([\\w\\-\\*]+):)?([\\w\\$\\*]+)");
+    private static final Pattern CLASS_PATTERN = Pattern
+            .compile("\\A(?:([\\w\\*]+)://)?((?:[\\w\\*]|\\.)*?)?\\.?+([\\w,$\\*]*?(?:\\[\\])?)(<[\\w.,(<[\\w.,]+>)]+>)?\\z");
+
+    private static final String[] TAG_NAMES = { "aura:text", "markup://aura:text", "ui:button", "foo-bar:baz",
+            "markup://foo-bar:baz", "text", "markup://text", "*:*", "markup://*:*", "aura:$dollar", "a:b:c", ":text",
+            "aura:", "markup://", "", "bad prefix://aura:text", "markup://aura:text://x", "aura:te-xt", "a.b:c",
+            "markup:/aura:text", "js://aura.text", "aura:text[]", "1:2", "_:_" };
+
+    private static final String[] CLASS_NAMES = { "java://foo.Bar", "java://foo.bar.Baz", "js://aura.text",
+            "css://aura.text", "java://String", "String", "foo.Bar", "java://java.util.List<String>",
+            "java://java.util.Map<java.lang.String,java.util.List<java.lang.String>>", "java://Foo[]",
+            "java://foo.Bar[]", "java://foo.Bar$Inner", "java://foo..Bar", "java://.Bar", "java://foo.", "java://",
+            "", ".", "java://foo.Bar<>", "java://foo.Bar<String", "java://foo.Bar<String>x", "java://foo-bar.Baz",
+            "java://foo.Ba-r", "java://foo.B,a,r", "java://foo.Bar[]x", "java://foo.Bar[]<String>", "java://a[].b",
+            "java://*.*", "apex://*", "bad-prefix://foo.Bar", "java://foo.Bar<a b>", "java://foo.Bar<(+)>",
+            "java://foo:Bar", "java://java.util.List<String>[]", "templateCss://aura.foo", "java://foo/bar.Baz" };
+
+    private static void assertSameAsPattern(Pattern pattern, String name, ParsedName parsed) {
+        Matcher matcher = pattern.matcher(name);
+        if (!matcher.matches()) {
+            assertNull("Expected no match for " + name, parsed);
+            return;
+        }
+        assertNotNull("Expected a match for " + name, parsed);
+        assertEquals("prefix of " + name, matcher.group(1), parsed.getPrefix());
+        assertEquals("namespace of " + name, matcher.group(2), parsed.getNamespace());
+        assertEquals("name of " + name, matcher.group(3), parsed.getName());
+        if (matcher.groupCount() > 3) {
+            assertEquals("parameters of " + name, matcher.group(4), parsed.getParameters());
+        }
+    }
+
+    public void testTagNamesMatchPattern() {
+        for (String name : TAG_NAMES) {
+            assertSameAsPattern(TAG_PATTERN, name, QualifiedNameParser.parseTag(name));
+        }
+    }
+
+    public void testClassNamesMatchPattern() {
+        for (String name : CLASS_NAMES) {
+            assertSameAsPattern(CLASS_PATTERN, name, QualifiedNameParser.parseClass(name));
+        }
+    }
+
+    public void testTagName() {
+        ParsedName parsed = QualifiedNameParser.parseTag("markup://aura:text");
+        assertEquals("markup", parsed.getPrefix());
+        assertEquals("aura", parsed.getNamespace());
+        assertEquals("text", parsed.getName());
+        assertNull(parsed.getParameters());
+    }
+
+    public void testClassNameWithParameters() {
+        ParsedName parsed = QualifiedNameParser.parseClass("java://java.util.List<java.lang.String>");
+        assertEquals("java", parsed.getPrefix());
+        assertEquals("java.util", parsed.getNamespace());
+        assertEquals("List", parsed.getName());
+        assertEquals("<java.lang.String>", parsed.getParameters());
+    }
+
+    public void testClassNameWithoutNamespace() {
+        ParsedName parsed = QualifiedNameParser.parseClass("java://String");
+        assertEquals("", parsed.getNamespace());
+        assertEquals("String", parsed.getName());
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.Definition;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.impl.AuraImplTestCase;
+import org.auraframework.system.DefRegistry;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+public class StaticRegistryFileTest extends AuraImplTestCase {
+
+    public StaticRegistryFileTest(String name) {
+        super(name);
+    }
+
+    private StaticDefRegistryImpl<Definition> createRegistry() throws Exception {
+        List<Definition> defs = ImmutableList.<Definition> of(
+                definitionService.getDefinition("aura:text", ComponentDef.class),
+                definitionService.getDefinition("aura:html", ComponentDef.class));
+        return new StaticDefRegistryImpl<>(ImmutableSet.of(DefType.COMPONENT), ImmutableSet.of("markup"),
+                ImmutableSet.of("aura"), defs);
+    }
+
+    private ByteBuffer write(StaticDefRegistryImpl<Definition> registry) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StaticRegistryFile.write(ImmutableList.of(registry), out);
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testRoundTrip() throws Exception {
+        ByteBuffer buffer = write(createRegistry());
+        assertTrue(StaticRegistryFile.isRegistryFile(buffer));
+
+        List<DefRegistry<?>> registries = StaticRegistryFile.read(buffer);
+        assertEquals(1, registries.size());
+        DefRegistry<ComponentDef> registry = (DefRegistry<ComponentDef>) registries.get(0);
+        assertEquals(ImmutableSet.of(DefType.COMPONENT), registry.getDefTypes());
+        assertEquals(ImmutableSet.of("markup"), registry.getPrefixes());
+        assertEquals(ImmutableSet.of("aura"), registry.getNamespaces());
+
+        DefDescriptor<ComponentDef> text = definitionService.getDefDescriptor("aura:text", ComponentDef.class);
+        assertTrue(registry.exists(text));
+        ComponentDef def = registry.getDef(text);
+        assertEquals(text, def.getDescriptor());
+        assertEquals(definitionService.getDefinition(text).getAttributeDefs().keySet(),
+                def.getAttributeDefs().keySet());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testDefinitionsReadOnce() throws Exception {
+        DefRegistry<ComponentDef> registry = (DefRegistry<ComponentDef>) StaticRegistryFile.read(
+                write(createRegistry())).get(0);
+        DefDescriptor<ComponentDef> html = definitionService.getDefDescriptor("aura:html", ComponentDef.class);
+        assertSame(registry.getDef(html), registry.getDef(html));
+    }
+
+    /**
+     * Each definition is serialized on its own, but the descriptors read with it are the interned ones.
+     */
+    @SuppressWarnings("unchecked")
+    public void testDescriptorsInterned() throws Exception {
+        DefRegistry<ComponentDef> registry = (DefRegistry<ComponentDef>) StaticRegistryFile.read(
+                write(createRegistry())).get(0);
+        DefDescriptor<ComponentDef> text = definitionService.getDefDescriptor("aura:text", ComponentDef.class);
+        DefDescriptor<ComponentDef> html = definitionService.getDefDescriptor("aura:html", ComponentDef.class);
+        assertSame(text, registry.getDef(text).getDescriptor());
+        DefDescriptor<ComponentDef> component = definitionService.getDefDescriptor("aura:component",
+                ComponentDef.class);
+        assertSame(component, registry.getDef(text).getExtendsDescriptor());
+        assertSame(component, registry.getDef(html).getExtendsDescriptor());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testMissingDefinition() throws Exception {
+        DefRegistry<ComponentDef> registry = (DefRegistry<ComponentDef>) StaticRegistryFile.read(
+                write(createRegistry())).get(0);
+        DefDescriptor<ComponentDef> missing = definitionService.getDefDescriptor("aura:notThere",
+                ComponentDef.class);
+        assertFalse(registry.exists(missing));
+        assertNull(registry.getDef(missing));
+    }
+
+    public void testFind() throws Exception {
+        DefRegistry<?> registry = StaticRegistryFile.read(write(createRegistry())).get(0);
+        Set<DefDescriptor<?>> found = registry.find(new DescriptorFilter("markup://aura:*", "COMPONENT"));
+        assertEquals(ImmutableSet.of(definitionService.getDefDescriptor("aura:text", ComponentDef.class),
+                definitionService.getDefDescriptor("aura:html", ComponentDef.class)), found);
+    }
+
+    public void testObjectStreamIsNotRegistryFile() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(ImmutableList.of());
+        }
+        assertFalse(StaticRegistryFile.isRegistryFile(ByteBuffer.wrap(out.toByteArray())));
+    }
+
+    public void testUnsupportedVersion() throws Exception {
+        ByteBuffer buffer = write(createRegistry());
+        buffer.putInt(4, StaticRegistryFile.VERSION + 1);
+        try {
+            StaticRegistryFile.read(buffer);
+            fail("Expected an IOException for an unknown version");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("version"));
+        }
+    }
+
+    public void testTruncatedFileRejected() throws Exception {
+        ByteBuffer buffer = write(createRegistry());
+        buffer.limit(buffer.limit() - 1);
+        try {
+            StaticRegistryFile.read(buffer);
+            fail("Expected an IOException for a truncated file");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("Corrupt"));
+        }
+    }
+
+    public void testCorruptDefinitionsRejected() throws Exception {
+        ByteBuffer buffer = write(createRegistry());
+        int last = buffer.limit() - 1;
+        buffer.put(last, (byte) (buffer.get(last) ^ 1));
+        try {
+            StaticRegistryFile.read(buffer);
+            fail("Expected an IOException for corrupt definitions");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("checksum"));
+        }
+    }
+
+    /**
+     * A definition that passes the checks on the file, but can't be read, is as good as missing.
+     */
+    @SuppressWarnings("unchecked")
+    public void testUnreadableDefinitionMissing() throws Exception {
+        ByteBuffer buffer = write(createRegistry());
+        int dataLength = buffer.getInt(8);
+        int dataStart = buffer.limit() - dataLength;
+        // break the stream header of the first definition, and fix the checksum to match.
+        buffer.put(dataStart, (byte) 0);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), dataStart, dataLength);
+        buffer.putInt(12, (int) crc.getValue());
+
+        DefRegistry<ComponentDef> registry = (DefRegistry<ComponentDef>) StaticRegistryFile.read(buffer).get(0);
+        ComponentDef text = registry.getDef(definitionService.getDefDescriptor("aura:text", ComponentDef.class));
+        ComponentDef html = registry.getDef(definitionService.getDefDescriptor("aura:html", ComponentDef.class));
+        assertTrue("Exactly one definition should be unreadable", (text == null) != (html == null));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.util.json;
+
+import java.util.List;
+
+import org.auraframework.Aura;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.Definition;
+import org.auraframework.impl.AuraImplTestCase;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.util.json.Json;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+public class DefinitionJsonWriterTest extends AuraImplTestCase {
+
+    public DefinitionJsonWriterTest(String name) {
+        super(name, false);
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        Aura.getContextService().endContext();
+        super.tearDown();
+    }
+
+    private AuraContext startContext(Mode mode) {
+        return Aura.getContextService().startContext(mode, Format.JSON, Authentication.AUTHENTICATED);
+    }
+
+    private ComponentDef createComponent() throws Exception {
+        DefDescriptor<ComponentDef> desc = addSourceAutoCleanup(ComponentDef.class,
+                "<aura:component><aura:attribute name='label' type='String'/>{!v.label}</aura:component>");
+        return desc.getDef();
+    }
+
+    private String write(AuraContext context, List<? extends Definition> defs) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        DefinitionJsonWriter.writeArray(Json.createJsonStream(sb, context.getJsonSerializationContext()), defs);
+        return sb.toString();
+    }
+
+    public void testWritesDefinitionsWithoutReferences() throws Exception {
+        AuraContext context = startContext(Mode.PROD);
+        ComponentDef def = createComponent();
+        List<ComponentDef> defs = ImmutableList.of(def, def);
+
+        String expected = Json.serialize(defs, AuraJsonContext.createContext(Mode.PROD, false));
+        assertEquals(expected, write(context, defs));
+        // and again, from the cache
+        assertEquals(expected, write(context, defs));
+    }
+
+    public void testSplicesCachedJson() throws Exception {
+        AuraContext context = startContext(Mode.PROD);
+        ComponentDef def = createComponent();
+        String key = DefinitionJsonWriter.getKey(context, def, DefinitionJsonWriter.getStyleState(context));
+        assertNotNull(key);
+
+        Aura.getCachingService().getDefinitionJsonCache().put(key, "{\"cached\":true}");
+        assertEquals("[{\"cached\":true}]", write(context, ImmutableList.of(def)));
+    }
+
+    public void testKeyDependsOnPreloading() throws Exception {
+        AuraContext context = startContext(Mode.PROD);
+        ComponentDef def = createComponent();
+        String styleState = DefinitionJsonWriter.getStyleState(context);
+        String key = DefinitionJsonWriter.getKey(context, def, styleState);
+
+        context.setPreloading(true);
+        String preloadingKey = DefinitionJsonWriter.getKey(context, def, styleState);
+        assertNotNull(preloadingKey);
+        assertFalse(key.equals(preloadingKey));
+    }
+
+    public void testKeyDependsOnMode() throws Exception {
+        AuraContext context = startContext(Mode.PROD);
+        ComponentDef def = createComponent();
+        String prodKey = DefinitionJsonWriter.getKey(context, def, DefinitionJsonWriter.getStyleState(context));
+        Aura.getContextService().endContext();
+
+        context = startContext(Mode.PTEST);
+        String ptestKey = DefinitionJsonWriter.getKey(context, def, DefinitionJsonWriter.getStyleState(context));
+        assertFalse(prodKey.equals(ptestKey));
+    }
+
+    public void testPreloadedNotKept() throws Exception {
+        AuraContext context = startContext(Mode.PROD);
+        ComponentDef def = createComponent();
+        context.setPreloadedDefinitions(ImmutableSet.<DefDescriptor<?>> of(def.getDescriptor()));
+
+        assertNull(DefinitionJsonWriter.getKey(context, def, DefinitionJsonWriter.getStyleState(context)));
+    }
+
+    public void testFormattedOutputNotKept() throws Exception {
+        AuraContext context = startContext(Mode.DEV);
+        ComponentDef def = createComponent();
+        String key = DefinitionJsonWriter.getKey(context, def, DefinitionJsonWriter.getStyleState(context));
+        Aura.getCachingService().getDefinitionJsonCache().put(key, "{\"cached\":true}");
+
+        assertFalse(write(context, ImmutableList.of(def)).contains("cached"));
+    }
+
+    public void testSourceChangeDropsCachedJson() throws Exception {
+        AuraContext context = startContext(Mode.PROD);
+        ComponentDef def = createComponent();
+        String key = DefinitionJsonWriter.getKey(context, def, DefinitionJsonWriter.getStyleState(context));
+        write(context, ImmutableList.of(def));
+        assertNotNull(Aura.getCachingService().getDefinitionJsonCache().getIfPresent(key));
+
+        Aura.getCachingService().invalidateSourceRelatedCaches(def.getDescriptor());
+        assertNull(Aura.getCachingService().getDefinitionJsonCache().getIfPresent(key));
+    }
+}
@@ -24,6 +24,7 @@ import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.system.Client;
 import org.auraframework.system.Client.Type;
+import org.auraframework.system.ResourcePayload;
 import org.auraframework.system.SourceListener;
 import org.auraframework.test.AuraTestCase;
 import org.auraframework.test.DummyHttpServletRequest;
@@ -31,9 +32,11 @@ import org.auraframework.test.DummyHttpServletResponse;
 import org.auraframework.test.client.UserAgent;
 import org.auraframework.util.text.Hash;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
@@ -177,10 +180,10 @@ public class AuraResourceServletTest extends AuraTestCase {
 
         final String key = "CSS:" + context.getClient().getType() + "$" + mKey + uid;
         // Verify something was actually added to cache
-        String cssCache = context.getDefRegistry().getCachedString(uid, appDesc, key);
+        ResourcePayload cssCache = context.getDefRegistry().getCachedPayload(uid, appDesc, key);
         assertNotNull("Nothing added to CSS cache", cssCache);
         if (!cssMsgToVerify.isEmpty()) {
-            assertTrue(cssCache.contains(cssMsgToVerify));
+            assertTrue(new String(cssCache.getBytes(), "UTF-8").contains(cssMsgToVerify));
         }
     }
 
@@ -221,13 +224,13 @@ public class AuraResourceServletTest extends AuraTestCase {
         final String key = "CSS:" + context.getClient().getType() + "$" + mKey + uid;
 
         // Verify something was actually added to cache
-        String cssCache = context.getDefRegistry().getCachedString(uid, appDesc, key);
+        ResourcePayload cssCache = context.getDefRegistry().getCachedPayload(uid, appDesc, key);
         assertNotNull("Nothing added to CSS cache", cssCache);
 
         // Now force a source change event and verify cache is emptied
         Aura.getDefinitionService().onSourceChanged(null, SourceListener.SourceMonitorEvent.CHANGED, null);
 
-        cssCache = context.getDefRegistry().getCachedString(uid, appDesc, key);
+        cssCache = context.getDefRegistry().getCachedPayload(uid, appDesc, key);
 
         assertNull("CSS cache not cleared after source change event", cssCache);
     }
@@ -262,16 +265,114 @@ public class AuraResourceServletTest extends AuraTestCase {
         final String key = "JS:" + mKey + uid;
 
         // Verify something was actually added to cache
-        String jsCache = context.getDefRegistry().getCachedString(uid, appDesc, key);
+        ResourcePayload jsCache = context.getDefRegistry().getCachedPayload(uid, appDesc, key);
         assertNotNull("Nothing added to JS cache", jsCache);
 
         // Now force a source change event and verify cache is emptied
         Aura.getDefinitionService().onSourceChanged(null, SourceListener.SourceMonitorEvent.CHANGED, null);
 
-        jsCache = context.getDefRegistry().getCachedString(uid, appDesc, key);
+        jsCache = context.getDefRegistry().getCachedPayload(uid, appDesc, key);
         assertNull("JS cache not cleared after source change event", jsCache);
     }
 
+    /**
+     * Verify app JS is sent gzipped, from the cached payload, when the client accepts it.
+     */
+    public void testJsGzippedWhenAccepted() throws Exception {
+        DefDescriptor<ApplicationDef> appDesc = DefDescriptorImpl.getInstance("appCache:withpreload",
+                ApplicationDef.class);
+        AuraContext context = Aura.getContextService()
+                .startContext(Mode.DEV, AuraContext.Format.JS, AuraContext.Authentication.AUTHENTICATED, appDesc);
+        final String uid = context.getDefRegistry().getUid(null, appDesc);
+        context.addLoaded(appDesc, uid);
+
+        DummyHttpServletRequest request = new DummyHttpServletRequest(RESOURCE_URI) {
+            @Override
+            public long getDateHeader(String name) {
+                return -1;
+            }
+
+            @Override
+            public String getHeader(String name) {
+                return "Accept-Encoding".equalsIgnoreCase(name) ? "gzip, deflate" : null;
+            }
+        };
+        request.setQueryParam(AuraResourceRewriteFilter.TYPE_PARAM, "app");
+        final Map<String, String> headers = new HashMap<>();
+        final int[] contentLength = { -1 };
+        HttpServletResponse response = new DummyHttpServletResponse() {
+            @Override
+            public void setHeader(String name, String value) {
+                headers.put(name, value);
+            }
+
+            @Override
+            public void setContentLength(int len) {
+                contentLength[0] = len;
+            }
+        };
+        AuraResourceServlet servlet = new AuraResourceServlet();
+        servlet.doGet(request, response);
+
+        ResourcePayload jsCache = context.getDefRegistry().getCachedPayload(uid, appDesc, "JS:DEV:" + uid);
+        assertNotNull("Nothing added to JS cache", jsCache);
+        assertNotNull("Definitions should compress", jsCache.getGzipBytes());
+        assertEquals("gzip", headers.get("Content-Encoding"));
+        assertEquals(jsCache.getGzipBytes().length, contentLength[0]);
+    }
+
+    public void testAcceptsEncoding() {
+        assertFalse(AuraResourceServlet.acceptsEncoding(null, "gzip"));
+        assertFalse(AuraResourceServlet.acceptsEncoding("", "gzip"));
+        assertTrue(AuraResourceServlet.acceptsEncoding("gzip", "gzip"));
+        assertTrue(AuraResourceServlet.acceptsEncoding("deflate, GZIP;q=0.5", "gzip"));
+        assertFalse(AuraResourceServlet.acceptsEncoding("deflate, br", "gzip"));
+        assertFalse(AuraResourceServlet.acceptsEncoding("gzip;q=0", "gzip"));
+        assertFalse(AuraResourceServlet.acceptsEncoding("gzip; q=0.000", "gzip"));
+        assertTrue(AuraResourceServlet.acceptsEncoding("*", "gzip"));
+        assertFalse(AuraResourceServlet.acceptsEncoding("*;q=0", "gzip"));
+        assertTrue(AuraResourceServlet.acceptsEncoding("*;q=0, gzip", "gzip"));
+        assertFalse(AuraResourceServlet.acceptsEncoding("gzip;q=0, *", "gzip"));
+    }
+
+    /**
+     * Verify an error can still be written after the payload has gone to the output stream.
+     */
+    public void testStreamingResponseWritesAfterOutputStream() throws Exception {
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        final boolean[] streamTaken = { false };
+        HttpServletResponse response = new DummyHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                streamTaken[0] = true;
+                return new ServletOutputStream() {
+                    @Override
+                    public void write(int b) {
+                        written.write(b);
+                    }
+                };
+            }
+
+            @Override
+            public PrintWriter getWriter() {
+                if (streamTaken[0]) {
+                    throw new IllegalStateException("getOutputStream() has already been called");
+                }
+                return new PrintWriter(written);
+            }
+
+            @Override
+            public String getCharacterEncoding() {
+                return AuraBaseServlet.UTF_ENCODING;
+            }
+        };
+        StreamingResponse streaming = new StreamingResponse(response);
+        streaming.getOutputStream().write("payload".getBytes(AuraBaseServlet.UTF_ENCODING));
+        streaming.getWriter().write("/*error*/");
+        streaming.flushWriter();
+        assertEquals("payload/*error*/", new String(written.toByteArray(), AuraBaseServlet.UTF_ENCODING));
+    }
+
     /**
      * Verify cache of SVG definitions is cleared on source change in DEV mode.
      */
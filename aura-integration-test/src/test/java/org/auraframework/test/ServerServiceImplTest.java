@@ -34,6 +34,9 @@ import org.auraframework.def.DefinitionAccess;
 import org.auraframework.def.TypeDef;
 import org.auraframework.def.ValueDef;
 import org.auraframework.impl.AuraImplTestCase;
+import org.auraframework.impl.admin.LatencyHistogram;
+import org.auraframework.impl.admin.RequestHistograms;
+import org.auraframework.impl.java.controller.IndependentActionTestController;
 import org.auraframework.instance.AbstractActionImpl;
 import org.auraframework.instance.Action;
 import org.auraframework.instance.ActionDelegate;
@@ -170,6 +173,11 @@ public class ServerServiceImplTest extends AuraImplTestCase {
         public List<String> getLoggableParams() {
             return Lists.newArrayList();
         }
+
+        @Override
+        public boolean isIndependent() {
+            return false;
+        }
     }
     
    
@@ -334,6 +342,112 @@ public class ServerServiceImplTest extends AuraImplTestCase {
         
     }
 
+    private Action getThreadNameAction(String name, String id) throws Exception {
+        Action action = (Action) Aura.getInstanceService().getInstance(
+                "java://org.auraframework.impl.java.controller.IndependentActionTestController/ACTION$" + name,
+                ActionDef.class, Maps.<String, Object> newHashMap());
+        action.setId(id);
+        return action;
+    }
+
+    /**
+     * Independent actions run on the action pool when parallel execution is on, and their results are still
+     * written in order.
+     */
+    @SuppressWarnings("unchecked")
+    public void testIndependentActionsRunOnPool() throws Exception {
+        String oldMode = System.getProperty("aura.action.mode");
+        System.setProperty("aura.action.mode", "parallel");
+        try {
+            Aura.getContextService().startContext(Mode.UTEST, Format.JSON, Authentication.AUTHENTICATED);
+            StringWriter sw = new StringWriter();
+            // the first one holds the request thread until the pool has run the independent ones
+            IndependentActionTestController.expectIndependentRuns(2);
+            Action a = getThreadNameAction("getThreadNameAfterIndependentRuns", "a");
+            Action b = getThreadNameAction("getThreadNameIndependently", "b");
+            Action c = getThreadNameAction("getThreadName", "c");
+            Action d = getThreadNameAction("getThreadNameIndependently", "d");
+            List<Action> actions = Lists.newArrayList(a, b, c, d);
+            Aura.getServerService().run(new Message(actions), Aura.getContextService().getCurrentContext(), sw,
+                    null);
+
+            String requestThread = Thread.currentThread().getName();
+            assertEquals(requestThread, a.getReturnValue());
+            assertTrue("Expected to run on the pool: " + b.getReturnValue(),
+                    ((String) b.getReturnValue()).startsWith("aura-action-"));
+            assertEquals(requestThread, c.getReturnValue());
+            assertTrue("Expected to run on the pool: " + d.getReturnValue(),
+                    ((String) d.getReturnValue()).startsWith("aura-action-"));
+
+            Map<String, Object> json = (Map<String, Object>) new JsonReader().read(sw.toString());
+            List<Object> written = (List<Object>) json.get("actions");
+            assertEquals(actions.size(), written.size());
+            for (int i = 0; i < actions.size(); i++) {
+                Map<String, Object> action = (Map<String, Object>) written.get(i);
+                assertEquals(actions.get(i).getId(), action.get("id"));
+                assertEquals("SUCCESS", action.get("state"));
+                assertEquals(actions.get(i).getReturnValue(), action.get("returnValue"));
+            }
+        } finally {
+            if (oldMode == null) {
+                System.clearProperty("aura.action.mode");
+            } else {
+                System.setProperty("aura.action.mode", oldMode);
+            }
+        }
+    }
+
+    /**
+     * The latency of an action run by the pool is its run time there, not the time the request waited for it.
+     */
+    public void testIndependentActionLatencyRecordedOnPool() throws Exception {
+        String oldMode = System.getProperty("aura.action.mode");
+        System.setProperty("aura.action.mode", "parallel");
+        try {
+            Aura.getContextService().startContext(Mode.UTEST, Format.JSON, Authentication.AUTHENTICATED);
+            // the first one holds the request thread until the pool is done, so the request doesn't wait at all
+            IndependentActionTestController.expectIndependentRuns(1);
+            Action a = getThreadNameAction("getThreadNameAfterIndependentRuns", "a");
+            Map<String, Object> params = Maps.newHashMap();
+            params.put("millis", 100);
+            Action b = (Action) Aura.getInstanceService().getInstance(
+                    "java://org.auraframework.impl.java.controller.IndependentActionTestController/ACTION$sleepIndependently",
+                    ActionDef.class, params);
+            b.setId("b");
+            LatencyHistogram histogram = RequestHistograms.getAction(b.getDescriptor().getQualifiedName());
+            long count = histogram.getCount();
+            long total = histogram.getTotalValue();
+
+            Aura.getServerService().run(new Message(Lists.newArrayList(a, b)),
+                    Aura.getContextService().getCurrentContext(), new StringWriter(), null);
+
+            assertTrue("Expected to run on the pool: " + b.getReturnValue(),
+                    ((String) b.getReturnValue()).startsWith("aura-action-"));
+            assertEquals("Action latency should be recorded once", count + 1, histogram.getCount());
+            assertTrue("Action latency should include its run time",
+                    histogram.getTotalValue() - total >= 100000L);
+        } finally {
+            if (oldMode == null) {
+                System.clearProperty("aura.action.mode");
+            } else {
+                System.setProperty("aura.action.mode", oldMode);
+            }
+        }
+    }
+
+    /**
+     * Without parallel execution, independent actions are run on the request thread like any other.
+     */
+    public void testIndependentActionsRunSeriallyByDefault() throws Exception {
+        Aura.getContextService().startContext(Mode.UTEST, Format.JSON, Authentication.AUTHENTICATED);
+        StringWriter sw = new StringWriter();
+        Action a = getThreadNameAction("getThreadName", "a");
+        Action b = getThreadNameAction("getThreadNameIndependently", "b");
+        Aura.getServerService().run(new Message(Lists.newArrayList(a, b)),
+                Aura.getContextService().getCurrentContext(), sw, null);
+        assertEquals(Thread.currentThread().getName(), b.getReturnValue());
+    }
+
     /**
      * Check that our EmptyAction is properly serialized.
      *
@@ -383,6 +383,17 @@ public class JavaControllerTest extends AuraImplTestCase {
                 ((JavaActionDef) actionDef).isBackground());
     }
 
+    /**
+     * Action with IndependentAction annotation is independent
+     */
+    public void testJavaActionDefIsIndependentWithAnnotation() throws Exception {
+        ControllerDef controller = getJavaController("java://org.auraframework.impl.java.controller.IndependentActionTestController");
+        assertFalse("ActionDefs should not be independent without IndependentAction annotation",
+                controller.getActionDefs().get("getThreadName").isIndependent());
+        assertTrue("ActionDefs should be independent with IndependentAction annotation",
+                controller.getActionDefs().get("getThreadNameIndependently").isIndependent());
+    }
+
     public void testSerialize() throws Exception {
         ControllerDef controller = getJavaController("java://org.auraframework.impl.java.controller.ParallelActionTestController");
         serializeAndGoldFile(controller);
@@ -16,7 +16,10 @@
 package org.auraframework.test.source.file;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Set;
 
 import org.auraframework.components.AuraComponentsFiles;
@@ -30,7 +33,11 @@ import org.auraframework.impl.source.file.FileSourceLoader;
 import org.auraframework.impl.system.DefDescriptorImpl;
 import org.auraframework.system.Parser.Format;
 import org.auraframework.system.Source;
+import org.auraframework.system.SourceListener.SourceMonitorEvent;
 import org.auraframework.throwable.AuraRuntimeException;
+import org.auraframework.util.IOUtil;
+
+import com.google.common.collect.Sets;
 
 public class FileSourceLoaderTest extends AuraImplTestCase {
 
@@ -168,6 +175,90 @@ public class FileSourceLoaderTest extends AuraImplTestCase {
         assertEquals("Should not have found any components", 0, found.size());
     }
     
+    private File writeComponent(File base, String namespace, String name) throws IOException {
+        File dir = new File(new File(base, namespace), name);
+        dir.mkdirs();
+        File file = new File(dir, name + ".cmp");
+        Files.write(file.toPath(), "<aura:component/>".getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * The loader's index is kept current from change notifications, rather than asking the file system on each lookup.
+     */
+    public void testIndexFollowsSourceChanges() throws Exception {
+        File base = Files.createTempDirectory("fileSourceLoader").toFile();
+        try {
+            writeComponent(base, "idxtest", "one");
+            FileSourceLoader loader = new FileSourceLoader(base);
+            DefDescriptor<ComponentDef> one = DefDescriptorImpl.getInstance("idxtest:one", ComponentDef.class);
+            DefDescriptor<ComponentDef> two = DefDescriptorImpl.getInstance("idxtest:two", ComponentDef.class);
+            assertTrue(loader.getSource(one).exists());
+            assertEquals(Sets.newHashSet("idxtest"), loader.getNamespaces());
+
+            // found on disk before it is notified, and the notification changes nothing.
+            File twoFile = writeComponent(base, "idxtest", "two");
+            assertTrue(loader.getSource(two).exists());
+            loader.onSourceChanged(null, SourceMonitorEvent.CREATED, twoFile.getCanonicalPath());
+            assertTrue(loader.getSource(two).exists());
+            assertEquals(2, loader.find(new DescriptorFilter("markup://idxtest:*")).size());
+
+            // a deleted directory takes its files with it.
+            File twoDir = twoFile.getParentFile();
+            String twoDirPath = twoDir.getCanonicalPath();
+            IOUtil.delete(twoDir);
+            loader.onSourceChanged(null, SourceMonitorEvent.DELETED, twoDirPath);
+            assertFalse(loader.getSource(two).exists());
+            assertEquals(Sets.<DefDescriptor<?>>newHashSet(one), loader.find(new DescriptorFilter("markup://idxtest:*")));
+
+            // invalidating everything goes back to the disk.
+            writeComponent(base, "idxother", "three");
+            loader.onSourceChanged(null, SourceMonitorEvent.CHANGED, null);
+            assertEquals(Sets.newHashSet("idxtest", "idxother"), loader.getNamespaces());
+        } finally {
+            IOUtil.delete(base);
+        }
+    }
+
+    /**
+     * A file written through the loader's own source is indexed straight away, without the file monitor.
+     */
+    public void testIndexFollowsWritesThroughSource() throws Exception {
+        File base = Files.createTempDirectory("fileSourceLoader").toFile();
+        try {
+            writeComponent(base, "idxtest", "one");
+            FileSourceLoader loader = new FileSourceLoader(base);
+            DefDescriptor<ComponentDef> two = DefDescriptorImpl.getInstance("idxtest:two", ComponentDef.class);
+            new File(new File(base, "idxtest"), "two").mkdirs();
+            Source<ComponentDef> source = loader.getSource(two);
+            assertFalse(source.exists());
+
+            source.addOrUpdate("<aura:component/>");
+            assertTrue(source.exists());
+            assertTrue(loader.getSource(two).exists());
+            assertEquals(2, loader.find(new DescriptorFilter("markup://idxtest:*")).size());
+        } finally {
+            IOUtil.delete(base);
+        }
+    }
+
+    /**
+     * Lookups are case insensitive, and give the descriptor as it is on disk.
+     */
+    public void testGetSourceCaseInsensitive() throws Exception {
+        File base = Files.createTempDirectory("fileSourceLoader").toFile();
+        try {
+            writeComponent(base, "idxtest", "mixedCase");
+            FileSourceLoader loader = new FileSourceLoader(base);
+            Source<ComponentDef> src = loader.getSource(DefDescriptorImpl.getInstance("idxtest:MIXEDcase",
+                    ComponentDef.class));
+            assertTrue(src.exists());
+            assertEquals("mixedCase", src.getDescriptor().getName());
+        } finally {
+            IOUtil.delete(base);
+        }
+    }
+
     /**
      * All namespaces loaded by FileSourceLoader are privileged, verify that FileSourceLoader says so.
      */
@@ -31,6 +31,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 
@@ -648,6 +649,158 @@ public class MasterDefRegistryImplTest extends AuraImplTestCase {
         Mockito.verify(registry, Mockito.times(0)).compileDE(Mockito.eq(cmpDesc));
     }
 
+    /**
+     * A parallel compile should find the same definitions as a serial one. These are in an unprivileged namespace so
+     * that neither compile can use the other's cached results.
+     */
+    public void testCompileDefParallel() throws Exception {
+        String cmpContent = String.format(baseComponentTag, "access='global'", "");
+        DefDescriptor<ComponentDef> cmpDesc1 = getAuraTestingUtil().addSourceAutoCleanup(ComponentDef.class,
+                cmpContent, null, false);
+        DefDescriptor<ComponentDef> cmpDesc2 = getAuraTestingUtil().addSourceAutoCleanup(ComponentDef.class,
+                cmpContent, null, false);
+        DefDescriptor<ComponentDef> cmpDesc = getAuraTestingUtil().addSourceAutoCleanup(
+                ComponentDef.class,
+                String.format(baseComponentTag, "access='global'",
+                        String.format("<%s/><%s/>", cmpDesc1.getDescriptorName(), cmpDesc2.getDescriptorName())),
+                null, false);
+
+        MasterDefRegistryImplOverride parallel;
+        System.setProperty("aura.compile.mode", "parallel");
+        try {
+            parallel = getDefRegistry(false);
+        } finally {
+            System.clearProperty("aura.compile.mode");
+        }
+        String uid = parallel.getUid(null, cmpDesc);
+        ComponentDef def = parallel.getDef(cmpDesc);
+        assertNotNull(def);
+        assertTrue("Definition should be valid after a parallel compile", def.isValid());
+
+        MasterDefRegistryImplOverride serial = getDefRegistry(false);
+        assertEquals("Parallel compile gave a different uid", serial.getUid(null, cmpDesc), uid);
+        assertEquals("Parallel compile found different dependencies", serial.getDependencies(uid),
+                parallel.getDependencies(uid));
+    }
+
+    /**
+     * Start a compile of a descriptor on another thread, which blocks in the registry until released.
+     * 
+     * @param parsing counted down when the compile reaches the registry.
+     * @param release the latch the compile waits for.
+     * @param failure set to anything that the compile throws.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Thread startBlockedCompile(final DefDescriptor<ComponentDef> cmpDesc, final CountDownLatch parsing,
+            final CountDownLatch release, final Throwable[] failure) throws Exception {
+        final MasterDefRegistryImplOverride registry = getDefRegistry(true);
+        for (DefRegistry subReg : registry.getAllRegistries()) {
+            Mockito.doAnswer(new Answer<Definition>() {
+                @Override
+                public Definition answer(InvocationOnMock invocation) throws Throwable {
+                    parsing.countDown();
+                    release.await(30, TimeUnit.SECONDS);
+                    return (Definition) invocation.callRealMethod();
+                }
+            }).when(subReg).getDef(Mockito.eq(cmpDesc));
+        }
+        Thread compile = new Thread() {
+            @Override
+            public void run() {
+                Aura.getContextService().startContext(Mode.UTEST, Format.JSON, Authentication.AUTHENTICATED);
+                try {
+                    registry.getDef(cmpDesc);
+                } catch (Throwable t) {
+                    failure[0] = t;
+                } finally {
+                    Aura.getContextService().endContext();
+                }
+            }
+        };
+        compile.start();
+        assertTrue("Compile never reached the registry", parsing.await(30, TimeUnit.SECONDS));
+        return compile;
+    }
+
+    /**
+     * A compile started while another thread compiles the same descriptor should wait, and then reuse its result.
+     */
+    @ThreadHostileTest("counts compiles across threads")
+    public void testCompileDECoalescesConcurrentCompile() throws Exception {
+        final DefDescriptor<ComponentDef> cmpDesc = addSourceAutoCleanup(ComponentDef.class, "<aura:component/>");
+        CountDownLatch release = new CountDownLatch(1);
+        Throwable[] failure = new Throwable[1];
+        Thread first = startBlockedCompile(cmpDesc, new CountDownLatch(1), release, failure);
+
+        long coalesced = MasterDefRegistryImpl.getCoalescedCompileCount();
+        final ComponentDef[] found = new ComponentDef[1];
+        final Throwable[] secondFailure = new Throwable[1];
+        final MasterDefRegistryImplOverride registry = getDefRegistry(false);
+        Thread second = new Thread() {
+            @Override
+            public void run() {
+                Aura.getContextService().startContext(Mode.UTEST, Format.JSON, Authentication.AUTHENTICATED);
+                try {
+                    found[0] = registry.getDef(cmpDesc);
+                } catch (Throwable t) {
+                    secondFailure[0] = t;
+                } finally {
+                    Aura.getContextService().endContext();
+                }
+            }
+        };
+        try {
+            second.start();
+            // the second compile waits on the first with a timeout, release the first once it does.
+            long deadline = System.currentTimeMillis() + 30000;
+            while (second.getState() != Thread.State.TIMED_WAITING && second.isAlive()
+                    && System.currentTimeMillis() < deadline) {
+                Thread.yield();
+            }
+            assertEquals("Second compile should be waiting for the first", Thread.State.TIMED_WAITING,
+                    second.getState());
+        } finally {
+            release.countDown();
+        }
+        first.join(30000);
+        second.join(30000);
+        assertNull("First compile failed: " + failure[0], failure[0]);
+        assertNull("Second compile failed: " + secondFailure[0], secondFailure[0]);
+        assertNotNull(found[0]);
+        assertEquals("Compile should have reused the concurrent compile", coalesced + 1,
+                MasterDefRegistryImpl.getCoalescedCompileCount());
+    }
+
+    /**
+     * A compile should stop waiting for a concurrent compile of the same descriptor that takes too long, and compile
+     * it itself.
+     */
+    @ThreadHostileTest("counts compiles across threads")
+    public void testCompileDEStopsWaitingForHungCompile() throws Exception {
+        DefDescriptor<ComponentDef> cmpDesc = addSourceAutoCleanup(ComponentDef.class, "<aura:component/>");
+        CountDownLatch release = new CountDownLatch(1);
+        Throwable[] failure = new Throwable[1];
+        Thread first = startBlockedCompile(cmpDesc, new CountDownLatch(1), release, failure);
+        try {
+            long coalesced = MasterDefRegistryImpl.getCoalescedCompileCount();
+            MasterDefRegistryImplOverride registry;
+            System.setProperty("aura.compile.waitMillis", "100");
+            try {
+                registry = getDefRegistry(false);
+            } finally {
+                System.clearProperty("aura.compile.waitMillis");
+            }
+            assertNotNull(registry.getDef(cmpDesc));
+            assertEquals("Compile should not have reused the hung compile", coalesced,
+                    MasterDefRegistryImpl.getCoalescedCompileCount());
+            assertTrue("First compile should still be blocked", first.isAlive());
+        } finally {
+            release.countDown();
+        }
+        first.join(30000);
+        assertNull("First compile failed: " + failure[0], failure[0]);
+    }
+
     public void testGetDefDescriptorNull() throws Exception {
         MasterDefRegistryImplOverride registry = getDefRegistry(false);
         assertNull(registry.getDef(null));
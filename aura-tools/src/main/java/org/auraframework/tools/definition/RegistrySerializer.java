@@ -19,7 +19,6 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
@@ -35,10 +34,10 @@ import org.auraframework.def.DescriptorFilter;
 import org.auraframework.def.NamespaceDef;
 import org.auraframework.impl.source.file.FileSourceLoader;
 import org.auraframework.impl.system.StaticDefRegistryImpl;
+import org.auraframework.impl.system.StaticRegistryFile;
 import org.auraframework.system.AuraContext.Authentication;
 import org.auraframework.system.AuraContext.Format;
 import org.auraframework.system.AuraContext.Mode;
-import org.auraframework.system.DefRegistry;
 import org.auraframework.system.MasterDefRegistry;
 import org.auraframework.system.SourceLoader;
 import org.auraframework.throwable.quickfix.QuickFixException;
@@ -211,16 +210,14 @@ public class RegistrySerializer {
      * @throws RegistrySerializerException if there is an error.
      */
     public void write(@NonNull Set<String> namespaces, @NonNull OutputStream out) {
-        List<DefRegistry<Definition>> regs = Lists.newArrayList();
+        List<StaticDefRegistryImpl<Definition>> regs = Lists.newArrayList();
         for (String name : namespaces) {
             regs.add(getRegistry(name));
         }
 
-        ObjectOutputStream objectOut = null;
         try {
             try {
-                objectOut = new ObjectOutputStream(out);
-                objectOut.writeObject(regs);
+                StaticRegistryFile.write(regs, out);
             } finally {
                 out.close();
             }
@@ -238,7 +235,7 @@ public class RegistrySerializer {
      *
      * @param namespace the namespace for which we want to retrieve a static registry.
      */
-    private DefRegistry<Definition> getRegistry(@NonNull String namespace) {
+    private StaticDefRegistryImpl<Definition> getRegistry(@NonNull String namespace) {
         Set<String> prefixes = Sets.newHashSet();
         Set<DefType> types = Sets.newHashSet();
         Set<DefDescriptor<?>> descriptors;
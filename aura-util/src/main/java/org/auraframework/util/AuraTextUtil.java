@@ -15,7 +15,9 @@
  */
 package org.auraframework.util;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.util.ArrayList;
@@ -214,6 +216,89 @@ public class AuraTextUtil {
         return TrieMatcher.replaceMultiple(in, JSON_SEARCH_REPLACE);
     }
 
+    /**
+     * Escapes a string for JSON straight into an Appendable, without building an escaped copy.
+     * 
+     * This must give exactly the same output as {@link #escapeForJSONString(String)}, so it has to be kept in step
+     * with JSON_IN and JSON_OUT. Runs that need no escaping are appended as ranges of the input.
+     * 
+     * @param in the incoming (unsafe) string
+     * @param out where to append the escaped string
+     */
+    public static void escapeForJSONString(CharSequence in, Appendable out) throws IOException {
+        int length = in.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            String replacement;
+            int matchLength = 1;
+            switch (in.charAt(i)) {
+            case '\\':
+                replacement = "\\\\";
+                break;
+            case '\n':
+            case '\u2028':
+                replacement = "\\n";
+                break;
+            case '\r':
+                replacement = "\\r";
+                break;
+            case '\t':
+                replacement = "\\t";
+                break;
+            case '"':
+                replacement = "\\\"";
+                break;
+            case '<':
+                replacement = "\\u003C";
+                break;
+            case '>':
+                replacement = "\\u003E";
+                break;
+            case '\u2029':
+                replacement = "\\u2029";
+                break;
+            case '\u0000':
+                replacement = "";
+                break;
+            case '!':
+                if (i + 2 >= length || in.charAt(i + 1) != '-' || in.charAt(i + 2) != '-') {
+                    continue;
+                }
+                replacement = "\\u0021--";
+                matchLength = 3;
+                break;
+            case '*':
+                if (i + 1 >= length || in.charAt(i + 1) != '/') {
+                    continue;
+                }
+                replacement = "\\u002A/";
+                matchLength = 2;
+                break;
+            default:
+                continue;
+            }
+            appendRange(in, start, i, out);
+            out.append(replacement);
+            i += matchLength - 1;
+            start = i + 1;
+        }
+        appendRange(in, start, length, out);
+    }
+
+    /**
+     * Writer.append(CharSequence, int, int) copies the range into a new String, so write Strings to Writers directly.
+     */
+    private static void appendRange(CharSequence in, int start, int end, Appendable out) throws IOException {
+        if (start == end) {
+            return;
+        }
+        if (out instanceof Writer && in instanceof String) {
+            ((Writer) out).write((String) in, start, end - start);
+        } else {
+            out.append(in, start, end);
+        }
+    }
+
     /**
      * Properly escapes string for JSON Function.
      * 
@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A minimal OutputStreamWriter implementation that encodes UTF-8 straight into
+ * a byte buffer taken from a shared pool, and writes that buffer to the wrapped
+ * OutputStream when it fills up. Unlike Java's built-in OutputStreamWriter it
+ * does not copy CharSequences into Strings on append, so large builders can be
+ * streamed out without a transient copy.<br>
+ * <br>
+ * A writer can also hold back a pending segment. Anything written after
+ * {@link #mark()} stays in the buffer (growing it if needed) until
+ * {@link #commit()}, and {@link #reset()} throws it away. This lets a caller
+ * discard a partially written value and replace it with something valid.<br>
+ * <br>
+ * Unpaired surrogates are written as '?', as OutputStreamWriter does.
+ */
+@NotThreadSafe
+public class Utf8OutputStreamWriter extends Writer {
+    public static final int BUFFER_SIZE = 8192;
+    private static final int POOL_SIZE = 64;
+    private static final BlockingQueue<byte[]> pool = new ArrayBlockingQueue<byte[]>(POOL_SIZE);
+
+    private final OutputStream out;
+    private byte[] buf;
+    private int count = 0;
+    private int mark = -1;
+    private char highSurrogate = 0;
+    private char markedHighSurrogate = 0;
+    private boolean closed = false;
+
+    /**
+     * Creates an OutputStreamWriter-like class that always uses UTF-8.
+     *
+     * @param out The OutputStream to wrap
+     */
+    public Utf8OutputStreamWriter(OutputStream out) {
+        this.out = out;
+        byte[] pooled = pool.poll();
+        this.buf = pooled != null ? pooled : new byte[BUFFER_SIZE];
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        ensureOpen();
+        ensureCapacity(4);
+        encode((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        ensureOpen();
+        int end = off + len;
+        for (int i = off; i < end;) {
+            // reserve the worst case for a chunk, so the loop does not check per char.
+            int chunk = Math.min(end - i, BUFFER_SIZE / 4);
+            ensureCapacity(chunk * 3 + 4);
+            int chunkEnd = i + chunk;
+            for (; i < chunkEnd; i++) {
+                char c = cbuf[i];
+                if (c < 0x80 && highSurrogate == 0) {
+                    buf[count++] = (byte) c;
+                } else {
+                    encode(c);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        append(str, off, off + len);
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        if (csq == null) {
+            csq = "null";
+        }
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        ensureOpen();
+        if (csq == null) {
+            csq = "null";
+        }
+        for (int i = start; i < end;) {
+            int chunk = Math.min(end - i, BUFFER_SIZE / 4);
+            ensureCapacity(chunk * 3 + 4);
+            int chunkEnd = i + chunk;
+            for (; i < chunkEnd; i++) {
+                char c = csq.charAt(i);
+                if (c < 0x80 && highSurrogate == 0) {
+                    buf[count++] = (byte) c;
+                } else {
+                    encode(c);
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Writer append(char c) throws IOException {
+        write(c);
+        return this;
+    }
+
+    /**
+     * Start a pending segment. Nothing written from here on reaches the
+     * OutputStream until {@link #commit()} is called. A mark replaces any
+     * previous one.
+     */
+    public void mark() {
+        mark = count;
+        markedHighSurrogate = highSurrogate;
+    }
+
+    /**
+     * Discard everything written since the last {@link #mark()}.
+     *
+     * @throws IllegalStateException if there is no mark.
+     */
+    public void reset() {
+        if (mark < 0) {
+            throw new IllegalStateException("No mark to reset to");
+        }
+        count = mark;
+        highSurrogate = markedHighSurrogate;
+        mark = -1;
+    }
+
+    /**
+     * Accept everything written since the last {@link #mark()}, so it can be
+     * written to the OutputStream.
+     */
+    public void commit() {
+        mark = -1;
+    }
+
+    /**
+     * @return true if there is a pending segment.
+     */
+    public boolean isMarked() {
+        return mark >= 0;
+    }
+
+    /**
+     * Flush the buffer, up to any pending segment, and then the OutputStream.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * Flush the buffer, close the OutputStream, and return the buffer to the
+     * pool. A pending segment is committed first, so anything written after a
+     * failure still goes out.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            mark = -1;
+            flushBuffer();
+            out.close();
+        } finally {
+            closed = true;
+            if (buf.length == BUFFER_SIZE) {
+                pool.offer(buf);
+            }
+            buf = null;
+        }
+    }
+
+    /**
+     * Encode a single char, which must fit in the buffer.
+     */
+    private void encode(char c) {
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int cp = Character.toCodePoint(high, c);
+                buf[count++] = (byte) (0xF0 | (cp >> 18));
+                buf[count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (cp & 0x3F));
+                return;
+            }
+            buf[count++] = '?';
+        }
+        if (c < 0x80) {
+            buf[count++] = (byte) c;
+        } else if (c < 0x800) {
+            buf[count++] = (byte) (0xC0 | (c >> 6));
+            buf[count++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buf[count++] = '?';
+        } else {
+            buf[count++] = (byte) (0xE0 | (c >> 12));
+            buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buf[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    /**
+     * Make room for at least len more bytes, writing out what we can, and only
+     * growing the buffer when a pending segment does not fit.
+     */
+    private void ensureCapacity(int len) throws IOException {
+        if (count + len <= buf.length) {
+            return;
+        }
+        flushBuffer();
+        if (count + len > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + len));
+        }
+    }
+
+    /**
+     * Write out the buffer, up to the pending segment if there is one, and
+     * move the pending segment to the start.
+     */
+    private void flushBuffer() throws IOException {
+        int end = mark >= 0 ? mark : count;
+        if (end == 0) {
+            return;
+        }
+        out.write(buf, 0, end);
+        if (end < count) {
+            System.arraycopy(buf, end, buf, 0, count - end);
+        }
+        count -= end;
+        if (mark >= 0) {
+            mark = 0;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -20,6 +20,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
@@ -34,6 +36,22 @@ public class DateServiceImpl implements DateService {
 
     private static DateService INSTANCE = new DateServiceImpl();
 
+    /**
+     * Bound on the converters kept, as patterns can come from anywhere.
+     */
+    private static final int MAX_CONVERTERS = 1024;
+
+    /**
+     * The converters for each style and locale. joda-time formatters are immutable, so one converter serves every
+     * thread.
+     */
+    private final ConcurrentMap<String, DateConverter> styleConverters = new ConcurrentHashMap<>();
+
+    /**
+     * The converters for each pattern and locale.
+     */
+    private final ConcurrentMap<String, DateConverter> patternConverters = new ConcurrentHashMap<>();
+
     public static DateService get() {
         return INSTANCE;
 
@@ -106,7 +124,24 @@ public class DateServiceImpl implements DateService {
      */
     @Override
     public DateConverter getPatternConverter(Locale locale, String pattern) {
-        return new JodaDateConverter(DateTimeFormat.forPattern(pattern).withLocale(locale));
+        if (locale == null) {
+            return new JodaDateConverter(DateTimeFormat.forPattern(pattern).withLocale(locale));
+        }
+        String key = pattern + '@' + locale;
+        DateConverter converter = patternConverters.get(key);
+        if (converter == null) {
+            converter = new JodaDateConverter(DateTimeFormat.forPattern(pattern).withLocale(locale));
+            putConverter(patternConverters, key, converter);
+        }
+        return converter;
+    }
+
+    private static void putConverter(ConcurrentMap<String, DateConverter> converters, String key,
+            DateConverter converter) {
+        if (converters.size() >= MAX_CONVERTERS) {
+            converters.clear();
+        }
+        converters.put(key, converter);
     }
 
     @Override
@@ -164,8 +199,19 @@ public class DateServiceImpl implements DateService {
             throw new IllegalArgumentException(
                     "expecting two characters:  S, M, L, or F.  Use - to indicate that date or time should be repressed.");
         }
-        String pattern = DateTimeFormat.patternForStyle(style, locale);
-        return new JodaDateConverter(DateTimeFormat.forPattern(pattern).withLocale(locale));
+        if (locale == null) {
+            // the pattern would be for the default locale at the time
+            String pattern = DateTimeFormat.patternForStyle(style, locale);
+            return new JodaDateConverter(DateTimeFormat.forPattern(pattern).withLocale(locale));
+        }
+        String key = style + '@' + locale;
+        DateConverter converter = styleConverters.get(key);
+        if (converter == null) {
+            String pattern = DateTimeFormat.patternForStyle(style, locale);
+            converter = new JodaDateConverter(DateTimeFormat.forPattern(pattern).withLocale(locale));
+            putConverter(styleConverters, key, converter);
+        }
+        return converter;
     }
 
     private static enum StyleType {
@@ -255,11 +301,25 @@ public class DateServiceImpl implements DateService {
         }
 
         /**
-         * Tries, in order: ISO_8601_DATETIME, ISO_8601_DATETIME_NO_SECONDS,
-         * ISO_8601_DATE If none parse, null is returned.
+         * Reads the usual forms in one pass with IsoDateTimeFormat, then tries, in order: ISO_8601_DATETIME,
+         * ISO_8601_DATETIME_NO_SECONDS, ISO_8601_DATETIME_SECONDS, ISO_8601_DATE. If none parse, null is returned.
          */
         @Override
         public Date parse(String date, TimeZone timeZone) {
+            if (date != null && timeZone != null) {
+                IsoDateTimeFormat.Parsed parsed = IsoDateTimeFormat.parse(date);
+                if (parsed != null) {
+                    if (parsed.hasOffset() || isUtc(timeZone)) {
+                        return new Date(parsed.getMillis());
+                    }
+                    // local fields, leave the time zone rules to joda.
+                    try {
+                        return getConverter(parsed.getVariant()).parse(date, timeZone);
+                    } catch (IllegalArgumentException e) {
+                        // try them all
+                    }
+                }
+            }
             for (DateConverter format : isoConversions) {
                 try {
                     return format.parse(date, timeZone);
@@ -271,19 +331,29 @@ public class DateServiceImpl implements DateService {
         }
 
         /**
-         * Tries, in order: ISO_8601_DATETIME, ISO_8601_DATETIME_NO_SECONDS,
-         * ISO_8601_DATE If none parse, null is returned.
+         * As {@link #parse(String, TimeZone)}, in GMT.
          */
         @Override
         public Date parse(String date) {
-            for (DateConverter format : isoConversions) {
-                try {
-                    return format.parse(date);
-                } catch (IllegalArgumentException e) {
-                    // try the next one
-                }
+            return parse(date, ISO8601JodaDateConverter.ISO8601_DEFAULT_TIMEZONE);
+        }
+
+        private boolean isUtc(TimeZone timeZone) {
+            String id = timeZone.getID();
+            return "GMT".equals(id) || "UTC".equals(id);
+        }
+
+        private DateConverter getConverter(IsoDateTimeFormat.Variant variant) {
+            switch (variant) {
+            case DATE_TIME:
+                return ISO_8601_DATETIME;
+            case DATE_TIME_NO_SECONDS:
+                return ISO_8601_DATETIME_NO_SECONDS;
+            case DATE_TIME_SECONDS:
+                return ISO_8601_DATETIME_SECONDS;
+            default:
+                return ISO_8601_DATE;
             }
-            return null;
         }
     };
 
@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.date;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Formats instants as ISO-8601 date times in UTC (yyyy-MM-dd'T'HH:mm:ss'Z'), the format that json2 uses, and parses
+ * the forms of ISO-8601 that the client sends.
+ *
+ * This is stateless, so unlike a shared SimpleDateFormat it needs no lock, and it appends straight to the output
+ * rather than building a String.
+ */
+public final class IsoDateTimeFormat {
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    /**
+     * The range where the proleptic Gregorian calendar computed here matches SimpleDateFormat: after the Julian
+     * cutover, and with four digit years.
+     */
+    private static final long MIN_FAST = -12212553600000L; // 1583-01-01T00:00:00Z
+    private static final long MAX_FAST = 253402300800000L; // 10000-01-01T00:00:00Z
+
+    /**
+     * The forms of date time read by {@link IsoDateTimeFormat#parse(CharSequence)}.
+     */
+    public enum Variant {
+        /** yyyy-MM-dd'T'HH:mm:ss.SSS followed by Z or an offset of +HH:mm or -HH:mm */
+        DATE_TIME,
+        /** yyyy-MM-dd'T'HH:mm'Z' */
+        DATE_TIME_NO_SECONDS,
+        /** yyyy-MM-dd'T'HH:mm:ss'Z' */
+        DATE_TIME_SECONDS,
+        /** yyyy-MM-dd */
+        DATE
+    }
+
+    /**
+     * A parsed date time.
+     */
+    public static final class Parsed {
+        private final Variant variant;
+        private final long millis;
+
+        private Parsed(Variant variant, long millis) {
+            this.variant = variant;
+            this.millis = millis;
+        }
+
+        /**
+         * @return the form that the text was in.
+         */
+        public Variant getVariant() {
+            return variant;
+        }
+
+        /**
+         * @return whether the text gave an offset from UTC, so that {@link #getMillis()} is the instant.
+         */
+        public boolean hasOffset() {
+            return variant == Variant.DATE_TIME;
+        }
+
+        /**
+         * @return the milliseconds since the epoch, reading the fields as UTC when the text has no offset.
+         */
+        public long getMillis() {
+            return millis;
+        }
+    }
+
+    private IsoDateTimeFormat() {
+    }
+
+    /**
+     * Parse a date time in one of the forms of {@link Variant}, in a single pass and without exceptions. The 'Z' of
+     * the forms without seconds or milliseconds is taken as a literal, as the joda-time patterns for them do.
+     *
+     * @param text the text to parse.
+     * @return the parsed date time, or null if the text is not exactly in one of the forms, or a field is out of
+     *         range.
+     */
+    public static Parsed parse(CharSequence text) {
+        int length = text.length();
+        if (length < 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return null;
+        }
+        int year = readDigits(text, 0, 4);
+        int month = readDigits(text, 5, 2);
+        int day = readDigits(text, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return null;
+        }
+        long millis = daysFromCivil(year, month, day) * MILLIS_PER_DAY;
+        if (length == 10) {
+            return new Parsed(Variant.DATE, millis);
+        }
+
+        if (length < 17 || text.charAt(10) != 'T' || text.charAt(13) != ':') {
+            return null;
+        }
+        int hour = readDigits(text, 11, 2);
+        int minute = readDigits(text, 14, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return null;
+        }
+        millis += (hour * 60 + minute) * 60000L;
+        if (length == 17) {
+            return text.charAt(16) == 'Z' ? new Parsed(Variant.DATE_TIME_NO_SECONDS, millis) : null;
+        }
+
+        if (length < 20 || text.charAt(16) != ':') {
+            return null;
+        }
+        int second = readDigits(text, 17, 2);
+        if (second < 0 || second > 59) {
+            return null;
+        }
+        millis += second * 1000L;
+        if (length == 20) {
+            return text.charAt(19) == 'Z' ? new Parsed(Variant.DATE_TIME_SECONDS, millis) : null;
+        }
+
+        if (length < 24 || text.charAt(19) != '.') {
+            return null;
+        }
+        int fraction = readDigits(text, 20, 3);
+        if (fraction < 0) {
+            return null;
+        }
+        millis += fraction;
+        char zone = text.charAt(23);
+        if (length == 24) {
+            return zone == 'Z' ? new Parsed(Variant.DATE_TIME, millis) : null;
+        }
+        if (length != 29 || (zone != '+' && zone != '-') || text.charAt(26) != ':') {
+            return null;
+        }
+        int offsetHours = readDigits(text, 24, 2);
+        int offsetMinutes = readDigits(text, 27, 2);
+        if (offsetHours < 0 || offsetHours > 23 || offsetMinutes < 0 || offsetMinutes > 59) {
+            return null;
+        }
+        long offset = (offsetHours * 60 + offsetMinutes) * 60000L;
+        return new Parsed(Variant.DATE_TIME, zone == '+' ? millis - offset : millis + offset);
+    }
+
+    /**
+     * @return the value of a run of ASCII digits, or -1 if there is anything else.
+     */
+    private static int readDigits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+        case 2:
+            return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+
+    /**
+     * Days since the epoch of a date in the proleptic Gregorian calendar, the inverse of the conversion in
+     * {@link #formatUtc(long, Appendable)}.
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = (int) (y - era * 400);
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Format an instant.
+     *
+     * @param millis the milliseconds since the epoch.
+     * @param out where to write the formatted date time.
+     */
+    public static void formatUtc(long millis, Appendable out) throws IOException {
+        if (millis < MIN_FAST || millis >= MAX_FAST) {
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+            format.setTimeZone(TimeZone.getTimeZone("GMT"));
+            out.append(format.format(new Date(millis)));
+            return;
+        }
+        long days = millis / MILLIS_PER_DAY;
+        long millisOfDay = millis % MILLIS_PER_DAY;
+        if (millisOfDay < 0) {
+            days--;
+            millisOfDay += MILLIS_PER_DAY;
+        }
+        int secondsOfDay = (int) (millisOfDay / 1000);
+
+        // civil date from days since the epoch, in 400 year eras starting on March 1st.
+        long shifted = days + 719468;
+        long era = (shifted >= 0 ? shifted : shifted - 146096) / 146097;
+        int dayOfEra = (int) (shifted - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = (int) (era * 400) + yearOfEra + (month <= 2 ? 1 : 0);
+
+        appendDigits(out, year, 4);
+        out.append('-');
+        appendDigits(out, month, 2);
+        out.append('-');
+        appendDigits(out, day, 2);
+        out.append('T');
+        appendDigits(out, secondsOfDay / 3600, 2);
+        out.append(':');
+        appendDigits(out, secondsOfDay / 60 % 60, 2);
+        out.append(':');
+        appendDigits(out, secondsOfDay % 60, 2);
+        out.append('Z');
+    }
+
+    /**
+     * Format an instant.
+     *
+     * @param millis the milliseconds since the epoch.
+     * @return the formatted date time.
+     */
+    public static String formatUtc(long millis) {
+        StringBuilder sb = new StringBuilder(20);
+        try {
+            formatUtc(millis, sb);
+        } catch (IOException ioe) {
+            // can't happen with a StringBuilder
+            throw new IllegalStateException(ioe);
+        }
+        return sb.toString();
+    }
+
+    private static void appendDigits(Appendable out, int value, int width) throws IOException {
+        int divisor = width == 4 ? 1000 : 10;
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+}
@@ -25,16 +25,23 @@ import java.util.concurrent.ConcurrentMap;
 
 /**
  * uses 2 maps to find serializers. first is direct class lookup (fast), second
- * is an instanceof lookup (slow)
+ * is an instanceof lookup (slow). The answer for each class, including none, is
+ * kept in a cache keyed by the class itself, so after the first value of a
+ * class the lookup is a single identity hashed get. A cache shared between
+ * contexts should hold its keys weakly, so that it doesn't keep class loaders
+ * alive.
  */
 public class ClassMapJsonSerializationContext extends BaseJsonSerializationContext {
 
+    /** Cached for classes that have no serializer, since a map can't hold null */
+    private static final JsonSerializer<Object> NONE = new JsonSerializers.LiteralSerializer();
+
     private final Map<String, JsonSerializer<?>> mappyFasty;
     private final Map<Class<?>, JsonSerializer<?>> mappySlowly;
-    private final ConcurrentMap<String, JsonSerializer<?>> cache;
+    private final ConcurrentMap<Class<?>, JsonSerializer<?>> cache;
 
     public ClassMapJsonSerializationContext(Map<String, JsonSerializer<?>> mappyFasty,
-            Map<Class<?>, JsonSerializer<?>> mappySlowly, ConcurrentMap<String, JsonSerializer<?>> cache,
+            Map<Class<?>, JsonSerializer<?>> mappySlowly, ConcurrentMap<Class<?>, JsonSerializer<?>> cache,
             boolean format, boolean refSupport, int dataSizeLimit, int collectionSizeLimit) {
         super(format, refSupport, dataSizeLimit, collectionSizeLimit, false);
         this.mappyFasty = mappyFasty;
@@ -50,29 +57,31 @@ public class ClassMapJsonSerializationContext extends BaseJsonSerializationConte
             return (JsonSerializer<T>) LITERAL;
         }
         Class<?> c = o.getClass();
-        if (c.isArray()) {
-            return (JsonSerializer<T>) ARRAY;
-        } else if (c.isEnum()) {
-            return (JsonSerializer<T>) STRING;
+        JsonSerializer<?> s = cache.get(c);
+        if (s == null) {
+            s = findSerializer(c);
+            cache.putIfAbsent(c, s != null ? s : NONE);
+        } else if (s == NONE) {
+            s = null;
         }
+        return (JsonSerializer<T>) s;
+    }
 
-        JsonSerializer<T> s = (JsonSerializer<T>) cache.get(c.getName());
-        if (s != null) {
-            return s;
+    private JsonSerializer<?> findSerializer(Class<?> c) {
+        if (c.isArray()) {
+            return ARRAY;
+        } else if (c.isEnum()) {
+            return STRING;
         }
 
-        String className = c.getName();
-        s = (JsonSerializer<T>) mappyFasty.get(className);
+        JsonSerializer<?> s = mappyFasty.get(c.getName());
         if (s != null) {
-            cache.putIfAbsent(className, s);
             return s;
         }
 
         for (Entry<Class<?>, JsonSerializer<?>> e : mappySlowly.entrySet()) {
             if (e.getKey().isAssignableFrom(c)) {
-                s = (JsonSerializer<T>) e.getValue();
-                cache.putIfAbsent(className, s);
-                return s;
+                return e.getValue();
             }
         }
         return null;
@@ -26,22 +26,22 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.math.BigDecimal;
-import java.text.SimpleDateFormat;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.TimeZone;
 
 import javax.annotation.Nonnull;
 
 import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.UncloseableOutputStream;
+import org.auraframework.util.date.IsoDateTimeFormat;
 import org.auraframework.util.json.Json.Serialization.ReferenceType;
 import org.auraframework.util.json.Json.Serialization.ReferenceScope;
 
@@ -164,6 +164,9 @@ public class Json {
     private final DataOutputStream binaryOutput;
     private CountingOutputStream currentBinaryStream;
     private long currentBinaryStreamLength;
+    private int markDepth = -1;
+    private boolean markFirst;
+    private int markRefId;
 
     /**
      * Create a Json Serialization context object that maintains information
@@ -415,6 +418,50 @@ public class Json {
         actionMap.clear();
     }
 
+    /**
+     * Mark the current serialization state, so that a value that fails part
+     * way through can be abandoned with {@link #reset()}.
+     * 
+     * Only the state of this object is restored, the caller is responsible for
+     * discarding whatever has already been written to the output.
+     */
+    public void mark() {
+        markDepth = indentStack.size();
+        markFirst = markDepth > 0 && indentStack.peek().first;
+        markRefId = lastRefId;
+    }
+
+    /**
+     * Restore the serialization state saved by {@link #mark()}, dropping any
+     * indents pushed and references assigned since then.
+     */
+    public void reset() {
+        if (markDepth < 0) {
+            throw new JsonException("No mark to reset to");
+        }
+        while (indentStack.size() > markDepth) {
+            indentStack.pop();
+        }
+        if (markDepth > 0) {
+            indentStack.peek().first = markFirst;
+        }
+        if (serializationContext.refSupport()) {
+            removeReferencesAfter(actionMap, markRefId);
+            removeReferencesAfter(requestMap, markRefId);
+        }
+        lastRefId = markRefId;
+        markDepth = -1;
+    }
+
+    private static void removeReferencesAfter(Map<Object, Integer> m, int refId) {
+        Iterator<Integer> ids = m.values().iterator();
+        while (ids.hasNext()) {
+            if (ids.next().intValue() > refId) {
+                ids.remove();
+            }
+        }
+    }
+
     /**
      * @param rs the scope for the reference
      * @param value the value for which we want a reference.
@@ -686,7 +733,7 @@ public class Json {
      */
     public void writeString(Object value) throws IOException {
         out.append('"');
-        out.append(AuraTextUtil.escapeForJSONString(value.toString()));
+        AuraTextUtil.escapeForJSONString(value instanceof CharSequence ? (CharSequence) value : value.toString(), out);
         out.append('"');
     }
 
@@ -700,18 +747,10 @@ public class Json {
     public void writeDate(Date value) throws IOException {
         out.append('"');
         // Use the ISO DateTime format to write the date.
-        synchronized (ISO8601FORMAT) {
-            out.append(ISO8601FORMAT.format(value));
-        }
+        IsoDateTimeFormat.formatUtc(value.getTime(), out);
         out.append('"');
     }
 
-    private static final SimpleDateFormat ISO8601FORMAT;
-    static {
-        ISO8601FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
-        ISO8601FORMAT.setTimeZone(TimeZone.getTimeZone("GMT"));
-    }
-
     /**
      * Write a map in a predictable order
      * 
@@ -41,7 +41,6 @@ import static org.auraframework.util.json.JsonConstant.WHITESPACE;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PushbackReader;
 import java.io.Reader;
 import java.io.StringReader;
 import java.math.BigDecimal;
@@ -55,7 +54,6 @@ import org.auraframework.util.Utf8InputStreamReader;
 import org.auraframework.util.json.JsonHandler.JsonValidationException;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -104,28 +102,31 @@ import edu.umd.cs.findbugs.annotations.NonNull;
  * pass in your own implementation of JsonHandlerProvider, and then your
  * JsonHandlers will be used. This allows you to skip the intermediate step of
  * parsing into Maps and Lists, and lets you put the primitives directly into
- * your objects as they are parsed.
+ * your objects as they are parsed.<br>
+ * <br>
+ * For large inputs whose structure is known, the tree can be skipped entirely:
+ * disable recursive reads and pull the input a token at a time with
+ * {@link #nextKey()} for the entries of an object and {@link #nextElement()}
+ * for the elements of an array, reading values with {@link #next()} and the
+ * getters (or {@link #skipValue()} for values that are not wanted).<br>
+ * <br>
+ * Input is read through an internal character buffer, so callers need not
+ * buffer the Reader they pass in. The exception is JSON+binary, where the
+ * binary data is read from the underlying InputStream and so characters are
+ * never read ahead of it.
  */
 public class JsonStreamReader {
 
     private static final int MAX_LENGTH = 1000000;
+    private static final int BUFFER_SIZE = 4096;
+    /** The number of characters that can always be unread, which must be kept when the buffer is refilled. */
+    private static final int PUSHBACK_SIZE = 2;
     private static JsonHandlerProvider defaultProvider = new JsonHandlerProviderImpl();
-    private static Map<Character, Character> escapes = Maps.newHashMapWithExpectedSize(13);
-    static {
-        escapes.put('"', '"');
-        escapes.put('\\', '\\');
-        escapes.put('/', '/');
-        escapes.put('b', '\b');
-        escapes.put('f', '\f');
-        escapes.put('n', '\n');
-        escapes.put('r', '\r');
-        escapes.put('t', '\t');
-        escapes.put('\'', '\'');
-        escapes.put('0', '\0');
-        escapes.put('v', '\u000B');
-    }
 
-    private final PushbackReader reader;
+    private final Reader reader;
+    private final char[] buffer;
+    private int pos = PUSHBACK_SIZE; // next character to read in buffer
+    private int limit = PUSHBACK_SIZE; // end of the characters read into buffer
 
     private JsonConstant currentToken;
     private Object current;
@@ -148,7 +149,9 @@ public class JsonStreamReader {
         if (reader == null) {
             throw new JsonParseException("Reader cannot be null");
         }
-        this.reader = new PushbackReader(reader, 2);
+        this.reader = reader;
+        // With binary data we must not read past the start of it.
+        this.buffer = new char[PUSHBACK_SIZE + (binaryInput == null ? BUFFER_SIZE : 1)];
         this.binaryInput = binaryInput == null ? null
                 : (binaryInput instanceof DataInputStream ? (DataInputStream) binaryInput : new DataInputStream(
                         binaryInput));
@@ -496,6 +499,98 @@ public class JsonStreamReader {
         return token;
     }
 
+    /**
+     * Read up to the value of the next entry in an object, when recursive
+     * reading is disabled. This must be called first with the current token
+     * being OBJECT_START, and then again after each value has been read (with
+     * {@link #next()} and, for an object or array, up to its end).
+     * 
+     * @return the key of the entry, with the reader positioned before its
+     *         value, or null if the end of the object was reached.
+     * @throws JsonStreamParseException if the input is not an entry or the
+     *             end of the object.
+     */
+    public String nextKey() throws IOException {
+        boolean first = currentToken == OBJECT_START;
+        JsonConstant token = nextOrEnd(STRING);
+        if (!first && token != OBJECT_END) {
+            assertTokenType(ENTRY_SEPARATOR, token);
+            token = nextOrEnd(STRING);
+        }
+        if (token == OBJECT_END) {
+            return null;
+        }
+        assertTokenType(STRING, token);
+        String key = (String) current;
+        try {
+            token = next();
+        } catch (JsonStreamParseException jspe) {
+            throw new JsonStreamParseException("Expected ':'", jspe.orig, jspe.line, jspe.col);
+        }
+        assertTokenType(OBJECT_SEPARATOR, token);
+        current = key;
+        currentToken = STRING;
+        return key;
+    }
+
+    /**
+     * Read the next element of an array, when recursive reading is disabled.
+     * This must be called first with the current token being ARRAY_START, and
+     * then again after each element has been read (for an object or array, up
+     * to its end).
+     * 
+     * @return the token of the element, as from {@link #next()}, or ARRAY_END
+     *         if the end of the array was reached.
+     * @throws JsonStreamParseException if the input is not an element or the
+     *             end of the array.
+     */
+    public JsonConstant nextElement() throws IOException {
+        boolean first = currentToken == ARRAY_START;
+        JsonConstant token = nextOrEnd(null);
+        if (!first && token != ARRAY_END) {
+            assertTokenType(ENTRY_SEPARATOR, token);
+            token = nextOrEnd(null);
+        }
+        if (token == ENTRY_SEPARATOR || token == OBJECT_END || token == OBJECT_SEPARATOR) {
+            throw new JsonStreamParseException(String.format("Unexpected '%s'", token.getRepresentation()));
+        }
+        return token;
+    }
+
+    /**
+     * Skip over the value just read by {@link #next()}, {@link #nextKey()} or
+     * {@link #nextElement()}. For an object or array that was not read
+     * recursively, this consumes it up to its end without keeping anything.
+     */
+    public void skipValue() throws IOException {
+        if (currentToken == OBJECT_START) {
+            while (nextKey() != null) {
+                next();
+                skipValue();
+            }
+            currentToken = OBJECT_END;
+        } else if (currentToken == ARRAY_START) {
+            while (nextElement() != ARRAY_END) {
+                skipValue();
+            }
+            currentToken = ARRAY_END;
+        }
+        current = null;
+    }
+
+    private JsonConstant nextOrEnd(JsonConstant hint) throws IOException {
+        JsonConstant token;
+        try {
+            token = next(hint);
+        } catch (JsonEndOfStreamException e) {
+            throw new JsonStreamParseException(e);
+        }
+        if (token == WHITESPACE) {
+            throw new JsonStreamParseException("Unexpected end of stream");
+        }
+        return token;
+    }
+
     private static final BinaryStreamFinishedListener BINARY_STREAM_FINISHED_LISTENER = new BinaryStreamFinishedListener();
 
     /**
@@ -690,6 +785,9 @@ public class JsonStreamReader {
     }
 
     private String readString(JsonConstant delim, boolean keepEscapers) throws IOException, JsonEndOfStreamException {
+        if (!keepEscapers) {
+            return readString(delim.getToken());
+        }
         StringBuilder sb = new StringBuilder();
         boolean isEscaped = false;
         markPosition(1);
@@ -723,6 +821,45 @@ public class JsonStreamReader {
         return sb.toString();
     }
 
+    /**
+     * Read a string up to its unescaped delimiter, copying runs of plain
+     * characters straight out of the buffer.
+     */
+    private String readString(char delim) throws IOException, JsonEndOfStreamException {
+        StringBuilder sb = new StringBuilder();
+        markPosition(1);
+        try {
+            while (true) {
+                int start = pos;
+                int end = start;
+                while (end < limit) {
+                    char c = buffer[end];
+                    if (c == delim || c == '\\' || c == '\n') {
+                        break;
+                    }
+                    end++;
+                }
+                if (end > start) {
+                    sb.append(buffer, start, end - start);
+                    skipChars(end - start);
+                }
+                char c = readChar();
+                if (c == delim) {
+                    break;
+                } else if (c == '\n') {
+                    throw new JsonStreamParseException("Unterminated string", sb.toString(), getLineNum(), getColNum());
+                } else if (c == '\\') {
+                    sb.append(readEscapedChar());
+                } else {
+                    sb.append(c);
+                }
+            }
+        } catch (JsonEndOfStreamException e) {
+            throw new JsonStreamParseException("Unterminated string", sb.toString(), getLineNum(), getColNum());
+        }
+        return sb.toString();
+    }
+
     /**
      * This method consumes what we expect to be a comment. It should be called
      * after consuming the '/' character, but before either the second '/' or
@@ -903,6 +1040,15 @@ public class JsonStreamReader {
         StringBuilder sb = new StringBuilder();
         try {
             while (true) {
+                int start = pos;
+                int end = start;
+                while (end < limit && buffer[end] != '\\' && JsonConstant.valueOf(buffer[end]) == LITERAL_START) {
+                    end++;
+                }
+                if (end > start) {
+                    sb.append(buffer, start, end - start);
+                    skipChars(end - start);
+                }
                 char c = readChar();
                 JsonConstant token = JsonConstant.valueOf(c);
                 if (token != LITERAL_START) {
@@ -920,11 +1066,10 @@ public class JsonStreamReader {
     }
 
     private char readChar() throws IOException, JsonEndOfStreamException {
-        int i = reader.read();
-
-        if (i == -1) {
+        if (pos == limit && !fill()) {
             throw new JsonEndOfStreamException("End of stream unexpectedly reached.");
         }
+        char c = buffer[pos++];
 
         charNum++;
 
@@ -937,8 +1082,6 @@ public class JsonStreamReader {
             throw new JsonStreamParseException("Input too long.");
         }
 
-        char c = (char) i;
-
         if (c == '\n') {
             prevColNum = colNum;
             lineNum++;
@@ -950,8 +1093,52 @@ public class JsonStreamReader {
         return c;
     }
 
+    /**
+     * Consume characters already known to be in the buffer, none of which are
+     * newlines.
+     */
+    private void skipChars(int count) {
+        pos += count;
+        charNum += count;
+        colNum += count;
+        if (charNum > MAX_LENGTH && lengthLimitsEnabled) {
+            throw new JsonStreamParseException("Input too long.");
+        }
+    }
+
+    /**
+     * Refill the buffer, keeping the characters before the read position so
+     * that they can still be unread.
+     * 
+     * @return false at the end of the stream.
+     */
+    private boolean fill() throws IOException {
+        System.arraycopy(buffer, limit - PUSHBACK_SIZE, buffer, 0, PUSHBACK_SIZE);
+        pos = limit = PUSHBACK_SIZE;
+        int count = 0;
+        if (binaryInput == null) {
+            count = reader.read(buffer, PUSHBACK_SIZE, buffer.length - PUSHBACK_SIZE);
+        }
+        if (count == 0) {
+            // a character at a time, for binary input (and readers that return nothing rather than block).
+            int i = reader.read();
+            if (i != -1) {
+                buffer[PUSHBACK_SIZE] = (char) i;
+            }
+            count = i == -1 ? -1 : 1;
+        }
+        if (count == -1) {
+            return false;
+        }
+        limit += count;
+        return true;
+    }
+
     private void unreadChar(char c) throws IOException {
-        reader.unread(c);
+        if (pos == 0) {
+            throw new IOException("Pushback buffer overflow");
+        }
+        buffer[--pos] = c;
         charNum--;
         if (c == '\n') {
             colNum = prevColNum;
@@ -964,17 +1151,31 @@ public class JsonStreamReader {
     private char readEscapedChar() throws IOException, JsonEndOfStreamException {
         char c = readChar();
 
-        if (c == 'u') {
-            c = readUnicodeEscapedChar();
-        } else {
-            Character esc = escapes.get(c);
-            if (esc == null) {
-                throw new JsonStreamParseException(String.format("Unknown escape sequence : \\%c", c));
-            } else {
-                c = esc;
-            }
+        switch (c) {
+        case 'u':
+            return readUnicodeEscapedChar();
+        case '"':
+        case '\\':
+        case '/':
+        case '\'':
+            return c;
+        case 'b':
+            return '\b';
+        case 'f':
+            return '\f';
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        case '0':
+            return '\0';
+        case 'v':
+            return '\u000B';
+        default:
+            throw new JsonStreamParseException(String.format("Unknown escape sequence : \\%c", c));
         }
-        return c;
     }
 
     private char readUnicodeEscapedChar() throws IOException, JsonEndOfStreamException {
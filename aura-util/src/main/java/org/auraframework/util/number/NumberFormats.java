@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.number;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.ibm.icu.text.NumberFormat;
+
+/**
+ * Number formats for each locale, kept per thread. Building a format looks up the locale data and parses its pattern,
+ * which costs far more than the formatting itself, and formats are not thread safe, so each thread keeps its own.
+ *
+ * A format from {@link #get(Style, Locale)} is shared by later calls on the same thread: it must not be kept, and
+ * must not be changed other than the parse settings (strict, big decimal), which every parse sets anyway. Use
+ * {@link #copy(Style, Locale)} for a format to change.
+ */
+public final class NumberFormats {
+
+    /**
+     * Bound on the formats a thread keeps for each style.
+     */
+    private static final int MAX_LOCALES = 64;
+
+    public enum Style {
+        NUMBER {
+            @Override
+            NumberFormat create(Locale locale) {
+                return NumberFormat.getNumberInstance(locale);
+            }
+        },
+        PERCENT {
+            @Override
+            NumberFormat create(Locale locale) {
+                return NumberFormat.getPercentInstance(locale);
+            }
+        },
+        CURRENCY {
+            @Override
+            NumberFormat create(Locale locale) {
+                return NumberFormat.getCurrencyInstance(locale);
+            }
+        };
+
+        private final ThreadLocal<Map<Locale, NumberFormat>> formats = new ThreadLocal<Map<Locale, NumberFormat>>() {
+            @Override
+            protected Map<Locale, NumberFormat> initialValue() {
+                return new HashMap<>();
+            }
+        };
+
+        abstract NumberFormat create(Locale locale);
+    }
+
+    private NumberFormats() {
+    }
+
+    /**
+     * Get the format of this thread for a style and locale.
+     *
+     * @param style the style of format.
+     * @param locale the locale, which must not be null.
+     * @return the format, only to be used until the next call on this thread.
+     */
+    public static NumberFormat get(Style style, Locale locale) {
+        Map<Locale, NumberFormat> formats = style.formats.get();
+        NumberFormat format = formats.get(locale);
+        if (format == null) {
+            if (formats.size() >= MAX_LOCALES) {
+                formats.clear();
+            }
+            format = style.create(locale);
+            formats.put(locale, format);
+        }
+        return format;
+    }
+
+    /**
+     * Get a new format for a style and locale, for the caller to change.
+     *
+     * @param style the style of format.
+     * @param locale the locale, which must not be null.
+     * @return a copy of the format.
+     */
+    public static NumberFormat copy(Style style, Locale locale) {
+        return (NumberFormat) get(style, locale).clone();
+    }
+}
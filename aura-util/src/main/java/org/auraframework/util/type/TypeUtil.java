@@ -178,8 +178,12 @@ public class TypeUtil {
 	    return multiConverter.convert(to, value);
     }
 
+    /**
+     * Returns the Converter to go from F to T, or null if there is none. If
+     * 'of' is not null, it indicates that 'to' is a container of 'of' types.
+     */
     @SuppressWarnings("unchecked")
-    private static <F, T> Converter<F, T> getConverter(Class<F> from, Class<T> to, String of) {
+    public static <F, T> Converter<F, T> getConverter(Class<F> from, Class<T> to, String of) {
         TypeUtil typeUtil = get();
         if (of == null) {
             Map<String, Converter<?, ?>> map = typeUtil.converters.get(from.getName());
@@ -198,8 +202,11 @@ public class TypeUtil {
         return null;
     }
 
+    /**
+     * Returns the MultiConverter to go from 'from' to T, or null if there is none.
+     */
     @SuppressWarnings("unchecked")
-	private static <T> MultiConverter<T> getMultiConverter(Class<?> from, Class<T> to) {
+    public static <T> MultiConverter<T> getMultiConverter(Class<?> from, Class<T> to) {
     	TypeUtil typeUtil = get();
         Map<String, MultiConverter<?>> map = typeUtil.multiConverters.get(from.getName());
         if (map != null) {
@@ -15,8 +15,10 @@
  */
 package org.auraframework.util;
 
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.auraframework.test.UnitTestCase;
 
@@ -191,6 +193,37 @@ public class AuraTextUtilTest extends UnitTestCase {
         }
     }
 
+    public void testEscapeForJSONStringToAppendable() throws Exception {
+        for (StringPair p : JSON_STRING_PAIRS) {
+            StringBuilder sb = new StringBuilder();
+            AuraTextUtil.escapeForJSONString(p.input, sb);
+            assertEquals(p.expected, sb.toString());
+
+            StringWriter sw = new StringWriter();
+            AuraTextUtil.escapeForJSONString(new StringBuilder(p.input), sw);
+            assertEquals(p.expected, sw.toString());
+        }
+    }
+
+    /**
+     * The streaming escape must match the trie based one, including at the edges of multi-character sequences.
+     */
+    public void testEscapeForJSONStringToAppendableMatchesString() throws Exception {
+        char[] alphabet = { 'a', '!', '-', '*', '/', '<', '>', '\\', '"', '\n', '\r', '\t', '\u2028', '\u2029',
+                '\u0000' };
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            char[] chars = new char[random.nextInt(12)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            String input = new String(chars);
+            StringBuilder sb = new StringBuilder();
+            AuraTextUtil.escapeForJSONString(input, sb);
+            assertEquals(AuraTextUtil.escapeForJSONString(input), sb.toString());
+        }
+    }
+
     private static class SplitMatch {
         public final String input;
         public final String delimiter;
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.date;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.auraframework.test.UnitTestCase;
+import org.auraframework.util.date.IsoDateTimeFormat.Parsed;
+import org.auraframework.util.date.IsoDateTimeFormat.Variant;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+
+public class IsoDateTimeFormatTest extends UnitTestCase {
+
+    private static String formatWithSimpleDateFormat(long millis) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return format.format(new Date(millis));
+    }
+
+    public void testFormatEpoch() {
+        assertEquals("1970-01-01T00:00:00Z", IsoDateTimeFormat.formatUtc(0));
+    }
+
+    public void testFormatBeforeEpoch() {
+        assertEquals("1969-12-31T23:59:59Z", IsoDateTimeFormat.formatUtc(-1));
+    }
+
+    public void testFormatLeapDay() {
+        // 2000-02-29T12:34:56.789Z
+        assertEquals("2000-02-29T12:34:56Z", IsoDateTimeFormat.formatUtc(951827696789L));
+    }
+
+    public void testFormatAppends() throws Exception {
+        StringBuilder sb = new StringBuilder("at ");
+        IsoDateTimeFormat.formatUtc(1000, sb);
+        assertEquals("at 1970-01-01T00:00:01Z", sb.toString());
+    }
+
+    /**
+     * Dates outside the fast range fall back to SimpleDateFormat, so they still match it.
+     */
+    public void testFormatOutsideFastRange() {
+        long[] values = { -12212553600001L, -62135596800000L, 253402300800000L };
+        for (long millis : values) {
+            assertEquals(formatWithSimpleDateFormat(millis), IsoDateTimeFormat.formatUtc(millis));
+        }
+    }
+
+    public void testFormatMatchesSimpleDateFormat() {
+        Random random = new Random(42);
+        long min = -12212553600000L;
+        long max = 253402300800000L;
+        for (int i = 0; i < 10000; i++) {
+            long millis = min + (long) (random.nextDouble() * (max - min));
+            assertEquals(formatWithSimpleDateFormat(millis), IsoDateTimeFormat.formatUtc(millis));
+        }
+        assertEquals(formatWithSimpleDateFormat(min), IsoDateTimeFormat.formatUtc(min));
+        assertEquals(formatWithSimpleDateFormat(max - 1), IsoDateTimeFormat.formatUtc(max - 1));
+    }
+
+    private static long parseWithJoda(DateTimeFormatter formatter, String text) {
+        return formatter.withZone(DateTimeZone.UTC).parseDateTime(text).getMillis();
+    }
+
+    private static void assertParsed(Variant variant, long millis, String text) {
+        Parsed parsed = IsoDateTimeFormat.parse(text);
+        assertNotNull("Failed to parse " + text, parsed);
+        assertEquals(text, variant, parsed.getVariant());
+        assertEquals(text, millis, parsed.getMillis());
+    }
+
+    public void testParseDateTime() {
+        assertParsed(Variant.DATE_TIME, 951827696789L, "2000-02-29T12:34:56.789Z");
+        assertParsed(Variant.DATE_TIME, 951827696789L, "2000-02-29T14:34:56.789+02:00");
+        assertParsed(Variant.DATE_TIME, 951827696789L, "2000-02-29T07:04:56.789-05:30");
+        assertTrue(IsoDateTimeFormat.parse("2000-02-29T12:34:56.789Z").hasOffset());
+    }
+
+    public void testParseWithoutOffset() {
+        assertParsed(Variant.DATE_TIME_SECONDS, 951827696000L, "2000-02-29T12:34:56Z");
+        assertParsed(Variant.DATE_TIME_NO_SECONDS, 951827640000L, "2000-02-29T12:34Z");
+        assertParsed(Variant.DATE, 951782400000L, "2000-02-29");
+        assertFalse(IsoDateTimeFormat.parse("2000-02-29").hasOffset());
+    }
+
+    public void testParseRejectsOtherForms() {
+        String[] values = { "", "2000", "2000-2-29", "2000-02-29T", "2000-02-29 12:34:56Z", "2000-02-29T12:34",
+                "2000-02-29T12:34:56", "2000-02-29T12:34:56.7Z", "2000-02-29T12:34:56.789", "2000-02-29T12:34:56.789+0200",
+                "2000-02-29T12:34:56.789Z ", "+2000-02-29", "2000-02-29x" };
+        for (String value : values) {
+            assertNull(value, IsoDateTimeFormat.parse(value));
+        }
+    }
+
+    public void testParseRejectsFieldsOutOfRange() {
+        String[] values = { "2001-02-29", "2000-13-01", "2000-00-01", "2000-04-31", "2000-01-00",
+                "2000-01-01T24:00Z", "2000-01-01T12:60Z", "2000-01-01T12:00:60Z", "2000-01-01T12:00:00.000+24:00" };
+        for (String value : values) {
+            assertNull(value, IsoDateTimeFormat.parse(value));
+        }
+    }
+
+    public void testParseMatchesJoda() {
+        DateTimeFormatter dateTime = ISODateTimeFormat.dateTime();
+        DateTimeFormatter noSeconds = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm'Z'");
+        DateTimeFormatter seconds = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+        DateTimeFormatter date = ISODateTimeFormat.date();
+        Random random = new Random(42);
+        long min = -62135596800000L; // 0001-01-01T00:00:00Z
+        long max = 253402300800000L;
+        for (int i = 0; i < 10000; i++) {
+            long millis = min + (long) (random.nextDouble() * (max - min));
+            String text = dateTime.withZone(DateTimeZone.UTC).print(millis);
+            assertParsed(Variant.DATE_TIME, parseWithJoda(dateTime, text), text);
+            text = dateTime.withZone(DateTimeZone.forOffsetHoursMinutes(-7, 0)).print(millis);
+            assertParsed(Variant.DATE_TIME, parseWithJoda(dateTime, text), text);
+            text = noSeconds.withZone(DateTimeZone.UTC).print(millis);
+            assertParsed(Variant.DATE_TIME_NO_SECONDS, parseWithJoda(noSeconds, text), text);
+            text = seconds.withZone(DateTimeZone.UTC).print(millis);
+            assertParsed(Variant.DATE_TIME_SECONDS, parseWithJoda(seconds, text), text);
+            text = date.withZone(DateTimeZone.UTC).print(millis);
+            assertParsed(Variant.DATE, parseWithJoda(date, text), text);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Writer;
+
+import org.auraframework.test.UnitTestCase;
+import org.auraframework.util.Utf8OutputStreamWriter;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Test cases for the Utf8OutputStreamWriter
+ */
+public class Utf8OutputStreamWriterTest extends UnitTestCase {
+
+    public Utf8OutputStreamWriterTest(String name) {
+        super(name);
+    }
+
+    /**
+     * Tests 1-byte, 2-byte, 3-byte, and 4-byte UTF-8 characters, the last being
+     * UTF-16 surrogate pairs, through each of the write methods.
+     */
+    public void testUTF8Chars() throws Exception {
+        final String testChars = "abc\u00e9\u00df\u20ac\u4e2d\ud834\udd1e\ud83d\ude00z";
+        final byte[] expected = testChars.getBytes(Charsets.UTF_8);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Writer writer = new Utf8OutputStreamWriter(baos);
+        writer.write(testChars);
+        writer.close();
+        assertEquals(testChars, new String(baos.toByteArray(), Charsets.UTF_8));
+        assertEquals(expected.length, baos.size());
+
+        baos = new ByteArrayOutputStream();
+        writer = new Utf8OutputStreamWriter(baos);
+        for (char c : testChars.toCharArray()) {
+            writer.write(c);
+        }
+        writer.close();
+        assertEquals(testChars, new String(baos.toByteArray(), Charsets.UTF_8));
+
+        baos = new ByteArrayOutputStream();
+        writer = new Utf8OutputStreamWriter(baos);
+        writer.append(new StringBuilder(testChars));
+        writer.close();
+        assertEquals(testChars, new String(baos.toByteArray(), Charsets.UTF_8));
+    }
+
+    public void testUnpairedSurrogates() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Writer writer = new Utf8OutputStreamWriter(baos);
+        writer.write("a\ud834b\udd1ec\ud834");
+        writer.close();
+        assertEquals("a?b?c", new String(baos.toByteArray(), Charsets.UTF_8));
+    }
+
+    /**
+     * Output larger than the buffer should come out whole, with multi-byte
+     * characters split across buffer boundaries.
+     */
+    public void testLargerThanBuffer() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Utf8OutputStreamWriter.BUFFER_SIZE; i++) {
+            sb.append("x\u20ac\ud83d\ude00");
+        }
+        String testChars = sb.toString();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Writer writer = new Utf8OutputStreamWriter(baos);
+        writer.write(testChars.toCharArray());
+        writer.close();
+        assertEquals(testChars, new String(baos.toByteArray(), Charsets.UTF_8));
+    }
+
+    public void testFlushWritesCommittedBytes() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Utf8OutputStreamWriter writer = new Utf8OutputStreamWriter(baos);
+        writer.write("committed");
+        assertEquals(0, baos.size());
+        writer.flush();
+        assertEquals("committed", new String(baos.toByteArray(), Charsets.UTF_8));
+
+        writer.mark();
+        writer.write("pending");
+        writer.flush();
+        assertEquals("committed", new String(baos.toByteArray(), Charsets.UTF_8));
+        writer.commit();
+        writer.flush();
+        assertEquals("committedpending", new String(baos.toByteArray(), Charsets.UTF_8));
+        writer.close();
+    }
+
+    public void testResetDiscardsPendingSegment() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Utf8OutputStreamWriter writer = new Utf8OutputStreamWriter(baos);
+        writer.write("[1");
+        writer.mark();
+        writer.write(",2");
+        writer.reset();
+        assertFalse(writer.isMarked());
+        writer.write(",3]");
+        writer.close();
+        assertEquals("[1,3]", new String(baos.toByteArray(), Charsets.UTF_8));
+    }
+
+    /**
+     * A pending segment larger than the buffer grows the buffer, and can still
+     * be discarded after earlier output has been written out.
+     */
+    public void testResetLargePendingSegment() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Utf8OutputStreamWriter writer = new Utf8OutputStreamWriter(baos);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Utf8OutputStreamWriter.BUFFER_SIZE * 3; i++) {
+            sb.append('p');
+        }
+        writer.write("start");
+        writer.mark();
+        writer.append(sb);
+        assertEquals("start", new String(baos.toByteArray(), Charsets.UTF_8));
+        writer.reset();
+        writer.write("end");
+        writer.close();
+        assertEquals("startend", new String(baos.toByteArray(), Charsets.UTF_8));
+    }
+}
@@ -21,6 +21,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -1013,6 +1014,112 @@ public class JsonStreamReaderTest extends UnitTestCase {
         reader.disableLengthLimitsBecauseIAmStreamingAndMyMemoryUseIsNotProportionalToTheStreamLength();
     }
 
+    /**
+     * Pull an object a token at a time with {@link JsonStreamReader#nextKey()}
+     * and {@link JsonStreamReader#nextElement()}, skipping what isn't wanted.
+     */
+    public void testNextKeyAndNextElement() throws Exception {
+        jsonStreamReader = new JsonStreamReader(
+                "{actions:[{'id':'1', params:{a:[1]}, skip:{x:[{}, []]}}, {id:'2'}], 'other':[1, 2,], last:null}");
+        jsonStreamReader.setRecursiveReadEnabled(false);
+        assertEquals(JsonConstant.OBJECT_START, jsonStreamReader.next());
+
+        assertEquals("actions", jsonStreamReader.nextKey());
+        assertEquals(JsonConstant.ARRAY_START, jsonStreamReader.next());
+
+        assertEquals(JsonConstant.OBJECT_START, jsonStreamReader.nextElement());
+        assertEquals("id", jsonStreamReader.nextKey());
+        assertEquals(JsonConstant.STRING, jsonStreamReader.next());
+        assertEquals("1", jsonStreamReader.getString());
+        assertEquals("params", jsonStreamReader.nextKey());
+        assertEquals(JsonConstant.OBJECT_START, jsonStreamReader.next());
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("a", Lists.newArrayList(new BigDecimal(1)));
+        assertEquals(params, jsonStreamReader.getObject());
+        assertEquals("skip", jsonStreamReader.nextKey());
+        assertEquals(JsonConstant.OBJECT_START, jsonStreamReader.next());
+        jsonStreamReader.skipValue();
+        assertNull(jsonStreamReader.nextKey());
+
+        assertEquals(JsonConstant.OBJECT_START, jsonStreamReader.nextElement());
+        assertEquals("id", jsonStreamReader.nextKey());
+        assertEquals(JsonConstant.STRING, jsonStreamReader.next());
+        assertNull(jsonStreamReader.nextKey());
+        assertEquals(JsonConstant.ARRAY_END, jsonStreamReader.nextElement());
+
+        assertEquals("other", jsonStreamReader.nextKey());
+        assertEquals(JsonConstant.ARRAY_START, jsonStreamReader.next());
+        jsonStreamReader.skipValue();
+        assertEquals("last", jsonStreamReader.nextKey());
+        assertEquals(JsonConstant.NULL, jsonStreamReader.next());
+        assertNull(jsonStreamReader.nextKey());
+        assertFalse(jsonStreamReader.hasNext());
+    }
+
+    public void testNextKeyErrors() throws Exception {
+        String[] inputs = { "{a:1 b:2}", "{,a:1}", "{a 1}", "{a:1", "['a' 2]", "[,1]", "[1" };
+        for (String input : inputs) {
+            JsonStreamReader reader = new JsonStreamReader(input);
+            reader.setRecursiveReadEnabled(false);
+            try {
+                JsonConstant token = reader.next();
+                if (token == JsonConstant.OBJECT_START) {
+                    while (reader.nextKey() != null) {
+                        reader.next();
+                    }
+                } else {
+                    while (reader.nextElement() != JsonConstant.ARRAY_END) {
+                    }
+                }
+                fail("Expected a parse failure for " + input);
+            } catch (JsonStreamParseException expected) {
+            }
+        }
+    }
+
+    /**
+     * Strings, escapes and literals that straddle the end of the read buffer
+     * are read whole, and positions are still counted across it.
+     */
+    public void testReadAcrossBuffer() throws Exception {
+        StringBuilder expected = new StringBuilder();
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < 2000; i++) {
+            json.append("key").append(i).append(":'v\\u0041\\n").append(i).append("',\n");
+            expected.append("vA\n").append(i);
+        }
+        json.append("last:'unterminated");
+        final Reader source = new StringReader(json.toString());
+        // hand out a few characters at a time, so the buffer is refilled at every possible point.
+        jsonStreamReader = new JsonStreamReader(new Reader() {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return source.read(cbuf, off, Math.min(len, 7));
+            }
+
+            @Override
+            public void close() throws IOException {
+                source.close();
+            }
+        });
+        jsonStreamReader.setRecursiveReadEnabled(false);
+        assertEquals(JsonConstant.OBJECT_START, jsonStreamReader.next());
+        StringBuilder actual = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            assertEquals("key" + i, jsonStreamReader.nextKey());
+            assertEquals(JsonConstant.STRING, jsonStreamReader.next());
+            actual.append(jsonStreamReader.getString());
+        }
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals("last", jsonStreamReader.nextKey());
+        try {
+            jsonStreamReader.next();
+            fail("Expected a parse failure for an unterminated string");
+        } catch (JsonStreamParseException expectedException) {
+            assertEquals(2001, expectedException.line);
+        }
+    }
+
     /**
      * A convenience method to verify the functioning of JsonStreamReader. All
      * this method does is accepts a String, creates a stream with this and
@@ -31,6 +31,7 @@ import java.util.UUID;
 
 import org.auraframework.test.UnitTestCase;
 import org.auraframework.util.Utf8InputStreamReader;
+import org.auraframework.util.Utf8OutputStreamWriter;
 
 import com.google.common.base.Charsets;
 import com.google.common.collect.Lists;
@@ -173,6 +174,27 @@ public class JsonTest extends UnitTestCase {
         assertEquals("{\n", json.getAppendable().toString());
     }
 
+    public void testResetAbandonsPartialEntry() throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Utf8OutputStreamWriter out = new Utf8OutputStreamWriter(baos);
+        Json json = Json.createJsonStream(out, new DefaultJsonSerializationContext(false, false, false));
+        json.writeArrayBegin();
+        json.writeArrayEntry("a");
+
+        json.mark();
+        out.mark();
+        json.writeComma();
+        json.writeMapBegin();
+        json.writeMapEntry("half", "written");
+        out.reset();
+        json.reset();
+
+        json.writeArrayEntry("b");
+        json.writeArrayEnd();
+        out.close();
+        assertEquals("[\"a\",\"b\"]", new String(baos.toByteArray(), Charsets.UTF_8));
+    }
+
     private static class NoSerializerClass { public NoSerializerClass() { } };
 
     private static class NoSerializerContext extends DefaultJsonSerializationContext {
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.number;
+
+import java.util.Locale;
+
+import org.auraframework.test.UnitTestCase;
+import org.auraframework.util.number.NumberFormats.Style;
+
+import com.ibm.icu.text.NumberFormat;
+
+public class NumberFormatsTest extends UnitTestCase {
+
+    public void testGetKeepsFormatForThread() {
+        NumberFormat format = NumberFormats.get(Style.NUMBER, Locale.FRANCE);
+
+        assertSame(format, NumberFormats.get(Style.NUMBER, Locale.FRANCE));
+        assertNotSame(format, NumberFormats.get(Style.NUMBER, Locale.GERMANY));
+        assertNotSame(format, NumberFormats.get(Style.PERCENT, Locale.FRANCE));
+    }
+
+    public void testGetFormatsAsNewFormat() {
+        Locale[] locales = { Locale.US, Locale.FRANCE, Locale.JAPAN, new Locale("de", "CH") };
+        for (Locale locale : locales) {
+            assertEquals(NumberFormat.getNumberInstance(locale).format(1234567.891),
+                    NumberFormats.get(Style.NUMBER, locale).format(1234567.891));
+            assertEquals(NumberFormat.getPercentInstance(locale).format(0.256),
+                    NumberFormats.get(Style.PERCENT, locale).format(0.256));
+            assertEquals(NumberFormat.getCurrencyInstance(locale).format(-1234.5),
+                    NumberFormats.get(Style.CURRENCY, locale).format(-1234.5));
+        }
+    }
+
+    public void testCopyLeavesSharedFormat() {
+        NumberFormat copy = NumberFormats.copy(Style.NUMBER, Locale.US);
+        copy.setMinimumFractionDigits(4);
+
+        assertNotSame(copy, NumberFormats.get(Style.NUMBER, Locale.US));
+        assertEquals("1.5000", copy.format(1.5));
+        assertEquals("1.5", NumberFormats.get(Style.NUMBER, Locale.US).format(1.5));
+    }
+
+    public void testFormatsAreKeptPerThread() throws Exception {
+        final NumberFormat format = NumberFormats.get(Style.NUMBER, Locale.US);
+        final NumberFormat[] other = new NumberFormat[1];
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                other[0] = NumberFormats.get(Style.NUMBER, Locale.US);
+            }
+        };
+        thread.start();
+        thread.join();
+
+        assertNotNull(other[0]);
+        assertNotSame(format, other[0]);
+    }
+}
@@ -15,8 +15,26 @@
  */
 package org.auraframework.adapter;
 
+import org.auraframework.builder.CacheBuilder;
+
 /**
+ * A provider of cache implementations.
+ * 
+ * The caching service selects a provider for each cache by name, using the
+ * system property aura.cache.&lt;cacheName&gt;Provider, or
+ * aura.cache.defaultProvider for caches that are not configured individually.
  */
 public interface CacheAdapter extends AuraAdapter {
 
+    /**
+     * @return the name used to select this provider in configuration.
+     */
+    String getProviderName();
+
+    /**
+     * Provide a builder for a cache backed by this provider.
+     * 
+     * @return a new CacheBuilder whose build method creates a new cache.
+     */
+    <K, T> CacheBuilder<K, T> getCacheBuilder();
 }
@@ -74,6 +74,25 @@ public interface ContextAdapter extends AuraAdapter {
             Map<String, GlobalValueProvider> globalProviders,
             DefDescriptor<? extends BaseComponentDef> appDesc,
             boolean isDebugToolEnabled);
+
+    /**
+     * Build a context for doing work on another thread on behalf of an established context.
+     *
+     * The new context has the same settings, application and loaded set as the original, but its own
+     * registry and state, so that the two can be used at the same time. This must be called on the
+     * thread that owns the original.
+     *
+     * @param original the context to copy.
+     * @return the new context, which is not yet established.
+     */
+    AuraContext buildWorkerContext(AuraContext original);
+
+    /**
+     * Establish an existing context on this thread, e.g. one built by {@link #buildWorkerContext(AuraContext)}.
+     *
+     * @param context the context to establish.
+     */
+    void establish(AuraContext context);
     
     /**
      * is a context established in this thread?.
@@ -16,6 +16,7 @@
 package org.auraframework.builder;
 
 import org.auraframework.cache.Cache;
+import org.auraframework.cache.Weigher;
 
 public interface CacheBuilder<K, T> {
 
@@ -35,6 +36,25 @@ public interface CacheBuilder<K, T> {
 	 */
 	CacheBuilder<K, T> setMaximumSize(long maximumSize);
 
+	/**
+	 * Set a maximum total weight for the cache, before evictions occur. This
+	 * only applies when a weigher is also set, in which case it replaces the
+	 * maximum size as the eviction bound.
+	 * 
+	 * @param maximumWeight
+	 * @return the same CacheBuilder with this property set
+	 */
+	CacheBuilder<K, T> setMaximumWeight(long maximumWeight);
+
+	/**
+	 * Set the weigher used to compute the weight of each entry, for caches
+	 * bounded by weight rather than by number of entries.
+	 * 
+	 * @param weigher
+	 * @return the same CacheBuilder with this property set
+	 */
+	CacheBuilder<K, T> setWeigher(Weigher<K, T> weigher);
+
 	/**
 	 * Set true to hint the cache to use a non-memory storage strategy,
 	 * typically for large, stable objects.
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.cache;
+
+/**
+ * Calculates the weight of a cache entry, for caches bounded by total weight
+ * (typically an approximate size in bytes) rather than by number of entries.
+ */
+public interface Weigher<K, T> {
+
+	/**
+	 * Returns the weight of an entry. Weights are computed once, when the entry
+	 * is put in the cache, and must not be negative.
+	 * 
+	 * @param key the key being cached
+	 * @param value the value being cached
+	 * @return the weight of the entry
+	 */
+	int weigh(K key, T value);
+}
@@ -68,4 +68,11 @@ public interface ActionDef extends Definition {
      * get the parameters that can be logged.
      */
     List<String> getLoggableParams();
+
+    /**
+     * Can this action be run at the same time as the other actions in a request?
+     * 
+     * @return true if the action does not depend on the other actions it is sent with.
+     */
+    boolean isIndependent();
 }
@@ -17,7 +17,6 @@ package org.auraframework.http;
 
 import java.io.IOException;
 import java.io.StringWriter;
-import java.io.Writer;
 import java.net.URI;
 import java.util.Map;
 import java.util.Set;
@@ -43,6 +42,7 @@ import org.auraframework.service.DefinitionService;
 import org.auraframework.service.InstanceService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.MasterDefRegistry;
+import org.auraframework.system.ResourcePayload;
 import org.auraframework.throwable.ClientOutOfSyncException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 
@@ -292,11 +292,16 @@ public class AuraResourceServlet extends AuraBaseServlet {
     }
 
     private void writeCss(HttpServletRequest request, Set<DefDescriptor<?>> dependencies, AuraContext context,
-            Writer out) throws IOException, QuickFixException {
+            HttpServletResponse response) throws IOException, QuickFixException {
         if (isAppRequest(request)) {
-            Aura.getServerService().writeAppCss(dependencies, out);
+            ResourcePayload payload = Aura.getServerService().getAppCssPayload(dependencies);
+            if (payload != null) {
+                writePayload(request, response, payload);
+            } else {
+                Aura.getServerService().writeAppCss(dependencies, response.getWriter());
+            }
         } else {
-            Aura.getClientLibraryService().writeCss(context, out);
+            Aura.getClientLibraryService().writeCss(context, response.getWriter());
         }
     }
 
@@ -309,14 +314,77 @@ public class AuraResourceServlet extends AuraBaseServlet {
     }
 
     private void writeJs(HttpServletRequest request, Set<DefDescriptor<?>> dependencies, AuraContext context,
-            Writer out) throws IOException, QuickFixException {
+            HttpServletResponse response) throws IOException, QuickFixException {
         if (isAppRequest(request)) {
-            Aura.getServerService().writeDefinitions(dependencies, out);
+            ResourcePayload payload = Aura.getServerService().getDefinitionsPayload(dependencies);
+            if (payload != null) {
+                writePayload(request, response, payload);
+            } else {
+                Aura.getServerService().writeDefinitions(dependencies, response.getWriter());
+            }
         } else {
-            Aura.getClientLibraryService().writeJs(context, out);
+            Aura.getClientLibraryService().writeJs(context, response.getWriter());
         }
     }
 
+    /**
+     * Write out an encoded resource, gzipped if the client accepts it.
+     *
+     * The bytes go straight to the output stream, so nothing is re-encoded or re-compressed per request.
+     */
+    private void writePayload(HttpServletRequest request, HttpServletResponse response, ResourcePayload payload)
+            throws IOException {
+        byte[] bytes = payload.getBytes();
+        byte[] gzipBytes = payload.getGzipBytes();
+        if (gzipBytes != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsEncoding(request.getHeader(HttpHeaders.ACCEPT_ENCODING), ResourcePayload.GZIP)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, ResourcePayload.GZIP);
+                bytes = gzipBytes;
+            }
+        }
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    /**
+     * Check if an Accept-Encoding header allows a content coding.
+     *
+     * An entry for the coding itself wins over a '*' entry, and either is refused with a quality of zero.
+     *
+     * @param acceptEncoding the header value, may be null.
+     * @param coding the content coding (e.g. gzip).
+     * @return true if the coding may be used.
+     */
+    static boolean acceptsEncoding(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String name = parts[0].trim();
+            boolean acceptable = true;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        acceptable = Float.parseFloat(param.substring(2).trim()) > 0;
+                    } catch (NumberFormatException nfe) {
+                        acceptable = false;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase(coding)) {
+                return acceptable;
+            }
+            if (name.equals("*")) {
+                wildcard = acceptable;
+            }
+        }
+        return wildcard != null && wildcard;
+    }
+
     /**
      * Beyond from just writing the svg to the response, this function adds an etag
      * caching header to the response. This ensures the user has up to date version
@@ -420,10 +488,14 @@ public class AuraResourceServlet extends AuraBaseServlet {
             if (topLevel == null) {
                 return;
             }
+            // the payload goes to the output stream, so errors have to be written there too.
+            StreamingResponse cssResponse = new StreamingResponse(response);
             try {
-                writeCss(request, topLevel, context, response.getWriter());
+                writeCss(request, topLevel, context, cssResponse);
             } catch (Throwable t) {
-                handleServletException(t, true, context, request, response, true);
+                handleServletException(t, true, context, request, cssResponse, true);
+            } finally {
+                cssResponse.flushWriter();
             }
             break;
         case JS:
@@ -431,10 +503,14 @@ public class AuraResourceServlet extends AuraBaseServlet {
             if (topLevel == null) {
                 return;
             }
+            // the payload goes to the output stream, so errors have to be written there too.
+            StreamingResponse jsResponse = new StreamingResponse(response);
             try {
-                writeJs(request, topLevel, context, response.getWriter());
+                writeJs(request, topLevel, context, jsResponse);
             } catch (Throwable t) {
-                handleServletException(t, true, context, request, response, true);
+                handleServletException(t, true, context, request, jsResponse, true);
+            } finally {
+                jsResponse.flushWriter();
             }
             break;
         case JSON:
@@ -46,12 +46,14 @@ import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
 import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.system.Message;
+import org.auraframework.system.RequestTimer;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.ClientOutOfSyncException;
 import org.auraframework.throwable.NoAccessException;
 import org.auraframework.throwable.SystemErrorException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.AuraTextUtil;
+import org.auraframework.util.Utf8OutputStreamWriter;
 import org.auraframework.util.json.JsonReader;
 import org.auraframework.util.json.JsonStreamReader.JsonParseException;
 
@@ -276,8 +278,8 @@ public class AuraServlet extends AuraBaseServlet {
             } else {
                 setNoCache(response);
             }
-            loggingService.startTimer(LoggingService.TIMER_SERIALIZATION);
-            loggingService.startTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+            loggingService.startTimer(RequestTimer.SERIALIZATION);
+            loggingService.startTimer(RequestTimer.SERIALIZATION_AURA);
             // Prevents Mhtml Xss exploit:
             PrintWriter out = response.getWriter();
             out.write("\n    ");
@@ -286,8 +288,8 @@ public class AuraServlet extends AuraBaseServlet {
         } catch (Throwable e) {
             handleServletException(e, false, context, request, response, true);
         } finally {
-            loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION_AURA);
-            loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION);
+            loggingService.stopTimer(RequestTimer.SERIALIZATION_AURA);
+            loggingService.stopTimer(RequestTimer.SERIALIZATION);
         }
     }
 
@@ -333,6 +335,7 @@ public class AuraServlet extends AuraBaseServlet {
         AuraContext context = contextService.getCurrentContext();
         response.setCharacterEncoding(UTF_ENCODING);
         boolean written = false;
+        Utf8OutputStreamWriter out = null;
         setNoCache(response);
 
         try {
@@ -362,11 +365,11 @@ public class AuraServlet extends AuraBaseServlet {
 
             Message message;
 
-            loggingService.startTimer(LoggingService.TIMER_DESERIALIZATION);
+            loggingService.startTimer(RequestTimer.DESERIALIZATION);
             try {
                 message = serializationService.read(new StringReader(msg), Message.class);
             } finally {
-                loggingService.stopTimer(LoggingService.TIMER_DESERIALIZATION);
+                loggingService.stopTimer(RequestTimer.DESERIALIZATION);
             }
 
             // The bootstrap action cannot not have a CSRF token so we let it
@@ -419,7 +422,11 @@ public class AuraServlet extends AuraBaseServlet {
                 attributes.put("token", getToken());
             }
             
-            PrintWriter out = response.getWriter();
+            //
+            // Encode straight to the output stream, so that actions go out as they are written
+            // rather than being held as one big string.
+            //
+            out = new Utf8OutputStreamWriter(response.getOutputStream());
             written = true;
             out.write(CSRF_PROTECT);
             serverService.run(message, context, out, attributes);
@@ -432,7 +439,12 @@ public class AuraServlet extends AuraBaseServlet {
         } catch (JsonParseException jpe) {
             handleServletException(new SystemErrorException(jpe), false, context, request, response, false);
         } catch (Exception e) {
-            handleServletException(e, false, context, request, response, written);
+            handleServletException(e, false, context, request,
+                    out != null ? new StreamingResponse(response, out) : response, written);
+        } finally {
+            if (out != null) {
+                out.close();
+            }
         }
     }
 
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.auraframework.util.Utf8OutputStreamWriter;
+
+/**
+ * A response that can still give out a writer after the output stream has been taken.
+ *
+ * A servlet response only allows one of the two, so once we have written to the output stream, errors are written
+ * through our own writer over it.
+ */
+class StreamingResponse extends HttpServletResponseWrapper {
+    private ServletOutputStream stream;
+    private PrintWriter writer;
+
+    public StreamingResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    public StreamingResponse(HttpServletResponse response, Utf8OutputStreamWriter out) {
+        super(response);
+        this.writer = new PrintWriter(out);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (stream == null) {
+            stream = super.getOutputStream();
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream == null) {
+                return super.getWriter();
+            }
+            writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    /**
+     * Flush anything written through our own writer.
+     */
+    public void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.auraframework.service;
 
 import java.lang.ref.WeakReference;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
@@ -24,6 +25,7 @@ import org.auraframework.builder.CacheBuilder;
 import org.auraframework.cache.Cache;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.Definition;
+import org.auraframework.def.DescriptorFilter;
 import org.auraframework.system.*;
 import org.auraframework.system.SourceListener.SourceMonitorEvent;
 
@@ -50,6 +52,16 @@ public interface CachingService extends AuraService {
 	 */
     <K, T> CacheBuilder<K, T> getCacheBuilder();
 
+	/**
+	 * Provide a builder for a named cache, backed by whichever cache provider
+	 * is configured for that name.
+	 *
+	 * @param name - the name of the cache, also used to select its provider
+	 *
+	 * @return - A new cacheBuilder, with the name already set
+	 */
+    <K, T> CacheBuilder<K, T> getCacheBuilder(String name);
+
 	Cache<DefDescriptor<?>, Boolean> getExistsCache();
 
 	Cache<DefDescriptor<?>, Optional<? extends Definition>> getDefsCache();
@@ -60,18 +72,110 @@ public interface CachingService extends AuraService {
 
 	Cache<String, DependencyEntry> getDepsCache();
 
+	Cache<String, ResourcePayload> getResourcePayloadCache();
+
 	Cache<String, String> getClientLibraryOutputCache();
-    
+
     Cache<String, Set<String>>  getClientLibraryUrlsCache();
+
+	/**
+	 * The JSON of definitions sent to the client, by descriptor, own hash and
+	 * the state of the context that the JSON depends on. Since the JSON of a
+	 * definition includes the definitions it nests, this is dropped whenever
+	 * any source changes.
+	 */
+	Cache<String, String> getDefinitionJsonCache();
+
+	/**
+	 * The shells of bootstrap pages, by the template uid and the state of the
+	 * context and attributes the page was rendered with. A shell is the page
+	 * text alternating with the names of the attributes written between, so
+	 * it starts and ends with text. Since a template renders what it nests,
+	 * this is dropped whenever any source changes.
+	 */
+	Cache<String, List<String>> getTemplateShellCache();
 	
     Cache<DefDescriptor.DescriptorKey, DefDescriptor<? extends Definition>> getDefDescriptorByNameCache();
 
+	/**
+	 * Cache a dependency entry, indexed by every descriptor in its dependency
+	 * set so that it is only invalidated when one of those changes.
+	 *
+	 * @param key - the key in the dependency cache
+	 * @param de - the entry to cache
+	 */
+	void putDependencyEntry(String key, DependencyEntry de);
+
+	/**
+	 * Cache a string computed from the definitions in a dependency entry, so
+	 * that it is only invalidated when one of its dependencies changes.
+	 *
+	 * @param key - the key in the strings cache
+	 * @param de - the dependency entry the string was computed from
+	 * @param value - the string to cache
+	 */
+	void putDependentString(String key, DependencyEntry de, String value);
+
+	/**
+	 * Get an encoded resource computed from the definitions in a dependency
+	 * entry. If it is not in memory it is looked for in the persistent
+	 * payload store, if there is one.
+	 *
+	 * @param key - the key in the payload cache, which must include the uid of the entry
+	 * @param de - the dependency entry the resource was computed from
+	 * @return the encoded resource, or null if there is none
+	 */
+	ResourcePayload getDependentPayload(String key, DependencyEntry de);
+
+	/**
+	 * Cache an encoded resource computed from the definitions in a dependency
+	 * entry, so that it is only invalidated when one of its dependencies
+	 * changes. The payload cache is bounded by the bytes it holds, and the
+	 * payload is also written to the persistent payload store, if there is one.
+	 *
+	 * @param key - the key in the payload cache
+	 * @param de - the dependency entry the resource was computed from
+	 * @param payload - the encoded resource to cache
+	 */
+	void putDependentPayload(String key, DependencyEntry de, ResourcePayload payload);
+
+	/**
+	 * Cache the results of a find, so that they are only invalidated when a
+	 * descriptor matching the filter changes.
+	 *
+	 * @param key - the key in the descriptor filter cache
+	 * @param filter - the filter used for the find
+	 * @param results - the descriptors found
+	 */
+	void putDescriptorFilterResults(String key, DescriptorFilter filter, Set<DefDescriptor<?>> results);
+
+	/**
+	 * Invalidate the cached values that depend on the given descriptor,
+	 * taking the write lock. This must not be called while holding the read
+	 * lock.
+	 *
+	 * @param descriptor - the descriptor that changed, or null to invalidate everything
+	 */
+	void invalidateSourceRelatedCaches(DefDescriptor<?> descriptor);
+
     Lock getReadLock();
-	
+
 	Lock getWriteLock();
 	
 	void notifyDependentSourceChange(
 			Collection<WeakReference<SourceListener>> listeners,
 			DefDescriptor<?> source, SourceMonitorEvent event, String filePath);
 
+	/**
+	 * Notify listeners of a batch of source changes and invalidate the
+	 * cached values that depend on them, taking the write lock only once for
+	 * the whole batch.
+	 *
+	 * @param listeners - the listeners to notify of each change
+	 * @param changes - the changes
+	 */
+	void notifyDependentSourceChanges(
+			Collection<WeakReference<SourceListener>> listeners,
+			List<SourceChange> changes);
+
 }
\ No newline at end of file
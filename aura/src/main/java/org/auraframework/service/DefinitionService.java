@@ -15,6 +15,7 @@
  */
 package org.auraframework.service;
 
+import java.util.List;
 import java.util.Set;
 
 import org.auraframework.Aura;
@@ -23,6 +24,7 @@ import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.Definition;
 import org.auraframework.def.DescriptorFilter;
 import org.auraframework.system.MasterDefRegistry;
+import org.auraframework.system.SourceChange;
 import org.auraframework.system.SourceListener;
 import org.auraframework.throwable.ClientOutOfSyncException;
 import org.auraframework.throwable.quickfix.DefinitionNotFoundException;
@@ -179,4 +181,12 @@ public interface DefinitionService extends AuraService, SourceListener {
      * @param listener - which listener to unregister
      */
     void unsubscribeToChangeNotification(SourceListener listener);
+
+    /**
+     * Notify of a batch of changes to source, such as all the files touched by a checkout. Every listener sees each
+     * change, but caches are invalidated in one pass.
+     * 
+     * @param changes - the changes, at most one per file
+     */
+    void onSourceChanges(List<SourceChange> changes);
 }
@@ -20,6 +20,8 @@ import java.util.Map;
 import org.auraframework.Aura;
 import org.auraframework.system.LoggingContext;
 import org.auraframework.system.LoggingContext.KeyValueLogger;
+import org.auraframework.system.RequestCounter;
+import org.auraframework.system.RequestTimer;
 
 /**
  * <p>
@@ -34,6 +36,7 @@ public interface LoggingService extends AuraService {
     public static final String CMP_COUNT = "cmpCount";
     public static final String DEF_COUNT = "defCount";
     public static final String DEF_VISIT_COUNT = "defVisitCount";
+    public static final String COALESCED_COMPILE_COUNT = "coalescedCompileCount";
     public static final String DEF_DESCRIPTOR_COUNT = "defDescriptorCount";
     public static final String TIMER_DESERIALIZATION = "deSerialization";
     public static final String AURA_REQUEST_QUERY = "auraRequestQuery";
@@ -69,6 +72,15 @@ public interface LoggingService extends AuraService {
      * Start timers for an action.
      */
     void startAction(String actionName);
+
+    /**
+     * Start timers for an action, and record its time in the latency histogram
+     * for its descriptor when it stops.
+     *
+     * @param actionName the name the action is logged with, which may include its parameters
+     * @param descriptor the qualified name of the action's descriptor
+     */
+    void startAction(String actionName, String descriptor);
     
     /**
      * Stop all timers for an action
@@ -89,6 +101,20 @@ public interface LoggingService extends AuraService {
      */
     void stopTimer(String name);
 
+    /**
+     * Start a pre-registered timer, without looking it up by name.
+     *
+     * @param timer the timer
+     */
+    void startTimer(RequestTimer timer);
+
+    /**
+     * Stop a pre-registered timer, without looking it up by name.
+     *
+     * @param timer the timer
+     */
+    void stopTimer(RequestTimer timer);
+
     /**
      * Get the time for a specific timer.
      *
@@ -118,6 +144,13 @@ public interface LoggingService extends AuraService {
      */
     void incrementNum(String key);
 
+    /**
+     * Increase a pre-registered counter by one, without looking it up by name.
+     *
+     * @param counter the counter
+     */
+    void incrementNum(RequestCounter counter);
+
     /**
      * Increase the value.
      *
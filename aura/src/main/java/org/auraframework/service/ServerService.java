@@ -25,6 +25,7 @@ import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.SVGDef;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.Message;
+import org.auraframework.system.ResourcePayload;
 import org.auraframework.throwable.quickfix.QuickFixException;
 
 /**
@@ -68,6 +69,18 @@ public interface ServerService extends AuraService {
      */
     void writeAppCss(Set<DefDescriptor<?>> dependencies, Writer out) throws IOException, QuickFixException;
 
+    /**
+     * get the encoded CSS.
+     * 
+     * This gets the CSS for the preloads + app, encoded and compressed ready to send, from the cache if possible.
+     * 
+     * @return the encoded CSS, or null if the CSS can't be cached (and must be written with
+     *         {@link #writeAppCss(Set, Writer)}).
+     * @throws IOException if unable to serialize the CSS
+     * @throws QuickFixException if the definitions could not be compiled.
+     */
+    ResourcePayload getAppCssPayload(Set<DefDescriptor<?>> dependencies) throws IOException, QuickFixException;
+
     /**
      * write out SVG.
      * 
@@ -87,6 +100,19 @@ public interface ServerService extends AuraService {
      */
     void writeDefinitions(Set<DefDescriptor<?>> dependencies, Writer out) throws IOException, QuickFixException;
 
+    /**
+     * get the complete set of definitions in JS, encoded.
+     * 
+     * This gets the same JS as {@link #writeDefinitions(Set, Writer)}, encoded and compressed ready to send, from the
+     * cache if possible.
+     * 
+     * @return the encoded JS, or null if the JS can't be cached (and must be written with
+     *         {@link #writeDefinitions(Set, Writer)}).
+     * @throws IOException if unable to serialize the definitions
+     * @throws QuickFixException if the definitions could not be compiled.
+     */
+    ResourcePayload getDefinitionsPayload(Set<DefDescriptor<?>> dependencies) throws IOException, QuickFixException;
+
     /**
      * Write out a set of components in JSON.
      * 
@@ -46,6 +46,20 @@ public interface Annotations {
     public @interface CabooseAction {
     }
 
+    /**
+     * Marks a method as independent of the other actions sent with it, so that it may be run at the same time
+     * as they are when parallel action execution is turned on (aura.action.mode=parallel).
+     *
+     * An independent action runs with its own copy of the context. It must not depend on anything that other
+     * actions in the same request do, and only the application events it fires are returned to the request.
+     *
+     * The AuraEnabled annotation is still required to use this method as a server action.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    public @interface IndependentAction {
+    }
+
     @Retention(RetentionPolicy.RUNTIME)
     @Target(ElementType.METHOD)
     public @interface AuraEnabled {
@@ -25,6 +25,8 @@ import com.google.common.cache.CacheStats;
 public interface LoggingContext {
     
     void startAction(String actionName);
+
+    void startAction(String actionName, String descriptor);
     
     void stopAction(String actionName);
 
@@ -32,16 +34,28 @@ public interface LoggingContext {
 
     void stopTimer(String name);
 
+    void startTimer(RequestTimer timer);
+
+    void stopTimer(RequestTimer timer);
+
     long getTime(String name);
 
+    long getTime(RequestTimer timer);
+
     void resetTimer(String name);
 
     long getNum(String key);
 
+    long getNum(RequestCounter counter);
+
     void incrementNum(String key);
 
+    void incrementNum(RequestCounter counter);
+
     void incrementNumBy(String key, long num);
 
+    void incrementNumBy(RequestCounter counter, long num);
+
     void setNum(String key, long num);
 
     Object getValue(String name);
@@ -191,6 +191,37 @@ public interface MasterDefRegistry {
      */
     void putCachedString(String uid, DefDescriptor<?> descriptor, String key, String value);
 
+    /**
+     * Get a named encoded resource from the cache for a def.
+     *
+     * @param uid the UID for the definition (must have called {@link #getUid(String, DefDescriptor<?>)}).
+     * @param descriptor the descriptor.
+     * @param key the key.
+     */
+    ResourcePayload getCachedPayload(String uid, DefDescriptor<?> descriptor, String key);
+
+    /**
+     * Check if a named encoded resource for a def can be cached.
+     *
+     * Encoding a resource is only worth it if {@link #putCachedPayload(String, DefDescriptor, String, ResourcePayload)}
+     * will keep it.
+     *
+     * @param uid the UID for the definition (must have called {@link #getUid(String, DefDescriptor<?>)}).
+     * @param descriptor the descriptor.
+     * @return true if an encoded resource put in the cache would be kept.
+     */
+    boolean canCachePayload(String uid, DefDescriptor<?> descriptor);
+
+    /**
+     * Put a named encoded resource in the cache for a def.
+     *
+     * @param uid the UID for the definition (must have called {@link #getUid(String, DefDescriptor<?>)}).
+     * @param descriptor the descriptor.
+     * @param key the key (must be unique).
+     * @param payload the value to store.
+     */
+    void putCachedPayload(String uid, DefDescriptor<?> descriptor, String key, ResourcePayload payload);
+
     /**
      * Returns list of client libraries for given uid
      *
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.system;
+
+import java.util.Map;
+
+import org.auraframework.service.LoggingService;
+
+import com.google.common.collect.Maps;
+
+/**
+ * The counters every request may use, kept by a {@link LoggingContext} in arrays indexed by ordinal rather than looked
+ * up by name.
+ *
+ * Incrementing one of these by its name, through {@link LoggingService#incrementNum(String)}, uses the same counter.
+ */
+public enum RequestCounter {
+    CMP_COUNT(LoggingService.CMP_COUNT),
+    DEF_COUNT(LoggingService.DEF_COUNT),
+    DEF_VISIT_COUNT(LoggingService.DEF_VISIT_COUNT),
+    COALESCED_COMPILE_COUNT(LoggingService.COALESCED_COMPILE_COUNT),
+    DEF_DESCRIPTOR_COUNT(LoggingService.DEF_DESCRIPTOR_COUNT),
+    JAVA_CALL_COUNT("JavaCallCount");
+
+    private static final Map<String, RequestCounter> byName = Maps.newHashMap();
+
+    static {
+        for (RequestCounter counter : values()) {
+            byName.put(counter.name, counter);
+        }
+    }
+
+    private final String name;
+
+    private RequestCounter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the name the counter is logged with.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param name the name a counter is logged with.
+     * @return the counter with that name, or null if it is not one of these.
+     */
+    public static RequestCounter forName(String name) {
+        return byName.get(name);
+    }
+}
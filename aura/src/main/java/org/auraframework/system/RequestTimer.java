@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.system;
+
+import java.util.Map;
+
+import org.auraframework.service.LoggingService;
+
+import com.google.common.collect.Maps;
+
+/**
+ * The timers every request may use, kept by a {@link LoggingContext} in arrays indexed by ordinal rather than looked up
+ * by name.
+ *
+ * Starting or stopping one of these by its name, through {@link LoggingService#startTimer(String)}, uses the same
+ * timer.
+ */
+public enum RequestTimer {
+    AURA(LoggingService.TIMER_AURA),
+    TOTAL(LoggingService.TIMER_TOTAL),
+    JAVA("java"),
+    JAVASCRIPT("javascript"),
+    SERIALIZATION(LoggingService.TIMER_SERIALIZATION),
+    SERIALIZATION_AURA(LoggingService.TIMER_SERIALIZATION_AURA),
+    DESERIALIZATION(LoggingService.TIMER_DESERIALIZATION),
+    COMPONENT_CREATION(LoggingService.TIMER_COMPONENT_CREATION),
+    DEF_DESCRIPTOR_CREATION(LoggingService.TIMER_DEF_DESCRIPTOR_CREATION),
+    DEFINITION_CREATION(LoggingService.TIMER_DEFINITION_CREATION);
+
+    private static final Map<String, RequestTimer> byName = Maps.newHashMap();
+
+    static {
+        for (RequestTimer timer : values()) {
+            byName.put(timer.name, timer);
+        }
+    }
+
+    private final String name;
+
+    private RequestTimer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the name the timer is logged with.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param name the name a timer is logged with.
+     * @return the timer with that name, or null if it is not one of these.
+     */
+    public static RequestTimer forName(String name) {
+        return byName.get(name);
+    }
+}
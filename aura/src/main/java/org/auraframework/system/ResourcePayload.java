@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.system;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.auraframework.util.Utf8OutputStreamWriter;
+
+/**
+ * A resource (e.g. the JS or CSS for an app) encoded ready to send.
+ *
+ * This holds the UTF-8 bytes of the resource, and a gzipped copy when that is smaller, so that cached resources are
+ * encoded and compressed once rather than on every request.
+ *
+ * all values are final, and the arrays must not be modified.
+ */
+public class ResourcePayload {
+    public static final String GZIP = "gzip";
+
+    private final byte[] bytes;
+    private final byte[] gzipBytes;
+
+    /**
+     * Wrap an already encoded resource, e.g. one read back from disk.
+     *
+     * @param bytes the UTF-8 bytes of the resource.
+     * @param gzipBytes the gzipped bytes of the resource, or null if there are none.
+     */
+    public ResourcePayload(byte[] bytes, byte[] gzipBytes) {
+        this.bytes = bytes;
+        this.gzipBytes = gzipBytes;
+    }
+
+    /**
+     * Encode a resource.
+     *
+     * @param resource the text of the resource.
+     * @return the encoded resource.
+     */
+    public static ResourcePayload encode(CharSequence resource) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(resource.length());
+            Utf8OutputStreamWriter writer = new Utf8OutputStreamWriter(out);
+            writer.append(resource);
+            writer.close();
+            byte[] bytes = out.toByteArray();
+
+            out = new ByteArrayOutputStream(bytes.length / 4);
+            OutputStream gzip = new GZIPOutputStream(out) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            };
+            gzip.write(bytes);
+            gzip.close();
+            byte[] gzipBytes = out.size() < bytes.length ? out.toByteArray() : null;
+
+            return new ResourcePayload(bytes, gzipBytes);
+        } catch (IOException ioe) {
+            // can't happen, we only write to memory.
+            throw new IllegalStateException(ioe);
+        }
+    }
+
+    /**
+     * @return the UTF-8 bytes of the resource.
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the gzipped bytes of the resource, or null if gzip does not make it smaller.
+     */
+    public byte[] getGzipBytes() {
+        return gzipBytes;
+    }
+
+    /**
+     * @return the approximate number of bytes held.
+     */
+    public int getWeight() {
+        return bytes.length + (gzipBytes != null ? gzipBytes.length : 0);
+    }
+}
@@ -24,14 +24,32 @@ import java.nio.file.Path;
  */
 public class FileChangeEvent
 {
+    /**
+     * What happened to the file.
+     */
+    public enum Type {
+        CREATED, DELETED, CHANGED
+    }
+
     /**
      * The path object
      */
     private final Path path;
 
+    /**
+     * The type of change, if known.
+     */
+    private final Type type;
+
     public FileChangeEvent(final Path path)
+    {
+        this(path, null);
+    }
+
+    public FileChangeEvent(final Path path, final Type type)
     {
         this.path = path;
+        this.type = type;
     }
 
     /**
@@ -42,4 +60,13 @@ public class FileChangeEvent
     {
         return path;
     }
+
+    /**
+     * Returns what happened to the file.
+     * @return The type of change, or null if it was not given.
+     */
+    public Type getType()
+    {
+        return type;
+    }
 }
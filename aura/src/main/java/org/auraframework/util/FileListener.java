@@ -16,6 +16,8 @@
 
 package org.auraframework.util;
 
+import java.util.List;
+
 /**
  * Listens for changes to a file.  Similar interface to apache vfs2
  *
@@ -42,4 +44,11 @@ public interface FileListener
      * @throws Exception if an error occurs.
      */
     void fileChanged(FileChangeEvent event) throws Exception;
+
+    /**
+     * Called with a batch of changes, collected over a short time, so that they can be applied together.
+     * @param events The events, each with its type, and at most one for each file.
+     * @throws Exception if an error occurs.
+     */
+    void filesChanged(List<FileChangeEvent> events) throws Exception;
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.system;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import org.auraframework.test.UnitTestCase;
+
+public class ResourcePayloadTest extends UnitTestCase {
+    public ResourcePayloadTest(String name) {
+        super(name);
+    }
+
+    public void testEncodeUtf8() throws Exception {
+        String resource = "a\u00e9\u4e2d\ud83d\ude00";
+        ResourcePayload payload = ResourcePayload.encode(new StringBuilder(resource));
+
+        assertTrue(Arrays.equals(resource.getBytes("UTF-8"), payload.getBytes()));
+    }
+
+    public void testGzipRoundTrip() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append(".THIS .item").append(i).append(" { color: red; }\n");
+        }
+        ResourcePayload payload = ResourcePayload.encode(sb);
+
+        assertNotNull("Repetitive content should compress", payload.getGzipBytes());
+        assertTrue(payload.getGzipBytes().length < payload.getBytes().length);
+        assertEquals(payload.getBytes().length + payload.getGzipBytes().length, payload.getWeight());
+
+        InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload.getGzipBytes()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[1024];
+        int len;
+        while ((len = in.read(buf)) > 0) {
+            out.write(buf, 0, len);
+        }
+        in.close();
+        assertTrue(Arrays.equals(payload.getBytes(), out.toByteArray()));
+    }
+
+    public void testNoGzipWhenLarger() throws Exception {
+        ResourcePayload payload = ResourcePayload.encode("x");
+
+        assertNull(payload.getGzipBytes());
+        assertEquals(1, payload.getWeight());
+    }
+}
@@ -55,7 +55,13 @@ public class DummyHttpServletResponse implements HttpServletResponse {
 
     @Override
     public ServletOutputStream getOutputStream() throws IOException {
-        return null;
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        return new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+            }
+        };
     }
 
     @Override